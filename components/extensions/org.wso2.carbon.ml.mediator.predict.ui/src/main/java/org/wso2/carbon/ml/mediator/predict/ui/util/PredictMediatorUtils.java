@@ -27,11 +27,11 @@ import org.wso2.carbon.ml.core.exceptions.MLModelHandlerException;
 import org.wso2.carbon.ml.core.factories.DatasetType;
 import org.wso2.carbon.ml.core.impl.MLIOFactory;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.spark.models.MLModelSerializer;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.URISyntaxException;
 import java.util.List;
 
@@ -52,7 +52,7 @@ public class PredictMediatorUtils {
     private static MLModel retrieveModel(String modelStorageLocation) throws ClassNotFoundException,
             URISyntaxException, MLInputAdapterException, IOException {
 
-        ObjectInputStream ois = null;
+        InputStream in = null;
         try {
             String[] modelStorage = modelStorageLocation.split(SEPARATOR);
             String storageType = modelStorage[0];
@@ -67,13 +67,11 @@ public class PredictMediatorUtils {
             }
             MLIOFactory ioFactory = new MLIOFactory(MLCoreServiceValueHolder.getInstance().getMlProperties());
             MLInputAdapter inputAdapter = ioFactory.getInputAdapter(storageType + MLConstants.IN_SUFFIX);
-            InputStream in = inputAdapter.read(modelStorageLocation);
-            ois = new ObjectInputStream(in);
-            MLModel mlModel = (MLModel) ois.readObject();
-            return mlModel;
+            in = inputAdapter.read(modelStorageLocation);
+            return MLModelSerializer.readHeader(in);
         } finally {
-            if (ois != null) {
-                ois.close();
+            if (in != null) {
+                in.close();
             }
         }
 
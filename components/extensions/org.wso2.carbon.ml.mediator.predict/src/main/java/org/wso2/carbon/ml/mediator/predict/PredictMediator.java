@@ -31,12 +31,15 @@ import org.wso2.carbon.ml.core.exceptions.MLModelHandlerException;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class PredictMediator extends AbstractMediator {
 
     private String resultPropertyName;
     private Map<String, SynapsePath> featureMappings;
+    private Set<String> sharedFeatures;
     private String modelStorageLocation;
     private String percentile;
     private boolean isUpdated;
@@ -44,6 +47,7 @@ public class PredictMediator extends AbstractMediator {
 
     public PredictMediator() {
         featureMappings = new HashMap<String, SynapsePath>();
+        sharedFeatures = new HashSet<String>();
         isUpdated = false;
     }
 
@@ -79,10 +83,10 @@ public class PredictMediator extends AbstractMediator {
         String prediction;
         try {
             if (!isAnomalyDetection) {
-                prediction = ModelHandler.getInstance(modelStorageLocation, featureMappings, isUpdated)
+                prediction = ModelHandler.getInstance(modelStorageLocation, featureMappings, sharedFeatures, isUpdated)
                         .getPrediction(messageContext);
             } else {
-                prediction = ModelHandler.getInstance(modelStorageLocation, featureMappings, isUpdated)
+                prediction = ModelHandler.getInstance(modelStorageLocation, featureMappings, sharedFeatures, isUpdated)
                         .getPrediction(messageContext, percentile);
             }
             return prediction;
@@ -123,6 +127,15 @@ public class PredictMediator extends AbstractMediator {
         featureMappings.put(featureName, synapsePath);
     }
 
+    /**
+     * Declare a feature as shared by all the rows of a message carrying several rows
+     * @param featureName feature name
+     */
+    public void addSharedFeature(String featureName) {
+        this.isUpdated = true;
+        sharedFeatures.add(featureName);
+    }
+
     /**
      * Get the property name to which the prediction value is set
      * @return the message context property name to which the prediction value is set
@@ -139,6 +152,14 @@ public class PredictMediator extends AbstractMediator {
         return featureMappings;
     }
 
+    /**
+     * Get the names of the features shared by all the rows of a message
+     * @return the set of shared feature names
+     */
+    public Set<String> getSharedFeatures() {
+        return sharedFeatures;
+    }
+
     /**
      * Set model storage location
      * @param modelStorageLocation Path of the MLModel file
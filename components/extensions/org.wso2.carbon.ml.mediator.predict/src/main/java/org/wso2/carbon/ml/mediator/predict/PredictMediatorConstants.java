@@ -35,6 +35,7 @@ public class PredictMediatorConstants {
     public static final QName STORAGE_LOCATION_ATT = new QName("storage-location");
     public static final QName NAME_ATT = new QName("name");
     public static final QName EXPRESSION_ATT = new QName("expression");
+    public static final QName SHARED_ATT = new QName("shared");
     public static final QName PROPERTY_ATT = new QName("property");
     public static final QName VALUE_ATT = new QName("value");
 }
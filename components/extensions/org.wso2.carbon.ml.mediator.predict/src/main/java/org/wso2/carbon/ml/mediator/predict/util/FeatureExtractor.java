@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2015, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.mediator.predict.util;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.soap.SOAPBody;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.commons.json.JsonUtil;
+import org.apache.synapse.config.xml.SynapsePath;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.util.xpath.SynapseJsonPath;
+import org.apache.synapse.util.xpath.SynapseXPath;
+import org.jaxen.JaxenException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.core.exceptions.MLModelHandlerException;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts all the feature values of a message in a single pass over its payload.
+ * <p>
+ * The feature paths are compiled once into a tree of path steps. Simple XPath location paths of the form
+ * {@code $body/ns:a/ns:b} are resolved with one traversal of the SOAP body and simple JSON paths of the form
+ * {@code $.a.b} or {@code $.a[*].b} with one parse of the JSON payload. Any other expression is evaluated with
+ * its {@link SynapsePath} as before. When a path matches more than one value (repeated elements or JSON arrays),
+ * each value becomes a separate row, so that a single message can carry a batch of rows to be predicted. Features
+ * declared as shared match a single value, which is used by all the rows. Every other feature must match one value
+ * per row; a row not having a value of the feature gets the missing value placeholder, the same as an empty cell of
+ * a CSV row, so that the values of different rows are never combined into one row.
+ */
+public class FeatureExtractor {
+
+    private static final Log log = LogFactory.getLog(FeatureExtractor.class);
+
+    private static final String BODY_VARIABLE = "$body";
+    private static final String TEXT_STEP = "text()";
+    private static final String WILDCARD_INDEX = "[*]";
+    private static final Pattern XPATH_STEP = Pattern
+            .compile("([A-Za-z_][\\w.\\-]*:)?[A-Za-z_][\\w.\\-]*");
+    private static final Pattern JSON_STEP = Pattern.compile("[A-Za-z_$][\\w\\-$]*(\\[\\*\\])?|\\[\\*\\]");
+    private static final String MISSING_VALUE = MLConstants.MISSING_VALUES.EMPTY.toString();
+
+    private final int numberOfFeatures;
+    private final Set<Integer> sharedFeatureIndices;
+    private final List<Map<String, Integer>> encodings;
+    private final PathNode<QName> xmlRoot = new PathNode<QName>();
+    private final PathNode<String> jsonRoot = new PathNode<String>();
+    private final Map<SynapsePath, Integer> fallbackPaths = new HashMap<SynapsePath, Integer>();
+
+    /**
+     * Compile the feature paths
+     * @param featureIndexMap       Map containing pairs <synapse-path, feature-index>
+     * @param sharedFeatureIndices  indices of the features shared by all the rows of a message
+     * @param encodings             encodings of the model features, indexed by the feature index
+     */
+    public FeatureExtractor(Map<SynapsePath, Integer> featureIndexMap, Set<Integer> sharedFeatureIndices,
+            List<Map<String, Integer>> encodings) {
+        this.numberOfFeatures = featureIndexMap.size();
+        this.sharedFeatureIndices = sharedFeatureIndices;
+        this.encodings = encodings;
+        for (Map.Entry<SynapsePath, Integer> entry : featureIndexMap.entrySet()) {
+            SynapsePath synapsePath = entry.getKey();
+            int featureIndex = entry.getValue();
+            boolean compiled = false;
+            if (synapsePath instanceof SynapseJsonPath) {
+                compiled = compileJsonPath(synapsePath.getExpression(), featureIndex);
+            } else if (synapsePath instanceof SynapseXPath) {
+                compiled = compileXPath((SynapseXPath) synapsePath, featureIndex);
+            }
+            if (!compiled) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Feature path " + synapsePath.getExpression()
+                            + " cannot be compiled. It will be evaluated separately.");
+                }
+                fallbackPaths.put(synapsePath, featureIndex);
+            }
+        }
+    }
+
+    /**
+     * Extract the feature values of the message as encoded numeric rows
+     * @param messageContext    the incoming message context
+     * @return                  rows of feature values, ordered by the feature index
+     */
+    public double[][] extract(MessageContext messageContext) throws JaxenException, MLModelHandlerException {
+
+        List<List<String>> values = new ArrayList<List<String>>(numberOfFeatures);
+        for (int i = 0; i < numberOfFeatures; i++) {
+            values.add(new ArrayList<String>(1));
+        }
+
+        if (!xmlRoot.isEmpty()) {
+            SOAPBody body = messageContext.getEnvelope().getBody();
+            if (body != null) {
+                visitElement(body, xmlRoot, values);
+            }
+        }
+        if (!jsonRoot.isEmpty()) {
+            Object json = readJsonPayload(messageContext);
+            if (json != null) {
+                visitJson(json, jsonRoot, values);
+            }
+        }
+        for (Map.Entry<SynapsePath, Integer> entry : fallbackPaths.entrySet()) {
+            String variableValue = entry.getKey().stringValueOf(messageContext);
+            if (variableValue != null) {
+                values.get(entry.getValue()).add(variableValue);
+            }
+        }
+        return toRows(values);
+    }
+
+    /**
+     * Build the numeric rows from the extracted values, encoding the categorical features
+     * @param values extracted values of each feature
+     * @return rows of feature values
+     * @throws MLModelHandlerException if a feature is missing or the number of values does not match
+     */
+    private double[][] toRows(List<List<String>> values) throws MLModelHandlerException {
+
+        // the number of rows is decided by the features which are not shared
+        int numberOfRows = -1;
+        for (int featureIndex = 0; featureIndex < numberOfFeatures; featureIndex++) {
+            List<String> featureValues = values.get(featureIndex);
+            if (isMissing(featureValues)) {
+                throw new MLModelHandlerException("Value of the feature at index " + featureIndex
+                        + " could not be found in the message.");
+            }
+            if (sharedFeatureIndices.contains(featureIndex)) {
+                if (featureValues.size() != 1) {
+                    throw new MLModelHandlerException("Shared feature at index " + featureIndex + " has "
+                            + featureValues.size() + " values while a single value is expected.");
+                }
+            } else if (numberOfRows == -1) {
+                numberOfRows = featureValues.size();
+            } else if (featureValues.size() != numberOfRows) {
+                throw new MLModelHandlerException("Feature at index " + featureIndex + " has "
+                        + featureValues.size() + " values while the message contains " + numberOfRows + " rows.");
+            }
+        }
+        if (numberOfRows == -1) {
+            numberOfRows = 1;
+        }
+        double[][] rows = new double[numberOfRows][numberOfFeatures];
+        for (int featureIndex = 0; featureIndex < numberOfFeatures; featureIndex++) {
+            List<String> featureValues = values.get(featureIndex);
+            boolean shared = sharedFeatureIndices.contains(featureIndex);
+            Map<String, Integer> encoding = encodings != null && encodings.size() > featureIndex ? encodings
+                    .get(featureIndex) : null;
+            for (int row = 0; row < numberOfRows; row++) {
+                String value = shared ? featureValues.get(0) : featureValues.get(row);
+                rows[row][featureIndex] = toDouble(value, encoding, featureIndex, row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return true if none of the rows has a value of the feature
+     */
+    private static boolean isMissing(List<String> featureValues) {
+        for (String value : featureValues) {
+            if (!MISSING_VALUE.equals(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double toDouble(String value, Map<String, Integer> encoding, int featureIndex, int row)
+            throws MLModelHandlerException {
+        if (encoding != null && !encoding.isEmpty()) {
+            // if we found an unknown string, we encode it from 0th mapping, same as the BasicEncoder.
+            Integer code = encoding.get(value);
+            return code == null ? encoding.values().iterator().next() : code;
+        }
+        if (MISSING_VALUE.equals(value)) {
+            throw new MLModelHandlerException("Value of the feature at index " + featureIndex
+                    + " could not be found in row " + row + " of the message.");
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new MLModelHandlerException("Invalid numeric value " + value + " for the feature at index "
+                    + featureIndex, e);
+        }
+    }
+
+    private void visitElement(OMElement element, PathNode<QName> node, List<List<String>> values) {
+        for (int featureIndex : node.featureIndices) {
+            values.get(featureIndex).add(element.getText());
+        }
+        if (node.children.isEmpty()) {
+            return;
+        }
+        Set<QName> visited = new HashSet<QName>();
+        Iterator children = element.getChildElements();
+        while (children.hasNext()) {
+            OMElement child = (OMElement) children.next();
+            PathNode<QName> childNode = node.children.get(child.getQName());
+            if (childNode != null) {
+                visited.add(child.getQName());
+                visitElement(child, childNode, values);
+            }
+        }
+        for (Map.Entry<QName, PathNode<QName>> child : node.children.entrySet()) {
+            if (!visited.contains(child.getKey())) {
+                addMissingValues(child.getValue(), values);
+            }
+        }
+    }
+
+    private void visitJson(Object json, PathNode<String> node, List<List<String>> values) {
+        if (json instanceof JSONArray) {
+            // arrays are expanded into rows
+            JSONArray array = (JSONArray) json;
+            for (int i = 0; i < array.length(); i++) {
+                visitJson(array.opt(i), node, values);
+            }
+            return;
+        }
+        if (json == null || JSONObject.NULL.equals(json)) {
+            addMissingValues(node, values);
+            return;
+        }
+        for (int featureIndex : node.featureIndices) {
+            values.get(featureIndex).add(json.toString());
+        }
+        if (json instanceof JSONObject) {
+            JSONObject object = (JSONObject) json;
+            for (Map.Entry<String, PathNode<String>> child : node.children.entrySet()) {
+                if (object.has(child.getKey())) {
+                    visitJson(object.opt(child.getKey()), child.getValue(), values);
+                } else {
+                    addMissingValues(child.getValue(), values);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the missing value placeholder to the features of a path step and its children, which the current row does
+     * not have. Shared features are not a part of the rows, hence they are left as they are.
+     */
+    private <K> void addMissingValues(PathNode<K> node, List<List<String>> values) {
+        for (int featureIndex : node.featureIndices) {
+            if (!sharedFeatureIndices.contains(featureIndex)) {
+                values.get(featureIndex).add(MISSING_VALUE);
+            }
+        }
+        for (PathNode<K> child : node.children.values()) {
+            addMissingValues(child, values);
+        }
+    }
+
+    private Object readJsonPayload(MessageContext messageContext) throws MLModelHandlerException {
+        org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) messageContext)
+                .getAxis2MessageContext();
+        if (!JsonUtil.hasAJsonPayload(axis2MessageContext)) {
+            return null;
+        }
+        try {
+            return new JSONTokener(JsonUtil.jsonPayloadToString(axis2MessageContext)).nextValue();
+        } catch (JSONException e) {
+            throw new MLModelHandlerException("Failed to parse the JSON payload of the message.", e);
+        }
+    }
+
+    /**
+     * Compile a simple XPath location path relative to the SOAP body
+     * @return true if the path could be compiled
+     */
+    private boolean compileXPath(SynapseXPath synapsePath, int featureIndex) {
+        String expression = synapsePath.getExpression().trim();
+        if (!expression.startsWith(BODY_VARIABLE + "/")) {
+            return false;
+        }
+        String[] steps = expression.substring(BODY_VARIABLE.length() + 1).split("/");
+        int numberOfSteps = steps.length;
+        if (numberOfSteps > 0 && TEXT_STEP.equals(steps[numberOfSteps - 1])) {
+            numberOfSteps--;
+        }
+        if (numberOfSteps == 0) {
+            return false;
+        }
+        Map namespaces = synapsePath.getNamespaces();
+        List<QName> qNames = new ArrayList<QName>(numberOfSteps);
+        for (int i = 0; i < numberOfSteps; i++) {
+            String step = steps[i];
+            if (!XPATH_STEP.matcher(step).matches()) {
+                return false;
+            }
+            int separator = step.indexOf(':');
+            if (separator < 0) {
+                qNames.add(new QName(step));
+            } else {
+                Object namespace = namespaces.get(step.substring(0, separator));
+                if (namespace == null) {
+                    return false;
+                }
+                qNames.add(new QName(namespace.toString(), step.substring(separator + 1)));
+            }
+        }
+        PathNode<QName> node = xmlRoot;
+        for (QName qName : qNames) {
+            node = node.child(qName);
+        }
+        node.featureIndices.add(featureIndex);
+        return true;
+    }
+
+    /**
+     * Compile a simple JSON path consisting of member names and wildcard array indices
+     * @return true if the path could be compiled
+     */
+    private boolean compileJsonPath(String expression, int featureIndex) {
+        expression = expression.trim();
+        if (!expression.startsWith("$.") && !expression.startsWith("$[")) {
+            return false;
+        }
+        String[] steps = expression.substring(expression.charAt(1) == '.' ? 2 : 1).split("\\.");
+        List<String> names = new ArrayList<String>(steps.length);
+        for (String step : steps) {
+            if (!JSON_STEP.matcher(step).matches()) {
+                return false;
+            }
+            // arrays are always expanded while visiting, hence wildcard indices need no node of their own
+            String name = step.endsWith(WILDCARD_INDEX) ? step.substring(0, step.length() - WILDCARD_INDEX.length())
+                    : step;
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            return false;
+        }
+        PathNode<String> node = jsonRoot;
+        for (String name : names) {
+            node = node.child(name);
+        }
+        node.featureIndices.add(featureIndex);
+        return true;
+    }
+
+    /**
+     * A step of the compiled feature paths.
+     */
+    private static class PathNode<K> {
+
+        private final Map<K, PathNode<K>> children = new HashMap<K, PathNode<K>>();
+        private final List<Integer> featureIndices = new ArrayList<Integer>(1);
+
+        private PathNode<K> child(K key) {
+            PathNode<K> child = children.get(key);
+            if (child == null) {
+                child = new PathNode<K>();
+                children.put(key, child);
+            }
+            return child;
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && featureIndices.isEmpty();
+        }
+    }
+}
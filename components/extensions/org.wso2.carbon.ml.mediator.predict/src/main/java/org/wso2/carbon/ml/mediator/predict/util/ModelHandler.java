@@ -21,7 +21,6 @@ package org.wso2.carbon.ml.mediator.predict.util;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.config.xml.SynapsePath;
 import org.jaxen.JaxenException;
-import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.domain.Feature;
 import org.wso2.carbon.ml.commons.domain.MLModel;
 import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
@@ -31,11 +30,11 @@ import org.wso2.carbon.ml.core.factories.DatasetType;
 import org.wso2.carbon.ml.core.impl.MLIOFactory;
 import org.wso2.carbon.ml.core.impl.Predictor;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.spark.models.MLModelSerializer;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.URISyntaxException;
 import java.util.*;
 
@@ -44,55 +43,67 @@ public class ModelHandler {
     public static final String REGISTRY_STORAGE_PREFIX = "registry";
     public static final String FILE_STORAGE_PREFIX = "file";
     public static final String PATH_TO_GOVERNANCE_REGISTRY = "/_system/governance";
+    public static final String PREDICTION_SEPARATOR = ",";
 
     private static ModelHandler instance;
 
     private long modelId;
     private Map<SynapsePath, Integer> featureIndexMap;
     private MLModel mlModel;
+    private FeatureExtractor featureExtractor;
 
-    private ModelHandler(String modelStorageLocation, Map<String, SynapsePath> featureMappings)
-            throws IOException, ClassNotFoundException, URISyntaxException, MLInputAdapterException {
-        initializeModel(modelStorageLocation, featureMappings);
+    private ModelHandler(String modelStorageLocation, Map<String, SynapsePath> featureMappings,
+            Set<String> sharedFeatures) throws IOException, ClassNotFoundException, URISyntaxException,
+            MLInputAdapterException {
+        initializeModel(modelStorageLocation, featureMappings, sharedFeatures);
     }
 
     /**
      * Get the ModelHandler instance
      * @param storageLocation   storage location of the ML-model
      * @param featureMappings   Map containing pairs <feature-name, synapse-path>
+     * @param sharedFeatures    names of the features shared by all the rows of a message
      * @return ModelHandler instance
      */
-    public static ModelHandler getInstance(String storageLocation, Map<String, SynapsePath> featureMappings, boolean isUpdated)
+    public static ModelHandler getInstance(String storageLocation, Map<String, SynapsePath> featureMappings,
+            Set<String> sharedFeatures, boolean isUpdated)
             throws ClassNotFoundException, IOException, URISyntaxException, MLInputAdapterException {
         if(instance == null || isUpdated) {
-            instance = new ModelHandler(storageLocation, featureMappings);
+            instance = new ModelHandler(storageLocation, featureMappings, sharedFeatures);
         }
         return instance;
     }
 
     /**
-     * Deserialize the ML model and map the feature indices with the xpath/json-path expressions
+     * Deserialize the ML model, map the feature indices with the xpath/json-path expressions and compile them
      * @param modelStorageLocation path to MLModel
      * @param inputVariables Map containing the key- value pairs <feature-name, xpath/json-path-expression-to-extract-feature-value>
+     * @param sharedFeatures names of the features shared by all the rows of a message
      * @throws IOException
      * @throws ClassNotFoundException
      * @throws URISyntaxException
      * @throws MLInputAdapterException
      */
-    private void initializeModel(String modelStorageLocation, Map<String, SynapsePath> inputVariables)
+    private void initializeModel(String modelStorageLocation, Map<String, SynapsePath> inputVariables,
+            Set<String> sharedFeatures)
             throws IOException, ClassNotFoundException, URISyntaxException, MLInputAdapterException {
 
         mlModel = retrieveModel(modelStorageLocation);
 
         featureIndexMap = new HashMap<SynapsePath, Integer>();
+        Set<Integer> sharedFeatureIndices = new HashSet<Integer>();
         List<Feature> features = mlModel.getFeatures();
         List<Integer> newToOldIndicesList = mlModel.getNewToOldIndicesList();
         for(Feature feature : features) {
             if(inputVariables.get(feature.getName()) != null) {
                 int newFeatureIndex = newToOldIndicesList.indexOf(feature.getIndex());
                 featureIndexMap.put(inputVariables.get(feature.getName()), newFeatureIndex);
+                if (sharedFeatures.contains(feature.getName())) {
+                    sharedFeatureIndices.add(newFeatureIndex);
+                }
             }
         }
+        featureExtractor = new FeatureExtractor(featureIndexMap, sharedFeatureIndices, mlModel.getEncodings());
    }
 
     /**
@@ -116,90 +127,62 @@ public class ModelHandler {
             storageType = DatasetType.FILE.getValue();
         }
         MLIOFactory ioFactory = new MLIOFactory(MLCoreServiceValueHolder.getInstance().getMlProperties());
-        MLInputAdapter inputAdapter = ioFactory.getInputAdapter(storageType + MLConstants.IN_SUFFIX);
+        MLInputAdapter inputAdapter = ioFactory.getModelInputAdapter(storageType);
         InputStream in = inputAdapter.read(modelStorageLocation);
-        ObjectInputStream ois = new ObjectInputStream(in);
-        MLModel mlModel = (MLModel) ois.readObject();
-        ois.close();
-        return mlModel;
+        try {
+            return MLModelSerializer.readLazily(in);
+        } finally {
+            in.close();
+        }
     }
 
     /**
      * Get the predicted value for the given input features using the ML-Model
      * @param messageContext    the incoming message context
-     * @return                  the predicted value as String
+     * @return                  the predicted value as String, comma separated if the message carries several rows
      */
     public String getPrediction(MessageContext messageContext) throws MLModelBuilderException, JaxenException,
             MLModelHandlerException {
 
-        String data[] = new String[featureIndexMap.size()];
-        for(Map.Entry<SynapsePath, Integer> entry : featureIndexMap.entrySet()) {
-
-            SynapsePath synapsePath = entry.getKey();
-            // Extract the feature value from the message
-            String variableValue = synapsePath.stringValueOf(messageContext);
-            if(variableValue != null) {
-                // Get the mapping feature index of the ML-model
-                int featureIndex = entry.getValue();
-                data[featureIndex] = variableValue;
-            }
-        }
-        return predict(data);
+        double[][] data = featureExtractor.extract(messageContext);
+        return predict(data, 0.0);
     }
 
     /**
      * Get the predicted value for the given input features using the ML-Model
      * @param messageContext the incoming message context
      * @param percentile percentile value
-     * @return the predicted value as String
+     * @return the predicted value as String, comma separated if the message carries several rows
      */
     public String getPrediction(MessageContext messageContext, String percentile)
             throws MLModelBuilderException, JaxenException, MLModelHandlerException {
 
-        String data[] = new String[featureIndexMap.size()];
-        for (Map.Entry<SynapsePath, Integer> entry : featureIndexMap.entrySet()) {
-
-            SynapsePath synapsePath = entry.getKey();
-            // Extract the feature value from the message
-            String variableValue = synapsePath.stringValueOf(messageContext);
-            if (variableValue != null) {
-                // Get the mapping feature index of the ML-model
-                int featureIndex = entry.getValue();
-                data[featureIndex] = variableValue;
-            }
-        }
+        double[][] data = featureExtractor.extract(messageContext);
         double percentileValue = Double.parseDouble(percentile);
         return predict(data, percentileValue);
     }
 
     /**
-     * Predict the value using the feature values
-     * @param data  feature values array
-     * @return      predicted value as String
-     * @throws MLModelHandlerException 
-     */
-    private String predict(String[] data) throws MLModelHandlerException {
-
-        List<String[]> list = new ArrayList<String[]>();
-        list.add(data);
-        Predictor predictor = new Predictor(modelId, mlModel, list);
-        List<?> predictions = predictor.predict();
-        return predictions.get(0).toString();
-    }
-
-    /**
-     * Predict the value using the feature values (anomaly detection models)
-     * @param data feature values array
-     * @param percentile percentile value
-     * @return predicted value as String
+     * Predict the values using the encoded feature values
+     * @param data          rows of encoded feature values
+     * @param percentile    percentile value (anomaly detection models)
+     * @return              predicted values as a comma separated String
      * @throws MLModelHandlerException
      */
-    private String predict(String[] data, double percentile) throws MLModelHandlerException {
+    private String predict(double[][] data, double percentile) throws MLModelHandlerException {
 
-        List<String[]> list = new ArrayList<String[]>();
-        list.add(data);
-        Predictor predictor = new Predictor(modelId, mlModel, list, percentile, false);
+        Predictor predictor = new Predictor(modelId, mlModel, data, percentile, false);
         List<?> predictions = predictor.predict();
-        return predictions.get(0).toString();
+        if (predictions.size() == 1) {
+            return predictions.get(0).toString();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Object prediction : predictions) {
+            if (builder.length() > 0) {
+                builder.append(PREDICTION_SEPARATOR);
+            }
+            builder.append(prediction);
+        }
+        return builder.toString();
     }
 }
@@ -97,6 +97,10 @@ public class PredictMediatorFactory extends AbstractMediatorFactory {
                         }
                     }
                     predictMediator.addFeatureMapping(featureName, synapsePath);
+                    String shared = getAttributeValue(featureElement, PredictMediatorConstants.SHARED_ATT);
+                    if (Boolean.parseBoolean(shared)) {
+                        predictMediator.addSharedFeature(featureName);
+                    }
                 }
             }
         } else {
@@ -37,7 +37,7 @@ public class PredictMediatorSerializer extends AbstractMediatorSerializer {
      *  <predict>
      *       <model storage-location="string"/>
      *       <features>
-     *           <feature name="string" expression="xpath|json-path"/>+
+     *           <feature name="string" expression="xpath|json-path" [shared="true|false"]/>+
      *       </features>
      *       <predictionOutput property="string"/>
      *   </predict>
@@ -77,6 +77,10 @@ public class PredictMediatorSerializer extends AbstractMediatorSerializer {
             OMElement feature = fac.createOMElement(PredictMediatorConstants.FEATURE_QNAME.getLocalPart(), synNS);
             feature.addAttribute(fac.createOMAttribute(PredictMediatorConstants.NAME_ATT.getLocalPart(), nullNS, featureName));
             SynapsePathSerializer.serializePath(expression, feature, PredictMediatorConstants.EXPRESSION_ATT.getLocalPart());
+            if (predictMediator.getSharedFeatures().contains(featureName)) {
+                feature.addAttribute(fac.createOMAttribute(PredictMediatorConstants.SHARED_ATT.getLocalPart(), nullNS,
+                        Boolean.TRUE.toString()));
+            }
             features.addChild(feature);
         }
         predictElement.addChild(features);
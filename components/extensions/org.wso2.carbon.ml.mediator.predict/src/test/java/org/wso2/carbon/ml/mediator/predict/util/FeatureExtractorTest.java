@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.mediator.predict.util;
+
+import junit.framework.TestCase;
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.commons.json.JsonUtil;
+import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.config.xml.SynapsePath;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
+import org.apache.synapse.util.xpath.SynapseJsonPath;
+import org.wso2.carbon.ml.core.exceptions.MLModelHandlerException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FeatureExtractorTest extends TestCase {
+
+    public void testRecordsMissingDifferentFeatures() throws Exception {
+
+        // each record misses a different feature, hence their values must not be combined into one row
+        FeatureExtractor featureExtractor = createFeatureExtractor();
+        double[][] rows = featureExtractor.extract(createMessageContext(
+                "{\"rows\": [{\"colour\": \"blue\"}, {\"size\": \"large\"}]}"));
+
+        assertEquals(2, rows.length);
+        assertEquals(1.0, rows[0][0]);
+        // the missing categorical values are encoded as unknown values
+        assertEquals(0.0, rows[0][1]);
+        assertEquals(0.0, rows[1][0]);
+        assertEquals(1.0, rows[1][1]);
+    }
+
+    public void testFeatureMissingInAllRecords() throws Exception {
+
+        FeatureExtractor featureExtractor = createFeatureExtractor();
+        try {
+            featureExtractor.extract(createMessageContext(
+                    "{\"rows\": [{\"colour\": \"blue\"}, {\"colour\": \"red\", \"size\": null}]}"));
+            fail("A feature missing in all the records should be rejected.");
+        } catch (MLModelHandlerException e) {
+            assertTrue(e.getMessage().contains("index 1"));
+        }
+    }
+
+    private static FeatureExtractor createFeatureExtractor() throws Exception {
+
+        Map<SynapsePath, Integer> featureIndexMap = new HashMap<SynapsePath, Integer>();
+        featureIndexMap.put(new SynapseJsonPath("$.rows[*].colour"), 0);
+        featureIndexMap.put(new SynapseJsonPath("$.rows[*].size"), 1);
+        List<Map<String, Integer>> encodings = new ArrayList<Map<String, Integer>>();
+        encodings.add(createEncoding("red", "blue"));
+        encodings.add(createEncoding("small", "large"));
+        return new FeatureExtractor(featureIndexMap, Collections.<Integer>emptySet(), encodings);
+    }
+
+    private static Map<String, Integer> createEncoding(String... values) {
+
+        Map<String, Integer> encoding = new LinkedHashMap<String, Integer>();
+        for (int i = 0; i < values.length; i++) {
+            encoding.put(values[i], i);
+        }
+        return encoding;
+    }
+
+    private static MessageContext createMessageContext(String json) throws Exception {
+
+        SynapseConfiguration synCfg = new SynapseConfiguration();
+        AxisConfiguration config = new AxisConfiguration();
+        MessageContext messageContext =
+                new Axis2MessageContext(new org.apache.axis2.context.MessageContext(), synCfg,
+                        new Axis2SynapseEnvironment(new ConfigurationContext(config), synCfg));
+        org.apache.axis2.context.MessageContext axis2MessageContext =
+                ((Axis2MessageContext) messageContext).getAxis2MessageContext();
+        axis2MessageContext.setConfigurationContext(new ConfigurationContext(config));
+        messageContext.setEnvelope(OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope());
+        JsonUtil.newJsonPayload(axis2MessageContext, json, true, true);
+        return messageContext;
+    }
+}
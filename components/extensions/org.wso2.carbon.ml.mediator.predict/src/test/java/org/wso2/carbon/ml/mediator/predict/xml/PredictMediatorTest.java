@@ -28,6 +28,7 @@ import org.apache.axis2.AxisFault;
 import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.synapse.MessageContext;
+import org.apache.synapse.SynapseException;
 import org.apache.synapse.config.SynapseConfigUtils;
 import org.apache.synapse.config.SynapseConfiguration;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
@@ -35,6 +36,7 @@ import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
 import org.wso2.carbon.ml.mediator.predict.PredictMediator;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
+import javax.xml.namespace.QName;
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -151,6 +153,107 @@ public class PredictMediatorTest extends TestCase{
         assertEquals("0", messageContext.getProperty("result"));
     }
 
+    public void testBatchMediation() throws AxisFault {
+
+        MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
+        valueHolder.setMlProperties(new Properties());
+
+        OMElement mediatorElement = SynapseConfigUtils.stringToOM(xml);
+        PredictMediatorFactory factory = new PredictMediatorFactory();
+        PredictMediator mediator =
+                (PredictMediator) factory.createSpecificMediator(mediatorElement, new Properties());
+
+        SynapseConfiguration synCfg = new SynapseConfiguration();
+        AxisConfiguration config = new AxisConfiguration();
+        MessageContext messageContext =
+                new Axis2MessageContext(new org.apache.axis2.context.MessageContext(), synCfg,
+                        new Axis2SynapseEnvironment(new ConfigurationContext(config),synCfg));
+        ((Axis2MessageContext) messageContext).getAxis2MessageContext().setConfigurationContext(new ConfigurationContext(config));
+        SOAPEnvelope envelope = OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope();
+        messageContext.setEnvelope(envelope);
+
+        // repeated feature elements are predicted as separate rows
+        OMFactory fac = OMAbstractFactory.getOMFactory();
+        OMNamespace omNs = fac.createOMNamespace("http://ws.apache.org/axis2", "ns");
+        OMElement parent = fac.createOMElement("getPrediction", omNs);
+        for (int i = 0; i < 3; i++) {
+            OMElement features = fac.createOMElement("features", omNs);
+            addFeatureValues(features);
+            parent.addChild(features);
+        }
+        messageContext.getEnvelope().getBody().addChild(parent);
+        mediator.mediate(messageContext);
+        assertEquals("0,0,0", messageContext.getProperty("result"));
+    }
+
+    public void testBatchMediationWithSharedFeature() throws AxisFault {
+
+        MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
+        valueHolder.setMlProperties(new Properties());
+
+        String sharedXml = xml.replace("name=\"Age\"", "name=\"Age\" shared=\"true\"");
+        OMElement mediatorElement = SynapseConfigUtils.stringToOM(sharedXml);
+        PredictMediatorFactory factory = new PredictMediatorFactory();
+        PredictMediator mediator =
+                (PredictMediator) factory.createSpecificMediator(mediatorElement, new Properties());
+        assertTrue(mediator.getSharedFeatures().contains("Age"));
+        assertEquals(1, mediator.getSharedFeatures().size());
+
+        // the shared feature is given once and used by all the rows
+        MessageContext messageContext = createBatchMessageContext();
+        mediator.mediate(messageContext);
+        assertEquals("0,0,0", messageContext.getProperty("result"));
+    }
+
+    public void testBatchMediationWithUndeclaredSingleValue() throws AxisFault {
+
+        MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
+        valueHolder.setMlProperties(new Properties());
+
+        OMElement mediatorElement = SynapseConfigUtils.stringToOM(xml);
+        PredictMediatorFactory factory = new PredictMediatorFactory();
+        PredictMediator mediator =
+                (PredictMediator) factory.createSpecificMediator(mediatorElement, new Properties());
+
+        // a feature with a single value is not broadcast to the rows unless it is declared shared
+        MessageContext messageContext = createBatchMessageContext();
+        try {
+            mediator.mediate(messageContext);
+            fail("A feature with a single value in a batch of rows should be rejected.");
+        } catch (SynapseException e) {
+            assertNull(messageContext.getProperty("result"));
+        }
+    }
+
+    /**
+     * Create a message context carrying three rows, where the Age feature is given only in the first row.
+     */
+    private static MessageContext createBatchMessageContext() throws AxisFault {
+
+        SynapseConfiguration synCfg = new SynapseConfiguration();
+        AxisConfiguration config = new AxisConfiguration();
+        MessageContext messageContext =
+                new Axis2MessageContext(new org.apache.axis2.context.MessageContext(), synCfg,
+                        new Axis2SynapseEnvironment(new ConfigurationContext(config),synCfg));
+        ((Axis2MessageContext) messageContext).getAxis2MessageContext().setConfigurationContext(new ConfigurationContext(config));
+        SOAPEnvelope envelope = OMAbstractFactory.getSOAP11Factory().getDefaultEnvelope();
+        messageContext.setEnvelope(envelope);
+
+        OMFactory fac = OMAbstractFactory.getOMFactory();
+        OMNamespace omNs = fac.createOMNamespace("http://ws.apache.org/axis2", "ns");
+        OMElement parent = fac.createOMElement("getPrediction", omNs);
+        for (int i = 0; i < 3; i++) {
+            OMElement features = fac.createOMElement("features", omNs);
+            addFeatureValues(features);
+            if (i > 0) {
+                features.getFirstChildWithName(new QName("http://ws.apache.org/axis2", "Age")).detach();
+            }
+            parent.addChild(features);
+        }
+        messageContext.getEnvelope().getBody().addChild(parent);
+        return messageContext;
+    }
+
     private static void addFeatureValues(OMElement features) {
 
         String namespace = "http://ws.apache.org/axis2";
@@ -18,14 +18,12 @@ package org.wso2.carbon.ml.siddhi.extension;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.domain.Feature;
 import org.wso2.carbon.ml.commons.domain.MLModel;
 import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
@@ -35,6 +33,7 @@ import org.wso2.carbon.ml.core.h2o.POJOPredictor;
 import org.wso2.carbon.ml.core.impl.MLIOFactory;
 import org.wso2.carbon.ml.core.impl.Predictor;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.spark.models.MLModelSerializer;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 public class ModelHandler {
@@ -87,12 +86,13 @@ public class ModelHandler {
         }
 
         MLIOFactory ioFactory = new MLIOFactory(MLCoreServiceValueHolder.getInstance().getMlProperties());
-        MLInputAdapter inputAdapter = ioFactory.getInputAdapter(storageType + MLConstants.IN_SUFFIX);
+        MLInputAdapter inputAdapter = ioFactory.getModelInputAdapter(storageType);
         InputStream in = inputAdapter.read(modelStorageLocation);
-        ObjectInputStream ois = new ObjectInputStream(in);
-        MLModel mlModel = (MLModel) ois.readObject();
-        ois.close();
-        return mlModel;
+        try {
+            return MLModelSerializer.readLazily(in);
+        } finally {
+            in.close();
+        }
 
     }
 
@@ -142,6 +142,9 @@ public class MLConstants {
     public static final String TSV = ".tsv";
     public static final String IN_SUFFIX = ".in";
     public static final String OUT_SUFFIX = ".out";
+    public static final String COMPRESSION_SUFFIX = ".compression";
+    public static final String CHECKSUM_SUFFIX = ".crc32";
+    public static final String COLUMNAR_DATASET_SUFFIX = ".parquet";
 
     // hyper-parameter names
     public static final String LEARNING_RATE = "Learning_Rate";
@@ -0,0 +1,496 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.commons.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+
+/**
+ * Statistics of a single column of a dataset, calculated in one pass over its cells. Statistics of different parts of
+ * the column can be merged, so that a dataset can be summarized with a single Spark aggregation.
+ * <ul>
+ * <li>cell counts, min, max, mean, variance and skewness are exact</li>
+ * <li>quantiles and histograms are estimated from a uniform sample of the numerical cells, and are exact as long as
+ * the column has no more numerical cells than the sample size</li>
+ * <li>categories are counted with the Misra-Gries algorithm, which keeps the exact frequency of every category as long
+ * as the column has no more than twice the given number of categories</li>
+ * <li>distinct values are counted exactly along with the categories, and estimated with HyperLogLog beyond that</li>
+ * </ul>
+ */
+public class ColumnStatistics implements Serializable {
+
+    private static final long serialVersionUID = -2755187620497613624L;
+    // The HyperLogLog sketch has 2^HLL_PRECISION registers, with a standard error of 1.04 / sqrt(2^HLL_PRECISION).
+    private static final int HLL_PRECISION = 12;
+    private static final int QUANTILE_SAMPLE_SIZE = 2048;
+
+    private final int maxCategories;
+    // Number of cells with a value.
+    private long count;
+    private long missing;
+    private long stringCellCount;
+    private long decimalCellCount;
+
+    // Moments of the numerical cells.
+    private long numericCount;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2;
+    private double m3;
+
+    private final byte[] registers = new byte[1 << HLL_PRECISION];
+
+    /*
+     * key - category
+     * value - frequency, a lower bound once the categories have been trimmed
+     */
+    private final Map<String, Long> categories = new HashMap<String, Long>();
+    private boolean categoriesExact = true;
+
+    // Bottom-k sample of the numerical cells: the cells with the smallest random priorities, kept in a max-heap.
+    private double[] samplePriorities = new double[16];
+    private double[] sampleValues = new double[16];
+    private int sampleSize;
+    private transient Random random;
+
+    /**
+     * @param maxCategories maximum number of categories to be reported
+     */
+    public ColumnStatistics(int maxCategories) {
+        this.maxCategories = Math.max(maxCategories, 1);
+    }
+
+    /**
+     * Add a cell of the column.
+     *
+     * @param cell value of the cell, null if the row does not have the column
+     */
+    public void add(String cell) {
+        if (cell == null || MLConstants.MISSING_VALUES.contains(cell)) {
+            missing++;
+            return;
+        }
+        count++;
+        addToRegisters(cell);
+        addToCategories(cell, 1);
+        double value = parse(cell);
+        if (Double.isNaN(value)) {
+            stringCellCount++;
+            return;
+        }
+        if (cell.indexOf('.') != -1) {
+            decimalCellCount++;
+        }
+        addValue(value);
+    }
+
+    /**
+     * Merge the statistics of another part of the column into this.
+     *
+     * @param other statistics of the other part
+     * @return this
+     */
+    public ColumnStatistics merge(ColumnStatistics other) {
+        count += other.count;
+        missing += other.missing;
+        stringCellCount += other.stringCellCount;
+        decimalCellCount += other.decimalCellCount;
+
+        if (other.numericCount > 0) {
+            if (numericCount == 0) {
+                mean = other.mean;
+                m2 = other.m2;
+                m3 = other.m3;
+            } else {
+                double n1 = numericCount;
+                double n2 = other.numericCount;
+                double n = n1 + n2;
+                double delta = other.mean - mean;
+                double m2Sum = m2 + other.m2;
+                m3 = m3 + other.m3 + delta * delta * delta * n1 * n2 * (n1 - n2) / (n * n) + 3 * delta
+                        * (n1 * other.m2 - n2 * m2) / n;
+                m2 = m2Sum + delta * delta * n1 * n2 / n;
+                mean = mean + delta * n2 / n;
+            }
+            numericCount += other.numericCount;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+
+        categoriesExact &= other.categoriesExact;
+        for (Map.Entry<String, Long> category : other.categories.entrySet()) {
+            addToCategories(category.getKey(), category.getValue());
+        }
+
+        for (int i = 0; i < other.sampleSize; i++) {
+            addToSample(other.samplePriorities[i], other.sampleValues[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Number of cells with a value.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public long getStringCellCount() {
+        return stringCellCount;
+    }
+
+    public long getDecimalCellCount() {
+        return decimalCellCount;
+    }
+
+    /**
+     * Number of cells with a numerical value.
+     */
+    public long getNumericCount() {
+        return numericCount;
+    }
+
+    /**
+     * Whether all the values of the column are numerical.
+     */
+    public boolean isNumeric() {
+        return numericCount > 0 && stringCellCount == 0;
+    }
+
+    public double getMin() {
+        return numericCount == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return numericCount == 0 ? Double.NaN : max;
+    }
+
+    public double getMean() {
+        return numericCount == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Sample variance of the numerical values.
+     */
+    public double getVariance() {
+        if (numericCount == 0) {
+            return Double.NaN;
+        }
+        return numericCount == 1 ? 0 : m2 / (numericCount - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Sample skewness of the numerical values, calculated as in
+     * {@link org.apache.commons.math3.stat.descriptive.moment.Skewness}.
+     */
+    public double getSkewness() {
+        if (numericCount < 3) {
+            return Double.NaN;
+        }
+        double variance = getVariance();
+        if (variance < 10E-20) {
+            return 0;
+        }
+        double n = numericCount;
+        return n * m3 / ((n - 1) * (n - 2) * variance * Math.sqrt(variance));
+    }
+
+    /**
+     * Estimate a percentile of the numerical values, interpolated as in
+     * {@link org.apache.commons.math3.stat.descriptive.rank.Percentile}.
+     *
+     * @param p percentile, in the range (0, 100]
+     * @return estimated percentile, NaN if there are no numerical values
+     */
+    public double getPercentile(double p) {
+        if (sampleSize == 0) {
+            return Double.NaN;
+        }
+        double[] values = getSortedSample();
+        int n = values.length;
+        double position = p * (n + 1) / 100;
+        if (position < 1) {
+            return values[0];
+        }
+        if (position >= n) {
+            return values[n - 1];
+        }
+        int index = (int) Math.floor(position);
+        double lower = values[index - 1];
+        double upper = values[index];
+        return lower + (position - index) * (upper - lower);
+    }
+
+    /**
+     * Estimate the histogram of the numerical values, with bins of equal width between the min and the max.
+     *
+     * @param bins number of bins
+     * @return estimated frequency of each bin, keyed by the bin index
+     */
+    public SortedMap<Integer, Integer> getHistogram(int bins) {
+        SortedMap<Integer, Integer> histogram = new TreeMap<Integer, Integer>();
+        if (bins <= 0) {
+            return histogram;
+        }
+        long[] frequencies = new long[bins];
+        double width = (max - min) / bins;
+        for (int i = 0; i < sampleSize; i++) {
+            int bin = width > 0 ? (int) Math.ceil((sampleValues[i] - min) / width) - 1 : 0;
+            frequencies[Math.min(Math.max(bin, 0), bins - 1)]++;
+        }
+        // Scale the sample frequencies up to the number of numerical values.
+        double scale = sampleSize == 0 ? 0 : (double) numericCount / sampleSize;
+        for (int bin = 0; bin < bins; bin++) {
+            histogram.put(bin, (int) Math.round(frequencies[bin] * scale));
+        }
+        return histogram;
+    }
+
+    /**
+     * Whether the frequency of every category is known exactly.
+     */
+    public boolean isCategoryCountExact() {
+        return categoriesExact;
+    }
+
+    /**
+     * Get the most frequent categories, up to the maximum number of categories.
+     *
+     * @return frequency of each category, keyed by the category
+     */
+    public SortedMap<String, Integer> getCategoryFrequencies() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(categories.entrySet());
+        if (entries.size() > maxCategories) {
+            Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+                @Override
+                public int compare(Map.Entry<String, Long> entry1, Map.Entry<String, Long> entry2) {
+                    return entry2.getValue().compareTo(entry1.getValue());
+                }
+            });
+            entries = entries.subList(0, maxCategories);
+        }
+        SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
+        for (Map.Entry<String, Long> entry : entries) {
+            frequencies.put(entry.getKey(), (int) Math.min(entry.getValue(), Integer.MAX_VALUE));
+        }
+        return frequencies;
+    }
+
+    /**
+     * Fraction of the distinct values which occur more than once.
+     *
+     * @return fraction in the range [0, 1], NaN if the categories are not known exactly or the column is empty
+     */
+    public double getRepeatedValueRatio() {
+        if (!categoriesExact || categories.isEmpty()) {
+            return Double.NaN;
+        }
+        int repeated = 0;
+        for (Long frequency : categories.values()) {
+            if (frequency > 1) {
+                repeated++;
+            }
+        }
+        return (double) repeated / categories.size();
+    }
+
+    /**
+     * Number of distinct values, exact while the categories are known exactly and estimated otherwise.
+     */
+    public long getDistinctCount() {
+        if (categoriesExact) {
+            return categories.size();
+        }
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities.
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double parse(String cell) {
+        try {
+            double value = Double.parseDouble(cell);
+            return Double.isInfinite(value) ? Double.NaN : value;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private void addValue(double value) {
+        long n1 = numericCount;
+        numericCount++;
+        double delta = value - mean;
+        double deltaN = delta / numericCount;
+        double term = delta * deltaN * n1;
+        mean += deltaN;
+        m3 += term * deltaN * (numericCount - 2) - 3 * deltaN * m2;
+        m2 += term;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (random == null) {
+            random = new Random();
+        }
+        addToSample(random.nextDouble(), value);
+    }
+
+    private void addToRegisters(String cell) {
+        long hash = hash(cell);
+        int index = (int) (hash >>> (Long.SIZE - HLL_PRECISION));
+        // Position of the first 1 bit after the index bits, capped when there is none.
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << HLL_PRECISION), Long.SIZE - HLL_PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string, followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private void addToCategories(String category, long frequency) {
+        Long current = categories.get(category);
+        categories.put(category, current == null ? frequency : current + frequency);
+        // Trim in batches, so that the cost of trimming is amortized over many cells.
+        if (categories.size() > 2 * maxCategories) {
+            trimCategories();
+        }
+    }
+
+    /**
+     * Subtract the frequency of the (maxCategories + 1)th most frequent category from every category, and remove the
+     * categories which are left without a frequency.
+     */
+    private void trimCategories() {
+        long[] frequencies = new long[categories.size()];
+        int i = 0;
+        for (Long frequency : categories.values()) {
+            frequencies[i++] = frequency;
+        }
+        Arrays.sort(frequencies);
+        long threshold = frequencies[frequencies.length - maxCategories - 1];
+        Iterator<Map.Entry<String, Long>> iterator = categories.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            long frequency = entry.getValue() - threshold;
+            if (frequency > 0) {
+                entry.setValue(frequency);
+            } else {
+                iterator.remove();
+            }
+        }
+        categoriesExact = false;
+    }
+
+    private void addToSample(double priority, double value) {
+        if (sampleSize < QUANTILE_SAMPLE_SIZE) {
+            if (sampleSize == samplePriorities.length) {
+                samplePriorities = Arrays.copyOf(samplePriorities, sampleSize * 2);
+                sampleValues = Arrays.copyOf(sampleValues, sampleSize * 2);
+            }
+            // Sift the new entry up the heap.
+            int child = sampleSize++;
+            while (child > 0) {
+                int parent = (child - 1) / 2;
+                if (samplePriorities[parent] >= priority) {
+                    break;
+                }
+                samplePriorities[child] = samplePriorities[parent];
+                sampleValues[child] = sampleValues[parent];
+                child = parent;
+            }
+            samplePriorities[child] = priority;
+            sampleValues[child] = value;
+        } else if (priority < samplePriorities[0]) {
+            // Replace the entry with the largest priority and sift it down the heap.
+            int parent = 0;
+            while (true) {
+                int child = 2 * parent + 1;
+                if (child >= sampleSize) {
+                    break;
+                }
+                if (child + 1 < sampleSize && samplePriorities[child + 1] > samplePriorities[child]) {
+                    child++;
+                }
+                if (samplePriorities[child] <= priority) {
+                    break;
+                }
+                samplePriorities[parent] = samplePriorities[child];
+                sampleValues[parent] = sampleValues[child];
+                parent = child;
+            }
+            samplePriorities[parent] = priority;
+            sampleValues[parent] = value;
+        }
+    }
+
+    private double[] getSortedSample() {
+        double[] values = Arrays.copyOf(sampleValues, sampleSize);
+        Arrays.sort(values);
+        return values;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.commons.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Typed summary statistics of a single feature, parsed from the JSON summary stored for a dataset version. Statistics
+ * which are not available are 0.0, as in the JSON summary.
+ */
+public class FeatureStatistics implements Serializable {
+
+    private static final long serialVersionUID = 5214377416958416390L;
+    private double mean;
+    private double min;
+    private double max;
+    private int unique;
+    private int missing;
+    /*
+     * distinct values (categorical features) or histogram bins (numerical features), in the stored order
+     */
+    private List<String> values = new ArrayList<String>();
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public int getUnique() {
+        return unique;
+    }
+
+    public void setUnique(int unique) {
+        this.unique = unique;
+    }
+
+    public int getMissing() {
+        return missing;
+    }
+
+    public void setMissing(int missing) {
+        this.missing = missing;
+    }
+
+    public List<String> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    public void setValues(List<String> values) {
+        this.values = values;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureStatistics [mean=" + mean + ", min=" + min + ", max=" + max + ", unique=" + unique
+                + ", missing=" + missing + ", values=" + values + "]";
+    }
+}
@@ -19,6 +19,8 @@
 package org.wso2.carbon.ml.commons.domain;
 
 import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
@@ -35,14 +37,25 @@ public class MLModel implements Serializable {
     private int responseIndex;
     private List<Map<String, Integer>> encodings;
     private List<Integer> newToOldIndicesList;
-    private Externalizable model;
+    private volatile Externalizable model;
+    /*
+    loads the trained model on first use, when only the rest of the model is loaded eagerly
+    set after the model, so that a null loader is only read once the model is visible
+     */
+    private transient volatile ModelLoader modelLoader;
     private String normalLabels;
     private boolean normalization;
     /*
     key - summary stat name
     value - summary stat value
+    only set in models saved by older versions, use featureStatistics instead
      */
     private Map<String, String> summaryStatsOfFeatures;
+    /*
+    key - feature name
+    value - summary statistics of the feature
+     */
+    private Map<String, FeatureStatistics> featureStatistics;
 
     public String getAlgorithmName() {
         return algorithmName;
@@ -78,11 +91,42 @@ public class MLModel implements Serializable {
     }
 
     public Externalizable getModel() {
-        return model;
+        if (modelLoader == null) {
+            return model;
+        }
+        synchronized (this) {
+            ModelLoader loader = modelLoader;
+            if (loader != null) {
+                try {
+                    model = loader.load();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to load the trained model of " + algorithmName + ": "
+                            + e.getMessage(), e);
+                }
+                modelLoader = null;
+            }
+            return model;
+        }
+    }
+
+    public synchronized void setModel(Externalizable model) {
+        this.model = model;
+        this.modelLoader = null;
     }
 
-    public void setModel(Externalizable model) {
-        this.model = model;
+    /**
+     * Set the loader of the trained model, which is loaded on the first call to {@link #getModel()}.
+     */
+    public synchronized void setModelLoader(ModelLoader modelLoader) {
+        this.model = null;
+        this.modelLoader = modelLoader;
+    }
+
+    /**
+     * @return whether the trained model is loaded
+     */
+    public boolean isModelLoaded() {
+        return modelLoader == null;
     }
 
     public List<Map<String, Integer>> getEncodings() {
@@ -132,4 +176,25 @@ public class MLModel implements Serializable {
     public void setSummaryStatsOfFeatures(Map<String, String> summaryStatsOfFeatures) {
         this.summaryStatsOfFeatures = summaryStatsOfFeatures;
     }
+
+    public Map<String, FeatureStatistics> getFeatureStatistics() {
+        return featureStatistics;
+    }
+
+    public void setFeatureStatistics(Map<String, FeatureStatistics> featureStatistics) {
+        this.featureStatistics = featureStatistics;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // a lazily loaded trained model is loaded before the model is serialized
+        getModel();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Loads the trained model of a {@link MLModel} on demand.
+     */
+    public interface ModelLoader {
+        Externalizable load() throws Exception;
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.commons.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to build a model, read from the database in one go so that the model, its analysis and its
+ * dataset version are seen in a consistent state: the model, the dataset and dataset version it is built on, the
+ * workflow of the analysis, the feature names of the dataset in order and the summary statistics of the dataset
+ * version.
+ */
+public class ModelBuildSnapshot {
+
+    private final MLModelData model;
+    private final long datasetId;
+    private final String dataSourceType;
+    private final String dataType;
+    private final String datasetVersionName;
+    private final String datasetVersionUri;
+    private final String datasetVersionColumnarUri;
+    private final Workflow workflow;
+    private final List<String> featureNames;
+    private final Map<String, FeatureStatistics> featureStatistics;
+
+    private ModelBuildSnapshot(Builder builder) {
+        this.model = builder.model;
+        this.datasetId = builder.datasetId;
+        this.dataSourceType = builder.dataSourceType;
+        this.dataType = builder.dataType;
+        this.datasetVersionName = builder.datasetVersionName;
+        this.datasetVersionUri = builder.datasetVersionUri;
+        this.datasetVersionColumnarUri = builder.datasetVersionColumnarUri;
+        this.workflow = builder.workflow;
+        this.featureNames = Collections.unmodifiableList(new ArrayList<String>(builder.featureNames));
+        this.featureStatistics = Collections.unmodifiableMap(new HashMap<String, FeatureStatistics>(
+                builder.featureStatistics));
+    }
+
+    public MLModelData getModel() {
+        return model;
+    }
+
+    public long getModelId() {
+        return model.getId();
+    }
+
+    public long getDatasetId() {
+        return datasetId;
+    }
+
+    public long getDatasetVersionId() {
+        return model.getVersionSetId();
+    }
+
+    public String getDataSourceType() {
+        return dataSourceType;
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public String getDatasetVersionName() {
+        return datasetVersionName;
+    }
+
+    public String getDatasetVersionUri() {
+        return datasetVersionUri;
+    }
+
+    /**
+     * URI of the columnar copy of the dataset version, null if the dataset version has not been converted.
+     */
+    public String getDatasetVersionColumnarUri() {
+        return datasetVersionColumnarUri;
+    }
+
+    /**
+     * Workflow of the analysis of the model, with the dataset version name and URI set.
+     */
+    public Workflow getWorkflow() {
+        return workflow;
+    }
+
+    /**
+     * Feature names of the dataset, ordered by their index.
+     */
+    public List<String> getFeatureNames() {
+        return featureNames;
+    }
+
+    /**
+     * Get the header row of the dataset.
+     *
+     * @param columnSeparator column separator of the dataset
+     * @return feature names in order, separated by the given column separator
+     */
+    public String getHeaderRow(String columnSeparator) {
+        StringBuilder headerRow = new StringBuilder();
+        for (String featureName : featureNames) {
+            if (headerRow.length() > 0) {
+                headerRow.append(columnSeparator);
+            }
+            headerRow.append(featureName);
+        }
+        return headerRow.toString();
+    }
+
+    /**
+     * Summary statistics of the dataset version, keyed by feature name.
+     */
+    public Map<String, FeatureStatistics> getFeatureStatistics() {
+        return featureStatistics;
+    }
+
+    public static class Builder {
+        private MLModelData model;
+        private long datasetId;
+        private String dataSourceType;
+        private String dataType;
+        private String datasetVersionName;
+        private String datasetVersionUri;
+        private String datasetVersionColumnarUri;
+        private Workflow workflow;
+        private List<String> featureNames = new ArrayList<String>();
+        private Map<String, FeatureStatistics> featureStatistics = new HashMap<String, FeatureStatistics>();
+
+        public Builder model(MLModelData model) {
+            this.model = model;
+            return this;
+        }
+
+        public Builder datasetId(long datasetId) {
+            this.datasetId = datasetId;
+            return this;
+        }
+
+        public Builder dataSourceType(String dataSourceType) {
+            this.dataSourceType = dataSourceType;
+            return this;
+        }
+
+        public Builder dataType(String dataType) {
+            this.dataType = dataType;
+            return this;
+        }
+
+        public Builder datasetVersionName(String datasetVersionName) {
+            this.datasetVersionName = datasetVersionName;
+            return this;
+        }
+
+        public Builder datasetVersionUri(String datasetVersionUri) {
+            this.datasetVersionUri = datasetVersionUri;
+            return this;
+        }
+
+        public Builder datasetVersionColumnarUri(String datasetVersionColumnarUri) {
+            this.datasetVersionColumnarUri = datasetVersionColumnarUri;
+            return this;
+        }
+
+        public Builder workflow(Workflow workflow) {
+            this.workflow = workflow;
+            return this;
+        }
+
+        public Builder featureNames(List<String> featureNames) {
+            this.featureNames = featureNames;
+            return this;
+        }
+
+        public Builder featureStatistics(Map<String, FeatureStatistics> featureStatistics) {
+            this.featureStatistics = featureStatistics;
+            return this;
+        }
+
+        public ModelBuildSnapshot build() {
+            return new ModelBuildSnapshot(this);
+        }
+    }
+}
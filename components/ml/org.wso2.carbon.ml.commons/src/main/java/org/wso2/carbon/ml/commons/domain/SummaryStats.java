@@ -23,8 +23,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-
 /**
  * Represent SummaryStats in ML.
  */
@@ -39,11 +37,11 @@ public class SummaryStats {
     private int[] missing;
     // Array containing number of unique values of each feature in the data-set.
     private int[] unique;
-    // List containing descriptive statistics for each feature.
-    private List<DescriptiveStatistics> descriptiveStats = new ArrayList<DescriptiveStatistics>();
+    // List containing statistics for each feature.
+    private List<ColumnStatistics> columnStats = new ArrayList<ColumnStatistics>();
     
     public SummaryStats(Map<String, Integer> headerMap, String[] type, List<SortedMap<?, Integer>> graphFrequencies,
-            int[] missing, int[] unique, List<DescriptiveStatistics> descriptiveStats) {
+            int[] missing, int[] unique, List<ColumnStatistics> columnStats) {
         super();
         this.headerMap = headerMap;
         if (type == null) {
@@ -63,7 +61,7 @@ public class SummaryStats {
         } else {
             this.unique = Arrays.copyOf(unique, unique.length);
         }
-        this.descriptiveStats = descriptiveStats;
+        this.columnStats = columnStats;
     }
 
     public Map<String, Integer> getHeaderMap() {
@@ -86,8 +84,8 @@ public class SummaryStats {
         return unique;
     }
 
-    public List<DescriptiveStatistics> getDescriptiveStats() {
-        return descriptiveStats;
+    public List<ColumnStatistics> getColumnStats() {
+        return columnStats;
     }
 
     
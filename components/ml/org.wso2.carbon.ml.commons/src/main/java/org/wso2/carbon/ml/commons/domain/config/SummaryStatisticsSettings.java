@@ -24,6 +24,7 @@ public class SummaryStatisticsSettings {
 	private int histogramBins = 20;
 	private double categoricalThreshold = 0.01;
 	private int sampleSize = 10000;
+	private int maxCategories = 1000;
 
 	/**
 	 * Returns the number of bins for the histogram.
@@ -81,4 +82,23 @@ public class SummaryStatisticsSettings {
 	public void setSampleSize(int sampleSize) {
 		this.sampleSize = sampleSize;
 	}
+
+	/**
+	 * Returns maximum number of categories reported for a feature.
+	 *
+	 * @return Maximum number of categories reported for a feature
+	 */
+	@XmlElement(name = "MaxCategories")
+	public int getMaxCategories() {
+		return maxCategories;
+	}
+
+	/**
+	 * Sets maximum number of categories reported for a feature.
+	 *
+	 * @param maxCategories Maximum number of categories reported for a feature
+	 */
+	public void setMaxCategories(int maxCategories) {
+		this.maxCategories = maxCategories;
+	}
 }
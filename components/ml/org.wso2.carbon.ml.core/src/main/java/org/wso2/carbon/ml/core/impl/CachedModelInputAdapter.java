@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.impl;
+
+import java.io.InputStream;
+
+import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
+import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.utils.LocalModelCache;
+
+/**
+ * Implementation of {@link MLInputAdapter} reading models of a remote storage through the {@link LocalModelCache}.
+ */
+public class CachedModelInputAdapter implements MLInputAdapter {
+
+    private final String storageType;
+    private final MLInputAdapter inputAdapter;
+    private final LocalModelCache modelCache;
+
+    public CachedModelInputAdapter(String storageType, MLInputAdapter inputAdapter, LocalModelCache modelCache) {
+        this.storageType = storageType;
+        this.inputAdapter = inputAdapter;
+        this.modelCache = modelCache;
+    }
+
+    @Override
+    public InputStream read(String path) throws MLInputAdapterException {
+        return modelCache.read(storageType, path, inputAdapter);
+    }
+}
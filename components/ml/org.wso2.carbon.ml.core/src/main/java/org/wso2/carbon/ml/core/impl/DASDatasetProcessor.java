@@ -17,7 +17,10 @@
  */
 package org.wso2.carbon.ml.core.impl;
 
+import java.util.List;
+
 import org.wso2.carbon.analytics.datasource.commons.exception.AnalyticsException;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.MLDataset;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.core.exceptions.MLDataProcessingException;
@@ -67,4 +70,14 @@ public class DASDatasetProcessor extends DatasetProcessor {
             throw new MLDataProcessingException(e.getMessage(), e);
         }
     }
+
+    @Override
+    public List<ColumnStatistics> calculateStatistics(int maxCategories) throws MLDataProcessingException {
+        MLDataset dataset = getDataset();
+        try {
+            return MLUtils.getColumnStatisticsFromDAS(dataset.getSourcePath(), dataset.getTenantId(), maxCategories);
+        } catch (MLMalformedDatasetException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
 }
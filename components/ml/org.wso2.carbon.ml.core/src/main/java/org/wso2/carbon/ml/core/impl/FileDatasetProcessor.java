@@ -19,8 +19,10 @@ package org.wso2.carbon.ml.core.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.MLDataset;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.core.exceptions.MLDataProcessingException;
@@ -30,6 +32,7 @@ import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
 import org.wso2.carbon.ml.core.factories.DatasetType;
 import org.wso2.carbon.ml.core.interfaces.DatasetProcessor;
 import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
 
@@ -66,8 +69,10 @@ public class FileDatasetProcessor extends DatasetProcessor {
             MLIOFactory ioFactory = new MLIOFactory(valueHolder.getMlProperties());
             MLOutputAdapter outputAdapter = ioFactory.getOutputAdapter(dataset.getDataTargetType()
                     + MLConstants.OUT_SUFFIX);
+            // Spark reads the dataset with the codec of the extension of the target path
+            MLCompressionCodec codec = ioFactory.getDatasetCompressionCodec(dataset.getDataTargetType());
             setTargetPath(ioFactory.getTargetPath(dataset.getName() + "." + dataset.getTenantId() + "."
-                    + System.currentTimeMillis()));
+                    + System.currentTimeMillis()) + codec.getExtension());
             outputAdapter.write(getTargetPath(), inputStream);
             setFirstLine(MLUtils.getFirstLine(getTargetPath()));
         } catch (MLOutputAdapterException e) {
@@ -95,4 +100,31 @@ public class FileDatasetProcessor extends DatasetProcessor {
         }
     }
 
+    @Override
+    public List<ColumnStatistics> calculateStatistics(int maxCategories) throws MLDataProcessingException {
+        MLDataset dataset = getDataset();
+        try {
+            return MLUtils.getColumnStatistics(getTargetPath(), dataset.getDataType(), dataset.isContainsHeader(),
+                    maxCategories);
+        } catch (MLMalformedDatasetException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String convertToColumnar(String[] types) throws MLDataProcessingException {
+        MLDataset dataset = getDataset();
+        try {
+            return MLUtils.convertToColumnar(getTargetPath(), getColumnarPath(), dataset.getDataType(),
+                    dataset.isContainsHeader(), types);
+        } catch (MLMalformedDatasetException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getColumnarPath() {
+        return getTargetPath() + MLConstants.COLUMNAR_DATASET_SUFFIX;
+    }
+
 }
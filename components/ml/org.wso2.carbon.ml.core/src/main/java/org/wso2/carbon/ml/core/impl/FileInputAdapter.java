@@ -19,14 +19,16 @@ package org.wso2.carbon.ml.core.impl;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 
 /**
- * Implementation of {@link MLInputAdapter} for regular file system.
+ * Implementation of {@link MLInputAdapter} for regular file system. Files are decompressed with the codec of the
+ * extension of the path.
  */
 public class FileInputAdapter implements MLInputAdapter {
 
@@ -34,8 +36,8 @@ public class FileInputAdapter implements MLInputAdapter {
     public InputStream read(String path) throws MLInputAdapterException {
         try {
             FileInputStream inputStream = new FileInputStream(new File(path));
-            return inputStream;
-        } catch (FileNotFoundException | IllegalArgumentException e) {
+            return MLCompressionCodec.getCompressionCodecOfPath(path).decompress(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
             throw new MLInputAdapterException(String.format("Failed to read the data-set from uri %s: %s", path, e), e);
         }
     }
@@ -17,20 +17,29 @@
  */
 package org.wso2.carbon.ml.core.impl;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.apache.commons.io.IOUtils;
 import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
-import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.interfaces.MLStreamingOutputAdapter;
+import org.wso2.carbon.ml.core.utils.AtomicOutputStream;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 
 /**
- * Responsible for writing a given input stream to a specified path in local file system.
+ * Responsible for writing a given input stream to a specified path in local file system. The data is compressed with
+ * the codec of the extension of the path. Files are written to a temporary file in the same directory, which is
+ * renamed to the target path once it is complete.
  */
-public class FileOutputAdapter implements MLOutputAdapter {
+public class FileOutputAdapter implements MLStreamingOutputAdapter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     @Override
     public void write(String outPath, InputStream in) throws MLOutputAdapterException {
@@ -39,21 +48,17 @@ public class FileOutputAdapter implements MLOutputAdapter {
             throw new MLOutputAdapterException(String.format(
                     "Null argument values detected. Input stream: %s Out Path: %s", in, outPath));
         }
-        OutputStream out = null;
+        AtomicOutputStream out = null;
         try {
-            File file = new File(outPath);
-            out = new FileOutputStream(file);
+            out = open(outPath);
             IOUtils.copy(in, out);
+            out.close();
         } catch (IOException e) {
             throw new MLOutputAdapterException(e);
         } finally {
             if (out != null) {
-                try {
-                    out.close();
-                } catch (IOException e) {
-                    throw new MLOutputAdapterException(String.format("Failed to close the output stream of file %s",
-                            outPath), e);
-                }
+                // no effect once the stream is closed
+                out.abort();
             }
             try {
                 in.close();
@@ -64,4 +69,50 @@ public class FileOutputAdapter implements MLOutputAdapter {
         }
     }
 
+    @Override
+    public AtomicOutputStream open(String outPath) throws MLOutputAdapterException {
+        if (outPath == null) {
+            throw new MLOutputAdapterException("Null argument value detected for the out path.");
+        }
+        final File file = new File(outPath).getAbsoluteFile();
+        File tempFile = null;
+        FileOutputStream fileOut = null;
+        try {
+            tempFile = File.createTempFile("." + file.getName(), ".tmp", file.getParentFile());
+            fileOut = new FileOutputStream(tempFile);
+            final File temporaryFile = tempFile;
+            return new AtomicOutputStream(MLCompressionCodec.getCompressionCodecOfPath(outPath).compress(
+                    new BufferedOutputStream(fileOut, BUFFER_SIZE))) {
+
+                @Override
+                protected void commit() throws IOException {
+                    try {
+                        try {
+                            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                    StandardCopyOption.ATOMIC_MOVE);
+                        } catch (AtomicMoveNotSupportedException e) {
+                            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    } catch (IOException e) {
+                        discard();
+                        throw e;
+                    }
+                }
+
+                @Override
+                protected void discard() {
+                    if (!temporaryFile.delete() && temporaryFile.exists()) {
+                        temporaryFile.deleteOnExit();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            IOUtils.closeQuietly(fileOut);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            throw new MLOutputAdapterException(String.format("Failed to open file %s for writing: %s", outPath,
+                    e.getMessage()), e);
+        }
+    }
 }
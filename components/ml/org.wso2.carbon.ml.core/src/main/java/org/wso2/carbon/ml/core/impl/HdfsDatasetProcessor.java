@@ -19,7 +19,10 @@ package org.wso2.carbon.ml.core.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.MLDataset;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.core.exceptions.MLDataProcessingException;
@@ -79,4 +82,31 @@ public class HdfsDatasetProcessor extends DatasetProcessor {
         }
     }
 
+    @Override
+    public List<ColumnStatistics> calculateStatistics(int maxCategories) throws MLDataProcessingException {
+        MLDataset dataset = getDataset();
+        try {
+            return MLUtils.getColumnStatistics(getTargetPath(), dataset.getDataType(), dataset.isContainsHeader(),
+                    maxCategories);
+        } catch (MLMalformedDatasetException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String convertToColumnar(String[] types) throws MLDataProcessingException {
+        MLDataset dataset = getDataset();
+        try {
+            return MLUtils.convertToColumnar(getTargetPath(), getColumnarPath(), dataset.getDataType(),
+                    dataset.isContainsHeader(), types);
+        } catch (MLMalformedDatasetException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getColumnarPath() {
+        return getTargetPath() + MLConstants.COLUMNAR_DATASET_SUFFIX;
+    }
+
 }
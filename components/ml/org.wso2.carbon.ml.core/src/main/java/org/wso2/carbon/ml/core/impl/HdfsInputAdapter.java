@@ -19,38 +19,48 @@ package org.wso2.carbon.ml.core.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
+import org.apache.commons.io.input.CountingInputStream;
+import org.wso2.carbon.metrics.manager.Level;
+import org.wso2.carbon.metrics.manager.MetricManager;
+import org.wso2.carbon.metrics.manager.Timer.Context;
 import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.utils.HdfsFileSystemPool;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 /**
- * Implementation of {@link MLInputAdapter} for Hadoop file system.
+ * Implementation of {@link MLInputAdapter} for Hadoop file system. Files are decompressed with the codec of the
+ * extension of the path. The time taken to open a file and the bytes read from it are published as metrics.
  */
 public class HdfsInputAdapter implements MLInputAdapter {
 
+    private static final String METRIC_PREFIX = "org.wso2.carbon.ml.io.hdfs.";
+
     @Override
     public InputStream read(String path) throws MLInputAdapterException {
+        HdfsFileSystemPool fileSystemPool = MLCoreServiceValueHolder.getInstance().getHdfsFileSystemPool();
+        path = fileSystemPool.getQualifiedPath(path);
+        Context context = MetricManager.timer(Level.INFO, METRIC_PREFIX + "read-time").start();
         try {
-            if (!path.startsWith("hdfs://")) {
-                if (MLCoreServiceValueHolder.getInstance().getHdfsUrl() != null) {
-                    path = MLCoreServiceValueHolder.getInstance().getHdfsUrl().concat(path);
-                } else {
-                    path = "hdfs://localhost:9000".concat(path);
+            InputStream inputStream = new CountingInputStream(fileSystemPool.open(path)) {
+                private boolean closed = false;
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    if (!closed) {
+                        closed = true;
+                        MetricManager.histogram(Level.INFO, METRIC_PREFIX + "read-bytes").update(getByteCount());
+                    }
                 }
-            }
-            Configuration conf = new Configuration();
-            conf.set("fs.hdfs.impl", org.apache.hadoop.hdfs.DistributedFileSystem.class.getName());
-            FileSystem file = FileSystem.get(URI.create(path), conf);
-            FSDataInputStream inputStream = file.open(new Path(path));
-            return inputStream;
+            };
+            return MLCompressionCodec.getCompressionCodecOfPath(path).decompress(inputStream);
         } catch (IOException e) {
             throw new MLInputAdapterException(String.format("Failed to read the data-set from uri %s: %s", path, e), e);
+        } finally {
+            context.stop();
         }
     }
 
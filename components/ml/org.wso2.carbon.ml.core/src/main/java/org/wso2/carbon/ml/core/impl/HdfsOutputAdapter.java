@@ -19,21 +19,33 @@ package org.wso2.carbon.ml.core.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
+import java.io.OutputStream;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.fs.FileContext;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Options;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.io.IOUtils;
+import org.wso2.carbon.metrics.manager.Level;
+import org.wso2.carbon.metrics.manager.MetricManager;
+import org.wso2.carbon.metrics.manager.Timer.Context;
 import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
-import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.interfaces.MLStreamingOutputAdapter;
+import org.wso2.carbon.ml.core.utils.AtomicOutputStream;
+import org.wso2.carbon.ml.core.utils.HdfsFileSystemPool;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 /**
- * HDFS based output adapter for ML. Responsible for writing a given input stream to a given HDFS path.
+ * HDFS based output adapter for ML. Responsible for writing a given input stream to a given HDFS path. The data is
+ * compressed with the codec of the extension of the path. Files are written to a temporary file next to the target
+ * path, which replaces the target path in a single rename once it is complete. The time taken to write a file and the
+ * bytes written to it are published as metrics.
  */
-public class HdfsOutputAdapter implements MLOutputAdapter {
+public class HdfsOutputAdapter implements MLStreamingOutputAdapter {
+
+    private static final String METRIC_PREFIX = "org.wso2.carbon.ml.io.hdfs.";
+    private static final String TEMP_SUFFIX = "._COPYING_";
 
     @Override
     public void write(String outPath, InputStream in) throws MLOutputAdapterException {
@@ -42,31 +54,18 @@ public class HdfsOutputAdapter implements MLOutputAdapter {
             throw new MLOutputAdapterException(String.format(
                     "Null argument values detected. Input stream: %s Out Path: %s", in, outPath));
         }
-        if (!outPath.startsWith("hdfs://")) {
-            if (MLCoreServiceValueHolder.getInstance().getHdfsUrl() != null) {
-                outPath = MLCoreServiceValueHolder.getInstance().getHdfsUrl().concat(outPath);
-            } else {
-                outPath = "hdfs://localhost:9000".concat(outPath);
-            }
-        }
-        FSDataOutputStream out = null;
+        AtomicOutputStream out = null;
         try {
-            Configuration conf = new Configuration();
-            conf.set("fs.hdfs.impl", org.apache.hadoop.hdfs.DistributedFileSystem.class.getName());
-            URI uri = URI.create(outPath);
-            FileSystem hdfs = FileSystem.get(uri, conf);
-            out = hdfs.create(new Path(uri), true);
-            IOUtils.copyBytes(in, out, conf);
+            out = open(outPath);
+            IOUtils.copyLarge(in, out, new byte[MLCoreServiceValueHolder.getInstance().getHdfsFileSystemPool()
+                    .getBufferSize()]);
+            out.close();
         } catch (IOException e) {
             throw new MLOutputAdapterException(e);
         } finally {
             if (out != null) {
-                try {
-                    out.close();
-                } catch (IOException e) {
-                    throw new MLOutputAdapterException(String.format("Failed to close the output stream of file %s",
-                            outPath), e);
-                }
+                // no effect once the stream is closed
+                out.abort();
             }
             try {
                 in.close();
@@ -77,4 +76,82 @@ public class HdfsOutputAdapter implements MLOutputAdapter {
         }
     }
 
+    @Override
+    public AtomicOutputStream open(String outPath) throws MLOutputAdapterException {
+        if (outPath == null) {
+            throw new MLOutputAdapterException("Null argument value detected for the out path.");
+        }
+        HdfsFileSystemPool fileSystemPool = MLCoreServiceValueHolder.getInstance().getHdfsFileSystemPool();
+        final String qualifiedPath = fileSystemPool.getQualifiedPath(outPath);
+        final Path path = new Path(qualifiedPath);
+        final Path tempPath = new Path(qualifiedPath + TEMP_SUFFIX);
+        final Context context = MetricManager.timer(Level.INFO, METRIC_PREFIX + "write-time").start();
+        OutputStream fileOut = null;
+        try {
+            final FileSystem fileSystem = fileSystemPool.getFileSystem(path);
+            final FileContext fileContext = FileContext.getFileContext(fileSystem.getUri(), fileSystem.getConf());
+            fileOut = fileSystemPool.create(tempPath.toString());
+            return new AtomicOutputStream(MLCompressionCodec.getCompressionCodecOfPath(qualifiedPath).compress(
+                    fileOut)) {
+
+                private long bytes;
+                private boolean stopped;
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    bytes += len;
+                }
+
+                @Override
+                protected void commit() throws IOException {
+                    try {
+                        // replaces an existing file atomically, readers never find the target path missing
+                        fileContext.rename(tempPath, path, Options.Rename.OVERWRITE);
+                        MetricManager.histogram(Level.INFO, METRIC_PREFIX + "write-bytes").update(bytes);
+                    } catch (IOException e) {
+                        deleteTempFile();
+                        throw e;
+                    } finally {
+                        stopTimer();
+                    }
+                }
+
+                @Override
+                protected void discard() {
+                    try {
+                        deleteTempFile();
+                    } finally {
+                        stopTimer();
+                    }
+                }
+
+                private void deleteTempFile() {
+                    try {
+                        fileSystem.delete(tempPath, false);
+                    } catch (IOException ignored) {
+                        // a leftover temporary file does not affect the target path
+                    }
+                }
+
+                private void stopTimer() {
+                    if (!stopped) {
+                        stopped = true;
+                        context.stop();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            IOUtils.closeQuietly(fileOut);
+            context.stop();
+            throw new MLOutputAdapterException(String.format("Failed to open file %s for writing: %s", qualifiedPath,
+                    e.getMessage()), e);
+        }
+    }
 }
@@ -272,6 +272,15 @@ public class MLAnalysisHandler {
             throw new MLAnalysisHandlerException(e.getMessage(), e);
         }
     }
+
+    public List<MLAnalysis> getAnalyses(int tenantId, String userName, int limit, int offset)
+            throws MLAnalysisHandlerException {
+        try {
+            return databaseService.getAllAnalyses(tenantId, userName, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLAnalysisHandlerException(e.getMessage(), e);
+        }
+    }
     
     public List<MLModelData> getAllModelsOfAnalysis(int tenantId, String userName, long analysisId) throws MLAnalysisHandlerException {
         try {
@@ -37,6 +37,7 @@ import org.wso2.carbon.ml.core.utils.BlockingExecutor;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
 import org.wso2.carbon.ml.core.utils.MLUtils.DataTypeFactory;
+import org.wso2.carbon.ml.core.utils.PreprocessedDataCache;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 
@@ -66,6 +67,15 @@ public class MLDatasetProcessor {
         }
     }
 
+    public List<MLDatasetVersion> getAllDatasetVersions(int tenantId, String userName, long datasetId, int limit,
+            int offset) throws MLDataProcessingException {
+        try {
+            return databaseService.getAllVersionsetsOfDataset(tenantId, userName, datasetId, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
     public MLDatasetVersion getVersionset(int tenantId, String userName, long versionsetId)
             throws MLDataProcessingException {
         try {
@@ -101,6 +111,24 @@ public class MLDatasetProcessor {
         }
     }
 
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, int limit, int offset)
+            throws MLDataProcessingException {
+        try {
+            return databaseService.getAllDatasets(tenantId, userName, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, String status, int limit, int offset)
+            throws MLDataProcessingException {
+        try {
+            return databaseService.getAllDatasets(tenantId, userName, status, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLDataProcessingException(e.getMessage(), e);
+        }
+    }
+
     public MLDataset getDataset(int tenantId, String userName, long datasetId) throws MLDataProcessingException {
         try {
             return databaseService.getDataset(tenantId, userName, datasetId);
@@ -294,7 +322,15 @@ public class MLDatasetProcessor {
 
     public void deleteDataset(int tenantId, String userName, long datasetId) throws MLDataProcessingException {
         try {
+            // the versions are deleted along with the dataset, hence they are looked up first
+            List<MLDatasetVersion> versions = databaseService.getAllVersionsetsOfDataset(tenantId, userName,
+                    datasetId);
             databaseService.deleteDataset(datasetId);
+            PreprocessedDataCache preprocessedDataCache = MLCoreServiceValueHolder.getInstance()
+                    .getPreprocessedDataCache();
+            for (MLDatasetVersion version : versions) {
+                preprocessedDataCache.invalidate(version.getId());
+            }
             log.info(String.format("[Deleted] [dataset] %s of [user] %s of [tenant] %s", datasetId, userName, tenantId));
         } catch (DatabaseHandlerException e) {
             throw new MLDataProcessingException(e.getMessage(), e);
@@ -304,6 +340,7 @@ public class MLDatasetProcessor {
     public void deleteDatasetVersion(int tenantId, String userName, long versionsetId) throws MLDataProcessingException {
         try {
             databaseService.deleteDatasetVersion(versionsetId);
+            MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().invalidate(versionsetId);
             log.info(String.format("[Deleted] [dataset version] %s of [user] %s of [tenant] %s", versionsetId,
                     userName, tenantId));
         } catch (DatabaseHandlerException e) {
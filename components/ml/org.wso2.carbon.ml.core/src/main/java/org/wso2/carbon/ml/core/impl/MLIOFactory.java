@@ -22,8 +22,11 @@ import java.util.Properties;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
 import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.utils.LocalModelCache;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 
 /**
@@ -58,6 +61,19 @@ public class MLIOFactory {
         return new FileInputAdapter();
     }
 
+    /**
+     * Get the input adapter reading the models of a storage type. Models of remote storage types are read through
+     * the local model cache, when it is enabled.
+     */
+    public MLInputAdapter getModelInputAdapter(String storageType) {
+        MLInputAdapter inputAdapter = getInputAdapter(storageType + MLConstants.IN_SUFFIX);
+        LocalModelCache modelCache = MLCoreServiceValueHolder.getInstance().getLocalModelCache();
+        if (modelCache == null || inputAdapter instanceof FileInputAdapter) {
+            return inputAdapter;
+        }
+        return new CachedModelInputAdapter(storageType, inputAdapter, modelCache);
+    }
+
     public MLOutputAdapter getOutputAdapter(String type) {
         Class<?> c;
         if (configuration != null) {
@@ -78,6 +94,32 @@ public class MLIOFactory {
         return new FileOutputAdapter();
     }
 
+    /**
+     * Get the compression codec of the files written to a storage type.
+     */
+    public MLCompressionCodec getCompressionCodec(String storageType) {
+        if (configuration == null) {
+            return MLCompressionCodec.NONE;
+        }
+        String codecName = configuration.getProperty(storageType + MLConstants.COMPRESSION_SUFFIX);
+        MLCompressionCodec codec = MLCompressionCodec.getCompressionCodec(codecName);
+        if (codec == null) {
+            log.warn(String.format("Unsupported compression codec: %s of storage type: %s . Hence, files will be "
+                    + "written uncompressed.", codecName, storageType));
+            return MLCompressionCodec.NONE;
+        }
+        return codec;
+    }
+
+    /**
+     * Get the compression codec of the datasets written to a storage type. Datasets are read by Spark, hence
+     * compressed datasets use the splittable bzip2 codec unless the configured codec is splittable.
+     */
+    public MLCompressionCodec getDatasetCompressionCodec(String storageType) {
+        MLCompressionCodec codec = getCompressionCodec(storageType);
+        return codec.isSplittable() ? codec : MLCompressionCodec.BZIP2;
+    }
+
     public String getTargetPath(String fileName) {
         String targetDir = MLCoreServiceValueHolder.getInstance().getDatasetStorage().getStorageDirectory();
 
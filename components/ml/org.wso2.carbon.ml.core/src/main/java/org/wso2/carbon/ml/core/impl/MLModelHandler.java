@@ -29,6 +29,7 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.mllib.clustering.KMeansModel;
 import org.apache.spark.mllib.pmml.PMMLExportable;
 import org.apache.spark.mllib.recommendation.MatrixFactorizationModel;
+import org.apache.spark.sql.Row;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.wso2.carbon.context.CarbonContext;
@@ -45,18 +46,24 @@ import org.wso2.carbon.ml.core.factories.ModelBuilderFactory;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
 import org.wso2.carbon.ml.core.interfaces.MLModelBuilder;
 import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.interfaces.MLStreamingOutputAdapter;
 import org.wso2.carbon.ml.core.interfaces.PMMLModelContainer;
 import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
 import org.wso2.carbon.ml.core.spark.algorithms.KMeans;
 import org.wso2.carbon.ml.core.spark.algorithms.SparkModelUtils;
 import org.wso2.carbon.ml.core.spark.models.MLDeeplearningModel;
 import org.wso2.carbon.ml.core.spark.models.MLMatrixFactorizationModel;
+import org.wso2.carbon.ml.core.spark.models.MLModelSerializer;
 import org.wso2.carbon.ml.core.spark.recommendation.CollaborativeFiltering;
 import org.wso2.carbon.ml.core.spark.transformations.HeaderFilter;
 import org.wso2.carbon.ml.core.spark.transformations.LineToTokens;
 import org.wso2.carbon.ml.core.spark.transformations.MissingValuesFilter;
+import org.wso2.carbon.ml.core.spark.transformations.RowToTokens;
+import org.wso2.carbon.ml.core.spark.transformations.RowToVector;
 import org.wso2.carbon.ml.core.spark.transformations.TokensToVectors;
+import org.wso2.carbon.ml.core.utils.AtomicOutputStream;
 import org.wso2.carbon.ml.core.utils.BlockingExecutor;
+import org.wso2.carbon.ml.core.utils.ColumnarData;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
 import org.wso2.carbon.ml.core.utils.MLUtils.ColumnSeparatorFactory;
@@ -79,6 +86,9 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 
 /**
@@ -202,6 +212,25 @@ public class MLModelHandler {
         }
     }
 
+    /**
+     * get a page of the models having a status, ordered by model id
+     *
+     * @param tenantId  Unique ID of the tenant.
+     * @param userName  Username of the user.
+     * @param status    Status of the models, all of them if null.
+     * @param limit     Maximum number of models to retrieve, all of them if not positive.
+     * @param offset    Number of models of the status to skip.
+     * @throws MLModelHandlerException
+     */
+    public List<MLModelData> getAllModels(int tenantId, String userName, String status, int limit, int offset)
+            throws MLModelHandlerException {
+        try {
+            return databaseService.getAllModels(tenantId, userName, status, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLModelHandlerException(e.getMessage(), e);
+        }
+    }
+
     /**
      * check validity of modelId
      *
@@ -281,18 +310,16 @@ public class MLModelHandler {
         }
 
         try {
-            long datasetVersionId = databaseService.getDatasetVersionIdOfModel(modelId);
-            long datasetId = databaseService.getDatasetId(datasetVersionId);
-            MLDataset dataset = databaseService.getDataset(tenantId, userName, datasetId);
-            String dataSourceType = dataset.getDataSourceType();
-            String dataType = databaseService.getDataTypeOfModel(modelId);
-            String columnSeparator = ColumnSeparatorFactory.getColumnSeparator(dataType);
-            String dataUrl = databaseService.getDatasetVersionUri(datasetVersionId);
+            ModelBuildSnapshot snapshot = databaseService.getModelBuildSnapshot(tenantId, userName, modelId,
+                    isColumnarDatasetEnabled());
+            handleNull(snapshot, "Dataset version of the model [id] " + modelId + " does not exist.");
+            long datasetVersionId = snapshot.getDatasetVersionId();
+            long datasetId = snapshot.getDatasetId();
+            String dataSourceType = snapshot.getDataSourceType();
+            String dataType = snapshot.getDataType();
+            String dataUrl = snapshot.getDatasetVersionUri();
             handleNull(dataUrl, "Target path is null for dataset version [id]: " + datasetVersionId);
-            MLModelData model = databaseService.getModel(tenantId, userName, modelId);
-            Workflow facts = databaseService.getWorkflow(model.getAnalysisId(), model.getName());
-            facts.setDatasetVersion(databaseService.getVersionset(tenantId, userName, datasetVersionId).getName());
-            facts.setDatasetURL(dataUrl);
+            Workflow facts = snapshot.getWorkflow();
 
             JavaRDD<String> lines;
 
@@ -306,8 +333,7 @@ public class MLModelHandler {
                 throw new MLModelBuilderException("Failed to build the model [id] " + modelId, e);
             }
 
-            MLModelConfigurationContext context = buildMLModelConfigurationContext(modelId, datasetVersionId,
-                    columnSeparator, model, facts, lines, sparkContext);
+            MLModelConfigurationContext context = buildMLModelConfigurationContext(snapshot, lines, sparkContext);
 
             // build the model asynchronously
             ModelBuilder task = new ModelBuilder(modelId, context);
@@ -324,16 +350,25 @@ public class MLModelHandler {
         }
     }
 
-    private MLModelConfigurationContext buildMLModelConfigurationContext(long modelId, long datasetVersionId,
-                                                                         String columnSeparator, MLModelData model, Workflow facts, JavaRDD<String> lines,
-                                                                         JavaSparkContext sparkContext) throws DatabaseHandlerException {
+    /**
+     * Whether datasets are converted to the columnar format. The columnar copies are not looked up otherwise, so that
+     * databases without the columnar columns keep working.
+     */
+    private boolean isColumnarDatasetEnabled() {
+        return Boolean.parseBoolean(mlProperties.getProperty(
+                org.wso2.carbon.ml.core.utils.MLConstants.ML_DATASET_COLUMNAR));
+    }
+
+    private MLModelConfigurationContext buildMLModelConfigurationContext(ModelBuildSnapshot snapshot,
+            JavaRDD<String> lines, JavaSparkContext sparkContext) {
+        Workflow facts = snapshot.getWorkflow();
+        String columnSeparator = ColumnSeparatorFactory.getColumnSeparator(snapshot.getDataType());
         MLModelConfigurationContext context = new MLModelConfigurationContext();
-        context.setModelId(modelId);
+        context.setModelId(snapshot.getModelId());
         context.setColumnSeparator(columnSeparator);
         context.setFacts(facts);
-        context.setModel(model);
-        Map<String, String> summaryStatsOfFeatures = databaseService.getSummaryStats(datasetVersionId);
-        context.setSummaryStatsOfFeatures(summaryStatsOfFeatures);
+        context.setModel(snapshot.getModel());
+        context.setFeatureStatistics(snapshot.getFeatureStatistics());
         int responseIndex = MLUtils.getFeatureIndex(facts.getResponseVariable(), facts.getFeatures());
         context.setIncludedFeaturesMap(MLUtils.getIncludedFeatures(facts, responseIndex));
         context.setNewToOldIndicesList(getNewToOldIndicesList(context.getIncludedFeaturesMap()));
@@ -341,11 +376,65 @@ public class MLModelHandler {
         context.setSparkContext(sparkContext);
         context.setLines(lines);
         // get header line
-        String headerRow = databaseService.getFeatureNamesInOrderUsingDatasetVersion(datasetVersionId, columnSeparator);
-        context.setHeaderRow(headerRow);
+        context.setHeaderRow(snapshot.getHeaderRow(columnSeparator));
+        context.setTokens(extractTokens(snapshot, context));
         return context;
     }
 
+    /**
+     * Get the tokens of the dataset of a model. The columnar copy of the dataset version is read when it exists, and
+     * DAS tables are read through the relation provider, both pruned to the included features and the response, and
+     * their rows are also set to the context for the builders using the typed values. Otherwise the lines of the
+     * dataset are tokenized.
+     */
+    private JavaRDD<String[]> extractTokens(ModelBuildSnapshot snapshot, MLModelConfigurationContext context) {
+        String columnarUri = snapshot.getDatasetVersionColumnarUri();
+        List<Integer> columnIndices = getSelectedColumnIndices(context);
+        if (columnarUri != null) {
+            try {
+                context.setRows(MLUtils.getRowsFromColumnar(context.getSparkContext(), columnarUri, columnIndices));
+                // numerical columns are stored as doubles
+                context.setRowToTokens(new RowToTokens.Builder().indices(columnIndices)
+                        .featureSize(snapshot.getFeatureNames().size()).integralDoubles(true).build());
+                return context.getRows().map(context.getRowToTokens());
+            } catch (Exception e) {
+                log.warn("Failed to read the columnar dataset " + columnarUri + ", reading the dataset "
+                        + snapshot.getDatasetVersionUri() + " instead: " + e.getMessage(), e);
+            }
+        } else if (DatasetType.DAS == DatasetType.getDatasetType(snapshot.getDataSourceType())) {
+            // rows with discarded values are filtered by the relation provider
+            List<Integer> discardIndices = MLUtils.getImputeFeatureIndices(context.getFacts(),
+                    new ArrayList<Integer>(), MLConstants.DISCARD);
+            try {
+                context.setRows(MLUtils.getRowsFromDASTable(snapshot.getDatasetVersionUri(), snapshot.getModel()
+                        .getTenantId(), context.getSparkContext(), snapshot.getFeatureNames(), columnIndices,
+                        discardIndices));
+                context.setRowToTokens(new RowToTokens.Builder().indices(columnIndices)
+                        .featureSize(snapshot.getFeatureNames().size()).build());
+                return context.getRows().map(context.getRowToTokens());
+            } catch (Exception e) {
+                log.warn("Failed to read the selected columns of the DAS table " + snapshot.getDatasetVersionUri()
+                        + ", reading all the columns instead: " + e.getMessage(), e);
+            }
+        }
+        context.setRows(null);
+        context.setRowToTokens(null);
+        HeaderFilter headerFilter = new HeaderFilter.Builder().init(context).build();
+        LineToTokens lineToTokens = new LineToTokens.Builder().init(context).build();
+        return context.getLines().filter(headerFilter).map(lineToTokens);
+    }
+
+    /**
+     * Get the indices of the included features and the response of a model.
+     */
+    private List<Integer> getSelectedColumnIndices(MLModelConfigurationContext context) {
+        List<Integer> columnIndices = new ArrayList<Integer>(context.getIncludedFeaturesMap().keySet());
+        if (context.getResponseIndex() != -1) {
+            columnIndices.add(context.getResponseIndex());
+        }
+        return columnIndices;
+    }
+
     public List<?> predict(int tenantId, String userName, long modelId, String dataFormat, InputStream dataStream)
             throws MLModelHandlerException {
         List<String[]> data = new ArrayList<String[]>();
@@ -678,6 +767,98 @@ public class MLModelHandler {
         return predictions;
     }
 
+    /**
+     * Predict using rows in the columnar binary format. Categorical columns are encoded once per dictionary entry and
+     * the rows are handed to the {@link Predictor} as numeric values, without any string parsing per row. A numeric
+     * column given for a categorical feature is taken as already encoded.
+     *
+     * @param tenantId tenant id
+     * @param userName user name
+     * @param modelId id of the model
+     * @param data rows to be predicted
+     * @param percentile percentile value (anomaly detection models)
+     * @param skipDecoding whether the decoding should not be done
+     * @return predicted values
+     * @throws MLModelHandlerException
+     */
+    public List<?> predict(int tenantId, String userName, long modelId, ColumnarData data, double percentile,
+            boolean skipDecoding) throws MLModelHandlerException {
+
+        if (!isValidModelId(tenantId, userName, modelId)) {
+            String msg = String.format("Failed to build the model. Invalid model id: %s for tenant: %s and user: %s",
+                    modelId, tenantId, userName);
+            throw new MLModelHandlerException(msg);
+        }
+
+        if (!isValidModelStatus(modelId, tenantId, userName)) {
+            String msg = String
+                    .format("This model cannot be used for prediction. Status of the model for model id: %s for tenant: %s and user: %s is not 'Complete'",
+                            modelId, tenantId, userName);
+            throw new MLModelHandlerException(msg);
+        }
+
+        if (data.getNumberOfRows() == 0) {
+            throw new MLModelHandlerException("Predict dataset is empty.");
+        }
+
+        MLModel builtModel = retrieveModel(modelId);
+
+        // Validate number of features in predict dataset
+        int numberOfFeatures = builtModel.getNewToOldIndicesList().size();
+        if (numberOfFeatures != data.getNumberOfColumns()) {
+            String msg = String.format("Prediction failed from model [id] %s since [number of features of model]" +
+                            " %s does not match [number of features in the input data] %s",
+                    modelId, builtModel.getFeatures().size(), data.getNumberOfColumns());
+            throw new MLModelHandlerException(msg);
+        }
+
+        List<Map<String, Integer>> encodings = builtModel.getEncodings();
+        double[][] rows = new double[data.getNumberOfRows()][numberOfFeatures];
+        for (int featureIndex = 0; featureIndex < numberOfFeatures; featureIndex++) {
+            ColumnarData.Column column = data.getColumn(featureIndex);
+            if (column.isNumeric()) {
+                double[] values = column.getValues();
+                for (int row = 0; row < rows.length; row++) {
+                    rows[row][featureIndex] = values[row];
+                }
+            } else {
+                Map<String, Integer> encoding = encodings != null && encodings.size() > featureIndex ? encodings
+                        .get(featureIndex) : null;
+                double[] dictionaryValues = encodeDictionary(column.getDictionary(), encoding, featureIndex);
+                int[] codes = column.getCodes();
+                for (int row = 0; row < rows.length; row++) {
+                    rows[row][featureIndex] = dictionaryValues[codes[row]];
+                }
+            }
+        }
+
+        // predict
+        Predictor predictor = new Predictor(modelId, builtModel, rows, percentile, skipDecoding);
+        return predictor.predict();
+    }
+
+    /**
+     * Encode the distinct values of a categorical column into the numeric values used by the model.
+     */
+    private double[] encodeDictionary(String[] dictionary, Map<String, Integer> encoding, int featureIndex)
+            throws MLModelHandlerException {
+        double[] encoded = new double[dictionary.length];
+        for (int i = 0; i < dictionary.length; i++) {
+            if (encoding != null && !encoding.isEmpty()) {
+                // if we found an unknown string, we encode it from 0th mapping, same as the BasicEncoder.
+                Integer code = encoding.get(dictionary[i]);
+                encoded[i] = code == null ? encoding.values().iterator().next() : code;
+            } else if (NumberUtils.isNumber(dictionary[i])) {
+                encoded[i] = Double.parseDouble(dictionary[i]);
+            } else {
+                String msg = String.format("Invalid value: %s for the numerical feature at feature index: %s",
+                        dictionary[i], featureIndex);
+                throw new MLModelHandlerException(msg);
+            }
+        }
+        return encoded;
+    }
+
     public List<?> getProductRecommendations(int tenantId, String userName, long modelId, int userId, int noOfProducts)
             throws MLModelHandlerException {
 
@@ -730,7 +911,10 @@ public class MLModelHandler {
             }
             String storageType = storage.getType();
             String storageLocation = storage.getLocation();
-            String outPath = storageLocation + File.separator + modelName;
+            MLIOFactory ioFactory = new MLIOFactory(mlProperties);
+            // adapters compress the model with the codec of the extension of the path
+            String extension = ioFactory.getCompressionCodec(storageType).getExtension();
+            String outPath = storageLocation + File.separator + modelName + extension;
 
             // if this is a deeplearning model, need to set the storage location for writing
             // then the sparkdeeplearning model will use ObjectTreeBinarySerializer to write it to the given directory
@@ -760,28 +944,12 @@ public class MLModelHandler {
 
                 // Writing the DL model without Deep Learning logic
                 // For prediction with POJO
-                MLIOFactory ioFactoryDl = new MLIOFactory(mlProperties);
-                MLOutputAdapter outputAdapterDl = ioFactoryDl.getOutputAdapter(storageType + MLConstants.OUT_SUFFIX);
-                ByteArrayOutputStream baosDl = new ByteArrayOutputStream();
-                ObjectOutputStream oosDl = new ObjectOutputStream(baosDl);
-                oosDl.writeObject(dlModel);
-                oosDl.flush();
-                oosDl.close();
-                InputStream isDl = new ByteArrayInputStream(baosDl.toByteArray());
-                // adapter will write the model and close the stream.
-                outputAdapterDl.write(outPath + "_dl", isDl);
+                MLOutputAdapter outputAdapterDl = ioFactory.getOutputAdapter(storageType + MLConstants.OUT_SUFFIX);
+                writeModel(outputAdapterDl, storageLocation + File.separator + modelName + "_dl" + extension, dlModel);
             }
 
-            MLIOFactory ioFactory = new MLIOFactory(mlProperties);
             MLOutputAdapter outputAdapter = ioFactory.getOutputAdapter(storageType + MLConstants.OUT_SUFFIX);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(model);
-            oos.flush();
-            oos.close();
-            InputStream is = new ByteArrayInputStream(baos.toByteArray());
-            // adapter will write the model and close the stream.
-            outputAdapter.write(outPath, is);
+            writeModel(outputAdapter, outPath, model);
             databaseService.updateModelStorage(modelId, storageType, outPath);
             log.info(String.format("Successfully persisted the model [id] %s", modelId));
         } catch (Exception e) {
@@ -789,6 +957,44 @@ public class MLModelHandler {
         }
     }
 
+    /**
+     * Write a model to a given path, along with the CRC32 checksum of the serialized model to the path with the
+     * checksum suffix. Models are streamed to the adapters supporting it, as they are serialized, and appear at the
+     * path only once they are completely written. The checksum is written before the model appears at the path, so
+     * that a reader finding the model also finds its checksum. A reader in between finds the previous model with the
+     * new checksum, which fails the verification of the model cache, hence the model is read uncached.
+     */
+    private void writeModel(MLOutputAdapter outputAdapter, String outPath, MLModel model) throws IOException,
+            MLOutputAdapterException {
+        CRC32 checksum = new CRC32();
+        if (outputAdapter instanceof MLStreamingOutputAdapter) {
+            AtomicOutputStream out = ((MLStreamingOutputAdapter) outputAdapter).open(outPath);
+            try {
+                OutputStream checkedOut = new CheckedOutputStream(new BufferedOutputStream(out), checksum);
+                MLModelSerializer.write(model, checkedOut);
+                checkedOut.flush();
+                writeChecksum(outputAdapter, outPath, checksum.getValue());
+                // moves the model to the path
+                out.close();
+            } finally {
+                // no effect once the stream is closed
+                out.abort();
+            }
+        } else {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            MLModelSerializer.write(model, new CheckedOutputStream(baos, checksum));
+            writeChecksum(outputAdapter, outPath, checksum.getValue());
+            // adapter will write the model and close the stream.
+            outputAdapter.write(outPath, new ByteArrayInputStream(baos.toByteArray()));
+        }
+    }
+
+    private void writeChecksum(MLOutputAdapter outputAdapter, String path, long checksum)
+            throws MLOutputAdapterException {
+        byte[] content = Long.toHexString(checksum).getBytes(StandardCharsets.UTF_8);
+        outputAdapter.write(path + MLConstants.CHECKSUM_SUFFIX, new ByteArrayInputStream(content));
+    }
+
     private List<Integer> getNewToOldIndicesList(SortedMap<Integer, String> includedFeatures) {
         List<Integer> indicesList = new ArrayList<Integer>();
         for (int featureIdx : includedFeatures.keySet()) {
@@ -799,7 +1005,6 @@ public class MLModelHandler {
 
     public MLModel retrieveModel(long modelId) throws MLModelHandlerException {
         InputStream in = null;
-        ObjectInputStream ois = null;
         String storageLocation = null;
         try {
             MLStorage storage = databaseService.getModelStorage(modelId);
@@ -809,13 +1014,21 @@ public class MLModelHandler {
             String storageType = storage.getType();
             storageLocation = storage.getLocation();
             MLIOFactory ioFactory = new MLIOFactory(mlProperties);
-            MLInputAdapter inputAdapter = ioFactory.getInputAdapter(storageType + MLConstants.IN_SUFFIX);
+            MLInputAdapter inputAdapter = ioFactory.getModelInputAdapter(storageType);
             in = inputAdapter.read(storageLocation);
-            ois = new ObjectInputStream(in);
+            if (!in.markSupported()) {
+                in = new BufferedInputStream(in);
+            }
+            boolean binaryModel = MLModelSerializer.isBinaryModel(in);
 
             // for the DeeplearningModel since the storageLocation is serialized
             // so the ObjectTreeBinarySerializer will get the storageLocation and deserialize
-            MLModel model = (MLModel) ois.readObject();
+            MLModel model = MLModelSerializer.readLazily(in);
+
+            if (!binaryModel && Boolean.parseBoolean(mlProperties.getProperty(
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_MODEL_MIGRATE))) {
+                migrateModel(ioFactory, storageType, storageLocation, model);
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("Successfully retrieved model");
@@ -833,14 +1046,20 @@ public class MLModelHandler {
                     log.error(msg, e);
                 }
             }
-            if (ois != null) {
-                try {
-                    ois.close();
-                } catch (IOException e) {
-                    String msg = "Error in closing input stream while publishing model";
-                    log.error(msg, e);
-                }
-            }
+        }
+    }
+
+    /**
+     * Rewrite a model stored with Java serialization in the binary model format, in place.
+     */
+    private void migrateModel(MLIOFactory ioFactory, String storageType, String storageLocation, MLModel model) {
+        try {
+            MLOutputAdapter outputAdapter = ioFactory.getOutputAdapter(storageType + MLConstants.OUT_SUFFIX);
+            writeModel(outputAdapter, storageLocation, model);
+            log.info(String.format("Migrated the model at %s to the binary model format", storageLocation));
+        } catch (Exception e) {
+            log.warn("Failed to migrate the model at " + storageLocation + " to the binary model format: "
+                    + e.getMessage(), e);
         }
     }
 
@@ -867,23 +1086,28 @@ public class MLModelHandler {
                     if (storage == null) {
                         throw new InvalidRequestException("Invalid model [id] " + modelId);
                     }
-                    String storageType = storage.getType();
-                    String storageLocation = storage.getLocation();
-                    MLIOFactory ioFactory = new MLIOFactory(mlProperties);
-                    MLInputAdapter inputAdapter = ioFactory.getInputAdapter(storageType + MLConstants.IN_SUFFIX);
-                    in = inputAdapter.read(storageLocation);
-                    if (in == null) {
-                        throw new InvalidRequestException("Invalid model [id] " + modelId);
+                    // published models are read with Java serialization by their consumers, the same as exported
+                    // models, hence the stored model is converted from the binary model format
+                    MLModel model = retrieveModel(modelId);
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    ObjectOutputStream out = new ObjectOutputStream(bytes);
+                    try {
+                        out.writeObject(model);
+                    } finally {
+                        out.close();
                     }
+                    in = new ByteArrayInputStream(bytes.toByteArray());
                     // create registry path
                     MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
                     String modelName = databaseService.getModel(tenantId, userName, modelId).getName();
                     relativeRegistryPath = "/" + valueHolder.getModelRegistryLocation() + "/" + modelName;
-                    // publish to registry
-                    registryOutputAdapter.write(relativeRegistryPath, in);
+                    // publish to registry, along with the checksum of the model
+                    CheckedInputStream checkedIn = new CheckedInputStream(in, new CRC32());
+                    registryOutputAdapter.write(relativeRegistryPath, checkedIn);
+                    writeChecksum(registryOutputAdapter, relativeRegistryPath, checkedIn.getChecksum().getValue());
                 } catch (DatabaseHandlerException e) {
                     throw new MLModelPublisherException(errorMsg, e);
-                } catch (MLInputAdapterException e) {
+                } catch (IOException e) {
                     throw new MLModelPublisherException(errorMsg, e);
                 } catch (MLOutputAdapterException e) {
                     throw new MLModelPublisherException(errorMsg, e);
@@ -947,14 +1171,12 @@ public class MLModelHandler {
             List<ClusterPoint> clusterPoints = new ArrayList<ClusterPoint>();
 
             String datasetURL = databaseService.getDatasetUri(datasetId);
+            String columnarURL = isColumnarDatasetEnabled() ? databaseService.getDatasetColumnarUri(datasetId) : null;
             MLDataset dataset = databaseService.getDataset(tenantId, userName, datasetId);
             String dataSourceType = dataset.getDataSourceType();
             String dataType = dataset.getDataType();
             // java spark context
             sparkContext = MLCoreServiceValueHolder.getInstance().getSparkContext();
-            JavaRDD<String> lines;
-            // parse lines in the dataset
-            lines = extractLines(tenantId, datasetId, sparkContext, datasetURL, dataSourceType, dataType);
             // get column separator
             String columnSeparator = ColumnSeparatorFactory.getColumnSeparator(dataType);
             // get header line
@@ -969,21 +1191,46 @@ public class MLModelHandler {
 
             double sampleSize = (double) MLCoreServiceValueHolder.getInstance().getSummaryStatSettings()
                     .getSampleSize();
-            double sampleFraction = sampleSize / (lines.count() - 1);
-            HeaderFilter headerFilter = new HeaderFilter.Builder().header(headerRow).build();
-            LineToTokens lineToTokens = new LineToTokens.Builder().separator(pattern).build();
-            MissingValuesFilter missingValuesFilter = new MissingValuesFilter.Builder().build();
-            TokensToVectors tokensToVectors = new TokensToVectors.Builder().indices(featureIndices).build();
-
-            // Use entire dataset if number of records is less than or equal to sample fraction
-            if (sampleFraction >= 1.0) {
-                featureVectors = lines.filter(headerFilter).map(lineToTokens).filter(missingValuesFilter)
-                        .map(tokensToVectors);
+            JavaRDD<Row> rows = null;
+            if (columnarURL != null) {
+                // only the selected features are read from the columnar dataset
+                try {
+                    rows = MLUtils.getRowsFromColumnar(sparkContext, columnarURL, featureIndices);
+                } catch (Exception e) {
+                    log.warn("Failed to read the columnar dataset " + columnarURL + ", reading the dataset "
+                            + datasetURL + " instead: " + e.getMessage(), e);
+                }
+            } else if (DatasetType.DAS == DatasetType.getDatasetType(dataSourceType)) {
+                // only the selected features are read from the table, rows with missing values are filtered by it
+                try {
+                    rows = MLUtils.getRowsFromDASTable(datasetURL, tenantId, sparkContext,
+                            Arrays.asList(pattern.split(headerRow)), featureIndices, featureIndices);
+                } catch (Exception e) {
+                    log.warn("Failed to read the selected columns of the DAS table " + datasetURL
+                            + ", reading all the columns instead: " + e.getMessage(), e);
+                }
             }
-            // Use ramdomly selected sample fraction of rows if number of records is > sample fraction
-            else {
-                featureVectors = lines.filter(headerFilter).sample(false, sampleFraction).map(lineToTokens)
-                        .filter(missingValuesFilter).map(tokensToVectors);
+            if (rows != null) {
+                double sampleFraction = sampleSize / rows.count();
+                if (sampleFraction < 1.0) {
+                    rows = rows.sample(false, sampleFraction);
+                }
+                featureVectors = rows.flatMap(new RowToVector.Builder().build());
+            } else {
+                JavaRDD<String> lines;
+                // parse lines in the dataset
+                lines = extractLines(tenantId, datasetId, sparkContext, datasetURL, dataSourceType, dataType);
+                double sampleFraction = sampleSize / (lines.count() - 1);
+                HeaderFilter headerFilter = new HeaderFilter.Builder().header(headerRow).build();
+                LineToTokens lineToTokens = new LineToTokens.Builder().separator(pattern).build();
+                lines = lines.filter(headerFilter);
+                // Use ramdomly selected sample fraction of rows if number of records is > sample fraction
+                if (sampleFraction < 1.0) {
+                    lines = lines.sample(false, sampleFraction);
+                }
+                MissingValuesFilter missingValuesFilter = new MissingValuesFilter.Builder().build();
+                TokensToVectors tokensToVectors = new TokensToVectors.Builder().indices(featureIndices).build();
+                featureVectors = lines.map(lineToTokens).filter(missingValuesFilter).map(tokensToVectors);
             }
             KMeans kMeans = new KMeans();
             KMeansModel kMeansModel = kMeans.train(featureVectors, noOfClusters, 100);
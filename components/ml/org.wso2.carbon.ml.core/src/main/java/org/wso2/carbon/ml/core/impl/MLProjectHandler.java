@@ -88,6 +88,15 @@ public class MLProjectHandler {
         }
     }
 
+    public List<MLProject> getAllProjects(int tenantId, String userName, int limit, int offset)
+            throws MLProjectHandlerException {
+        try {
+            return databaseService.getAllProjects(tenantId, userName, limit, offset);
+        } catch (DatabaseHandlerException e) {
+            throw new MLProjectHandlerException(e.getMessage(), e);
+        }
+    }
+
     public List<MLModelData> getProjectModels(int tenantId, String userName, long projectId) throws MLProjectHandlerException {
         try {
             return databaseService.getProjectModels(tenantId, userName, projectId);
@@ -35,6 +35,7 @@ import org.wso2.carbon.ml.commons.constants.MLConstants.DEEPLEARNING_ALGORITHM;
 import org.wso2.carbon.ml.commons.constants.MLConstants.SUPERVISED_ALGORITHM;
 import org.wso2.carbon.ml.commons.constants.MLConstants.UNSUPERVISED_ALGORITHM;
 import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.commons.domain.MLModel;
 import org.wso2.carbon.ml.core.exceptions.AlgorithmNameException;
 import org.wso2.carbon.ml.core.exceptions.MLModelBuilderException;
@@ -45,6 +46,7 @@ import org.wso2.carbon.ml.core.spark.transformations.BasicEncoder;
 import org.wso2.carbon.ml.core.spark.transformations.Normalization;
 import org.wso2.carbon.ml.core.utils.DeeplearningModelUtils;
 import org.wso2.carbon.ml.core.utils.MLUtils;
+import org.wso2.carbon.ml.database.util.MLDBUtil;
 import water.fvec.Frame;
 
 import java.util.*;
@@ -87,6 +89,15 @@ public class Predictor {
 
     }
 
+    // constructor for rows which are already encoded and parsed into numeric values
+    public Predictor(long modelId, MLModel mlModel, double[][] data, double percentile, boolean skipDecoding) {
+        id = modelId;
+        model = mlModel;
+        dataToBePredicted = getVectors(data);
+        percentileValue = percentile;
+        this.skipDecoding = skipDecoding;
+    }
+
     public List<?> predict() throws MLModelHandlerException {
         String algorithmType = model.getAlgorithmClass();
         AlgorithmType type = AlgorithmType.getAlgorithmType(algorithmType);
@@ -220,8 +231,14 @@ public class Predictor {
 
                 Normalization normalization = null;
                 if (model.getNormalization()) {
-                    normalization = new Normalization.Builder()
-                            .minMax(model.getFeatures(), model.getSummaryStatsOfFeatures()).build();
+                    Map<String, FeatureStatistics> featureStatistics = model.getFeatureStatistics();
+                    if (featureStatistics == null && model.getSummaryStatsOfFeatures() != null) {
+                        // model saved by an older version, parse its JSON summary stats once
+                        featureStatistics = MLDBUtil.getFeatureStatistics(model.getSummaryStatsOfFeatures());
+                        model.setFeatureStatistics(featureStatistics);
+                    }
+                    normalization = new Normalization.Builder().minMax(model.getFeatures(), featureStatistics)
+                            .build();
                 }
 
                 for (Vector vector : dataToBePredicted) {
@@ -343,6 +360,13 @@ public class Predictor {
         return vectors;
     }
 
+    private List<Vector> getVectors(double[][] data) {
+        List<Vector> vectors = new ArrayList<Vector>(data.length);
+        for (double[] dataEntry : data) {
+            vectors.add(new DenseVector(dataEntry));
+        }
+        return vectors;
+    }
 
     // write a method to decode the predicted value
     private List<?> decodePredictedValues(List<?> predictions) {
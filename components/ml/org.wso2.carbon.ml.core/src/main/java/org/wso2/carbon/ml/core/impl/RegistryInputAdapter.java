@@ -22,11 +22,13 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.context.RegistryType;
 import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.registry.api.Registry;
 import org.wso2.carbon.registry.api.RegistryException;
 import org.wso2.carbon.registry.api.Resource;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -42,8 +44,9 @@ public class RegistryInputAdapter implements MLInputAdapter {
             Resource resource = registry.get(path);
             byte[] readArray = (byte[]) resource.getContent();
             ByteArrayInputStream bis = new ByteArrayInputStream(readArray);
-            return bis;
-        } catch (RegistryException e) {
+            // resources are decompressed with the codec of the extension of the path
+            return MLCompressionCodec.getCompressionCodecOfPath(path).decompress(bis);
+        } catch (RegistryException | IOException e) {
             throw new MLInputAdapterException(String.format("Failed to read the model from uri %s: %s", path, e), e);
         }
     }
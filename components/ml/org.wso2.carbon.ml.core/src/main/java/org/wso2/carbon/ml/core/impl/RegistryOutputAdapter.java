@@ -23,6 +23,7 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.context.RegistryType;
 import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
 import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
+import org.wso2.carbon.ml.core.utils.MLCompressionCodec;
 import org.wso2.carbon.registry.api.Registry;
 import org.wso2.carbon.registry.api.RegistryException;
 import org.wso2.carbon.registry.api.Resource;
@@ -30,6 +31,7 @@ import org.wso2.carbon.registry.api.Resource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Registry adapter for ML. Responsible for writing a given input stream to a governance registry
@@ -45,8 +47,11 @@ public class RegistryOutputAdapter implements MLOutputAdapter {
                     "Null argument values detected. Input stream: %s Out Path: %s", in, outPath));
         }
         try {
+            // resources are compressed with the codec of the extension of the path
             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            IOUtils.copy(in, byteArrayOutputStream);
+            OutputStream out = MLCompressionCodec.getCompressionCodecOfPath(outPath).compress(byteArrayOutputStream);
+            IOUtils.copy(in, out);
+            out.close();
             byte[] array = byteArrayOutputStream.toByteArray();
 
             PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
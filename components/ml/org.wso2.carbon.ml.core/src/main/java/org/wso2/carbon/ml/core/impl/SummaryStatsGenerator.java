@@ -18,57 +18,42 @@
 package org.wso2.carbon.ml.core.impl;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.commons.math3.random.EmpiricalDistribution;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 import org.wso2.carbon.metrics.manager.Level;
 import org.wso2.carbon.metrics.manager.MetricManager;
 import org.wso2.carbon.metrics.manager.Timer.Context;
-import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.FeatureType;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.commons.domain.SummaryStats;
 import org.wso2.carbon.ml.commons.domain.config.SummaryStatisticsSettings;
 import org.wso2.carbon.ml.core.exceptions.MLDataProcessingException;
 import org.wso2.carbon.ml.core.interfaces.DatasetProcessor;
+import org.wso2.carbon.ml.core.utils.MLConstants;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 
 /**
- * Responsible for generating summary stats for a given set of sample points.
+ * Responsible for generating summary stats of a dataset. Statistics are calculated over the whole dataset in a single
+ * pass, while a sample of the dataset is kept for visualization. Once the type of each column is known, the dataset
+ * is optionally converted into a typed columnar dataset for model building.
  */
 public class SummaryStatsGenerator implements Runnable {
     private SummaryStatisticsSettings summarySettings;
     private static final Log logger = LogFactory.getLog(SummaryStatsGenerator.class);
-    // List containing positions of columns with numerical data.
-    private List<Integer> numericDataColumnPositions = new ArrayList<Integer>();
-    // List containing positions of columns with string data.
-    private List<Integer> stringDataColumnPositions = new ArrayList<Integer>();
-    // List containing actual data of the sample.
-    private List<List<String>> columnData = new ArrayList<List<String>>();
-    // List containing descriptive statistics for each feature.
-    private List<DescriptiveStatistics> descriptiveStats = new ArrayList<DescriptiveStatistics>();
+    // List containing statistics of each column of the data-set.
+    private List<ColumnStatistics> columnStats = new ArrayList<ColumnStatistics>();
     // List containing bin frequencies for each feature.
     private List<SortedMap<?, Integer>> graphFrequencies = new ArrayList<SortedMap<?, Integer>>();
-    // Array containing histograms of each feature in the data-set.
-    private EmpiricalDistribution[] histogram;
     // Array containing number of unique values of each feature in the data-set.
     private int[] unique;
     private int[] missing;
-    private int[] stringCellCount;
-    private int[] decimalCellCount;
     // Array containing data-type of each feature in the data-set.
     private String[] type;
     // Map containing indices and names of features of the data-set.
@@ -88,8 +73,8 @@ public class SummaryStatsGenerator implements Runnable {
     }
 
     /**
-     * get a summary of a sample from the given CSV file, including descriptive-statistics, missing values, unique
-     * values and etc. to display in the data view.
+     * get a summary of the given dataset, including descriptive-statistics, missing values, unique values and etc. to
+     * display in the data view.
      */
     @Override
     public void run() {
@@ -103,28 +88,26 @@ public class SummaryStatsGenerator implements Runnable {
             this.samplePoints = datasetProcessor.takeSample();
             this.samplePoints.setGenerated(true);
             this.headerMap = samplePoints.getHeader();
-            this.columnData = samplePoints.getSamplePoints();
-            this.missing = samplePoints.getMissing();
-            this.stringCellCount = samplePoints.getStringCellCount();
-            this.decimalCellCount = samplePoints.getDecimalCellCount();
+            this.columnStats = datasetProcessor.calculateStatistics(summarySettings.getMaxCategories());
             int noOfFeatures = this.headerMap.size();
+            if (columnStats.size() < noOfFeatures) {
+                throw new MLDataProcessingException(String.format(
+                        "Dataset has %s columns while its header has %s features.", columnStats.size(), noOfFeatures));
+            }
             // Initialize the lists.
             this.unique = new int[noOfFeatures];
+            this.missing = new int[noOfFeatures];
             this.type = new String[noOfFeatures];
-            this.histogram = new EmpiricalDistribution[noOfFeatures];
             for (int i = 0; i < noOfFeatures; i++) {
-                this.descriptiveStats.add(new DescriptiveStatistics());
-                this.graphFrequencies.add(new TreeMap<String, Integer>());
+                this.graphFrequencies.add(null);
+                this.unique[i] = (int) Math.min(columnStats.get(i).getDistinctCount(), Integer.MAX_VALUE);
+                this.missing[i] = (int) Math.min(columnStats.get(i).getMissing(), Integer.MAX_VALUE);
             }
             // Find the columns containing String and Numeric data.
             identifyColumnDataType();
-            // Calculate descriptive statistics.
-            calculateDescriptiveStats();
-            // Calculate frequencies of each bin of the String features.
-            calculateStringColumnFrequencies();
-            // Calculate frequencies of each bin of the Numerical features.
-            calculateNumericColumnFrequencies();
-            SummaryStats stats = new SummaryStats(headerMap, type, graphFrequencies, missing, unique, descriptiveStats);
+            // Calculate frequencies of each category or bin of the features.
+            calculateColumnFrequencies();
+            SummaryStats stats = new SummaryStats(headerMap, type, graphFrequencies, missing, unique, columnStats);
             // Update the database with calculated summary statistics.
             DatabaseService dbService = MLCoreServiceValueHolder.getInstance().getDatabaseService();
             dbService.updateSamplePoints(datasetVersionId, samplePoints);
@@ -132,6 +115,11 @@ public class SummaryStatsGenerator implements Runnable {
             if (logger.isDebugEnabled()) {
                 logger.debug("Summary statistics successfully generated for dataset version: " + datasetVersionId);
             }
+            // Convert the dataset once the column types are known.
+            if (Boolean.parseBoolean(MLCoreServiceValueHolder.getInstance().getMlProperties()
+                    .getProperty(MLConstants.ML_DATASET_COLUMNAR))) {
+                convertToColumnar(dbService);
+            }
         } catch (DatabaseHandlerException | MLDataProcessingException e) {
             DatabaseService dbService = MLCoreServiceValueHolder.getInstance().getDatabaseService();
             try {
@@ -149,179 +137,85 @@ public class SummaryStatsGenerator implements Runnable {
     }
 
     /**
-     * Finds the columns with Categorical data and Numerical data. Stores the raw-data in a list.
-     *
+     * Converts the dataset into a typed columnar dataset, recorded against the dataset version. Models are built from
+     * the original dataset if the conversion fails.
      */
-    protected String[] identifyColumnDataType() {
-        // If at least one cell contains strings, then the column is considered to has string data.
-        for (int col = 0; col < headerMap.size(); col++) {
-            if (stringCellCount[col] > 0) {
-                this.stringDataColumnPositions.add(col);
-                this.type[col] = FeatureType.CATEGORICAL;
-            } else {
-                this.numericDataColumnPositions.add(col);
-                this.type[col] = FeatureType.NUMERICAL;
-            }
+    private void convertToColumnar(DatabaseService dbService) {
+        String columnarPath = datasetProcessor.getColumnarPath();
+        if (columnarPath == null) {
+            return;
         }
-        
-        double categoricalThreshold = summarySettings.getCategoricalThreshold();
-        // Iterate through each column.
-        for (int currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
-            if (this.numericDataColumnPositions.contains(currentCol)) {
-
-                // Create a unique set from the column.
-                List<String> data = this.columnData.get(currentCol);
-
-                // Check whether it is an empty column
-                // Rows with missing values are not filtered at summery stat generation. Therefore it is possible to
-                // have all rows in sample with values missing in a column.
-                if (data.size() == 0) {
-                    String msg = String.format("Column %s is empty in the selected sample rows in dataset version %s",
-                            currentCol, this.datasetVersionId);
-                    logger.warn(msg);
-                    continue;
-                }
-
-                Set<String> uniqueSet = new HashSet<String>(data);
-                int multipleOccurences = 0;
-                
-                for (String uniqueValue : uniqueSet) {
-                    int frequency = Collections.frequency(data, uniqueValue);
-                    if (frequency > 1) {
-                        multipleOccurences++;
-                    }
-                }
-                
-                // if a column has at least one decimal value, then it can't be categorical.
-                // if a feature has more than X% of repetitive distinct values, then that feature can be a categorical
-                // one. X = categoricalThreshold
-                if (decimalCellCount[currentCol] == 0
-                        && (multipleOccurences / uniqueSet.size()) * 100 >= categoricalThreshold) {
-                    this.type[currentCol] = FeatureType.CATEGORICAL;
-                }
-
+        Context context = MetricManager.timer(Level.INFO, "org.wso2.carbon.ml.dataset-columnar-conversion-time")
+                .start();
+        try {
+            String schema = datasetProcessor.convertToColumnar(type);
+            if (schema != null) {
+                dbService.updateColumnarDataset(datasetVersionId, columnarPath, schema);
             }
-
+        } catch (DatabaseHandlerException | MLDataProcessingException e) {
+            logger.warn("Failed to convert dataset version " + this.datasetVersionId + " to a columnar dataset: "
+                    + e.getMessage(), e);
+        } finally {
+            context.stop();
         }
-
-        return type;
     }
 
     /**
-     * Calculate descriptive statistics for Numerical columns.
+     * Finds the columns with Categorical data and Numerical data.
+     *
      */
-    protected List<DescriptiveStatistics> calculateDescriptiveStats() {
-        double cellValue;
-        int currentCol;
+    protected String[] identifyColumnDataType() {
+        double categoricalThreshold = summarySettings.getCategoricalThreshold();
         // Iterate through each column.
-        for (currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
-            // If the column is numerical.
-            if (this.numericDataColumnPositions.contains(currentCol)) {
-                // Convert each cell value to double and append to the
-                // Descriptive-statistics object.
-                for (int row = 0; row < this.columnData.get(currentCol).size(); row++) {
-                    if (this.columnData.get(currentCol).get(row) != null
-                            && !MLConstants.MISSING_VALUES.contains(this.columnData.get(currentCol).get(row))) {
-                        cellValue = Double.parseDouble(columnData.get(currentCol).get(row));
-                        this.descriptiveStats.get(currentCol).addValue(cellValue);
-                    }
-                }
+        for (int currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
+            ColumnStatistics stats = this.columnStats.get(currentCol);
+            // If at least one cell contains strings, then the column is considered to has string data.
+            if (stats.getStringCellCount() > 0) {
+                this.type[currentCol] = FeatureType.CATEGORICAL;
+                continue;
+            }
+            this.type[currentCol] = FeatureType.NUMERICAL;
+
+            // Check whether it is an empty column
+            // Rows with missing values are not filtered at summery stat generation. Therefore it is possible to
+            // have all rows with values missing in a column.
+            if (stats.getCount() == 0) {
+                String msg = String.format("Column %s is empty in dataset version %s", currentCol,
+                        this.datasetVersionId);
+                logger.warn(msg);
+                continue;
             }
-        }
-
-        return descriptiveStats;
-    }
-
-    /**
-     * Calculate the frequencies of each category in String columns, needed to plot bar graphs/histograms. Calculate
-     * unique value counts.
-     *
-     */
-    protected List<SortedMap<?, Integer>> calculateStringColumnFrequencies() {
 
-        Iterator<Integer> stringColumns = this.stringDataColumnPositions.iterator();
-        int currentCol;
-        // Iterate through all Columns with String data.
-        while (stringColumns.hasNext()) {
-            currentCol = stringColumns.next();
-            SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
-            // Create a unique set from the column.
-            Set<String> uniqueSet = new HashSet<String>(this.columnData.get(currentCol));
-            // Count the frequencies in each unique value.
-            this.unique[currentCol] = uniqueSet.size();
-            for (String uniqueValue : uniqueSet) {
-                if (uniqueValue != null) {
-                    frequencies.put(uniqueValue.toString(),
-                            Collections.frequency(this.columnData.get(currentCol), uniqueValue));
-                }
+            // if a column has at least one decimal value, then it can't be categorical.
+            // if a feature has more than X% of repetitive distinct values, then that feature can be a categorical
+            // one. X = categoricalThreshold. A column with more distinct values than the categories counted is not
+            // categorical.
+            if (stats.getDecimalCellCount() == 0 && stats.isCategoryCountExact()
+                    && stats.getRepeatedValueRatio() * 100 >= categoricalThreshold) {
+                this.type[currentCol] = FeatureType.CATEGORICAL;
             }
-            graphFrequencies.set(currentCol, frequencies);
         }
 
-        return graphFrequencies;
+        return type;
     }
 
     /**
-     * Calculate the frequencies of each category/interval of Numerical data columns.
+     * Calculate the frequencies of each category of Categorical columns and of each interval of Numerical columns,
+     * needed to plot bar graphs/histograms.
      *
      */
-    protected List<SortedMap<?, Integer>> calculateNumericColumnFrequencies() {
+    protected List<SortedMap<?, Integer>> calculateColumnFrequencies() {
         int noOfIntervals = summarySettings.getHistogramBins();
-        Iterator<Integer> numericColumns = this.numericDataColumnPositions.iterator();
-        int currentCol;
-        // Iterate through all Columns with Numerical data.
-        while (numericColumns.hasNext()) {
-            currentCol = numericColumns.next();
-            // Create a unique set from the column.
-            Set<String> uniqueSet = new HashSet<String>(this.columnData.get(currentCol));
-            this.unique[currentCol] = uniqueSet.size();
+        for (int currentCol = 0; currentCol < this.headerMap.size(); currentCol++) {
+            ColumnStatistics stats = this.columnStats.get(currentCol);
             if (FeatureType.CATEGORICAL.equals(this.type[currentCol])) {
-                // Calculate the category frequencies.
-                SortedMap<String, Integer> frequencies = new TreeMap<String, Integer>();
-                for (String uniqueValue : uniqueSet) {
-                    if (uniqueValue != null && !uniqueValue.isEmpty()) {
-                        frequencies.put(uniqueValue,
-                                Collections.frequency(this.columnData.get(currentCol), uniqueValue));
-                    }
-                }
-                this.graphFrequencies.set(currentCol, frequencies);
+                this.graphFrequencies.set(currentCol, stats.getCategoryFrequencies());
             } else {
-                // If unique values are more than the threshold, calculate interval frequencies.
-                calculateIntervalFreqs(currentCol, noOfIntervals);
+                this.graphFrequencies.set(currentCol, stats.getHistogram(noOfIntervals));
             }
         }
 
         return graphFrequencies;
     }
 
-    /**
-     * Calculate the frequencies of each interval of a column.
-     *
-     * @param column Column of which the frequencies are to be calculated.
-     * @param intervals Number of intervals to be split.
-     */
-    protected List<SortedMap<?, Integer>> calculateIntervalFreqs(int column, int intervals) {
-        SortedMap<Integer, Integer> frequencies = new TreeMap<Integer, Integer>();
-        double[] data = new double[this.columnData.get(column).size()];
-        // Create an array from the column data.
-        for (int row = 0; row < columnData.get(column).size(); row++) {
-            if (this.columnData.get(column).get(row) != null &&
-                    !MLConstants.MISSING_VALUES.contains(this.columnData.get(column).get(row))) {
-                data[row] = Double.parseDouble(this.columnData.get(column).get(row));
-            }
-        }
-        // Create equal partitions.
-        this.histogram[column] = new EmpiricalDistribution(intervals);
-        this.histogram[column].load(data);
-
-        // Get the frequency of each partition.
-        int bin = 0;
-        for (SummaryStatistics stats : this.histogram[column].getBinStats()) {
-            frequencies.put(bin++, (int) stats.getN());
-        }
-        this.graphFrequencies.set(column, frequencies);
-
-        return graphFrequencies;
-    }
-
 }
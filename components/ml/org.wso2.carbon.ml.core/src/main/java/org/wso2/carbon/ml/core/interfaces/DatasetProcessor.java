@@ -17,8 +17,11 @@
  */
 package org.wso2.carbon.ml.core.interfaces;
 
+import java.util.List;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.MLDataset;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.core.exceptions.MLDataProcessingException;
@@ -70,6 +73,34 @@ public abstract class DatasetProcessor {
      * @throws MLDataProcessingException
      */
     public abstract SamplePoints takeSample() throws MLDataProcessingException;
+
+    /**
+     * Calculate the statistics of each column over the whole dataset, in a single pass.
+     *
+     * @param maxCategories maximum number of categories to be reported per column
+     * @return {@link ColumnStatistics} of each column, in column order
+     * @throws MLDataProcessingException
+     */
+    public abstract List<ColumnStatistics> calculateStatistics(int maxCategories) throws MLDataProcessingException;
+
+    /**
+     * Convert the dataset into a typed columnar dataset written to {@link DatasetProcessor#getColumnarPath()}, so that
+     * model building reads only the columns it needs. Not supported by default.
+     *
+     * @param types type of each column of the dataset, in column order
+     * @return schema of the columnar dataset, null if the dataset can not be converted
+     * @throws MLDataProcessingException
+     */
+    public String convertToColumnar(String[] types) throws MLDataProcessingException {
+        return null;
+    }
+
+    /**
+     * @return path of the columnar copy of the dataset, null if the dataset can not be converted
+     */
+    public String getColumnarPath() {
+        return null;
+    }
     
     public void handleValidationException(String msg) throws MLInputValidationException {
         log.error(msg);
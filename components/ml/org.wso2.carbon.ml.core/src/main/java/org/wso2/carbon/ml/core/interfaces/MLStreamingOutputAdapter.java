@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.interfaces;
+
+import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
+import org.wso2.carbon.ml.core.utils.AtomicOutputStream;
+
+/**
+ * This interface should be implemented by output adapters which can hand out a stream to write to a given path, so
+ * large content (e.g. models) is written as it is produced, without buffering it in memory.
+ */
+public interface MLStreamingOutputAdapter extends MLOutputAdapter {
+
+    /**
+     * Open a stream writing to a given target path. The written content appears at the target path, replacing any
+     * existing content, only when the stream is closed.
+     *
+     * @param outPath targeted path. eg: /test.txt
+     * @return {@link AtomicOutputStream} to write to, which should be closed, or aborted on a failure, by the caller.
+     * @throws MLOutputAdapterException on a failure to open the stream.
+     */
+    AtomicOutputStream open(String outPath) throws MLOutputAdapterException;
+}
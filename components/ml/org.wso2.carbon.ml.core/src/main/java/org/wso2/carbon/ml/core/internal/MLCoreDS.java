@@ -17,6 +17,7 @@
  */
 package org.wso2.carbon.ml.core.internal;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.NoSuchElementException;
 import java.util.Properties;
@@ -25,6 +26,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.storage.StorageLevel;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.base.ServerConfiguration;
 import org.wso2.carbon.event.output.adapter.core.OutputEventAdapterConfiguration;
@@ -39,9 +41,14 @@ import org.wso2.carbon.ml.core.impl.H2OConfigurationParser;
 import org.wso2.carbon.ml.core.impl.H2OServer;
 import org.wso2.carbon.ml.core.impl.SparkConfigurationParser;
 import org.wso2.carbon.ml.core.utils.BlockingExecutor;
+import org.wso2.carbon.ml.core.utils.ColumnarData;
 import org.wso2.carbon.ml.core.utils.ComputeClasspath;
+import org.wso2.carbon.ml.core.utils.HdfsFileSystemPool;
+import org.wso2.carbon.ml.core.utils.LocalModelCache;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
+import org.wso2.carbon.ml.core.utils.PreprocessedDataCache;
+import org.wso2.carbon.ml.core.utils.ScoringExecutor;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.utils.CarbonUtils;
 import org.wso2.carbon.utils.ConfigurationContextService;
@@ -103,6 +110,47 @@ public class MLCoreDS {
             }
             valueHolder.setThreadExecutor(new BlockingExecutor(poolSize, poolQueueSize));
 
+            // executor for the asynchronous prediction requests
+            int scoringPoolSize = getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_SCORING_POOL_SIZE, 20);
+            int scoringQueueSize = getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_SCORING_POOL_QUEUE_SIZE, 1000);
+            int scoringTenantQueueSize = getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_SCORING_POOL_TENANT_QUEUE_SIZE, 100);
+            valueHolder.setScoringExecutor(new ScoringExecutor(scoringPoolSize, scoringQueueSize,
+                    scoringTenantQueueSize));
+            valueHolder.setScoringTimeout(getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_SCORING_TIMEOUT, 30000));
+            valueHolder.setColumnarMaxValues(getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_COLUMNAR_MAX_VALUES,
+                    ColumnarData.DEFAULT_MAX_VALUES));
+
+            // cache of the preprocessed training data, shared by the model builds
+            valueHolder.setPreprocessedDataCache(new PreprocessedDataCache(getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_PREPROCESSED_CACHE_SIZE, 4), getStorageLevel(
+                    mlProperties.getProperty(
+                            org.wso2.carbon.ml.core.utils.MLConstants.ML_PREPROCESSED_CACHE_STORAGE_LEVEL))));
+
+            // file system handles shared by the HDFS adapters
+            valueHolder.setHdfsFileSystemPool(new HdfsFileSystemPool(HdfsFileSystemPool.newHdfsConfiguration(),
+                    mlConfig.getHdfsUrl(), getIntProperty(mlProperties,
+                            org.wso2.carbon.ml.core.utils.MLConstants.ML_HDFS_BUFFER_SIZE, 64 * 1024),
+                    getIntProperty(mlProperties,
+                            org.wso2.carbon.ml.core.utils.MLConstants.ML_HDFS_PARALLEL_READ_THRESHOLD, 0),
+                    getIntProperty(mlProperties,
+                            org.wso2.carbon.ml.core.utils.MLConstants.ML_HDFS_PARALLEL_READ_THREADS, 4)));
+
+            // local copies of the models of remote storage types
+            int modelCacheQuota = getIntProperty(mlProperties,
+                    org.wso2.carbon.ml.core.utils.MLConstants.ML_MODEL_CACHE_QUOTA, 1024);
+            if (modelCacheQuota > 0) {
+                String modelCacheDirectory = mlProperties.getProperty(
+                        org.wso2.carbon.ml.core.utils.MLConstants.ML_MODEL_CACHE_DIRECTORY,
+                        CarbonUtils.getCarbonHome() + File.separator + "tmp" + File.separator + "ml-model-cache");
+                valueHolder.setLocalModelCache(new LocalModelCache(new File(modelCacheDirectory),
+                        modelCacheQuota * 1024L * 1024L));
+            }
+
             // Checks whether ML spark context disabling JVM option is set
             if (System.getProperty(MLConstants.DISABLE_ML_SPARK_CONTEXT_JVM_OPT) != null) {
                 if (Boolean.parseBoolean(System.getProperty(MLConstants.DISABLE_ML_SPARK_CONTEXT_JVM_OPT))) {
@@ -199,6 +247,11 @@ public class MLCoreDS {
             // ML metrices
             MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.thread-pool-active-count", activeCountGauge);
             MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.thread-pool-queue-size", queueSizeGauge);
+            MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.scoring-pool-active-count", scoringActiveCountGauge);
+            MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.scoring-pool-queue-size", scoringQueueSizeGauge);
+            MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.scoring-pool-queued-tenant-count",
+                    scoringQueuedTenantsGauge);
+            MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.scoring-pool-rejected-count", scoringRejectedGauge);
             
             log.info("ML core bundle activated successfully.");
         } catch (Throwable e) {
@@ -222,14 +275,70 @@ public class MLCoreDS {
         }
     };
 
+    Gauge<Integer> scoringActiveCountGauge = new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+            return MLCoreServiceValueHolder.getInstance().getScoringExecutor().getActiveCount();
+        }
+    };
+
+    Gauge<Integer> scoringQueueSizeGauge = new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+            return MLCoreServiceValueHolder.getInstance().getScoringExecutor().getQueueSize();
+        }
+    };
+
+    Gauge<Integer> scoringQueuedTenantsGauge = new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+            return MLCoreServiceValueHolder.getInstance().getScoringExecutor().getQueuedTenantCount();
+        }
+    };
+
+    Gauge<Long> scoringRejectedGauge = new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+            return MLCoreServiceValueHolder.getInstance().getScoringExecutor().getRejectedCount();
+        }
+    };
+
+    private static int getIntProperty(Properties properties, String name, int defaultValue) {
+        String value = properties.getProperty(name);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn(String.format("Invalid value %s for the property %s. Using the default value %s.", value,
+                        name, defaultValue));
+            }
+        }
+        return defaultValue;
+    }
+
+    private static StorageLevel getStorageLevel(String name) {
+        if (name != null) {
+            try {
+                return StorageLevel.fromString(name);
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid storage level " + name + " for the preprocessed data cache, using MEMORY_ONLY.");
+            }
+        }
+        return StorageLevel.MEMORY_ONLY();
+    }
+
     protected void deactivate(ComponentContext context) {
         // Destroy the created email output adapter
         if (emailAdapterService != null) {
             emailAdapterService.destroy("TestEmailAdapter");
         }
+        if (MLCoreServiceValueHolder.getInstance().getScoringExecutor() != null) {
+            MLCoreServiceValueHolder.getInstance().getScoringExecutor().shutdown();
+        }
         if (MLCoreServiceValueHolder.getInstance().getSparkContext() != null) {
             MLCoreServiceValueHolder.getInstance().getSparkContext().close();
         }
+        MLCoreServiceValueHolder.getInstance().getHdfsFileSystemPool().close();
 //        H2OServer.stopH2O();
     }
 
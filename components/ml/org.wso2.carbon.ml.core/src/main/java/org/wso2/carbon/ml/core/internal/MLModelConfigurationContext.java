@@ -24,8 +24,11 @@ import java.util.SortedMap;
 
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Row;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.commons.domain.MLModelData;
 import org.wso2.carbon.ml.commons.domain.Workflow;
+import org.wso2.carbon.ml.core.spark.transformations.RowToTokens;
 
 /**
  * Represent configuration objects require to build a model.
@@ -37,10 +40,24 @@ public class MLModelConfigurationContext {
     private Workflow facts;
     private JavaSparkContext sparkContext;
     private JavaRDD<String> lines;
+    /**
+     * Tokens of each row of the dataset, without the header. Only the columns used by the model may be read.
+     */
+    private JavaRDD<String[]> tokens;
+    /**
+     * Rows of the selected columns of the dataset when it is read from a columnar dataset or a DAS table, null
+     * otherwise. The values are converted to the tokens above by {@link #rowToTokens}.
+     */
+    private JavaRDD<Row> rows;
+    private RowToTokens rowToTokens;
     private String headerRow;
     private String columnSeparator;
     private String[] dataToBePredicted;
-    private Map<String,String> summaryStatsOfFeatures;
+    /**
+     * Key - feature name
+     * Value - summary statistics of the feature
+     */
+    private Map<String, FeatureStatistics> featureStatistics;
     /**
      * Encodings list.
      * index - index of the feature. (last index is response variable)
@@ -83,6 +100,24 @@ public class MLModelConfigurationContext {
     public void setLines(JavaRDD<String> lines) {
         this.lines = lines;
     }
+    public JavaRDD<String[]> getTokens() {
+        return tokens;
+    }
+    public void setTokens(JavaRDD<String[]> tokens) {
+        this.tokens = tokens;
+    }
+    public JavaRDD<Row> getRows() {
+        return rows;
+    }
+    public void setRows(JavaRDD<Row> rows) {
+        this.rows = rows;
+    }
+    public RowToTokens getRowToTokens() {
+        return rowToTokens;
+    }
+    public void setRowToTokens(RowToTokens rowToTokens) {
+        this.rowToTokens = rowToTokens;
+    }
     public String getHeaderRow() {
         return headerRow;
     }
@@ -112,11 +147,11 @@ public class MLModelConfigurationContext {
     public void setModel(MLModelData model) {
         this.model = model;
     }
-    public Map<String,String> getSummaryStatsOfFeatures() {
-        return summaryStatsOfFeatures;
+    public Map<String, FeatureStatistics> getFeatureStatistics() {
+        return featureStatistics;
     }
-    public void setSummaryStatsOfFeatures(Map<String,String> summaryStatsOfFeatures) {
-        this.summaryStatsOfFeatures = summaryStatsOfFeatures;
+    public void setFeatureStatistics(Map<String, FeatureStatistics> featureStatistics) {
+        this.featureStatistics = featureStatistics;
     }
     public List<Map<String, Integer>> getEncodings() {
         return encodings;
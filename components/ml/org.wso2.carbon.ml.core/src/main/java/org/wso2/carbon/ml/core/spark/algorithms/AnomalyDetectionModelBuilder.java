@@ -36,6 +36,7 @@ import org.wso2.carbon.ml.core.spark.summary.AnomalyDetectionModelSummary;
 import org.wso2.carbon.ml.core.spark.transformations.*;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
+import org.wso2.carbon.ml.core.utils.PreprocessedDataCache;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 
@@ -55,9 +56,14 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
 
         MLModelConfigurationContext context = getContext();
         Workflow workflow = context.getFacts();
+        PreprocessedDataCache cache = MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache();
+        String key = PreprocessedDataCache.getKey(context, "anomaly-vectors", algorithm.name(),
+                String.valueOf(dataType), workflow.getNormalLabels(), String.valueOf(workflow.getNormalization()));
+        JavaRDD<Vector> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
 
-        HeaderFilter headerFilter = new HeaderFilter.Builder().init(context).build();
-        LineToTokens lineToTokens = new LineToTokens.Builder().init(context).build();
         DiscardedRowsFilter discardedRowsFilter = new DiscardedRowsFilter.Builder().init(context).build();
         RemoveDiscardedFeatures removeDiscardedFeatures = new RemoveDiscardedFeatures.Builder().init(context).build();
         MeanImputation meanImputation = new MeanImputation.Builder().init(context).build();
@@ -65,9 +71,7 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
         DoubleArrayToVector doubleArrayToVector = new DoubleArrayToVector.Builder().build();
         RemoveResponseColumn removeResponseColumn = new RemoveResponseColumn();
 
-        JavaRDD<String> lines = context.getLines().cache();
-
-        JavaRDD<String[]> tokens = lines.filter(headerFilter).map(lineToTokens).filter(discardedRowsFilter);
+        JavaRDD<String[]> tokens = context.getTokens().cache().filter(discardedRowsFilter);
 
         if (dataType != null) {
             switch (dataType) {
@@ -99,7 +103,7 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
 
         JavaRDD<Vector> vectors = doubleArray.map(doubleArrayToVector);
 
-        return vectors;
+        return cache.put(key, vectors);
     }
 
     /**
@@ -123,7 +127,7 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
             mlModel.setResponseVariable(workflow.getResponseVariable());
             mlModel.setEncodings(context.getEncodings());
             mlModel.setNewToOldIndicesList(context.getNewToOldIndicesList());
-            mlModel.setSummaryStatsOfFeatures(context.getSummaryStatsOfFeatures());
+            mlModel.setFeatureStatistics(context.getFeatureStatistics());
 
             SortedMap<Integer, String> includedFeatures = MLUtils.getIncludedFeaturesAfterReordering(workflow,
                     context.getNewToOldIndicesList(), context.getResponseIndex());
@@ -137,7 +141,7 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
             case K_MEANS_ANOMALY_DETECTION_WITH_UNLABELED_DATA:
                 mlModel.setResponseIndex(-1);
                 // gets the pre-processed dataset for unlabeled data
-                JavaRDD<Vector> data = preProcess(anomaly_detection_algorithm, null).cache();
+                JavaRDD<Vector> data = preProcess(anomaly_detection_algorithm, null);
 
                 summaryModel = buildUnlabeledDataAnomalyDetectionModel(modelId, data, workflow, mlModel,
                         includedFeatures);
@@ -147,22 +151,20 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
                 mlModel.setResponseIndex(context.getResponseIndex());
                 // gets the pre-processed dataset for labeled data
                 anomaly_detection_data_type = MLConstants.ANOMALY_DETECTION_DATA_TYPE.NORMAL;
-                JavaRDD<Vector> normalData = preProcess(anomaly_detection_algorithm, anomaly_detection_data_type)
-                        .cache();
+                JavaRDD<Vector> normalData = preProcess(anomaly_detection_algorithm, anomaly_detection_data_type);
                 JavaRDD<Vector> normalTrainData = normalData
                         .sample(false, workflow.getTrainDataFraction(), MLConstants.RANDOM_SEED).cache();
                 JavaRDD<Vector> normalTestData = normalData.subtract(normalTrainData).cache();
                 // remove from cache
-                normalData.unpersist();
+                MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().release(normalData);
 
                 anomaly_detection_data_type = MLConstants.ANOMALY_DETECTION_DATA_TYPE.ANOMALOUS;
-                JavaRDD<Vector> anomalyData = preProcess(anomaly_detection_algorithm, anomaly_detection_data_type)
-                        .cache();
+                JavaRDD<Vector> anomalyData = preProcess(anomaly_detection_algorithm, anomaly_detection_data_type);
                 double testDataFraction = (1 - workflow.getTrainDataFraction());
                 JavaRDD<Vector> anomalyTestData = anomalyData.sample(false, testDataFraction, MLConstants.RANDOM_SEED)
                         .cache();
                 // remove from cache
-                anomalyData.unpersist();
+                MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().release(anomalyData);
 
                 summaryModel = buildLabeledDataAnomalyDetectionModel(modelId, normalTrainData, normalTestData,
                         anomalyTestData, workflow, mlModel, includedFeatures);
@@ -210,7 +212,7 @@ public class AnomalyDetectionModelBuilder extends MLModelBuilder {
                     Integer.parseInt(hyperParameters.get(MLConstants.MAX_ITERATIONS)), newNormalLabel, newAnomalyLabel);
 
             // remove from cache
-            data.unpersist();
+            MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().release(data);
 
             // creating the model summary object
             AnomalyDetectionModelSummary anomalyDetectionModelSummary = new AnomalyDetectionModelSummary();
@@ -78,7 +78,7 @@ public class DeeplearningModelBuilder extends SupervisedSparkModelBuilder {
                     context.getNewToOldIndicesList(), responseIndex);
 
             // gets the pre-processed dataset
-            JavaRDD<LabeledPoint> labeledPoints = preProcess().cache();
+            JavaRDD<LabeledPoint> labeledPoints = preProcess();
 
             JavaRDD<LabeledPoint>[] dataSplit = labeledPoints.randomSplit(
                     new double[] { workflow.getTrainDataFraction(), 1 - workflow.getTrainDataFraction() },
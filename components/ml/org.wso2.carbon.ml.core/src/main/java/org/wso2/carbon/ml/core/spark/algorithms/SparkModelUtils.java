@@ -31,10 +31,9 @@ import org.apache.spark.api.java.function.Function;
 import org.apache.spark.mllib.evaluation.BinaryClassificationMetrics;
 import org.apache.spark.mllib.regression.LabeledPoint;
 import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.commons.domain.FeatureType;
 import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
 import org.wso2.carbon.ml.core.spark.summary.ClassClassificationAndRegressionModelSummary;
@@ -273,7 +272,7 @@ public class SparkModelUtils {
      */
     public static List<Map<String, Integer>> buildEncodings(MLModelConfigurationContext ctx) {
         List<Feature> features = ctx.getFacts().getFeatures();
-        Map<String, String> summaryStats = ctx.getSummaryStatsOfFeatures();
+        Map<String, FeatureStatistics> featureStatistics = ctx.getFeatureStatistics();
         List<Integer> newToOldIndicesList = ctx.getNewToOldIndicesList();
         int responseIndex = ctx.getResponseIndex();
         List<Map<String, Integer>> encodings = new ArrayList<Map<String, Integer>>();
@@ -283,7 +282,9 @@ public class SparkModelUtils {
         for (Feature feature : features) {
             Map<String, Integer> encodingMap = new HashMap<String, Integer>();
             if (feature.getType().equals(FeatureType.CATEGORICAL)) {
-                List<String> uniqueVals = getUniqueValues(summaryStats.get(feature.getName()));
+                FeatureStatistics stats = featureStatistics.get(feature.getName());
+                List<String> uniqueVals = stats == null ? new ArrayList<String>() : new ArrayList<String>(
+                        stats.getValues());
                 Collections.sort(uniqueVals);
                 for (int i = 0; i < uniqueVals.size(); i++) {
                     encodingMap.put(uniqueVals.get(i), i);
@@ -300,122 +301,4 @@ public class SparkModelUtils {
 
         return encodings;
     }
-    
-    private static List<String> getUniqueValues(String statsAsJson) {
-        List<String> uniqueValues = new ArrayList<String>();
-        /*
-         * "values": [
-            [
-                "0.0",
-                147
-            ],
-            [
-                "1.0",
-                33
-            ]
-        ],
-         */
-        if (statsAsJson == null) {
-            return uniqueValues;
-        }
-        try {
-            //new JSONArray(statsAsJson).getJSONObject(0).getJSONArray("values").getJSONArray(0).getString(0)
-            JSONArray array = new JSONArray(statsAsJson);
-            JSONObject jsonObj = array.getJSONObject(0);
-            JSONArray array1 = jsonObj.getJSONArray("values");
-            if (array1 == null) {
-                return uniqueValues;
-            }
-            for (int i = 0; i < array1.length(); i++) {
-                JSONArray array2 = array1.getJSONArray(i);
-                if (array2 != null) {
-                    uniqueValues.add(array2.getString(0));
-                }
-            }
-        } catch (JSONException e) {
-            log.warn("Failed to extract unique values from summary stats: "+statsAsJson, e);
-            return uniqueValues;
-        }
-        
-        return uniqueValues;
-    }
-    
-    public static double getMean(String statsAsJson) {
-        if (statsAsJson == null) {
-            return 0.0;
-        }
-        try {
-            // new JSONArray(statsAsJson).getJSONObject(0).getJSONArray("values").getJSONArray(0).getString(0)
-            JSONArray array = new JSONArray(statsAsJson);
-            JSONObject jsonObj = array.getJSONObject(0);
-            String mean = jsonObj.getString("mean");
-            if (mean == null) {
-                return 0.0;
-            } else {
-                try {
-                    return Double.parseDouble(mean);
-                } catch (NumberFormatException e) {
-                    return 0.0;
-                }
-            }
-
-        } catch (JSONException e) {
-            log.warn("Failed to extract mean values from summary stats: " + statsAsJson, e);
-            return 0.0;
-        }
-
-    }
-
-    public static double getMin(String statsAsJson) {
-        if (statsAsJson == null) {
-            return 0.0;
-        }
-        try {
-            // new JSONArray(statsAsJson).getJSONObject(0).getJSONArray("values").getJSONArray(0).getString(0)
-            JSONArray array = new JSONArray(statsAsJson);
-            JSONObject jsonObj = array.getJSONObject(0);
-            String min = jsonObj.getString("min");
-            if (min == null) {
-                return 0.0;
-            } else {
-                try {
-                    return Double.parseDouble(min);
-                } catch (NumberFormatException e) {
-                    return 0.0;
-                }
-            }
-
-        } catch (JSONException e) {
-            log.warn("Failed to extract min values from summary stats: " + statsAsJson, e);
-            return 0.0;
-        }
-
-    }
-
-    public static double getMax(String statsAsJson) {
-        if (statsAsJson == null) {
-            return 0.0;
-        }
-        try {
-            // new JSONArray(statsAsJson).getJSONObject(0).getJSONArray("values").getJSONArray(0).getString(0)
-            JSONArray array = new JSONArray(statsAsJson);
-            JSONObject jsonObj = array.getJSONObject(0);
-            String max = jsonObj.getString("max");
-            if (max == null) {
-                return 0.0;
-            } else {
-                try {
-                    return Double.parseDouble(max);
-                } catch (NumberFormatException e) {
-                    return 0.0;
-                }
-            }
-
-        } catch (JSONException e) {
-            log.warn("Failed to extract max values from summary stats: " + statsAsJson, e);
-            return 0.0;
-        }
-
-    }
-    
 }
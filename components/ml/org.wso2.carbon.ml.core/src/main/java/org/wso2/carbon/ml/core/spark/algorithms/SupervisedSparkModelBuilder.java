@@ -34,6 +34,7 @@ import org.apache.spark.mllib.regression.RidgeRegressionModel;
 import org.apache.spark.mllib.tree.model.DecisionTreeModel;
 import org.apache.spark.mllib.tree.model.RandomForestModel;
 import org.apache.spark.rdd.RDD;
+import org.apache.spark.sql.Row;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.constants.MLConstants.SUPERVISED_ALGORITHM;
 import org.wso2.carbon.ml.commons.domain.*;
@@ -53,6 +54,7 @@ import org.wso2.carbon.ml.core.spark.summary.ProbabilisticClassificationModelSum
 import org.wso2.carbon.ml.core.spark.transformations.*;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
+import org.wso2.carbon.ml.core.utils.PreprocessedDataCache;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 import scala.Tuple2;
@@ -70,26 +72,37 @@ public class SupervisedSparkModelBuilder extends MLModelBuilder {
     }
 
 
+    /**
+     * Get the preprocessed dataset, persisted and shared with the other builds using the same preprocessing settings.
+     * Release it with {@link PreprocessedDataCache#release(JavaRDD)} once not needed.
+     */
     public JavaRDD<LabeledPoint> preProcess() throws MLModelBuilderException {
-        JavaRDD<String> lines = null;
+        MLModelConfigurationContext context = getContext();
+        PreprocessedDataCache cache = MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache();
+        String key = PreprocessedDataCache.getKey(context, "labeled-points");
+        JavaRDD<LabeledPoint> labeledPoints = cache.get(key);
+        if (labeledPoints != null) {
+            return labeledPoints;
+        }
+        JavaRDD<?> data = null;
         try {
-            MLModelConfigurationContext context = getContext();
-            HeaderFilter headerFilter = new HeaderFilter.Builder().init(context).build();
-            LineToTokens lineToTokens = new LineToTokens.Builder().init(context).build();
-            DiscardedRowsFilter discardedRowsFilter = new DiscardedRowsFilter.Builder().init(context).build();
-            RemoveDiscardedFeatures removeDiscardedFeatures = new RemoveDiscardedFeatures.Builder().init(context).build();
-            BasicEncoder basicEncoder = new BasicEncoder.Builder().init(context).build();
-            MeanImputation meanImputation = new MeanImputation.Builder().init(context).build();
-            StringArrayToDoubleArray stringArrayToDoubleArray = new StringArrayToDoubleArray.Builder().build();
-            DoubleArrayToLabeledPoint doubleArrayToLabeledPoint = new DoubleArrayToLabeledPoint.Builder().build();
-
-            lines = context.getLines().cache();
-            return lines.filter(headerFilter).map(lineToTokens).filter(discardedRowsFilter)
-                    .map(removeDiscardedFeatures).map(basicEncoder).map(meanImputation).map(stringArrayToDoubleArray)
-                    .map(doubleArrayToLabeledPoint);
+            // filters, reorders, encodes, imputes and parses the rows in a single pass over each partition
+            if (context.getRows() != null) {
+                // typed values of the rows are used as they are rather than converted to tokens
+                RowsToLabeledPoints rowsToLabeledPoints = new RowsToLabeledPoints.Builder().init(context).build();
+
+                JavaRDD<Row> rows = context.getRows().cache();
+                data = rows;
+                return cache.put(key, rows.mapPartitions(rowsToLabeledPoints));
+            }
+            TokensToLabeledPoints tokensToLabeledPoints = new TokensToLabeledPoints.Builder().init(context).build();
+
+            JavaRDD<String[]> tokens = context.getTokens().cache();
+            data = tokens;
+            return cache.put(key, tokens.mapPartitions(tokensToLabeledPoints));
         } finally {
-            if (lines != null) {
-                lines.unpersist();
+            if (data != null) {
+                data.unpersist();
             }
         }
     }
@@ -132,14 +145,14 @@ public class SupervisedSparkModelBuilder extends MLModelBuilder {
                     context.getNewToOldIndicesList(), responseIndex);
 
             // gets the pre-processed dataset
-            JavaRDD<LabeledPoint> labeledPoints = preProcess().cache();
+            JavaRDD<LabeledPoint> labeledPoints = preProcess();
 
             JavaRDD<LabeledPoint>[] dataSplit = labeledPoints.randomSplit(
                     new double[]{workflow.getTrainDataFraction(), 1 - workflow.getTrainDataFraction()},
                     MLConstants.RANDOM_SEED);
 
             // remove from cache
-            labeledPoints.unpersist();
+            MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().release(labeledPoints);
 
             JavaRDD<LabeledPoint> trainingData = dataSplit[0].cache();
             JavaRDD<LabeledPoint> testingData = dataSplit[1];
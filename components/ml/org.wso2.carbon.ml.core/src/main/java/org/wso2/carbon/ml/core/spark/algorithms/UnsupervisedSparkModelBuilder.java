@@ -36,13 +36,12 @@ import org.wso2.carbon.ml.core.spark.summary.ClusterModelSummary;
 import org.wso2.carbon.ml.core.spark.transformations.BasicEncoder;
 import org.wso2.carbon.ml.core.spark.transformations.DiscardedRowsFilter;
 import org.wso2.carbon.ml.core.spark.transformations.DoubleArrayToVector;
-import org.wso2.carbon.ml.core.spark.transformations.HeaderFilter;
-import org.wso2.carbon.ml.core.spark.transformations.LineToTokens;
 import org.wso2.carbon.ml.core.spark.transformations.MeanImputation;
 import org.wso2.carbon.ml.core.spark.transformations.RemoveDiscardedFeatures;
 import org.wso2.carbon.ml.core.spark.transformations.StringArrayToDoubleArray;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
+import org.wso2.carbon.ml.core.utils.PreprocessedDataCache;
 import org.wso2.carbon.ml.database.DatabaseService;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 import scala.Tuple2;
@@ -61,12 +60,19 @@ public class UnsupervisedSparkModelBuilder extends MLModelBuilder {
         super(context);
     }
     
+    /**
+     * Get the preprocessed dataset, persisted and shared with the other builds using the same preprocessing settings.
+     */
     private JavaRDD<Vector> preProcess() throws MLModelBuilderException {
-        JavaRDD<String> lines = null;
+        MLModelConfigurationContext context = getContext();
+        PreprocessedDataCache cache = MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache();
+        String key = PreprocessedDataCache.getKey(context, "vectors");
+        JavaRDD<Vector> vectors = cache.get(key);
+        if (vectors != null) {
+            return vectors;
+        }
+        JavaRDD<String[]> tokens = null;
         try {
-            MLModelConfigurationContext context = getContext();
-            HeaderFilter headerFilter = new HeaderFilter.Builder().init(context).build();
-            LineToTokens lineToTokens = new LineToTokens.Builder().init(context).build();
             DiscardedRowsFilter discardedRowsFilter = new DiscardedRowsFilter.Builder().init(context).build();
             RemoveDiscardedFeatures removeDiscardedFeatures = new RemoveDiscardedFeatures.Builder().init(context)
                     .build();
@@ -75,13 +81,12 @@ public class UnsupervisedSparkModelBuilder extends MLModelBuilder {
             StringArrayToDoubleArray stringArrayToDoubleArray = new StringArrayToDoubleArray.Builder().build();
             DoubleArrayToVector doubleArrayToVector = new DoubleArrayToVector.Builder().build();
 
-            lines = context.getLines().cache();
-            return lines.filter(headerFilter).map(lineToTokens).filter(discardedRowsFilter)
-                    .map(removeDiscardedFeatures).map(basicEncoder).map(meanImputation).map(stringArrayToDoubleArray)
-                    .map(doubleArrayToVector);
+            tokens = context.getTokens().cache();
+            return cache.put(key, tokens.filter(discardedRowsFilter).map(removeDiscardedFeatures).map(basicEncoder)
+                    .map(meanImputation).map(stringArrayToDoubleArray).map(doubleArrayToVector));
         } finally {
-            if (lines != null) {
-                lines.unpersist();
+            if (tokens != null) {
+                tokens.unpersist();
             }
         }
     }
@@ -101,12 +106,12 @@ public class UnsupervisedSparkModelBuilder extends MLModelBuilder {
                             context.getResponseIndex());
 
             // gets the pre-processed dataset
-            JavaRDD<Vector> data = preProcess().cache();
+            JavaRDD<Vector> data = preProcess();
             JavaRDD<Vector>[] dataSplit = data.randomSplit(
                     new double[] { workflow.getTrainDataFraction(), 1 - workflow.getTrainDataFraction() },
                     MLConstants.RANDOM_SEED);
             
-            data.unpersist();
+            MLCoreServiceValueHolder.getInstance().getPreprocessedDataCache().release(data);
             
             JavaRDD<Vector> trainingData = dataSplit[0].cache();
             JavaRDD<Vector> testingData = null;
@@ -0,0 +1,787 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.models;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.spark.mllib.classification.ClassificationModel;
+import org.apache.spark.mllib.classification.LogisticRegressionModel;
+import org.apache.spark.mllib.classification.NaiveBayesModel;
+import org.apache.spark.mllib.classification.SVMModel;
+import org.apache.spark.mllib.clustering.KMeansModel;
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.mllib.linalg.Vectors;
+import org.apache.spark.mllib.recommendation.MatrixFactorizationModel;
+import org.apache.spark.mllib.regression.GeneralizedLinearModel;
+import org.apache.spark.mllib.regression.LassoModel;
+import org.apache.spark.mllib.regression.LinearRegressionModel;
+import org.apache.spark.mllib.regression.RidgeRegressionModel;
+import org.apache.spark.mllib.tree.configuration.Algo;
+import org.apache.spark.mllib.tree.configuration.FeatureType;
+import org.apache.spark.mllib.tree.model.DecisionTreeModel;
+import org.apache.spark.mllib.tree.model.InformationGainStats;
+import org.apache.spark.mllib.tree.model.Node;
+import org.apache.spark.mllib.tree.model.Predict;
+import org.apache.spark.mllib.tree.model.RandomForestModel;
+import org.apache.spark.mllib.tree.model.Split;
+import org.apache.spark.rdd.RDD;
+import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
+import org.wso2.carbon.ml.commons.domain.MLModel;
+import org.wso2.carbon.ml.core.spark.models.ext.AnomalyDetectionModel;
+import org.wso2.carbon.ml.core.utils.ByteBufferInputStream;
+import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
+
+import scala.Enumeration;
+import scala.Option;
+import scala.Tuple2;
+import scala.collection.JavaConversions;
+
+/**
+ * Reads and writes {@link MLModel}s in the versioned binary model format. The format starts with a magic number and a
+ * format version, followed by the schema of the model (features, encodings, indices and feature statistics) prefixed
+ * by its length, and the trained model, which takes the rest of the stream. Weights, probabilities, tree nodes and
+ * cluster centers are written as primitives, models without a binary encoding (deep learning models, and stacking and
+ * bagging ensembles) are Java serialized. Callers needing only the schema of a model do not load its trained model.
+ * Models written with Java serialization by earlier versions are read as they are.
+ */
+public class MLModelSerializer {
+
+    /*
+     * "MLMF"
+     */
+    private static final int MAGIC = 0x4D4C4D46;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte NO_MODEL = 0;
+    private static final byte GENERALIZED_LINEAR_MODEL = 1;
+    private static final byte CLASSIFICATION_MODEL = 2;
+    private static final byte DECISION_TREE_MODEL = 3;
+    private static final byte RANDOM_FOREST_MODEL = 4;
+    private static final byte K_MEANS_MODEL = 5;
+    private static final byte ANOMALY_DETECTION_MODEL = 6;
+    private static final byte MATRIX_FACTORIZATION_MODEL = 7;
+    private static final byte NAIVE_BAYES_MODEL = 8;
+    private static final byte SERIALIZED_MODEL = 127;
+
+    private static final byte LINEAR_REGRESSION = 0;
+    private static final byte RIDGE_REGRESSION = 1;
+    private static final byte LASSO_REGRESSION = 2;
+    private static final byte LOGISTIC_REGRESSION = 3;
+    private static final byte SVM = 4;
+
+    private static final byte CLASSIFICATION = 0;
+    private static final byte REGRESSION = 1;
+    private static final byte CONTINUOUS = 0;
+    private static final byte CATEGORICAL = 1;
+
+    /**
+     * Write a model in the binary model format. The stream is not closed.
+     */
+    public static void write(MLModel model, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        // the header is prefixed by its length, so the header is read without reading the trained model. The trained
+        // model takes the rest of the stream, so it is written as it is encoded, without buffering it.
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeHeader(new DataOutputStream(header), model);
+        out.writeInt(header.size());
+        header.writeTo(out);
+        writeModel(out, model.getModel());
+        out.flush();
+    }
+
+    /**
+     * Read a model written in the binary model format, or with Java serialization by an earlier version.
+     */
+    public static MLModel read(InputStream inputStream) throws IOException, ClassNotFoundException {
+        if (!inputStream.markSupported()) {
+            inputStream = new BufferedInputStream(inputStream);
+        }
+        if (!isBinaryModel(inputStream)) {
+            return (MLModel) new ObjectInputStream(inputStream).readObject();
+        }
+        DataInputStream in = new DataInputStream(inputStream);
+        readVersion(in);
+        MLModel model = readHeader(in);
+        model.setModel(readModel(in));
+        return model;
+    }
+
+    /**
+     * Read the header of a model, i.e. everything except the trained model, which is loaded on the first call to
+     * {@link MLModel#getModel()}. The trained model is decoded on demand only from a {@link ByteBufferInputStream},
+     * e.g. of a memory-mapped cached model, whose buffer stays readable after the stream is closed, and it is not
+     * copied until then. The trained model of any other stream is read at once, since the stream is closed by the
+     * caller. Models written with Java serialization by an earlier version are read entirely.
+     */
+    public static MLModel readLazily(InputStream inputStream) throws IOException, ClassNotFoundException {
+        if (!(inputStream instanceof ByteBufferInputStream)) {
+            return read(inputStream);
+        }
+        if (!isBinaryModel(inputStream)) {
+            return (MLModel) new ObjectInputStream(inputStream).readObject();
+        }
+        DataInputStream in = new DataInputStream(inputStream);
+        readVersion(in);
+        MLModel model = readHeader(in);
+        // the trained model takes the rest of the buffer, which is shared rather than copied
+        final ByteBuffer parameters = ((ByteBufferInputStream) inputStream).remaining();
+        model.setModelLoader(new MLModel.ModelLoader() {
+            @Override
+            public Externalizable load() throws IOException, ClassNotFoundException {
+                return readModel(new DataInputStream(new ByteBufferInputStream(parameters.duplicate())));
+            }
+        });
+        return model;
+    }
+
+    /**
+     * Read the header of a model without its trained model, e.g. to find out the features of a model.
+     */
+    public static MLModel readHeader(InputStream inputStream) throws IOException, ClassNotFoundException {
+        if (!inputStream.markSupported()) {
+            inputStream = new BufferedInputStream(inputStream);
+        }
+        if (!isBinaryModel(inputStream)) {
+            return (MLModel) new ObjectInputStream(inputStream).readObject();
+        }
+        DataInputStream in = new DataInputStream(inputStream);
+        readVersion(in);
+        return readHeader(in);
+    }
+
+    /**
+     * Check whether a stream holds a model in the binary model format, without consuming the stream.
+     *
+     * @param inputStream stream supporting mark and reset
+     */
+    public static boolean isBinaryModel(InputStream inputStream) throws IOException {
+        inputStream.mark(4);
+        try {
+            byte[] magic = new byte[4];
+            int read = 0;
+            while (read < magic.length) {
+                int count = inputStream.read(magic, read, magic.length - read);
+                if (count < 0) {
+                    return false;
+                }
+                read += count;
+            }
+            return ByteBuffer.wrap(magic).getInt() == MAGIC;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    private static void readVersion(DataInputStream in) throws IOException {
+        in.readInt();
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported model format version: " + version + ", the supported version is "
+                    + FORMAT_VERSION);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, MLModel model) throws IOException {
+        writeString(out, model.getAlgorithmName());
+        writeString(out, model.getAlgorithmClass());
+        writeString(out, model.getResponseVariable());
+        out.writeInt(model.getResponseIndex());
+        writeString(out, model.getNormalLabels());
+        out.writeBoolean(model.getNormalization());
+        writeFeatures(out, model.getFeatures());
+        writeEncodings(out, model.getEncodings());
+        writeIntegers(out, model.getNewToOldIndicesList());
+        writeStringMap(out, model.getSummaryStatsOfFeatures());
+        writeFeatureStatistics(out, model.getFeatureStatistics());
+        out.flush();
+    }
+
+    private static MLModel readHeader(DataInputStream in) throws IOException {
+        // the header is read within its length, so that a corrupted header does not run into the trained model, and
+        // fields appended to the header by a later writer are skipped
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid model header length: " + length);
+        }
+        byte[] header = new byte[length];
+        in.readFully(header);
+        try {
+            return readHeaderFields(new DataInputStream(new ByteArrayInputStream(header)));
+        } catch (EOFException e) {
+            throw new IOException("Model header is shorter than its fields, the model is corrupted.", e);
+        }
+    }
+
+    private static MLModel readHeaderFields(DataInputStream in) throws IOException {
+        MLModel model = new MLModel();
+        model.setAlgorithmName(readString(in));
+        model.setAlgorithmClass(readString(in));
+        model.setResponseVariable(readString(in));
+        model.setResponseIndex(in.readInt());
+        model.setNormalLabels(readString(in));
+        model.setNormalization(in.readBoolean());
+        model.setFeatures(readFeatures(in));
+        model.setEncodings(readEncodings(in));
+        model.setNewToOldIndicesList(readIntegers(in));
+        model.setSummaryStatsOfFeatures(readStringMap(in));
+        model.setFeatureStatistics(readFeatureStatistics(in));
+        return model;
+    }
+
+    private static void writeModel(DataOutputStream out, Externalizable model) throws IOException {
+        if (model == null) {
+            out.writeByte(NO_MODEL);
+        } else if (model instanceof MLGeneralizedLinearModel
+                && getLinearModelType(((MLGeneralizedLinearModel) model).getModel()) != -1) {
+            out.writeByte(GENERALIZED_LINEAR_MODEL);
+            writeLinearModel(out, ((MLGeneralizedLinearModel) model).getModel());
+        } else if (model instanceof MLClassificationModel
+                && getLinearModelType(((MLClassificationModel) model).getModel()) != -1) {
+            out.writeByte(CLASSIFICATION_MODEL);
+            writeLinearModel(out, (GeneralizedLinearModel) ((MLClassificationModel) model).getModel());
+        } else if (model instanceof MLClassificationModel
+                && ((MLClassificationModel) model).getModel() instanceof NaiveBayesModel) {
+            out.writeByte(NAIVE_BAYES_MODEL);
+            NaiveBayesModel naiveBayesModel = (NaiveBayesModel) ((MLClassificationModel) model).getModel();
+            writeDoubles(out, naiveBayesModel.labels());
+            writeDoubles(out, naiveBayesModel.pi());
+            double[][] theta = naiveBayesModel.theta();
+            out.writeInt(theta.length);
+            for (double[] conditionalProbabilities : theta) {
+                writeDoubles(out, conditionalProbabilities);
+            }
+            writeString(out, naiveBayesModel.modelType());
+        } else if (model instanceof MLDecisionTreeModel) {
+            out.writeByte(DECISION_TREE_MODEL);
+            writeDecisionTree(out, ((MLDecisionTreeModel) model).getModel());
+        } else if (model instanceof MLRandomForestModel) {
+            out.writeByte(RANDOM_FOREST_MODEL);
+            RandomForestModel randomForestModel = ((MLRandomForestModel) model).getModel();
+            out.writeByte(getAlgo(randomForestModel.algo()));
+            DecisionTreeModel[] trees = randomForestModel.trees();
+            out.writeInt(trees.length);
+            for (DecisionTreeModel tree : trees) {
+                writeDecisionTree(out, tree);
+            }
+        } else if (model instanceof MLKMeansModel) {
+            out.writeByte(K_MEANS_MODEL);
+            writeVectors(out, ((MLKMeansModel) model).getModel().clusterCenters());
+        } else if (model instanceof MLAnomalyDetectionModel) {
+            out.writeByte(ANOMALY_DETECTION_MODEL);
+            AnomalyDetectionModel anomalyDetectionModel = ((MLAnomalyDetectionModel) model).getModel();
+            writeVectors(out, anomalyDetectionModel.getkMeansModel().clusterCenters());
+            writeString(out, anomalyDetectionModel.getNormalLabel());
+            writeString(out, anomalyDetectionModel.getAnomalyLabel());
+            Map<Integer, List<Double>> distances = anomalyDetectionModel.getClusterIndexToDistancesListMap();
+            out.writeInt(distances.size());
+            for (Map.Entry<Integer, List<Double>> entry : distances.entrySet()) {
+                out.writeInt(entry.getKey());
+                double[] clusterDistances = new double[entry.getValue().size()];
+                for (int i = 0; i < clusterDistances.length; i++) {
+                    clusterDistances[i] = entry.getValue().get(i);
+                }
+                writeDoubles(out, clusterDistances);
+            }
+        } else if (model instanceof MLMatrixFactorizationModel) {
+            out.writeByte(MATRIX_FACTORIZATION_MODEL);
+            MatrixFactorizationModel matrixFactorizationModel = ((MLMatrixFactorizationModel) model).getModel();
+            out.writeInt(matrixFactorizationModel.rank());
+            writeFactors(out, matrixFactorizationModel.userFeatures().toJavaRDD().collect());
+            writeFactors(out, matrixFactorizationModel.productFeatures().toJavaRDD().collect());
+        } else {
+            out.writeByte(SERIALIZED_MODEL);
+            // the trained model is the last section of the stream, hence it is serialized straight to the stream
+            ObjectOutputStream objectOut = new ObjectOutputStream(out);
+            objectOut.writeObject(model);
+            objectOut.flush();
+        }
+    }
+
+    private static Externalizable readModel(DataInputStream in) throws IOException,
+            ClassNotFoundException {
+        byte type = in.readByte();
+        switch (type) {
+        case NO_MODEL:
+            return null;
+        case GENERALIZED_LINEAR_MODEL:
+            return new MLGeneralizedLinearModel(readLinearModel(in));
+        case CLASSIFICATION_MODEL:
+            return new MLClassificationModel((ClassificationModel) readLinearModel(in));
+        case NAIVE_BAYES_MODEL:
+            double[] labels = readDoubles(in);
+            double[] pi = readDoubles(in);
+            double[][] theta = new double[in.readInt()][];
+            for (int i = 0; i < theta.length; i++) {
+                theta[i] = readDoubles(in);
+            }
+            return new MLClassificationModel(new NaiveBayesModel(labels, pi, theta, readString(in)));
+        case DECISION_TREE_MODEL:
+            return new MLDecisionTreeModel(readDecisionTree(in));
+        case RANDOM_FOREST_MODEL:
+            Enumeration.Value algo = getAlgo(in.readByte());
+            DecisionTreeModel[] trees = new DecisionTreeModel[in.readInt()];
+            for (int i = 0; i < trees.length; i++) {
+                trees[i] = readDecisionTree(in);
+            }
+            return new MLRandomForestModel(new RandomForestModel(algo, trees));
+        case K_MEANS_MODEL:
+            return new MLKMeansModel(new KMeansModel(readVectors(in)));
+        case ANOMALY_DETECTION_MODEL:
+            AnomalyDetectionModel anomalyDetectionModel = new AnomalyDetectionModel();
+            anomalyDetectionModel.setkMeansModel(new KMeansModel(readVectors(in)));
+            anomalyDetectionModel.setNormalLabel(readString(in));
+            anomalyDetectionModel.setAnomalyLabel(readString(in));
+            int clusterCount = in.readInt();
+            Map<Integer, List<Double>> distances = new HashMap<Integer, List<Double>>();
+            for (int i = 0; i < clusterCount; i++) {
+                int clusterIndex = in.readInt();
+                double[] clusterDistances = readDoubles(in);
+                List<Double> distanceList = new ArrayList<Double>(clusterDistances.length);
+                for (double distance : clusterDistances) {
+                    distanceList.add(distance);
+                }
+                distances.put(clusterIndex, distanceList);
+            }
+            anomalyDetectionModel.setClusterIndexToDistancesListMap(distances);
+            return new MLAnomalyDetectionModel(anomalyDetectionModel);
+        case MATRIX_FACTORIZATION_MODEL:
+            int rank = in.readInt();
+            List<Tuple2<Object, double[]>> userFeatures = readFactors(in);
+            List<Tuple2<Object, double[]>> productFeatures = readFactors(in);
+            MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
+            RDD<Tuple2<Object, double[]>> userFeaturesRDD = valueHolder.getSparkContext().parallelize(userFeatures)
+                    .rdd();
+            RDD<Tuple2<Object, double[]>> productFeaturesRDD = valueHolder.getSparkContext()
+                    .parallelize(productFeatures).rdd();
+            return new MLMatrixFactorizationModel(new MatrixFactorizationModel(rank, userFeaturesRDD,
+                    productFeaturesRDD));
+        case SERIALIZED_MODEL:
+            return (Externalizable) new ObjectInputStream(in).readObject();
+        default:
+            throw new IOException("Unknown model type: " + type);
+        }
+    }
+
+    /**
+     * @return type of a linear model having a binary encoding, -1 otherwise
+     */
+    private static byte getLinearModelType(Object model) {
+        if (model instanceof LinearRegressionModel) {
+            return LINEAR_REGRESSION;
+        } else if (model instanceof RidgeRegressionModel) {
+            return RIDGE_REGRESSION;
+        } else if (model instanceof LassoModel) {
+            return LASSO_REGRESSION;
+        } else if (model instanceof LogisticRegressionModel) {
+            return LOGISTIC_REGRESSION;
+        } else if (model instanceof SVMModel) {
+            return SVM;
+        }
+        return -1;
+    }
+
+    private static void writeLinearModel(DataOutputStream out, GeneralizedLinearModel model) throws IOException {
+        byte type = getLinearModelType(model);
+        out.writeByte(type);
+        writeDoubles(out, model.weights().toArray());
+        out.writeDouble(model.intercept());
+        Option<Object> threshold = null;
+        if (type == LOGISTIC_REGRESSION) {
+            LogisticRegressionModel logisticRegressionModel = (LogisticRegressionModel) model;
+            out.writeInt(logisticRegressionModel.numFeatures());
+            out.writeInt(logisticRegressionModel.numClasses());
+            threshold = logisticRegressionModel.getThreshold();
+        } else if (type == SVM) {
+            threshold = ((SVMModel) model).getThreshold();
+        }
+        if (threshold != null) {
+            out.writeBoolean(threshold.isDefined());
+            if (threshold.isDefined()) {
+                out.writeDouble((Double) threshold.get());
+            }
+        }
+    }
+
+    private static GeneralizedLinearModel readLinearModel(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        Vector weights = Vectors.dense(readDoubles(in));
+        double intercept = in.readDouble();
+        switch (type) {
+        case LINEAR_REGRESSION:
+            return new LinearRegressionModel(weights, intercept);
+        case RIDGE_REGRESSION:
+            return new RidgeRegressionModel(weights, intercept);
+        case LASSO_REGRESSION:
+            return new LassoModel(weights, intercept);
+        case LOGISTIC_REGRESSION:
+            LogisticRegressionModel logisticRegressionModel = new LogisticRegressionModel(weights, intercept,
+                    in.readInt(), in.readInt());
+            if (in.readBoolean()) {
+                logisticRegressionModel.setThreshold(in.readDouble());
+            } else {
+                logisticRegressionModel.clearThreshold();
+            }
+            return logisticRegressionModel;
+        case SVM:
+            SVMModel svmModel = new SVMModel(weights, intercept);
+            if (in.readBoolean()) {
+                svmModel.setThreshold(in.readDouble());
+            } else {
+                svmModel.clearThreshold();
+            }
+            return svmModel;
+        default:
+            throw new IOException("Unknown linear model type: " + type);
+        }
+    }
+
+    private static void writeDecisionTree(DataOutputStream out, DecisionTreeModel model) throws IOException {
+        out.writeByte(getAlgo(model.algo()));
+        writeNode(out, model.topNode());
+    }
+
+    private static DecisionTreeModel readDecisionTree(DataInputStream in) throws IOException {
+        Enumeration.Value algo = getAlgo(in.readByte());
+        return new DecisionTreeModel(readNode(in), algo);
+    }
+
+    /*
+     * nodes are written in pre-order, the split of an internal node is followed by its left and right subtrees
+     */
+    private static void writeNode(DataOutputStream out, Node node) throws IOException {
+        out.writeInt(node.id());
+        out.writeDouble(node.predict().predict());
+        out.writeDouble(node.predict().prob());
+        out.writeDouble(node.impurity());
+        boolean internal = !node.isLeaf() && node.split().isDefined() && node.leftNode().isDefined()
+                && node.rightNode().isDefined();
+        out.writeBoolean(internal);
+        if (internal) {
+            Split split = node.split().get();
+            out.writeInt(split.feature());
+            out.writeDouble(split.threshold());
+            out.writeByte(FeatureType.Categorical().equals(split.featureType()) ? CATEGORICAL : CONTINUOUS);
+            List<Object> categories = JavaConversions.seqAsJavaList(split.categories());
+            double[] categoryValues = new double[categories.size()];
+            for (int i = 0; i < categoryValues.length; i++) {
+                categoryValues[i] = (Double) categories.get(i);
+            }
+            writeDoubles(out, categoryValues);
+            writeNode(out, node.leftNode().get());
+            writeNode(out, node.rightNode().get());
+        }
+    }
+
+    private static Node readNode(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        Predict predict = new Predict(in.readDouble(), in.readDouble());
+        double impurity = in.readDouble();
+        if (!in.readBoolean()) {
+            return new Node(id, predict, impurity, true, Option.<Split> apply(null), Option.<Node> apply(null),
+                    Option.<Node> apply(null), Option.<InformationGainStats> apply(null));
+        }
+        int feature = in.readInt();
+        double threshold = in.readDouble();
+        Enumeration.Value featureType = in.readByte() == CATEGORICAL ? FeatureType.Categorical() : FeatureType
+                .Continuous();
+        List<Object> categories = new ArrayList<Object>();
+        for (double category : readDoubles(in)) {
+            categories.add(category);
+        }
+        Split split = new Split(feature, threshold, featureType, JavaConversions.asScalaBuffer(categories).toList());
+        Node leftNode = readNode(in);
+        Node rightNode = readNode(in);
+        // information gain statistics are not used in predictions, hence they are not stored
+        return new Node(id, predict, impurity, false, Option.apply(split), Option.apply(leftNode),
+                Option.apply(rightNode), Option.<InformationGainStats> apply(null));
+    }
+
+    private static byte getAlgo(Enumeration.Value algo) {
+        return Algo.Regression().equals(algo) ? REGRESSION : CLASSIFICATION;
+    }
+
+    private static Enumeration.Value getAlgo(byte algo) {
+        return algo == REGRESSION ? Algo.Regression() : Algo.Classification();
+    }
+
+    private static void writeVectors(DataOutputStream out, Vector[] vectors) throws IOException {
+        out.writeInt(vectors.length);
+        for (Vector vector : vectors) {
+            writeDoubles(out, vector.toArray());
+        }
+    }
+
+    private static Vector[] readVectors(DataInputStream in) throws IOException {
+        Vector[] vectors = new Vector[in.readInt()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = Vectors.dense(readDoubles(in));
+        }
+        return vectors;
+    }
+
+    private static void writeFactors(DataOutputStream out, List<Tuple2<Object, double[]>> factors) throws IOException {
+        out.writeInt(factors.size());
+        for (Tuple2<Object, double[]> factor : factors) {
+            out.writeInt((Integer) factor._1());
+            writeDoubles(out, factor._2());
+        }
+    }
+
+    private static List<Tuple2<Object, double[]>> readFactors(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Tuple2<Object, double[]>> factors = new ArrayList<Tuple2<Object, double[]>>(size);
+        for (int i = 0; i < size; i++) {
+            factors.add(new Tuple2<Object, double[]>(in.readInt(), readDoubles(in)));
+        }
+        return factors;
+    }
+
+    private static void writeFeatures(DataOutputStream out, List<Feature> features) throws IOException {
+        if (features == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(features.size());
+        for (Feature feature : features) {
+            writeString(out, feature.getName());
+            out.writeInt(feature.getIndex());
+            writeString(out, feature.getType());
+            writeString(out, feature.getImputeOption());
+            out.writeBoolean(feature.isInclude());
+        }
+    }
+
+    private static List<Feature> readFeatures(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Feature> features = new ArrayList<Feature>(size);
+        for (int i = 0; i < size; i++) {
+            Feature feature = new Feature();
+            feature.setName(readString(in));
+            feature.setIndex(in.readInt());
+            feature.setType(readString(in));
+            feature.setImputeOption(readString(in));
+            feature.setInclude(in.readBoolean());
+            features.add(feature);
+        }
+        return features;
+    }
+
+    private static void writeEncodings(DataOutputStream out, List<Map<String, Integer>> encodings)
+            throws IOException {
+        if (encodings == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(encodings.size());
+        for (Map<String, Integer> encoding : encodings) {
+            out.writeInt(encoding.size());
+            for (Map.Entry<String, Integer> entry : encoding.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+    }
+
+    private static List<Map<String, Integer>> readEncodings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Map<String, Integer>> encodings = new ArrayList<Map<String, Integer>>(size);
+        for (int i = 0; i < size; i++) {
+            int encodingSize = in.readInt();
+            Map<String, Integer> encoding = new HashMap<String, Integer>();
+            for (int j = 0; j < encodingSize; j++) {
+                encoding.put(readString(in), in.readInt());
+            }
+            encodings.add(encoding);
+        }
+        return encodings;
+    }
+
+    private static void writeFeatureStatistics(DataOutputStream out, Map<String, FeatureStatistics> featureStatistics)
+            throws IOException {
+        if (featureStatistics == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(featureStatistics.size());
+        for (Map.Entry<String, FeatureStatistics> entry : featureStatistics.entrySet()) {
+            FeatureStatistics statistics = entry.getValue();
+            writeString(out, entry.getKey());
+            out.writeDouble(statistics.getMean());
+            out.writeDouble(statistics.getMin());
+            out.writeDouble(statistics.getMax());
+            out.writeInt(statistics.getUnique());
+            out.writeInt(statistics.getMissing());
+            writeStrings(out, statistics.getValues());
+        }
+    }
+
+    private static Map<String, FeatureStatistics> readFeatureStatistics(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, FeatureStatistics> featureStatistics = new HashMap<String, FeatureStatistics>();
+        for (int i = 0; i < size; i++) {
+            String name = readString(in);
+            FeatureStatistics statistics = new FeatureStatistics();
+            statistics.setMean(in.readDouble());
+            statistics.setMin(in.readDouble());
+            statistics.setMax(in.readDouble());
+            statistics.setUnique(in.readInt());
+            statistics.setMissing(in.readInt());
+            statistics.setValues(readStrings(in));
+            featureStatistics.put(name, statistics);
+        }
+        return featureStatistics;
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new HashMap<String, String>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeIntegers(DataOutputStream out, List<Integer> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static List<Integer> readIntegers(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Integer> values = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readInt());
+        }
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 8);
+        buffer.asDoubleBuffer().put(values);
+        out.write(buffer.array());
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        byte[] bytes = new byte[values.length * 8];
+        in.readFully(bytes);
+        ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    /*
+     * strings are written as the length of their UTF-8 bytes, -1 for null, followed by the bytes
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
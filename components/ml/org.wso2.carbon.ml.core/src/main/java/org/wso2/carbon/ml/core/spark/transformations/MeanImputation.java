@@ -21,9 +21,9 @@ package org.wso2.carbon.ml.core.spark.transformations;
 import org.apache.spark.api.java.function.Function;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.core.exceptions.MLModelBuilderException;
 import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
-import org.wso2.carbon.ml.core.spark.algorithms.SparkModelUtils;
 import org.wso2.carbon.ml.core.utils.MLUtils;
 
 import java.util.HashMap;
@@ -63,20 +63,28 @@ public class MeanImputation implements Function<String[], String[]> {
         private Map<Integer, Double> meanImputation;
 
         public Builder init(MLModelConfigurationContext ctx) {
-            meanImputation = new HashMap<Integer, Double>();
+            meanImputation = getImputations(ctx);
+            return this;
+        }
+
+        /**
+         * Get the means imputed to the missing values of the features with the mean imputation option.
+         */
+        static Map<Integer, Double> getImputations(MLModelConfigurationContext ctx) {
+            Map<Integer, Double> meanImputation = new HashMap<Integer, Double>();
             // get feature indices for mean imputation
             List<Integer> meanImputeIndices = MLUtils.getImputeFeatureIndices(ctx.getFacts(),
                     ctx.getNewToOldIndicesList(), MLConstants.MEAN_IMPUTATION);
             List<Feature> features = ctx.getFacts().getFeatures();
-            Map<String, String> stats = ctx.getSummaryStatsOfFeatures();
+            Map<String, FeatureStatistics> stats = ctx.getFeatureStatistics();
             for (Feature feature : features) {
                 if (meanImputeIndices.indexOf(feature.getIndex()) != -1) {
-                    String featureStat = stats.get(feature.getName());
-                    double mean = SparkModelUtils.getMean(featureStat);
+                    FeatureStatistics featureStat = stats.get(feature.getName());
+                    double mean = featureStat == null ? 0.0 : featureStat.getMean();
                     meanImputation.put(feature.getIndex(), mean);
                 }
             }
-            return this;
+            return meanImputation;
         }
 
         public Builder imputations(Map<Integer, Double> meanImputation) {
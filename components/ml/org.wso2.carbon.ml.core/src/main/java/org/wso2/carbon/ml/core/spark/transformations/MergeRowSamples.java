@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import org.apache.spark.api.java.function.Function2;
+import org.wso2.carbon.ml.core.utils.RowSample;
+
+/**
+ * Merges the random row samples of two parts of a dataset.
+ */
+public class MergeRowSamples implements Function2<RowSample, RowSample, RowSample> {
+
+    private static final long serialVersionUID = 2371598032687123350L;
+
+    private MergeRowSamples() {
+    }
+
+    @Override
+    public RowSample call(RowSample sample, RowSample otherSample) {
+        return sample.merge(otherSample);
+    }
+
+    public static class Builder {
+        public MergeRowSamples build() {
+            return new MergeRowSamples();
+        }
+    }
+}
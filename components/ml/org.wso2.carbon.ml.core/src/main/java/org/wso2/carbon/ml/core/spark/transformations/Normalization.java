@@ -24,9 +24,9 @@ import java.util.Map;
 
 import org.apache.spark.api.java.function.Function;
 import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.core.exceptions.MLModelBuilderException;
 import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
-import org.wso2.carbon.ml.core.spark.algorithms.SparkModelUtils;
 
 import java.lang.Double;
 
@@ -78,13 +78,13 @@ public class Normalization implements Function<double[], double[]> {
         public Builder init(MLModelConfigurationContext ctx) {
 
             List<Feature> features = ctx.getFacts().getIncludedFeatures();
-            Map<String, String> stats = ctx.getSummaryStatsOfFeatures();
+            Map<String, FeatureStatistics> stats = ctx.getFeatureStatistics();
 
             setMinMax(features, stats);
             return this;
         }
 
-        public Builder minMax(List<Feature> features, Map<String, String> stats) {
+        public Builder minMax(List<Feature> features, Map<String, FeatureStatistics> stats) {
 
             setMinMax(features, stats);
             return this;
@@ -97,15 +97,13 @@ public class Normalization implements Function<double[], double[]> {
             return this;
         }
 
-        private void setMinMax(List<Feature> features, Map<String, String> stats) {
+        private void setMinMax(List<Feature> features, Map<String, FeatureStatistics> stats) {
 
             for (Feature feature : features) {
 
-                String featureStat = stats.get(feature.getName());
-                double maxValue = SparkModelUtils.getMax(featureStat);
-                this.max.add(maxValue);
-                double minValue = SparkModelUtils.getMin(featureStat);
-                this.min.add(minValue);
+                FeatureStatistics featureStat = stats.get(feature.getName());
+                this.max.add(featureStat == null ? 0.0 : featureStat.getMax());
+                this.min.add(featureStat == null ? 0.0 : featureStat.getMin());
             }
 
         }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.List;
+
+import org.apache.spark.api.java.function.Function;
+import org.apache.spark.sql.Row;
+
+/**
+ * This class converts a Spark SQL Row holding the selected columns of a dataset into the tokens of a line, the cells
+ * of the other columns are left null. Nulls read from the dataset are converted to empty (missing) cells.
+ */
+public class RowToTokens implements Function<Row, String[]> {
+
+    private static final long serialVersionUID = -1420528342907745362L;
+    // largest magnitude up to which an integral double is written without the decimal point
+    private static final double MAX_INTEGRAL = 1e15;
+    private final List<Integer> columnIndices;
+    private final int featureSize;
+    private final boolean integralDoubles;
+
+    private RowToTokens(Builder builder) {
+        this.columnIndices = builder.columnIndices;
+        this.featureSize = builder.featureSize;
+        this.integralDoubles = builder.integralDoubles;
+    }
+
+    @Override
+    public String[] call(Row row) {
+        String[] tokens = new String[featureSize];
+        for (int i = 0; i < columnIndices.size(); i++) {
+            tokens[columnIndices.get(i)] = toToken(row.get(i), integralDoubles);
+        }
+        return tokens;
+    }
+
+    /**
+     * Set the values of a row to the cells of its columns, keeping the typed values. Nulls are set as empty (missing)
+     * cells, the cells of the other columns are left untouched.
+     */
+    void toCells(Row row, Object[] cells) {
+        for (int i = 0; i < columnIndices.size(); i++) {
+            Object value = row.get(i);
+            cells[columnIndices.get(i)] = value != null ? value : "";
+        }
+    }
+
+    int getFeatureSize() {
+        return featureSize;
+    }
+
+    boolean isIntegralDoubles() {
+        return integralDoubles;
+    }
+
+    static String toToken(Object value, boolean integralDoubles) {
+        if (value == null) {
+            return "";
+        }
+        if (integralDoubles && value instanceof Double) {
+            double number = (Double) value;
+            // integers were stored as doubles, write them back as they appeared in the dataset
+            if (number == Math.rint(number) && Math.abs(number) < MAX_INTEGRAL) {
+                return String.valueOf((long) number);
+            }
+        }
+        return value.toString();
+    }
+
+    public static class Builder {
+        private List<Integer> columnIndices;
+        private int featureSize;
+        private boolean integralDoubles;
+
+        /**
+         * @param columnIndices indices of the selected columns in the dataset, in the order they were selected
+         */
+        public Builder indices(List<Integer> columnIndices) {
+            this.columnIndices = columnIndices;
+            return this;
+        }
+
+        public Builder featureSize(int featureSize) {
+            this.featureSize = featureSize;
+            return this;
+        }
+
+        /**
+         * @param integralDoubles whether integral doubles are written without the decimal point, for datasets storing
+         *                        integers as doubles
+         */
+        public Builder integralDoubles(boolean integralDoubles) {
+            this.integralDoubles = integralDoubles;
+            return this;
+        }
+
+        public RowToTokens build() {
+            return new RowToTokens(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.Collections;
+
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.mllib.linalg.Vectors;
+import org.apache.spark.sql.Row;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+
+/**
+ * This class transforms a Spark SQL Row holding the selected columns of a dataset into a vector. It is equivalent to
+ * {@link RowToTokens}, {@link MissingValuesFilter} and {@link TokensToVectors} applied in that order, rows with nulls
+ * or missing values are dropped and numerical values are used as they are.
+ */
+public class RowToVector implements FlatMapFunction<Row, Vector> {
+
+    private static final long serialVersionUID = -2817410836318593104L;
+
+    private RowToVector() {
+    }
+
+    @Override
+    public Iterable<Vector> call(Row row) {
+        double[] features = new double[row.length()];
+        for (int i = 0; i < features.length; i++) {
+            Object value = row.get(i);
+            if (value == null || MLConstants.MISSING_VALUES.contains(value.toString())) {
+                return Collections.emptyList();
+            }
+            if (value instanceof Number) {
+                features[i] = ((Number) value).doubleValue();
+            } else if (NumberUtils.isNumber(value.toString())) {
+                features[i] = Double.parseDouble(value.toString());
+            }
+        }
+        return Collections.singletonList(Vectors.dense(features));
+    }
+
+    public static class Builder {
+        public RowToVector build() {
+            return new RowToVector();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.Iterator;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.apache.spark.sql.Row;
+import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
+
+/**
+ * This class transforms the Spark SQL Rows of a partition, holding the selected columns of a dataset, into labeled
+ * points in a single pass. It is equivalent to {@link RowToTokens} followed by {@link TokensToLabeledPoints}, but the
+ * numerical values of the rows are used as they are rather than converted to tokens and parsed back.
+ */
+public class RowsToLabeledPoints implements FlatMapFunction<Iterator<Row>, LabeledPoint> {
+
+    private static final long serialVersionUID = 6306725137463219425L;
+    private final TokensToLabeledPoints tokensToLabeledPoints;
+    private final RowToTokens rowToTokens;
+
+    private RowsToLabeledPoints(Builder builder) {
+        this.tokensToLabeledPoints = builder.tokensToLabeledPoints;
+        this.rowToTokens = builder.rowToTokens;
+    }
+
+    @Override
+    public Iterable<LabeledPoint> call(final Iterator<Row> rows) {
+        // cells of a row are kept in a buffer reused by all the rows of the partition
+        final Object[] cells = new Object[rowToTokens.getFeatureSize()];
+        Iterator<Object[]> rowCells = new Iterator<Object[]>() {
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                rowToTokens.toCells(rows.next(), cells);
+                return cells;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return tokensToLabeledPoints.transform(rowCells, rowToTokens.isIntegralDoubles());
+    }
+
+    public static class Builder {
+        private TokensToLabeledPoints tokensToLabeledPoints;
+        private RowToTokens rowToTokens;
+
+        public Builder init(MLModelConfigurationContext ctx) {
+            this.tokensToLabeledPoints = new TokensToLabeledPoints.Builder().init(ctx).build();
+            this.rowToTokens = ctx.getRowToTokens();
+            return this;
+        }
+
+        public Builder tokensToLabeledPoints(TokensToLabeledPoints tokensToLabeledPoints) {
+            this.tokensToLabeledPoints = tokensToLabeledPoints;
+            return this;
+        }
+
+        /**
+         * @param rowToTokens conversion of the rows to tokens, giving the columns of the values of the rows
+         */
+        public Builder rowToTokens(RowToTokens rowToTokens) {
+            this.rowToTokens = rowToTokens;
+            return this;
+        }
+
+        public RowsToLabeledPoints build() {
+            return new RowsToLabeledPoints(this);
+        }
+    }
+}
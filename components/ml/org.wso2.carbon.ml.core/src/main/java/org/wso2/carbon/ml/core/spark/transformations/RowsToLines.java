@@ -41,7 +41,11 @@ public class RowsToLines implements Function<Row, String> {
             return "";
         }
         for (int i = 0; i < row.length(); i++) {
-            sb.append(row.get(i) + columnSeparator);
+            // nulls are missing values
+            if (!row.isNullAt(i)) {
+                sb.append(row.get(i));
+            }
+            sb.append(columnSeparator);
         }
         return sb.substring(0, sb.length() - 1);
     }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import org.apache.spark.api.java.function.Function2;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
+
+/**
+ * Adds the tokens of a row to the statistics of each column. Rows with fewer tokens than columns are missing the
+ * remaining columns.
+ */
+public class TokensToColumnStatistics implements Function2<ColumnStatistics[], String[], ColumnStatistics[]> {
+
+    private static final long serialVersionUID = 4412719308556285372L;
+
+    private TokensToColumnStatistics() {
+    }
+
+    @Override
+    public ColumnStatistics[] call(ColumnStatistics[] statistics, String[] tokens) {
+        for (int column = 0; column < statistics.length; column++) {
+            statistics[column].add(column < tokens.length ? tokens[column] : null);
+        }
+        return statistics;
+    }
+
+    public static class Builder {
+        public TokensToColumnStatistics build() {
+            return new TokensToColumnStatistics();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.mllib.linalg.Vectors;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.core.exceptions.MLModelBuilderException;
+import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
+import org.wso2.carbon.ml.core.spark.algorithms.SparkModelUtils;
+import org.wso2.carbon.ml.core.utils.MLUtils;
+
+/**
+ * This class transforms the tokens of a partition into labeled points in a single pass. It is equivalent to
+ * {@link DiscardedRowsFilter}, {@link RemoveDiscardedFeatures}, {@link BasicEncoder}, {@link MeanImputation},
+ * {@link StringArrayToDoubleArray} and {@link DoubleArrayToLabeledPoint} applied in that order, but the column
+ * positions, encodings and means are resolved once per partition, the reordered tokens of a row are kept in a buffer
+ * reused by all the rows, and encoded and imputed values are not converted to strings and parsed back.
+ */
+public class TokensToLabeledPoints implements FlatMapFunction<Iterator<String[]>, LabeledPoint> {
+
+    private static final long serialVersionUID = -1409725806713834567L;
+    private final List<Integer> discardIndices;
+    private final List<Integer> newToOldIndicesList;
+    private final int responseIndex;
+    private final List<Map<String, Integer>> encodings;
+    private final Map<Integer, Double> meanImputation;
+
+    private TokensToLabeledPoints(Builder builder) {
+        this.discardIndices = builder.discardIndices;
+        this.newToOldIndicesList = builder.newToOldIndicesList;
+        this.responseIndex = builder.responseIndex;
+        this.encodings = builder.encodings;
+        this.meanImputation = builder.meanImputation;
+    }
+
+    @Override
+    public Iterable<LabeledPoint> call(Iterator<String[]> tokens) {
+        return transform(tokens, false);
+    }
+
+    /**
+     * Transform the cells of the rows of a partition. A cell is either a token, or a typed value read from a columnar
+     * dataset or a table, which is used as it is unless the column is encoded.
+     *
+     * @param cells cells of each row, in column order
+     * @param integralDoubles whether integral doubles of encoded columns are looked up without the decimal point
+     */
+    Iterable<LabeledPoint> transform(final Iterator<? extends Object[]> cells, boolean integralDoubles) {
+        final Transformer transformer = new Transformer(integralDoubles);
+        return new Iterable<LabeledPoint>() {
+            @Override
+            public Iterator<LabeledPoint> iterator() {
+                return new Iterator<LabeledPoint>() {
+
+                    private LabeledPoint next;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (next == null && cells.hasNext()) {
+                            next = transformer.transform(cells.next());
+                        }
+                        return next != null;
+                    }
+
+                    @Override
+                    public LabeledPoint next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        LabeledPoint labeledPoint = next;
+                        next = null;
+                        return labeledPoint;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Transformation of the rows of a partition, along with the state shared by the rows.
+     */
+    private class Transformer {
+
+        private final Set<String> missingValues = new HashSet<String>();
+        private final int[] discarded;
+        // new index of each column, -1 for the discarded columns
+        private final int[] newIndices;
+        private final boolean integralDoubles;
+        private final Object[] features;
+        private final Map<String, Integer>[] columnEncodings;
+        private final double[] defaultCodes;
+        private final boolean[] imputed;
+        private final double[] means;
+
+        @SuppressWarnings("unchecked")
+        Transformer(boolean integralDoubles) {
+            this.integralDoubles = integralDoubles;
+            for (MLConstants.MISSING_VALUES missingValue : MLConstants.MISSING_VALUES.values()) {
+                missingValues.add(missingValue.toString());
+            }
+            discarded = discardIndices != null ? toArray(discardIndices) : new int[0];
+            int size = responseIndex == -1 ? newToOldIndicesList.size() : newToOldIndicesList.size() + 1;
+            int columns = responseIndex + 1;
+            for (Integer oldIndex : newToOldIndicesList) {
+                columns = Math.max(columns, oldIndex + 1);
+            }
+            newIndices = new int[columns];
+            for (int i = 0; i < columns; i++) {
+                int newIndex = newToOldIndicesList.indexOf(i);
+                newIndices[i] = newIndex != -1 ? newIndex : (i == responseIndex ? size - 1 : -1);
+            }
+            features = new Object[size];
+
+            columnEncodings = new Map[size];
+            defaultCodes = new double[size];
+            for (int i = 0; encodings != null && i < size && i < encodings.size(); i++) {
+                Map<String, Integer> encoding = encodings.get(i);
+                if (encoding != null && !encoding.isEmpty()) {
+                    columnEncodings[i] = encoding;
+                    // unknown strings are encoded with the 0th mapping
+                    defaultCodes[i] = encoding.values().iterator().next();
+                }
+            }
+            imputed = new boolean[size];
+            means = new double[size];
+            for (int i = 0; meanImputation != null && i < size; i++) {
+                Double mean = meanImputation.get(i);
+                if (mean != null) {
+                    imputed[i] = true;
+                    means[i] = mean;
+                }
+            }
+        }
+
+        /**
+         * Transform the cells of a row.
+         *
+         * @return the labeled point of the row, null if the row is discarded
+         */
+        LabeledPoint transform(Object[] cells) {
+            for (int index : discarded) {
+                if (index >= cells.length || missingValues.contains(cells[index])) {
+                    return null;
+                }
+            }
+            Arrays.fill(features, null);
+            for (int i = 0; i < cells.length && i < newIndices.length; i++) {
+                if (newIndices[i] != -1) {
+                    features[newIndices[i]] = cells[i];
+                }
+            }
+            // last index is the response value
+            double[] values = new double[features.length - 1];
+            double response = 0;
+            for (int i = 0; i < features.length; i++) {
+                double value = toDouble(i, features[i]);
+                if (i < values.length) {
+                    values[i] = value;
+                } else {
+                    response = value;
+                }
+            }
+            return new LabeledPoint(response, Vectors.dense(values));
+        }
+
+        private double toDouble(int index, Object cell) {
+            if (columnEncodings[index] != null) {
+                // encodings are keyed by the tokens of the dataset
+                Object token = cell == null || cell instanceof String ? cell : RowToTokens.toToken(cell,
+                        integralDoubles);
+                Integer code = columnEncodings[index].get(token);
+                return code != null ? code : defaultCodes[index];
+            }
+            if (imputed[index] && missingValues.contains(cell)) {
+                return means[index];
+            }
+            if (cell instanceof Number) {
+                return ((Number) cell).doubleValue();
+            }
+            try {
+                return Double.parseDouble(cell.toString());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(new MLModelBuilderException(
+                        "An error occurred while transforming tokens: " + e.getMessage(), e));
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    public static class Builder {
+        private List<Integer> discardIndices;
+        private List<Integer> newToOldIndicesList;
+        private int responseIndex;
+        private List<Map<String, Integer>> encodings;
+        private Map<Integer, Double> meanImputation;
+
+        public Builder init(MLModelConfigurationContext ctx) {
+            this.discardIndices = MLUtils.getImputeFeatureIndices(ctx.getFacts(), new ArrayList<Integer>(),
+                    MLConstants.DISCARD);
+            this.newToOldIndicesList = ctx.getNewToOldIndicesList();
+            this.responseIndex = ctx.getResponseIndex();
+            this.encodings = SparkModelUtils.buildEncodings(ctx);
+            this.meanImputation = MeanImputation.Builder.getImputations(ctx);
+            return this;
+        }
+
+        public Builder discardIndices(List<Integer> discardIndices) {
+            this.discardIndices = discardIndices;
+            return this;
+        }
+
+        public Builder indices(List<Integer> indices) {
+            this.newToOldIndicesList = indices;
+            return this;
+        }
+
+        public Builder responseIndex(int index) {
+            this.responseIndex = index;
+            return this;
+        }
+
+        public Builder encodings(List<Map<String, Integer>> encodings) {
+            this.encodings = encodings;
+            return this;
+        }
+
+        public Builder imputations(Map<Integer, Double> meanImputation) {
+            this.meanImputation = meanImputation;
+            return this;
+        }
+
+        public TokensToLabeledPoints build() {
+            return new TokensToLabeledPoints(this);
+        }
+    }
+}
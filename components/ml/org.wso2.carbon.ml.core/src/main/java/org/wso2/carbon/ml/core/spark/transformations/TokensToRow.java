@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.spark.api.java.function.Function;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.FeatureType;
+
+/**
+ * This class converts the tokens of a line into a typed Spark SQL Row. Cells of numerical columns are converted to
+ * doubles, missing values of numerical columns and missing cells are converted to nulls.
+ */
+public class TokensToRow implements Function<String[], Row> {
+
+    private static final long serialVersionUID = 2946150386254711530L;
+    private final String[] types;
+
+    private TokensToRow(Builder builder) {
+        this.types = builder.types;
+    }
+
+    @Override
+    public Row call(String[] tokens) {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length && i < tokens.length; i++) {
+            if (!FeatureType.NUMERICAL.equals(types[i])) {
+                values[i] = tokens[i];
+            } else if (!MLConstants.MISSING_VALUES.contains(tokens[i])) {
+                values[i] = NumberUtils.createNumber(tokens[i]).doubleValue();
+            }
+        }
+        return RowFactory.create(values);
+    }
+
+    public static class Builder {
+        private String[] types;
+
+        public Builder types(String[] types) {
+            this.types = types;
+            return this;
+        }
+
+        public TokensToRow build() {
+            return new TokensToRow(this);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import org.apache.spark.api.java.function.Function2;
+import org.wso2.carbon.ml.core.utils.RowSample;
+
+/**
+ * Adds the tokens of a row to a random sample of rows.
+ */
+public class TokensToRowSample implements Function2<RowSample, String[], RowSample> {
+
+    private static final long serialVersionUID = -6114296713848513537L;
+
+    private TokensToRowSample() {
+    }
+
+    @Override
+    public RowSample call(RowSample sample, String[] tokens) {
+        sample.add(tokens);
+        return sample;
+    }
+
+    public static class Builder {
+        public TokensToRowSample build() {
+            return new TokensToRowSample();
+        }
+    }
+}
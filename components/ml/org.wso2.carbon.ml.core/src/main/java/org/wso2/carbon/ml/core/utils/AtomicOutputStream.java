@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Stream writing to a temporary location, whose data is moved to the target location only when the stream is closed.
+ * Readers of the target location never see partially written data. A stream whose data should not be moved to the
+ * target location, e.g. after a failed write, is closed with {@link #abort()}.
+ */
+public abstract class AtomicOutputStream extends FilterOutputStream {
+
+    private boolean closed;
+
+    protected AtomicOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    /**
+     * Close the stream and move the written data to the target location.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.flush();
+            out.close();
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+        commit();
+    }
+
+    /**
+     * Close the stream and discard the written data, the target location is left unchanged.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // the written data is discarded anyway
+        }
+        discard();
+    }
+
+    /**
+     * Move the written data to the target location.
+     */
+    protected abstract void commit() throws IOException;
+
+    /**
+     * Delete the written data.
+     */
+    protected abstract void discard();
+}
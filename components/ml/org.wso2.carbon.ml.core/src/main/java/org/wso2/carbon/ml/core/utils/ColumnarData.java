@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary columnar representation of a set of rows, used to exchange prediction data without JSON/CSV
+ * parsing. Numeric columns are carried as raw doubles and categorical columns as a dictionary of distinct values
+ * followed by an int code per row.
+ * <p>
+ * Layout (big-endian, as written by {@link DataOutputStream}):
+ * <pre>
+ * int     magic ({@link #MAGIC})
+ * byte    version ({@link #VERSION})
+ * int     number of rows
+ * int     number of columns
+ * per column:
+ *   byte  column type ({@link #NUMERIC} or {@link #CATEGORICAL})
+ *   NUMERIC:     double x number of rows
+ *   CATEGORICAL: int dictionary size, UTF string x dictionary size, int code x number of rows
+ * </pre>
+ * The row, column and dictionary counts are read before the values they describe, hence they are bounded by a maximum
+ * number of values before any array is allocated.
+ */
+public class ColumnarData {
+
+    public static final String MEDIA_TYPE = "application/x-ml-columnar";
+    public static final int MAGIC = 0x4d4c4344;
+    public static final byte VERSION = 1;
+    public static final byte NUMERIC = 0;
+    public static final byte CATEGORICAL = 1;
+    public static final int DEFAULT_MAX_VALUES = 10000000;
+
+    private final int numberOfRows;
+    private final List<Column> columns = new ArrayList<Column>();
+
+    public ColumnarData(int numberOfRows) {
+        this.numberOfRows = numberOfRows;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfColumns() {
+        return columns.size();
+    }
+
+    public Column getColumn(int index) {
+        return columns.get(index);
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    public void addNumericColumn(double[] values) {
+        if (values.length != numberOfRows) {
+            throw new IllegalArgumentException("Expected " + numberOfRows + " values, found " + values.length);
+        }
+        columns.add(new Column(values, null, null));
+    }
+
+    public void addCategoricalColumn(String[] dictionary, int[] codes) {
+        if (codes.length != numberOfRows) {
+            throw new IllegalArgumentException("Expected " + numberOfRows + " codes, found " + codes.length);
+        }
+        columns.add(new Column(null, dictionary, codes));
+    }
+
+    /**
+     * Build a single column data set out of a list of predictions. Numbers are written as a numeric column and any
+     * other value as a dictionary encoded categorical column.
+     *
+     * @param predictions predicted values
+     * @return {@link ColumnarData} holding the predictions
+     */
+    public static ColumnarData fromPredictions(List<?> predictions) {
+        int size = predictions.size();
+        ColumnarData data = new ColumnarData(size);
+        boolean numeric = true;
+        for (Object prediction : predictions) {
+            if (!(prediction instanceof Number)) {
+                numeric = false;
+                break;
+            }
+        }
+        if (numeric) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = ((Number) predictions.get(i)).doubleValue();
+            }
+            data.addNumericColumn(values);
+        } else {
+            Map<String, Integer> dictionary = new LinkedHashMap<String, Integer>();
+            int[] codes = new int[size];
+            for (int i = 0; i < size; i++) {
+                String value = String.valueOf(predictions.get(i));
+                Integer code = dictionary.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put(value, code);
+                }
+                codes[i] = code;
+            }
+            data.addCategoricalColumn(dictionary.keySet().toArray(new String[dictionary.size()]), codes);
+        }
+        return data;
+    }
+
+    /**
+     * Read a data set in the columnar binary format, of at most {@link #DEFAULT_MAX_VALUES} values.
+     *
+     * @param in input stream to read from, not closed by this method
+     * @return {@link ColumnarData} read from the stream
+     * @throws IOException if the stream cannot be read or is not in the expected format
+     */
+    public static ColumnarData read(InputStream in) throws IOException {
+        return read(in, DEFAULT_MAX_VALUES);
+    }
+
+    /**
+     * Read a data set in the columnar binary format.
+     *
+     * @param in        input stream to read from, not closed by this method
+     * @param maxValues maximum number of values (rows x columns) of the data set
+     * @return {@link ColumnarData} read from the stream
+     * @throws IOException if the stream cannot be read, is not in the expected format or exceeds the maximum number
+     *                     of values
+     */
+    public static ColumnarData read(InputStream in, int maxValues) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("Invalid columnar data: unknown format.");
+        }
+        byte version = dataIn.readByte();
+        if (version != VERSION) {
+            throw new IOException("Invalid columnar data: unsupported version " + version);
+        }
+        int numberOfRows = dataIn.readInt();
+        int numberOfColumns = dataIn.readInt();
+        if (numberOfRows < 0 || numberOfColumns < 0) {
+            throw new IOException("Invalid columnar data: negative row or column count.");
+        }
+        if ((long) numberOfRows * numberOfColumns > maxValues || numberOfColumns > maxValues) {
+            throw new IOException("Invalid columnar data: " + numberOfRows + " rows of " + numberOfColumns
+                    + " columns exceed the maximum of " + maxValues + " values.");
+        }
+        ColumnarData data = new ColumnarData(numberOfRows);
+        for (int column = 0; column < numberOfColumns; column++) {
+            byte type = dataIn.readByte();
+            if (type == NUMERIC) {
+                double[] values = new double[numberOfRows];
+                for (int row = 0; row < numberOfRows; row++) {
+                    values[row] = dataIn.readDouble();
+                }
+                data.addNumericColumn(values);
+            } else if (type == CATEGORICAL) {
+                int dictionarySize = dataIn.readInt();
+                if (dictionarySize < 0) {
+                    throw new IOException("Invalid columnar data: negative dictionary size at column " + column);
+                }
+                // a dictionary holds the distinct values of a column, at most one per row
+                if (dictionarySize > numberOfRows) {
+                    throw new IOException("Invalid columnar data: dictionary size " + dictionarySize
+                            + " exceeds the number of rows at column " + column);
+                }
+                String[] dictionary = new String[dictionarySize];
+                for (int i = 0; i < dictionarySize; i++) {
+                    dictionary[i] = dataIn.readUTF();
+                }
+                int[] codes = new int[numberOfRows];
+                for (int row = 0; row < numberOfRows; row++) {
+                    int code = dataIn.readInt();
+                    if (code < 0 || code >= dictionarySize) {
+                        throw new IOException("Invalid columnar data: code " + code + " out of dictionary range at "
+                                + "column " + column);
+                    }
+                    codes[row] = code;
+                }
+                data.addCategoricalColumn(dictionary, codes);
+            } else {
+                throw new IOException("Invalid columnar data: unknown column type " + type + " at column " + column);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Write this data set in the columnar binary format.
+     *
+     * @param out output stream to write to, flushed but not closed by this method
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(VERSION);
+        dataOut.writeInt(numberOfRows);
+        dataOut.writeInt(columns.size());
+        for (Column column : columns) {
+            if (column.isNumeric()) {
+                dataOut.writeByte(NUMERIC);
+                for (double value : column.values) {
+                    dataOut.writeDouble(value);
+                }
+            } else {
+                dataOut.writeByte(CATEGORICAL);
+                dataOut.writeInt(column.dictionary.length);
+                for (String value : column.dictionary) {
+                    dataOut.writeUTF(value);
+                }
+                for (int code : column.codes) {
+                    dataOut.writeInt(code);
+                }
+            }
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * A single column, either numeric or dictionary encoded.
+     */
+    public static class Column {
+
+        private final double[] values;
+        private final String[] dictionary;
+        private final int[] codes;
+
+        private Column(double[] values, String[] dictionary, int[] codes) {
+            this.values = values;
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        public boolean isNumeric() {
+            return values != null;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public String[] getDictionary() {
+            return dictionary;
+        }
+
+        public int[] getCodes() {
+            return codes;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * File system handles of the HDFS adapters, shared by all the reads and writes. A single {@link Configuration} is
+ * loaded and one {@link FileSystem} is kept per namenode URI (scheme and authority) until the pool is closed. Files
+ * larger than the parallel read threshold are read with concurrent positional reads.
+ */
+public class HdfsFileSystemPool {
+
+    private static final Log log = LogFactory.getLog(HdfsFileSystemPool.class);
+    private static final Pattern URI_WITH_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://.*");
+
+    private final Configuration configuration;
+    private final String defaultUrl;
+    private final int bufferSize;
+    private final long parallelReadThreshold;
+    private final int parallelReadThreads;
+    private final ConcurrentMap<String, FileSystem> fileSystems = new ConcurrentHashMap<String, FileSystem>();
+    private ExecutorService parallelReadExecutor;
+
+    /**
+     * @param configuration         Hadoop configuration of the file systems
+     * @param defaultUrl            URL of the file system of the paths without a scheme, the default file system of
+     *                              the configuration when null
+     * @param bufferSize            size of the read and write buffers in bytes
+     * @param parallelReadThreshold size in bytes above which files are read in parallel, 0 disables parallel reads
+     * @param parallelReadThreads   number of concurrent positional reads of a file
+     */
+    public HdfsFileSystemPool(Configuration configuration, String defaultUrl, int bufferSize,
+            long parallelReadThreshold, int parallelReadThreads) {
+        this.configuration = configuration;
+        this.defaultUrl = defaultUrl != null ? defaultUrl : FileSystem.getDefaultUri(configuration).toString();
+        this.bufferSize = bufferSize;
+        this.parallelReadThreshold = parallelReadThreshold;
+        this.parallelReadThreads = parallelReadThreads;
+        if (parallelReadThreshold > 0 && parallelReadThreads > 1) {
+            this.parallelReadExecutor = Executors.newFixedThreadPool(parallelReadThreads);
+        }
+    }
+
+    /**
+     * Create the Hadoop configuration of HDFS.
+     */
+    public static Configuration newHdfsConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.set("fs.hdfs.impl", org.apache.hadoop.hdfs.DistributedFileSystem.class.getName());
+        return configuration;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Get the fully qualified path of a path, paths without a scheme belong to the default file system.
+     */
+    public String getQualifiedPath(String path) {
+        if (URI_WITH_SCHEME.matcher(path).matches()) {
+            return path;
+        }
+        return defaultUrl.endsWith("/") && path.startsWith("/") ? defaultUrl + path.substring(1) : defaultUrl + path;
+    }
+
+    /**
+     * Get the file system of a qualified path.
+     */
+    public FileSystem getFileSystem(Path path) throws IOException {
+        URI uri = path.toUri();
+        String key = uri.getScheme() + "://" + (uri.getAuthority() != null ? uri.getAuthority() : "");
+        FileSystem fileSystem = fileSystems.get(key);
+        if (fileSystem == null) {
+            FileSystem newFileSystem = FileSystem.newInstance(uri, configuration);
+            fileSystem = fileSystems.putIfAbsent(key, newFileSystem);
+            if (fileSystem == null) {
+                fileSystem = newFileSystem;
+            } else {
+                newFileSystem.close();
+            }
+        }
+        return fileSystem;
+    }
+
+    /**
+     * Create (or overwrite) a file.
+     */
+    public OutputStream create(String path) throws IOException {
+        Path filePath = new Path(getQualifiedPath(path));
+        return getFileSystem(filePath).create(filePath, true, bufferSize);
+    }
+
+    /**
+     * Open a file. Files larger than the parallel read threshold are read into memory with concurrent positional
+     * reads.
+     */
+    public InputStream open(String path) throws IOException {
+        Path filePath = new Path(getQualifiedPath(path));
+        FileSystem fileSystem = getFileSystem(filePath);
+        FSDataInputStream in = fileSystem.open(filePath, bufferSize);
+        if (parallelReadExecutor == null) {
+            return in;
+        }
+        long length = fileSystem.getFileStatus(filePath).getLen();
+        if (length < parallelReadThreshold || length > Integer.MAX_VALUE) {
+            return in;
+        }
+        try {
+            return new ByteArrayInputStream(readFully(in, (int) length));
+        } finally {
+            in.close();
+        }
+    }
+
+    private byte[] readFully(final FSDataInputStream in, int length) throws IOException {
+        final byte[] data = new byte[length];
+        int partLength = (int) Math.ceil((double) length / parallelReadThreads);
+        List<Future<Void>> parts = new ArrayList<Future<Void>>();
+        for (int offset = 0; offset < length; offset += partLength) {
+            final int position = offset;
+            final int size = Math.min(partLength, length - offset);
+            parts.add(parallelReadExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    // positional reads leave the offset of the stream unchanged, hence they can run concurrently
+                    in.readFully(position, data, position, size);
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> part : parts) {
+                part.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading a file in parallel.");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read a file in parallel: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<Void> part : parts) {
+                part.cancel(true);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Close the file systems of the pool.
+     */
+    public void close() {
+        if (parallelReadExecutor != null) {
+            parallelReadExecutor.shutdownNow();
+        }
+        for (FileSystem fileSystem : fileSystems.values()) {
+            try {
+                fileSystem.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the file system " + fileSystem.getUri() + ": " + e.getMessage(), e);
+            }
+        }
+        fileSystems.clear();
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
+import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+
+/**
+ * Local on-disk copies of the models kept in remote storage (HDFS, registry), so that a model is fetched from the
+ * remote storage once per node. A model is cached only when its CRC32 checksum is stored next to it, with the checksum
+ * suffix. The checksum identifies the version of the model: a model republished with different content misses the
+ * cache, and the copy is verified against it before it is used; a copy not matching the checksum is read from the
+ * remote storage without being cached. Cached models are read through memory-mapped files, and the least recently used
+ * models are deleted once the cached models exceed the disk quota.
+ */
+public class LocalModelCache {
+
+    private static final Log log = LogFactory.getLog(LocalModelCache.class);
+    private static final String ENTRY_SUFFIX = ".model";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char VERSION_SEPARATOR = '-';
+
+    private final File directory;
+    private final long quota;
+    private long size;
+    /*
+     * key - file name of the cached model
+     * value - size of the cached model in bytes, in access order
+     */
+    private final Map<String, Long> entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+    /**
+     * @param directory directory of the cached models, models cached by an earlier run are reused
+     * @param quota     maximum total size of the cached models in bytes
+     */
+    public LocalModelCache(File directory, long quota) {
+        this.directory = directory;
+        this.quota = quota;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Failed to create the model cache directory " + directory.getAbsolutePath());
+        }
+        loadEntries();
+    }
+
+    /**
+     * Read a model through the cache.
+     *
+     * @param storageType storage type of the model
+     * @param path        path of the model in the storage
+     * @param adapter     input adapter of the storage
+     * @return the model, read from the local copy if the model has a checksum
+     */
+    public InputStream read(String storageType, String path, MLInputAdapter adapter) throws MLInputAdapterException {
+        String version = readVersion(path, adapter);
+        if (version == null) {
+            // the version of the model is unknown, hence a local copy cannot be told apart from a stale one
+            return adapter.read(path);
+        }
+        String key = UUID.nameUUIDFromBytes((storageType + ":" + path).getBytes(StandardCharsets.UTF_8)).toString();
+        String name = key + VERSION_SEPARATOR + version + ENTRY_SUFFIX;
+        File file = new File(directory, name);
+        try {
+            if (touch(name)) {
+                try {
+                    return map(file);
+                } catch (FileNotFoundException e) {
+                    // evicted by a concurrent put after it was touched, hence it is read as a miss
+                    if (log.isDebugEnabled()) {
+                        log.debug("Cached model " + name + " was evicted before it was read: " + e.getMessage());
+                    }
+                }
+            }
+            if (!fetch(path, adapter, file, Long.parseLong(version, 16))) {
+                return adapter.read(path);
+            }
+            put(key, name, file.length());
+            return map(file);
+        } catch (IOException e) {
+            throw new MLInputAdapterException(String.format("Failed to read the model %s through the model cache: %s",
+                    path, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Get the total size of the cached models in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    private String readVersion(String path, MLInputAdapter adapter) {
+        InputStream in = null;
+        try {
+            in = adapter.read(path + MLConstants.CHECKSUM_SUFFIX);
+            String checksum = new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8).trim();
+            // normalize the checksum, it is a part of the file name of the cached model
+            return Long.toHexString(Long.parseLong(checksum, 16));
+        } catch (MLInputAdapterException | IOException | NumberFormatException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Model " + path + " has no checksum, hence it is not cached: " + e.getMessage());
+            }
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Copy a model to a temporary file, which is moved to the cache once its checksum matches the expected checksum.
+     * Concurrent fetches of the same model write to different temporary files, and the last one replaces the others.
+     *
+     * @return true if the model is moved to the cache, false if its checksum does not match the expected checksum
+     */
+    private boolean fetch(String path, MLInputAdapter adapter, File file, long expectedChecksum) throws IOException,
+            MLInputAdapterException {
+        File tempFile = File.createTempFile("." + file.getName(), TEMP_SUFFIX, directory);
+        try {
+            CRC32 checksum = new CRC32();
+            InputStream in = adapter.read(path);
+            try {
+                OutputStream out = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)),
+                        checksum);
+                try {
+                    IOUtils.copyLarge(in, out);
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+            if (checksum.getValue() != expectedChecksum) {
+                // e.g. the model is being republished, and the checksum of the other version was read
+                log.warn(String.format("Checksum mismatch of model %s, expected %s but was %s. Hence, the model is "
+                        + "read without being cached.", path, Long.toHexString(expectedChecksum),
+                        Long.toHexString(checksum.getValue())));
+                return false;
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private synchronized boolean touch(String name) {
+        if (entries.get(name) == null) {
+            return false;
+        }
+        File file = new File(directory, name);
+        if (!file.isFile()) {
+            // deleted from outside the cache
+            size -= entries.remove(name);
+            return false;
+        }
+        // models cached by an earlier run are loaded in the order of their modification time
+        file.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Add a cached model, replacing the other versions of the model, and evict the least recently used models while
+     * the cache exceeds the quota. The added model itself is kept even if it alone exceeds the quota.
+     */
+    private synchronized void put(String key, String name, long length) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().startsWith(key + VERSION_SEPARATOR) && !entry.getKey().equals(name)) {
+                iterator.remove();
+                size -= entry.getValue();
+                delete(entry.getKey());
+            }
+        }
+        Long previous = entries.put(name, length);
+        size += length - (previous != null ? previous : 0);
+        iterator = entries.entrySet().iterator();
+        while (size > quota && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (!entry.getKey().equals(name)) {
+                iterator.remove();
+                size -= entry.getValue();
+                delete(entry.getKey());
+            }
+        }
+    }
+
+    private void delete(String name) {
+        File file = new File(directory, name);
+        // a model being read may not be deletable on some platforms
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Evicted the cached model " + name);
+        }
+    }
+
+    /**
+     * Load the models cached by an earlier run, the least recently modified first, and delete leftover temporary
+     * files.
+     */
+    private synchronized void loadEntries() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                long modified1 = file1.lastModified();
+                long modified2 = file2.lastModified();
+                return modified1 < modified2 ? -1 : (modified1 == modified2 ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(ENTRY_SUFFIX)) {
+                entries.put(file.getName(), file.length());
+                size += file.length();
+            } else if (file.getName().endsWith(TEMP_SUFFIX) && !file.delete()) {
+                log.warn("Failed to delete the temporary file " + file.getAbsolutePath());
+            }
+        }
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > quota && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            iterator.remove();
+            size -= entry.getValue();
+            delete(entry.getKey());
+        }
+    }
+
+    /**
+     * Open a cached model. The model is memory-mapped, hence reading it does not copy it through the file buffers of
+     * the process, and the mapping stays valid after the file is evicted.
+     */
+    private static InputStream map(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                return new FileInputStream(file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ByteBufferInputStream(buffer);
+        } finally {
+            // the mapping does not depend on the file handle
+            randomAccessFile.close();
+        }
+    }
+}
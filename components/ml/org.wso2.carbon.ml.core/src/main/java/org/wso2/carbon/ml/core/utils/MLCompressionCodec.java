@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.BZip2Codec;
+import org.apache.spark.SparkConf;
+import org.apache.spark.io.LZFCompressionCodec;
+
+/**
+ * Compression codecs of the stored datasets and models. The codec of a stored file is identified by the extension of
+ * its path, the same way Spark and Hadoop identify the codec of the files they read, so Spark reads the compressed
+ * datasets as they are. Bzip2 files are split across partitions by Spark, gzip files are read by a single task. LZF is
+ * the fast codec Spark is configured with, it is not readable by Spark as a dataset.
+ */
+public enum MLCompressionCodec {
+    NONE("none", ""), GZIP("gzip", ".gz"), BZIP2("bzip2", ".bz2"), LZF("lzf", ".lzf");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private String value = null;
+    private String extension = null;
+
+    private MLCompressionCodec(String value, String extension) {
+        this.value = value;
+        this.extension = extension;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return extension appended to the paths of the files compressed with this codec
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+
+    /**
+     * @return whether Spark reads files compressed with this codec as text files
+     */
+    public boolean isReadableBySpark() {
+        return this != LZF;
+    }
+
+    /**
+     * @return whether Spark splits files compressed with this codec across partitions
+     */
+    public boolean isSplittable() {
+        return this == NONE || this == BZIP2;
+    }
+
+    /**
+     * Wrap a stream with a stream compressing the data written to it. Closing the returned stream closes the given
+     * stream.
+     */
+    public OutputStream compress(OutputStream out) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        case BZIP2:
+            return getBZip2Codec().createOutputStream(out);
+        case LZF:
+            return new LZFCompressionCodec(new SparkConf(false)).compressedOutputStream(out);
+        default:
+            return out;
+        }
+    }
+
+    /**
+     * Wrap a stream with a stream decompressing the data read from it. Closing the returned stream closes the given
+     * stream.
+     */
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        case BZIP2:
+            return getBZip2Codec().createInputStream(in);
+        case LZF:
+            return new LZFCompressionCodec(new SparkConf(false)).compressedInputStream(in);
+        default:
+            return in;
+        }
+    }
+
+    private static BZip2Codec getBZip2Codec() {
+        BZip2Codec codec = new BZip2Codec();
+        codec.setConf(new Configuration());
+        return codec;
+    }
+
+    /**
+     * get {@link MLCompressionCodec} for a given value, {@link #NONE} when no value is given.
+     */
+    public static MLCompressionCodec getCompressionCodec(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NONE;
+        }
+        for (MLCompressionCodec codec : MLCompressionCodec.values()) {
+            if (codec.getValue().equalsIgnoreCase(value.trim())) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * get {@link MLCompressionCodec} of a file from the extension of its path.
+     */
+    public static MLCompressionCodec getCompressionCodecOfPath(String path) {
+        for (MLCompressionCodec codec : MLCompressionCodec.values()) {
+            if (codec != NONE && path.endsWith(codec.getExtension())) {
+                return codec;
+            }
+        }
+        return NONE;
+    }
+}
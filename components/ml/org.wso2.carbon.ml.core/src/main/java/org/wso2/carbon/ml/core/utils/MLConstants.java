@@ -51,6 +51,20 @@ public class MLConstants {
     public static final String TARGET_HOME_PROP = "target.home";
     public static final String ML_THREAD_POOL_SIZE = "ml.thread.pool.size";
     public static final String ML_THREAD_POOL_QUEUE_SIZE = "ml.thread.pool.queue.size";
+    public static final String ML_SCORING_POOL_SIZE = "ml.scoring.pool.size";
+    public static final String ML_SCORING_POOL_QUEUE_SIZE = "ml.scoring.pool.queue.size";
+    public static final String ML_SCORING_POOL_TENANT_QUEUE_SIZE = "ml.scoring.pool.tenant.queue.size";
+    public static final String ML_SCORING_TIMEOUT = "ml.scoring.timeout";
+    public static final String ML_COLUMNAR_MAX_VALUES = "ml.columnar.max.values";
+    public static final String ML_DATASET_COLUMNAR = "ml.dataset.columnar";
+    public static final String ML_PREPROCESSED_CACHE_SIZE = "ml.preprocessed.cache.size";
+    public static final String ML_PREPROCESSED_CACHE_STORAGE_LEVEL = "ml.preprocessed.cache.storage.level";
+    public static final String ML_HDFS_BUFFER_SIZE = "ml.hdfs.buffer.size";
+    public static final String ML_HDFS_PARALLEL_READ_THRESHOLD = "ml.hdfs.parallel.read.threshold";
+    public static final String ML_HDFS_PARALLEL_READ_THREADS = "ml.hdfs.parallel.read.threads";
+    public static final String ML_MODEL_CACHE_DIRECTORY = "ml.model.cache.directory";
+    public static final String ML_MODEL_CACHE_QUOTA = "ml.model.cache.quota.mb";
+    public static final String ML_MODEL_MIGRATE = "ml.model.migrate";
 
     // I/O Adapter configs
     public static final String BAM_SERVER_URL= "BAMServerURL";
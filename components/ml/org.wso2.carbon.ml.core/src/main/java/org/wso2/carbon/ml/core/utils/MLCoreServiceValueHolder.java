@@ -45,6 +45,12 @@ public class MLCoreServiceValueHolder {
     private Storage modelStorage;
     private Storage datasetStorage;
     private BlockingExecutor threadExecutor;
+    private ScoringExecutor scoringExecutor;
+    private long scoringTimeout;
+    private int columnarMaxValues = ColumnarData.DEFAULT_MAX_VALUES;
+    private PreprocessedDataCache preprocessedDataCache;
+    private HdfsFileSystemPool hdfsFileSystemPool;
+    private LocalModelCache localModelCache;
     private boolean sparkContextEnabled;
     private boolean h2oClientModeEnabled;
 
@@ -176,6 +182,59 @@ public class MLCoreServiceValueHolder {
         this.threadExecutor = threadExecutor;
     }
 
+    public ScoringExecutor getScoringExecutor() {
+        return scoringExecutor;
+    }
+
+    public void setScoringExecutor(ScoringExecutor scoringExecutor) {
+        this.scoringExecutor = scoringExecutor;
+    }
+
+    public long getScoringTimeout() {
+        return scoringTimeout;
+    }
+
+    public void setScoringTimeout(long scoringTimeout) {
+        this.scoringTimeout = scoringTimeout;
+    }
+
+    public int getColumnarMaxValues() {
+        return columnarMaxValues;
+    }
+
+    public void setColumnarMaxValues(int columnarMaxValues) {
+        this.columnarMaxValues = columnarMaxValues;
+    }
+
+    public PreprocessedDataCache getPreprocessedDataCache() {
+        return preprocessedDataCache;
+    }
+
+    public void setPreprocessedDataCache(PreprocessedDataCache preprocessedDataCache) {
+        this.preprocessedDataCache = preprocessedDataCache;
+    }
+
+    public synchronized HdfsFileSystemPool getHdfsFileSystemPool() {
+        if (hdfsFileSystemPool == null) {
+            // adapters used before the ML core is configured use the default settings
+            hdfsFileSystemPool = new HdfsFileSystemPool(HdfsFileSystemPool.newHdfsConfiguration(), hdfsUrl, 64 * 1024,
+                    0, 1);
+        }
+        return hdfsFileSystemPool;
+    }
+
+    public synchronized void setHdfsFileSystemPool(HdfsFileSystemPool hdfsFileSystemPool) {
+        this.hdfsFileSystemPool = hdfsFileSystemPool;
+    }
+
+    public LocalModelCache getLocalModelCache() {
+        return localModelCache;
+    }
+
+    public void setLocalModelCache(LocalModelCache localModelCache) {
+        this.localModelCache = localModelCache;
+    }
+
     public boolean isSparkContextEnabled() {
         return sparkContextEnabled;
     }
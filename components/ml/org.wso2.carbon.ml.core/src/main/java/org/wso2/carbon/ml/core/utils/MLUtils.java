@@ -26,9 +26,14 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Column;
 import org.apache.spark.sql.DataFrame;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.SQLContext;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
 import org.wso2.carbon.analytics.api.AnalyticsDataAPI;
 import org.wso2.carbon.analytics.datasource.commons.AnalyticsSchema;
 import org.wso2.carbon.analytics.datasource.commons.ColumnDefinition;
@@ -36,7 +41,9 @@ import org.wso2.carbon.analytics.datasource.commons.exception.AnalyticsException
 import org.wso2.carbon.analytics.datasource.commons.exception.AnalyticsTableNotAvailableException;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
 import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureType;
 import org.wso2.carbon.ml.commons.domain.MLDatasetVersion;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import org.wso2.carbon.ml.commons.domain.Workflow;
@@ -45,7 +52,12 @@ import org.wso2.carbon.ml.core.exceptions.MLMalformedDatasetException;
 import org.wso2.carbon.ml.core.spark.transformations.DiscardedRowsFilter;
 import org.wso2.carbon.ml.core.spark.transformations.HeaderFilter;
 import org.wso2.carbon.ml.core.spark.transformations.LineToTokens;
+import org.wso2.carbon.ml.core.spark.transformations.MergeColumnStatistics;
+import org.wso2.carbon.ml.core.spark.transformations.MergeRowSamples;
 import org.wso2.carbon.ml.core.spark.transformations.RowsToLines;
+import org.wso2.carbon.ml.core.spark.transformations.TokensToColumnStatistics;
+import org.wso2.carbon.ml.core.spark.transformations.TokensToRow;
+import org.wso2.carbon.ml.core.spark.transformations.TokensToRowSample;
 
 /**
  * Common utility methods used in ML core.
@@ -60,9 +72,6 @@ public class MLUtils {
 
         JavaSparkContext sparkContext = null;
         try {
-            Map<String, Integer> headerMap = null;
-            // List containing actual data of the sample.
-            List<List<String>> columnData = new ArrayList<List<String>>();
             CSVFormat dataFormat = DataTypeFactory.getCSVFormat(dataType);
 
             // java spark context
@@ -78,7 +87,15 @@ public class MLUtils {
                         "File content does not match the data format. [First Line] %s [Data Format] %s", firstLine,
                         dataType));
             }
-            return getSamplePoints(sampleSize, containsHeader, headerMap, columnData, dataFormat, lines);
+            int featureSize = getFeatureSize(firstLine, dataFormat);
+            Map<String, Integer> headerMap;
+            if (containsHeader) {
+                headerMap = generateHeaderMap(firstLine, dataFormat);
+                lines = lines.filter(new HeaderFilter.Builder().header(firstLine).build());
+            } else {
+                headerMap = generateHeaderMap(featureSize);
+            }
+            return getSamplePoints(sampleSize, featureSize, headerMap, dataFormat, lines);
 
         } catch (Exception e) {
             throw new MLMalformedDatasetException("Failed to extract the sample points from path: " + path
@@ -99,20 +116,17 @@ public class MLUtils {
 
         JavaSparkContext sparkContext = null;
         try {
-            Map<String, Integer> headerMap = null;
-            // List containing actual data of the sample.
-            List<List<String>> columnData = new ArrayList<List<String>>();
-
             // java spark context
             sparkContext = MLCoreServiceValueHolder.getInstance().getSparkContext();
             JavaRDD<String> lines;
             String headerLine = extractHeaderLine(path, tenantId);
-            headerMap = generateHeaderMap(headerLine, CSVFormat.RFC4180);
+            Map<String, Integer> headerMap = generateHeaderMap(headerLine, CSVFormat.RFC4180);
 
-            // DAS case path = table name
+            // DAS case path = table name, the lines generated from the table rows do not have a header
             lines = getLinesFromDASTable(path, tenantId, sparkContext);
 
-            return getSamplePoints(sampleSize, true, headerMap, columnData, CSVFormat.RFC4180, lines);
+            return getSamplePoints(sampleSize, getFeatureSize(headerLine, CSVFormat.RFC4180), headerMap,
+                    CSVFormat.RFC4180, lines);
 
         } catch (Exception e) {
             throw new MLMalformedDatasetException("Failed to extract the sample points from path: " + path
@@ -120,9 +134,160 @@ public class MLUtils {
         }
     }
 
+    /**
+     * Calculate the statistics of each column of the dataset in a single pass, using Spark.
+     */
+    public static List<ColumnStatistics> getColumnStatistics(String path, String dataType, boolean containsHeader,
+            int maxCategories) throws MLMalformedDatasetException {
+        try {
+            JavaSparkContext sparkContext = MLCoreServiceValueHolder.getInstance().getSparkContext();
+            return getColumnStatistics(sparkContext.textFile(path), DataTypeFactory.getCSVFormat(dataType),
+                    containsHeader, maxCategories);
+        } catch (Exception e) {
+            throw new MLMalformedDatasetException("Failed to calculate the column statistics of path: " + path
+                    + ". Cause: " + e, e);
+        }
+    }
+
+    /**
+     * Calculate the statistics of each column of a DAS table in a single pass, using Spark.
+     */
+    public static List<ColumnStatistics> getColumnStatisticsFromDAS(String path, int tenantId, int maxCategories)
+            throws MLMalformedDatasetException {
+        try {
+            JavaSparkContext sparkContext = MLCoreServiceValueHolder.getInstance().getSparkContext();
+            // DAS case path = table name, the lines generated from the table rows do not have a header
+            return getColumnStatistics(getLinesFromDASTable(path, tenantId, sparkContext), CSVFormat.RFC4180, false,
+                    maxCategories);
+        } catch (Exception e) {
+            throw new MLMalformedDatasetException("Failed to calculate the column statistics of path: " + path
+                    + ". Cause: " + e, e);
+        }
+    }
+
+    private static List<ColumnStatistics> getColumnStatistics(JavaRDD<String> lines, CSVFormat dataFormat,
+            boolean containsHeader, int maxCategories) {
+        String firstLine = lines.first();
+        int featureSize = getFeatureSize(firstLine, dataFormat);
+        if (containsHeader) {
+            lines = lines.filter(new HeaderFilter.Builder().header(firstLine).build());
+        }
+        Pattern pattern = getPatternFromDelimiter(String.valueOf(dataFormat.getDelimiter()));
+        JavaRDD<String[]> tokens = lines.map(new LineToTokens.Builder().separator(pattern).build());
+
+        ColumnStatistics[] zeroValue = new ColumnStatistics[featureSize];
+        for (int i = 0; i < featureSize; i++) {
+            zeroValue[i] = new ColumnStatistics(maxCategories);
+        }
+        // Partitions are summarized in parallel and merged in a tree, instead of all at the driver.
+        ColumnStatistics[] statistics = tokens.treeAggregate(zeroValue, new TokensToColumnStatistics.Builder().build(),
+                new MergeColumnStatistics.Builder().build());
+        return Arrays.asList(statistics);
+    }
+
+    /**
+     * Convert a dataset into a typed columnar dataset (Parquet) using Spark. Columns of the columnar dataset are named
+     * after their index (c0, c1, ...), numerical columns are stored as doubles and the other columns as strings.
+     *
+     * @param path path of the dataset
+     * @param columnarPath path the columnar dataset is written to, overwritten if it exists
+     * @param dataType data type of the dataset
+     * @param containsHeader whether the dataset has a header line
+     * @param types type of each column of the dataset, in column order
+     * @return schema of the columnar dataset, in JSON
+     */
+    public static String convertToColumnar(String path, String columnarPath, String dataType, boolean containsHeader,
+            String[] types) throws MLMalformedDatasetException {
+        try {
+            JavaSparkContext sparkContext = MLCoreServiceValueHolder.getInstance().getSparkContext();
+            CSVFormat dataFormat = DataTypeFactory.getCSVFormat(dataType);
+            JavaRDD<String> lines = sparkContext.textFile(path);
+            if (containsHeader) {
+                lines = lines.filter(new HeaderFilter.Builder().header(lines.first()).build());
+            }
+            Pattern pattern = getPatternFromDelimiter(String.valueOf(dataFormat.getDelimiter()));
+            JavaRDD<Row> rows = lines.map(new LineToTokens.Builder().separator(pattern).build()).map(
+                    new TokensToRow.Builder().types(types).build());
+
+            List<StructField> fields = new ArrayList<StructField>();
+            for (int i = 0; i < types.length; i++) {
+                fields.add(DataTypes.createStructField(getColumnarColumnName(i),
+                        FeatureType.NUMERICAL.equals(types[i]) ? DataTypes.DoubleType : DataTypes.StringType, true));
+            }
+            StructType schema = DataTypes.createStructType(fields);
+            SQLContext sqlCtx = new SQLContext(sparkContext);
+            sqlCtx.createDataFrame(rows, schema).write().mode(SaveMode.Overwrite).parquet(columnarPath);
+            return schema.json();
+        } catch (Exception e) {
+            throw new MLMalformedDatasetException("Failed to convert the dataset of path: " + path
+                    + " to a columnar dataset. Cause: " + e, e);
+        }
+    }
+
+    /**
+     * Read the selected columns of a columnar dataset. Only the selected columns are read from the dataset, the
+     * values of each row are in the order of the given indices.
+     *
+     * @param sparkContext Spark context
+     * @param columnarPath path of the columnar dataset
+     * @param columnIndices indices of the columns to be read
+     * @return rows of the dataset
+     */
+    public static JavaRDD<Row> getRowsFromColumnar(JavaSparkContext sparkContext, String columnarPath,
+            List<Integer> columnIndices) {
+        SQLContext sqlCtx = new SQLContext(sparkContext);
+        DataFrame dataFrame = sqlCtx.read().parquet(columnarPath);
+        Column[] columns = new Column[columnIndices.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = dataFrame.col(getColumnarColumnName(columnIndices.get(i)));
+        }
+        return dataFrame.select(columns).javaRDD();
+    }
+
+    private static String getColumnarColumnName(int index) {
+        return "c" + index;
+    }
+
     public static JavaRDD<String> getLinesFromDASTable(String tableName, int tenantId, JavaSparkContext sparkContext)
             throws AnalyticsTableNotAvailableException, AnalyticsException {
         JavaRDD<String> lines;
+        DataFrame dataFrame = getDataFrameFromDASTable(tableName, tenantId, sparkContext);
+        // Additional auto-generated column "_timestamp" needs to be dropped because it is not in the schema.
+        JavaRDD<Row> rows = dataFrame.drop("_timestamp").javaRDD();
+        lines = rows.map(new RowsToLines.Builder().separator(CSVFormat.RFC4180.getDelimiter() + "").build());
+        return lines;
+    }
+
+    /**
+     * Read the selected columns of a DAS table. Only the selected columns are read from the table and rows having
+     * nulls in the given columns are filtered by the table, the values of each row are in the order of the given
+     * indices.
+     *
+     * @param tableName name of the table
+     * @param tenantId tenant id of the table
+     * @param sparkContext Spark context
+     * @param columnNames names of the columns of the table, in column order
+     * @param columnIndices indices of the columns to be read
+     * @param notNullIndices indices of the columns whose rows with nulls are discarded
+     * @return rows of the table
+     */
+    public static JavaRDD<Row> getRowsFromDASTable(String tableName, int tenantId,
+            JavaSparkContext sparkContext, List<String> columnNames, List<Integer> columnIndices,
+            List<Integer> notNullIndices) throws AnalyticsTableNotAvailableException, AnalyticsException {
+        DataFrame dataFrame = getDataFrameFromDASTable(tableName, tenantId, sparkContext);
+        Column[] columns = new Column[columnIndices.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = dataFrame.col(columnNames.get(columnIndices.get(i)));
+        }
+        // filters are pushed down to the relation provider
+        for (int index : notNullIndices) {
+            dataFrame = dataFrame.filter(dataFrame.col(columnNames.get(index)).isNotNull());
+        }
+        return dataFrame.select(columns).javaRDD();
+    }
+
+    private static DataFrame getDataFrameFromDASTable(String tableName, int tenantId, JavaSparkContext sparkContext)
+            throws AnalyticsTableNotAvailableException, AnalyticsException {
         String tableSchema = extractTableSchema(tableName, tenantId);
         SQLContext sqlCtx = new SQLContext(sparkContext);
         sqlCtx.sql("CREATE TEMPORARY TABLE ML_REF USING org.wso2.carbon.analytics.spark.core.sources.AnalyticsRelationProvider "
@@ -136,44 +301,30 @@ public class MLUtils {
                 + "schema \""
                 + tableSchema + "\"" + ")");
 
-        DataFrame dataFrame = sqlCtx.sql("select * from ML_REF");
-        // Additional auto-generated column "_timestamp" needs to be dropped because it is not in the schema.
-        JavaRDD<Row> rows = dataFrame.drop("_timestamp").javaRDD();
-        lines = rows.map(new RowsToLines.Builder().separator(CSVFormat.RFC4180.getDelimiter() + "").build());
-        return lines;
+        return sqlCtx.sql("select * from ML_REF");
     }
 
-    private static SamplePoints getSamplePoints(int sampleSize, boolean containsHeader, Map<String, Integer> headerMap,
-                                                List<List<String>> columnData, CSVFormat dataFormat, JavaRDD<String> lines) {
-        int featureSize;
-        int[] missing;
-        int[] stringCellCount;
-        int[] decimalCellCount;
-        // take the first line
-        String firstLine = lines.first();
-        // count the number of features
-        featureSize = getFeatureSize(firstLine, dataFormat);
-
-        List<Integer> featureIndices = new ArrayList<Integer>();
-        for (int i = 0; i < featureSize; i++) {
-            featureIndices.add(i);
-        }
-
-        String columnSeparator = String.valueOf(dataFormat.getDelimiter());
-        HeaderFilter headerFilter = new HeaderFilter.Builder().header(lines.first()).build();
-        JavaRDD<String> data = lines.filter(headerFilter).cache();
-        Pattern pattern = MLUtils.getPatternFromDelimiter(columnSeparator);
+    /**
+     * Take a uniform random sample of the lines of a dataset, in a single pass over the dataset.
+     *
+     * @param sampleSize number of cells in the sample
+     * @param featureSize number of columns of the dataset
+     * @param headerMap header of the dataset
+     * @param dataFormat format of the dataset
+     * @param lines lines of the dataset, without the header
+     */
+    private static SamplePoints getSamplePoints(int sampleSize, int featureSize, Map<String, Integer> headerMap,
+            CSVFormat dataFormat, JavaRDD<String> lines) {
+        // List containing actual data of the sample.
+        List<List<String>> columnData = new ArrayList<List<String>>();
+        int[] missing = new int[featureSize];
+        int[] stringCellCount = new int[featureSize];
+        int[] decimalCellCount = new int[featureSize];
+
+        Pattern pattern = MLUtils.getPatternFromDelimiter(String.valueOf(dataFormat.getDelimiter()));
         LineToTokens lineToTokens = new LineToTokens.Builder().separator(pattern).build();
-        JavaRDD<String[]> tokens = data.map(lineToTokens);
-
-        // remove from cache
-        data.unpersist();
-        // add to cache
-        tokens.cache();
+        JavaRDD<String[]> tokens = lines.map(lineToTokens);
 
-        missing = new int[featureSize];
-        stringCellCount = new int[featureSize];
-        decimalCellCount = new int[featureSize];
         if (sampleSize >= 0 && featureSize > 0) {
             sampleSize = sampleSize / featureSize;
         }
@@ -181,20 +332,10 @@ public class MLUtils {
             columnData.add(new ArrayList<String>());
         }
 
-        if (headerMap == null) {
-            // generate the header map
-            if (containsHeader) {
-                headerMap = generateHeaderMap(lines.first(), dataFormat);
-            } else {
-                headerMap = generateHeaderMap(featureSize);
-            }
-        }
-
-        // take a random sample
-        List<String[]> sampleLines = tokens.takeSample(false, sampleSize);
-
-        // remove from cache
-        tokens.unpersist();
+        // take a random sample, each partition is sampled separately and the samples are merged at the driver
+        RowSample sample = tokens.aggregate(new RowSample(sampleSize), new TokensToRowSample.Builder().build(),
+                new MergeRowSamples.Builder().build());
+        List<String[]> sampleLines = sample.getRows();
 
         // iterate through sample lines
         for (String[] columnValues : sampleLines) {
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.rdd.RDD;
+import org.apache.spark.storage.StorageLevel;
+import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
+
+/**
+ * Cache of the preprocessed training data of model builds, so that builds on the same dataset version with the same
+ * feature settings skip reading and parsing the dataset. Entries are keyed by the dataset version and a fingerprint of
+ * the feature, imputation and encoding settings, and persisted at the configured storage level. Spark drops (or
+ * spills, depending on the storage level) the cached partitions under memory pressure, and the least recently used
+ * entry is evicted once the cache is full. Data handed out to model builds is reference counted: evicted data stays
+ * persisted until the last build using it releases it.
+ */
+public class PreprocessedDataCache {
+
+    private static final Log log = LogFactory.getLog(PreprocessedDataCache.class);
+    private static final String KEY_SEPARATOR = ":";
+
+    private final int maxEntries;
+    private final StorageLevel storageLevel;
+    /*
+     * key - dataset version id and fingerprint of the preprocessing settings
+     * value - preprocessed data, in access order
+     */
+    private final Map<String, Entry> entries;
+    /*
+     * key - RDD of the preprocessed data in use by model builds, cached or not
+     * value - its entry, holding the number of builds using it
+     */
+    private final Map<RDD<?>, Entry> inUse = new IdentityHashMap<RDD<?>, Entry>();
+
+    /**
+     * @param maxEntries   maximum number of cached datasets, 0 disables the cache
+     * @param storageLevel storage level the cached datasets are persisted at
+     */
+    public PreprocessedDataCache(final int maxEntries, StorageLevel storageLevel) {
+        this.maxEntries = maxEntries;
+        this.storageLevel = storageLevel;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4185729378104556436L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evict(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the key of the preprocessed data of a model build.
+     *
+     * @param context  configuration of the model build
+     * @param settings other settings the preprocessing depends on, such as the kind of data built
+     * @return dataset version id of the model, followed by a fingerprint of its preprocessing settings
+     */
+    public static String getKey(MLModelConfigurationContext context, String... settings) {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(context.getColumnSeparator()).append('|').append(context.getResponseIndex()).append('|')
+                .append(context.getNewToOldIndicesList());
+        // encodings and imputed values are derived from the features and the statistics of the dataset version
+        for (Feature feature : context.getFacts().getFeatures()) {
+            fingerprint.append('|').append(feature.getIndex()).append(',').append(feature.getName()).append(',')
+                    .append(feature.isInclude()).append(',').append(feature.getType()).append(',')
+                    .append(feature.getImputeOption());
+        }
+        for (String setting : settings) {
+            fingerprint.append('|').append(setting);
+        }
+        return context.getModel().getVersionSetId() + KEY_SEPARATOR
+                + UUID.nameUUIDFromBytes(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get cached preprocessed data. Data returned is to be released with {@link #release(JavaRDD)} once not needed.
+     *
+     * @param key key of the data
+     * @return the cached data, null if not cached
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> JavaRDD<T> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Reusing the preprocessed data " + key);
+        }
+        acquire(entry);
+        return (JavaRDD<T>) entry.data;
+    }
+
+    /**
+     * Persist preprocessed data and cache it.
+     *
+     * @param key  key of the data
+     * @param data preprocessed data
+     * @return the persisted data, to be released with {@link #release(JavaRDD)} once not needed
+     */
+    public synchronized <T> JavaRDD<T> put(String key, JavaRDD<T> data) {
+        data.persist(storageLevel);
+        Entry entry = new Entry(data);
+        acquire(entry);
+        if (maxEntries <= 0) {
+            // not cached, unpersisted once released
+            entry.evicted = true;
+            return data;
+        }
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            evict(key, previous);
+        }
+        entries.put(key, entry);
+        return data;
+    }
+
+    /**
+     * Release preprocessed data once a model build does not need it any more. The data is unpersisted once it is
+     * neither cached nor used by another build.
+     *
+     * @param data data returned by {@link #get(String)} or {@link #put(String, JavaRDD)}
+     */
+    public synchronized void release(JavaRDD<?> data) {
+        Entry entry = inUse.get(data.rdd());
+        if (entry == null) {
+            data.unpersist();
+            return;
+        }
+        if (--entry.references == 0) {
+            inUse.remove(data.rdd());
+            if (entry.evicted) {
+                data.unpersist();
+            }
+        }
+    }
+
+    /**
+     * Evict the cached data of a dataset version.
+     *
+     * @param datasetVersionId id of the dataset version
+     */
+    public synchronized void invalidate(long datasetVersionId) {
+        String prefix = datasetVersionId + KEY_SEPARATOR;
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext();) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                evict(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the number of cached datasets.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void acquire(Entry entry) {
+        if (entry.references++ == 0) {
+            inUse.put(entry.data.rdd(), entry);
+        }
+    }
+
+    /**
+     * Mark data as evicted, and unpersist it unless a model build still uses it.
+     */
+    private void evict(String key, Entry entry) {
+        if (log.isDebugEnabled()) {
+            log.debug("Evicting the preprocessed data " + key);
+        }
+        entry.evicted = true;
+        if (entry.references == 0) {
+            entry.data.unpersist();
+        }
+    }
+
+    /**
+     * Preprocessed data, with the number of model builds using it.
+     */
+    private static class Entry {
+
+        private final JavaRDD<?> data;
+        private int references;
+        private boolean evicted;
+
+        Entry(JavaRDD<?> data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Uniform random sample of rows, without replacement, taken in a single pass. Every row is given a random priority
+ * and the rows with the smallest priorities are kept, so that samples of different parts of a dataset can be merged
+ * into a uniform sample of the whole dataset without knowing the size of each part.
+ */
+public class RowSample implements Serializable {
+
+    private static final long serialVersionUID = 7815934270925437786L;
+    private final int size;
+    // The kept rows, with the largest priority at the head.
+    private final PriorityQueue<Entry> entries = new PriorityQueue<Entry>();
+    private transient Random random;
+
+    /**
+     * @param size maximum number of rows in the sample
+     */
+    public RowSample(int size) {
+        this.size = Math.max(size, 0);
+    }
+
+    public void add(String[] row) {
+        if (random == null) {
+            random = new Random();
+        }
+        add(new Entry(random.nextDouble(), row));
+    }
+
+    /**
+     * Merge the sample of another part of the dataset into this.
+     *
+     * @param other sample of the other part
+     * @return this
+     */
+    public RowSample merge(RowSample other) {
+        for (Entry entry : other.entries) {
+            add(entry);
+        }
+        return this;
+    }
+
+    /**
+     * Rows of the sample, in no particular order.
+     */
+    public List<String[]> getRows() {
+        List<String[]> rows = new ArrayList<String[]>(entries.size());
+        for (Entry entry : entries) {
+            rows.add(entry.row);
+        }
+        return rows;
+    }
+
+    private void add(Entry entry) {
+        if (entries.size() < size) {
+            entries.add(entry);
+        } else if (size > 0 && entry.priority < entries.peek().priority) {
+            entries.poll();
+            entries.add(entry);
+        }
+    }
+
+    private static class Entry implements Comparable<Entry>, Serializable {
+
+        private static final long serialVersionUID = -2284719361034812209L;
+        private final double priority;
+        private final String[] row;
+
+        private Entry(double priority, String[] row) {
+            this.priority = priority;
+            this.row = row;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            // Reversed, so that the entry with the largest priority is at the head of the queue.
+            return Double.compare(other.priority, priority);
+        }
+    }
+}
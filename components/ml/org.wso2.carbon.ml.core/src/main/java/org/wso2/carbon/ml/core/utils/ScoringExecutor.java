@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A bounded executor for prediction requests which serves tenants in a round-robin manner.
+ * <p>
+ * Each tenant has its own queue, bounded by the per tenant queue size, and the total number of queued tasks is bounded
+ * by the queue size. Worker threads take one task from each tenant in turn, hence a tenant sending a large burst of
+ * requests cannot starve the others. Unlike the {@link BlockingExecutor}, submission never blocks: a task which does
+ * not fit in the queues is rejected, so that the caller can fail fast. A task cancelled while queued leaves the queues
+ * at once, and a running task is interrupted when cancelled with interruption.
+ */
+public class ScoringExecutor {
+
+    private static final Log log = LogFactory.getLog(ScoringExecutor.class);
+
+    private final int queueSize;
+    private final int tenantQueueSize;
+    private final Map<Integer, ArrayDeque<ScoringFuture>> tenantQueues =
+            new HashMap<Integer, ArrayDeque<ScoringFuture>>();
+    // tenants having queued tasks, in the order they will be served
+    private final ArrayDeque<Integer> readyTenants = new ArrayDeque<Integer>();
+    private final Thread[] workers;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private int queuedCount;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a ScoringExecutor and starts its worker threads.
+     *
+     * @param poolSize the number of the threads in the pool
+     * @param queueSize the maximum number of queued tasks of all the tenants
+     * @param tenantQueueSize the maximum number of queued tasks of a single tenant
+     */
+    public ScoringExecutor(int poolSize, int queueSize, int tenantQueueSize) {
+        this.queueSize = queueSize;
+        this.tenantQueueSize = tenantQueueSize;
+        this.workers = new Thread[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            workers[i] = new Thread(new Worker(), "ml-scoring-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queue a task of a tenant.
+     *
+     * @param tenantId id of the tenant submitting the task
+     * @param task task to be executed
+     * @return future of the task, which can be used to cancel the task
+     * @throws RejectedExecutionException if the queue of the tenant or the executor is full, or the executor is shut
+     *             down
+     */
+    public Future<?> execute(int tenantId, Runnable task) {
+        synchronized (tenantQueues) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Scoring executor is shut down.");
+            }
+            ArrayDeque<ScoringFuture> tenantQueue = tenantQueues.get(tenantId);
+            int tenantQueued = tenantQueue == null ? 0 : tenantQueue.size();
+            if (queuedCount >= queueSize || tenantQueued >= tenantQueueSize) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException(String.format(
+                        "Scoring queue is full. [tenant id] %s [tenant queued] %s [total queued] %s", tenantId,
+                        tenantQueued, queuedCount));
+            }
+            if (tenantQueue == null) {
+                tenantQueue = new ArrayDeque<ScoringFuture>();
+                tenantQueues.put(tenantId, tenantQueue);
+            }
+            if (tenantQueue.isEmpty()) {
+                readyTenants.addLast(tenantId);
+            }
+            ScoringFuture future = new ScoringFuture(tenantId, task);
+            tenantQueue.addLast(future);
+            queuedCount++;
+            tenantQueues.notify();
+            return future;
+        }
+    }
+
+    private ScoringFuture take() throws InterruptedException {
+        synchronized (tenantQueues) {
+            while (readyTenants.isEmpty()) {
+                if (shutdown) {
+                    return null;
+                }
+                tenantQueues.wait();
+            }
+            Integer tenantId = readyTenants.pollFirst();
+            ArrayDeque<ScoringFuture> tenantQueue = tenantQueues.get(tenantId);
+            ScoringFuture task = tenantQueue.pollFirst();
+            queuedCount--;
+            if (tenantQueue.isEmpty()) {
+                tenantQueues.remove(tenantId);
+            } else {
+                // serve the other tenants before the next task of this tenant
+                readyTenants.addLast(tenantId);
+            }
+            return task;
+        }
+    }
+
+    /**
+     * Remove a cancelled task from the queue of its tenant, if it has not been taken by a worker yet.
+     */
+    private void remove(ScoringFuture task) {
+        synchronized (tenantQueues) {
+            ArrayDeque<ScoringFuture> tenantQueue = tenantQueues.get(task.tenantId);
+            if (tenantQueue == null || !tenantQueue.remove(task)) {
+                return;
+            }
+            queuedCount--;
+            if (tenantQueue.isEmpty()) {
+                tenantQueues.remove(task.tenantId);
+                readyTenants.remove(task.tenantId);
+            }
+        }
+    }
+
+    /**
+     * Stop the workers. Queued tasks which have not started are dropped.
+     */
+    public void shutdown() {
+        synchronized (tenantQueues) {
+            shutdown = true;
+            tenantQueues.clear();
+            readyTenants.clear();
+            queuedCount = 0;
+            tenantQueues.notifyAll();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * @return number of tasks waiting in the queues
+     */
+    public int getQueueSize() {
+        synchronized (tenantQueues) {
+            return queuedCount;
+        }
+    }
+
+    /**
+     * @return number of tenants having waiting tasks
+     */
+    public int getQueuedTenantCount() {
+        synchronized (tenantQueues) {
+            return tenantQueues.size();
+        }
+    }
+
+    /**
+     * @return number of tasks being executed
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * @return number of tasks rejected since the executor was created
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                ScoringFuture task;
+                try {
+                    task = take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (task == null) {
+                    continue;
+                }
+                activeCount.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    activeCount.decrementAndGet();
+                    // clear the interruption of a task cancelled while running
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued task of a tenant.
+     */
+    private class ScoringFuture extends FutureTask<Object> {
+
+        private final int tenantId;
+
+        ScoringFuture(int tenantId, Runnable task) {
+            super(task, null);
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                get();
+            } catch (ExecutionException e) {
+                log.error("Scoring task failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
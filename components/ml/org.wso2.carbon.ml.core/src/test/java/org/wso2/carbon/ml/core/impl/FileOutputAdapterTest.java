@@ -18,9 +18,13 @@
 package org.wso2.carbon.ml.core.impl;
 
 import java.io.File;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -29,6 +33,7 @@ import org.wso2.carbon.ml.core.exceptions.MLOutputAdapterException;
 import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
 import org.wso2.carbon.ml.core.interfaces.MLOutputAdapter;
 import org.wso2.carbon.ml.core.impl.FileInputAdapter;
+import org.wso2.carbon.ml.core.utils.AtomicOutputStream;
 
 public class FileOutputAdapterTest {
     @Test
@@ -69,4 +74,32 @@ public class FileOutputAdapterTest {
         }
 
     }
+
+    @Test
+    public void testStreamingWrite() throws IOException, MLOutputAdapterException {
+        final File outFile = File.createTempFile("FileOutputAdapterTestModel", ".bin");
+        FileUtils.writeStringToFile(outFile, "old", StandardCharsets.UTF_8.name());
+        FileOutputAdapter outputAdapter = new FileOutputAdapter();
+
+        // the target file is unchanged until the stream is closed
+        AtomicOutputStream out = outputAdapter.open(outFile.getAbsolutePath());
+        out.write("new".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        Assert.assertEquals(FileUtils.readFileToString(outFile, StandardCharsets.UTF_8.name()), "old");
+        out.close();
+        Assert.assertEquals(FileUtils.readFileToString(outFile, StandardCharsets.UTF_8.name()), "new");
+
+        // an aborted stream leaves the target file unchanged
+        out = outputAdapter.open(outFile.getAbsolutePath());
+        out.write("partial".getBytes(StandardCharsets.UTF_8));
+        out.abort();
+        Assert.assertEquals(FileUtils.readFileToString(outFile, StandardCharsets.UTF_8.name()), "new");
+        Assert.assertEquals(outFile.getParentFile().list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("." + outFile.getName());
+            }
+        }).length, 0);
+        outFile.delete();
+    }
 }
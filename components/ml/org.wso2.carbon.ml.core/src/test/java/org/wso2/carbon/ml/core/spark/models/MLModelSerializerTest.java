@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.spark.models;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.spark.mllib.classification.LogisticRegressionModel;
+import org.apache.spark.mllib.classification.NaiveBayesModel;
+import org.apache.spark.mllib.classification.SVMModel;
+import org.apache.spark.mllib.clustering.KMeansModel;
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.mllib.linalg.Vectors;
+import org.apache.spark.mllib.regression.LinearRegressionModel;
+import org.apache.spark.mllib.tree.configuration.Algo;
+import org.apache.spark.mllib.tree.configuration.FeatureType;
+import org.apache.spark.mllib.tree.model.DecisionTreeModel;
+import org.apache.spark.mllib.tree.model.InformationGainStats;
+import org.apache.spark.mllib.tree.model.Node;
+import org.apache.spark.mllib.tree.model.Predict;
+import org.apache.spark.mllib.tree.model.RandomForestModel;
+import org.apache.spark.mllib.tree.model.Split;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
+import org.wso2.carbon.ml.commons.domain.MLModel;
+import org.wso2.carbon.ml.core.spark.models.ext.AnomalyDetectionModel;
+import org.wso2.carbon.ml.core.utils.ByteBufferInputStream;
+
+import scala.Option;
+import scala.collection.JavaConversions;
+
+public class MLModelSerializerTest {
+
+    private static final Vector[] DATA = new Vector[] { Vectors.dense(0.1, 1.0), Vectors.dense(0.9, 1.0),
+            Vectors.dense(0.7, 2.0), Vectors.dense(-3.5, 0.0), Vectors.dense(12.0, 3.0) };
+
+    @Test
+    public void testSchema() throws Exception {
+        MLModel model = newModel(null);
+        MLModel read = roundTrip(model);
+
+        Assert.assertEquals(read.getAlgorithmName(), "LINEAR_REGRESSION");
+        Assert.assertEquals(read.getAlgorithmClass(), "Numerical_Prediction");
+        Assert.assertEquals(read.getResponseVariable(), "y");
+        Assert.assertEquals(read.getResponseIndex(), 2);
+        Assert.assertNull(read.getNormalLabels());
+        Assert.assertTrue(read.getNormalization());
+        Assert.assertEquals(read.getFeatures().size(), 3);
+        Feature feature = read.getFeatures().get(1);
+        Assert.assertEquals(feature.getName(), "colour");
+        Assert.assertEquals(feature.getIndex(), 1);
+        Assert.assertEquals(feature.getType(), "CATEGORICAL");
+        Assert.assertEquals(feature.getImputeOption(), "REPLACE_WITH_MEAN");
+        Assert.assertTrue(feature.isInclude());
+        Assert.assertEquals(read.getEncodings(), model.getEncodings());
+        Assert.assertEquals(read.getNewToOldIndicesList(), Arrays.asList(0, 1));
+        Assert.assertEquals(read.getSummaryStatsOfFeatures(), model.getSummaryStatsOfFeatures());
+        FeatureStatistics statistics = read.getFeatureStatistics().get("colour");
+        Assert.assertEquals(statistics.getMean(), 1.5);
+        Assert.assertEquals(statistics.getUnique(), 2);
+        Assert.assertEquals(statistics.getMissing(), 1);
+        Assert.assertEquals(statistics.getValues(), Arrays.asList("red", "blue"));
+        Assert.assertNull(read.getModel());
+    }
+
+    @Test
+    public void testLinearModels() throws Exception {
+        Vector weights = Vectors.dense(0.5, -1.25);
+        LinearRegressionModel linearRegressionModel = new LinearRegressionModel(weights, 0.75);
+        LinearRegressionModel readLinearModel = (LinearRegressionModel) ((MLGeneralizedLinearModel) roundTrip(
+                newModel(new MLGeneralizedLinearModel(linearRegressionModel))).getModel()).getModel();
+
+        LogisticRegressionModel logisticRegressionModel = new LogisticRegressionModel(weights, -0.2);
+        logisticRegressionModel.setThreshold(0.3);
+        LogisticRegressionModel readLogisticModel = (LogisticRegressionModel) ((MLClassificationModel) roundTrip(
+                newModel(new MLClassificationModel(logisticRegressionModel))).getModel()).getModel();
+
+        SVMModel svmModel = new SVMModel(weights, 0.1);
+        svmModel.clearThreshold();
+        SVMModel readSvmModel = (SVMModel) ((MLClassificationModel) roundTrip(
+                newModel(new MLClassificationModel(svmModel))).getModel()).getModel();
+
+        Assert.assertEquals(readLogisticModel.getThreshold().get(), 0.3);
+        Assert.assertTrue(readSvmModel.getThreshold().isEmpty());
+        for (Vector point : DATA) {
+            Assert.assertEquals(readLinearModel.predict(point), linearRegressionModel.predict(point));
+            Assert.assertEquals(readLogisticModel.predict(point), logisticRegressionModel.predict(point));
+            Assert.assertEquals(readSvmModel.predict(point), svmModel.predict(point));
+        }
+    }
+
+    @Test
+    public void testNaiveBayesModel() throws Exception {
+        NaiveBayesModel naiveBayesModel = new NaiveBayesModel(new double[] { 0.0, 1.0, 2.0 }, new double[] {
+                Math.log(0.5), Math.log(0.3), Math.log(0.2) }, new double[][] { { Math.log(0.7), Math.log(0.3) },
+                { Math.log(0.2), Math.log(0.8) }, { Math.log(0.5), Math.log(0.5) } }, "Multinomial");
+        NaiveBayesModel readModel = (NaiveBayesModel) ((MLClassificationModel) roundTrip(
+                newModel(new MLClassificationModel(naiveBayesModel))).getModel()).getModel();
+
+        Assert.assertEquals(readModel.modelType(), "Multinomial");
+        for (Vector point : DATA) {
+            Assert.assertEquals(readModel.predict(point), naiveBayesModel.predict(point));
+        }
+    }
+
+    @Test
+    public void testTreeModels() throws Exception {
+        DecisionTreeModel decisionTreeModel = newDecisionTree(0.5);
+        DecisionTreeModel readTree = ((MLDecisionTreeModel) roundTrip(
+                newModel(new MLDecisionTreeModel(decisionTreeModel))).getModel()).getModel();
+
+        RandomForestModel randomForestModel = new RandomForestModel(Algo.Classification(), new DecisionTreeModel[] {
+                newDecisionTree(0.5), newDecisionTree(0.0), newDecisionTree(1.0) });
+        RandomForestModel readForest = ((MLRandomForestModel) roundTrip(
+                newModel(new MLRandomForestModel(randomForestModel))).getModel()).getModel();
+
+        Assert.assertEquals(readTree.numNodes(), decisionTreeModel.numNodes());
+        Assert.assertEquals(readTree.depth(), decisionTreeModel.depth());
+        Assert.assertEquals(readForest.numTrees(), 3);
+        for (Vector point : DATA) {
+            Assert.assertEquals(readTree.predict(point), decisionTreeModel.predict(point));
+            Assert.assertEquals(readForest.predict(point), randomForestModel.predict(point));
+        }
+    }
+
+    @Test
+    public void testClusteringModels() throws Exception {
+        KMeansModel kMeansModel = new KMeansModel(new Vector[] { Vectors.dense(0.0, 1.0), Vectors.dense(5.0, 2.5) });
+        KMeansModel readKMeansModel = ((MLKMeansModel) roundTrip(newModel(new MLKMeansModel(kMeansModel)))
+                .getModel()).getModel();
+
+        AnomalyDetectionModel anomalyDetectionModel = new AnomalyDetectionModel();
+        anomalyDetectionModel.setkMeansModel(kMeansModel);
+        anomalyDetectionModel.setNormalLabel("normal");
+        anomalyDetectionModel.setAnomalyLabel("anomaly");
+        Map<Integer, List<Double>> distances = new HashMap<Integer, List<Double>>();
+        distances.put(0, Arrays.asList(0.1, 0.4, 0.9, 2.0));
+        distances.put(1, Arrays.asList(0.2, 0.3, 1.5, 3.0));
+        anomalyDetectionModel.setClusterIndexToDistancesListMap(distances);
+        AnomalyDetectionModel readAnomalyDetectionModel = ((MLAnomalyDetectionModel) roundTrip(
+                newModel(new MLAnomalyDetectionModel(anomalyDetectionModel))).getModel()).getModel();
+
+        Assert.assertEquals(readAnomalyDetectionModel.getNormalLabel(), "normal");
+        Assert.assertEquals(readAnomalyDetectionModel.getAnomalyLabel(), "anomaly");
+        Assert.assertEquals(readAnomalyDetectionModel.getClusterIndexToDistancesListMap(), distances);
+        for (Vector point : DATA) {
+            Assert.assertEquals(readKMeansModel.predict(point), kMeansModel.predict(point));
+            Assert.assertEquals(readAnomalyDetectionModel.predict(point, 50.0),
+                    anomalyDetectionModel.predict(point, 50.0));
+        }
+    }
+
+    @Test
+    public void testLegacyModel() throws Exception {
+        KMeansModel kMeansModel = new KMeansModel(new Vector[] { Vectors.dense(0.0, 1.0), Vectors.dense(5.0, 2.5) });
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(newModel(new MLKMeansModel(kMeansModel)));
+        out.close();
+
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes.toByteArray());
+        Assert.assertFalse(MLModelSerializer.isBinaryModel(in));
+        MLModel read = MLModelSerializer.read(in);
+        Assert.assertEquals(read.getResponseVariable(), "y");
+        KMeansModel readKMeansModel = ((MLKMeansModel) read.getModel()).getModel();
+        for (Vector point : DATA) {
+            Assert.assertEquals(readKMeansModel.predict(point), kMeansModel.predict(point));
+        }
+    }
+
+    @Test
+    public void testLazyLoading() throws Exception {
+        RandomForestModel randomForestModel = new RandomForestModel(Algo.Classification(), new DecisionTreeModel[] {
+                newDecisionTree(0.5), newDecisionTree(0.0) });
+        byte[] bytes = write(newModel(new MLRandomForestModel(randomForestModel)));
+
+        MLModel header = MLModelSerializer.readHeader(new ByteArrayInputStream(bytes));
+        Assert.assertEquals(header.getNewToOldIndicesList(), Arrays.asList(0, 1));
+        Assert.assertNull(header.getModel());
+
+        // the trained model of a plain stream is read at once, since the stream is closed after reading the header
+        Assert.assertTrue(MLModelSerializer.readLazily(new ByteArrayInputStream(bytes)).isModelLoaded());
+
+        MLModel model = MLModelSerializer.readLazily(new ByteBufferInputStream(ByteBuffer.wrap(bytes)));
+        Assert.assertFalse(model.isModelLoaded());
+        Assert.assertEquals(model.getFeatures().size(), 3);
+        Assert.assertEquals(model.getEncodings().get(1).get("blue"), Integer.valueOf(2));
+        Assert.assertFalse(model.isModelLoaded());
+
+        // a lazily loaded model is loaded when it is serialized
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(serialized);
+        out.writeObject(model);
+        out.close();
+        Assert.assertTrue(model.isModelLoaded());
+
+        RandomForestModel readForest = ((MLRandomForestModel) model.getModel()).getModel();
+        MLModel deserialized = MLModelSerializer.read(new ByteArrayInputStream(serialized.toByteArray()));
+        RandomForestModel deserializedForest = ((MLRandomForestModel) deserialized.getModel()).getModel();
+        for (Vector point : DATA) {
+            Assert.assertEquals(readForest.predict(point), randomForestModel.predict(point));
+            Assert.assertEquals(deserializedForest.predict(point), randomForestModel.predict(point));
+        }
+    }
+
+    @Test
+    public void testSerializedModel() throws Exception {
+        double[] weights = new double[] { 0.5, -1.5, 2.0 };
+        byte[] bytes = write(newModel(new WeightsModel(weights)));
+
+        MLModel model = MLModelSerializer.read(new ByteArrayInputStream(bytes));
+        Assert.assertTrue(Arrays.equals(((WeightsModel) model.getModel()).weights, weights));
+        model = MLModelSerializer.readLazily(new ByteArrayInputStream(bytes));
+        Assert.assertTrue(Arrays.equals(((WeightsModel) model.getModel()).weights, weights));
+    }
+
+    @Test
+    public void testUnknownHeaderFieldsAreSkipped() throws Exception {
+        double[] weights = new double[] { 0.5, -1.5, 2.0 };
+        byte[] bytes = write(newModel(new WeightsModel(weights)));
+        // the header length follows the magic number and the format version
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int headerLength = buffer.getInt(8);
+        int headerEnd = 12 + headerLength;
+        byte[] extended = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, extended, 0, headerEnd);
+        System.arraycopy(bytes, headerEnd, extended, headerEnd + 3, bytes.length - headerEnd);
+        ByteBuffer.wrap(extended).putInt(8, headerLength + 3);
+
+        MLModel model = MLModelSerializer.read(new ByteArrayInputStream(extended));
+        Assert.assertEquals(model.getFeatures().size(), 3);
+        Assert.assertTrue(Arrays.equals(((WeightsModel) model.getModel()).weights, weights));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTruncatedHeader() throws Exception {
+        byte[] bytes = write(newModel(null));
+        ByteBuffer.wrap(bytes).putInt(8, 4);
+        MLModelSerializer.readHeader(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testUnsupportedVersion() throws Exception {
+        byte[] bytes = write(newModel(null));
+        // the format version follows the 4 byte magic number
+        bytes[7] = (byte) (MLModelSerializer.FORMAT_VERSION + 1);
+        MLModelSerializer.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static MLModel roundTrip(MLModel model) throws Exception {
+        ByteArrayInputStream in = new ByteArrayInputStream(write(model));
+        Assert.assertTrue(MLModelSerializer.isBinaryModel(in));
+        return MLModelSerializer.read(in);
+    }
+
+    private static byte[] write(MLModel model) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MLModelSerializer.write(model, out);
+        return out.toByteArray();
+    }
+
+    private static MLModel newModel(Externalizable trainedModel) {
+        MLModel model = new MLModel();
+        model.setAlgorithmName("LINEAR_REGRESSION");
+        model.setAlgorithmClass("Numerical_Prediction");
+        model.setResponseVariable("y");
+        model.setResponseIndex(2);
+        model.setNormalization(true);
+        List<Feature> features = new ArrayList<Feature>();
+        features.add(newFeature("size", 0, "NUMERICAL"));
+        features.add(newFeature("colour", 1, "CATEGORICAL"));
+        features.add(newFeature("y", 2, "NUMERICAL"));
+        model.setFeatures(features);
+        List<Map<String, Integer>> encodings = new ArrayList<Map<String, Integer>>();
+        encodings.add(new HashMap<String, Integer>());
+        Map<String, Integer> colourEncodings = new HashMap<String, Integer>();
+        colourEncodings.put("red", 1);
+        colourEncodings.put("blue", 2);
+        encodings.add(colourEncodings);
+        model.setEncodings(encodings);
+        model.setNewToOldIndicesList(Arrays.asList(0, 1));
+        Map<String, String> summaryStats = new HashMap<String, String>();
+        summaryStats.put("colour", "{\"unique\":2}");
+        model.setSummaryStatsOfFeatures(summaryStats);
+        FeatureStatistics statistics = new FeatureStatistics();
+        statistics.setMean(1.5);
+        statistics.setMin(1.0);
+        statistics.setMax(2.0);
+        statistics.setUnique(2);
+        statistics.setMissing(1);
+        statistics.setValues(new ArrayList<String>(Arrays.asList("red", "blue")));
+        Map<String, FeatureStatistics> featureStatistics = new HashMap<String, FeatureStatistics>();
+        featureStatistics.put("colour", statistics);
+        model.setFeatureStatistics(featureStatistics);
+        model.setModel(trainedModel);
+        return model;
+    }
+
+    private static Feature newFeature(String name, int index, String type) {
+        Feature feature = new Feature();
+        feature.setName(name);
+        feature.setIndex(index);
+        feature.setType(type);
+        feature.setImputeOption("REPLACE_WITH_MEAN");
+        feature.setInclude(true);
+        return feature;
+    }
+
+    /*
+     * size <= threshold ? 0 : (colour in {1, 2} ? 1 : 2)
+     */
+    private static DecisionTreeModel newDecisionTree(double threshold) {
+        Node left = newLeaf(2, 0.0);
+        Node rightLeft = newLeaf(6, 1.0);
+        Node rightRight = newLeaf(7, 2.0);
+        List<Object> categories = new ArrayList<Object>();
+        categories.add(1.0);
+        categories.add(2.0);
+        Split colourSplit = new Split(1, Double.MIN_VALUE, FeatureType.Categorical(), JavaConversions.asScalaBuffer(
+                categories).toList());
+        Node right = new Node(3, new Predict(1.0, 0.6), 0.4, false, Option.apply(colourSplit),
+                Option.apply(rightLeft), Option.apply(rightRight), Option.<InformationGainStats> apply(null));
+        Split sizeSplit = new Split(0, threshold, FeatureType.Continuous(), JavaConversions.asScalaBuffer(
+                new ArrayList<Object>()).toList());
+        Node root = new Node(1, new Predict(0.0, 0.4), 0.6, false, Option.apply(sizeSplit), Option.apply(left),
+                Option.apply(right), Option.<InformationGainStats> apply(null));
+        return new DecisionTreeModel(root, Algo.Classification());
+    }
+
+    /**
+     * Model without a binary encoding.
+     */
+    public static class WeightsModel implements Externalizable {
+
+        private double[] weights;
+
+        public WeightsModel() {
+        }
+
+        public WeightsModel(double[] weights) {
+            this.weights = weights;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject(weights);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            weights = (double[]) in.readObject();
+        }
+    }
+
+    private static Node newLeaf(int id, double prediction) {
+        return new Node(id, new Predict(prediction, 1.0), 0.0, true, Option.<Split> apply(null),
+                Option.<Node> apply(null), Option.<Node> apply(null), Option.<InformationGainStats> apply(null));
+    }
+}
@@ -0,0 +1,111 @@
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.Random;
+import java.util.SortedMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.ColumnStatistics;
+
+public class ColumnStatisticsAggregationTest {
+
+    private final TokensToColumnStatistics tokensToColumnStatistics = new TokensToColumnStatistics.Builder().build();
+    private final MergeColumnStatistics mergeColumnStatistics = new MergeColumnStatistics.Builder().build();
+
+    @Test
+    public void testMergedStatisticsMatchSinglePass() {
+        Random random = new Random(42);
+        String[][] rows = new String[1000][];
+        double[] values = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            rows[i] = new String[] { String.valueOf(values[i]), "category" + (i % 7), String.valueOf(i % 3) };
+        }
+        rows[10] = new String[] { "?", "", "NA" };
+        rows[20] = new String[] { "1.5" };
+        values[10] = Double.NaN;
+        values[20] = 1.5;
+
+        // Aggregate three partitions of different sizes, as Spark would.
+        ColumnStatistics[] statistics = aggregate(rows, 0, 100);
+        statistics = mergeColumnStatistics.call(statistics, aggregate(rows, 100, 450));
+        statistics = mergeColumnStatistics.call(statistics, aggregate(rows, 450, rows.length));
+
+        ColumnStatistics numeric = statistics[0];
+        double n = 0, sum = 0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                n++;
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        double mean = sum / n, m2 = 0, m3 = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                m2 += Math.pow(value - mean, 2);
+                m3 += Math.pow(value - mean, 3);
+            }
+        }
+        double variance = m2 / (n - 1);
+        Assert.assertEquals(numeric.getNumericCount(), 999);
+        Assert.assertEquals(numeric.getMissing(), 1);
+        Assert.assertTrue(numeric.isNumeric());
+        Assert.assertEquals(numeric.getMean(), mean, 1e-9);
+        Assert.assertEquals(numeric.getMin(), min);
+        Assert.assertEquals(numeric.getMax(), max);
+        Assert.assertEquals(numeric.getVariance(), variance, 1e-9);
+        Assert.assertEquals(numeric.getSkewness(),
+                n * m3 / ((n - 1) * (n - 2) * Math.pow(variance, 1.5)), 1e-9);
+        Assert.assertEquals(numeric.getDistinctCount(), 999, 999 * 0.05);
+        int total = 0;
+        for (Integer frequency : numeric.getHistogram(20).values()) {
+            total += frequency;
+        }
+        Assert.assertEquals(total, 999);
+
+        ColumnStatistics categorical = statistics[1];
+        Assert.assertEquals(categorical.getStringCellCount(), 998);
+        Assert.assertEquals(categorical.getMissing(), 2);
+        Assert.assertFalse(categorical.isNumeric());
+        SortedMap<String, Integer> categories = categorical.getCategoryFrequencies();
+        Assert.assertEquals(categories.size(), 7);
+        Assert.assertEquals(categories.get("category1").intValue(), 143);
+
+        ColumnStatistics integers = statistics[2];
+        Assert.assertEquals(integers.getDecimalCellCount(), 0);
+        Assert.assertEquals(integers.getDistinctCount(), 3);
+        Assert.assertEquals(integers.getRepeatedValueRatio(), 1.0);
+        Assert.assertEquals(integers.getPercentile(50), 1.0);
+    }
+
+    @Test
+    public void testHighCardinalityColumn() {
+        String[][] rows = new String[100000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new String[] { i % 2 == 0 ? "frequent" : "value" + i };
+        }
+        ColumnStatistics[] statistics = aggregate(rows, 0, 50000);
+        statistics = mergeColumnStatistics.call(statistics, aggregate(rows, 50000, rows.length));
+
+        ColumnStatistics column = statistics[0];
+        Assert.assertFalse(column.isCategoryCountExact());
+        Assert.assertTrue(Double.isNaN(column.getRepeatedValueRatio()));
+        Assert.assertEquals(column.getDistinctCount(), 50001, 50001 * 0.05);
+        SortedMap<String, Integer> categories = column.getCategoryFrequencies();
+        Assert.assertTrue(categories.size() <= 10);
+        Assert.assertTrue(categories.get("frequent") >= 50000 - 100000 / 10);
+    }
+
+    private ColumnStatistics[] aggregate(String[][] rows, int from, int to) {
+        ColumnStatistics[] statistics = new ColumnStatistics[rows[0].length];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new ColumnStatistics(10);
+        }
+        for (int i = from; i < to; i++) {
+            statistics = tokensToColumnStatistics.call(statistics, rows[i]);
+        }
+        return statistics;
+    }
+}
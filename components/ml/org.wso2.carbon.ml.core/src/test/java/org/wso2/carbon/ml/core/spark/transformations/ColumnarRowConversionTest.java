@@ -0,0 +1,67 @@
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.spark.mllib.linalg.Vector;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.FeatureType;
+
+public class ColumnarRowConversionTest {
+
+    private static final String[] TYPES = new String[] { FeatureType.NUMERICAL, FeatureType.CATEGORICAL,
+            FeatureType.NUMERICAL, FeatureType.NUMERICAL };
+
+    @Test
+    public void testTokensToRow() {
+        TokensToRow tokensToRow = new TokensToRow.Builder().types(TYPES).build();
+        Row row = tokensToRow.call(new String[] { "2.5", "red", "?", "7" });
+        Assert.assertEquals(row.length(), 4);
+        Assert.assertEquals(row.get(0), 2.5);
+        Assert.assertEquals(row.get(1), "red");
+        Assert.assertNull(row.get(2));
+        Assert.assertEquals(row.get(3), 7.0);
+    }
+
+    @Test
+    public void testTokensToRowWithMissingCells() {
+        TokensToRow tokensToRow = new TokensToRow.Builder().types(TYPES).build();
+        Row row = tokensToRow.call(new String[] { "1", "" });
+        Assert.assertEquals(row.length(), 4);
+        Assert.assertEquals(row.get(1), "");
+        Assert.assertNull(row.get(2));
+        Assert.assertNull(row.get(3));
+    }
+
+    @Test
+    public void testRowToTokensOfSelectedColumns() {
+        TokensToRow tokensToRow = new TokensToRow.Builder().types(TYPES).build();
+        Row row = tokensToRow.call(new String[] { "2.5", "red", "", "7" });
+        // columns 3, 1 and 2 are selected, in that order
+        List<Integer> columnIndices = Arrays.asList(3, 1, 2);
+        Row selected = RowFactory.create(row.get(3), row.get(1), row.get(2));
+
+        RowToTokens rowToTokens = new RowToTokens.Builder().indices(columnIndices).featureSize(4).integralDoubles(true)
+                .build();
+        String[] tokens = rowToTokens.call(selected);
+        Assert.assertEquals(tokens, new String[] { null, "red", "", "7" });
+    }
+
+    @Test
+    public void testRowToVector() {
+        RowToVector rowToVector = new RowToVector.Builder().build();
+        List<Vector> vectors = new ArrayList<Vector>();
+        for (Vector vector : rowToVector.call(RowFactory.create(2.5, "7", 3L))) {
+            vectors.add(vector);
+        }
+        Assert.assertEquals(vectors.size(), 1);
+        Assert.assertTrue(Arrays.equals(vectors.get(0).toArray(), new double[] { 2.5, 7, 3 }));
+        // rows with nulls or missing values are dropped
+        Assert.assertFalse(rowToVector.call(RowFactory.create(2.5, null)).iterator().hasNext());
+        Assert.assertFalse(rowToVector.call(RowFactory.create(2.5, "?")).iterator().hasNext());
+    }
+}
@@ -0,0 +1,195 @@
+package org.wso2.carbon.ml.core.spark.transformations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.spark.mllib.regression.LabeledPoint;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.FeatureType;
+
+public class TokensToLabeledPointsTest {
+
+    private static final Log log = LogFactory.getLog(TokensToLabeledPointsTest.class);
+    private static final String[] MISSING = new String[] { "", "NA", "?" };
+    private static final String[] CATEGORIES = new String[] { "a", "b", "c", "z" };
+
+    // columns: 0 mean imputed, 1 categorical, 2 discarded if missing, 3 excluded, 4 mean imputed, 5 response
+    private final List<Integer> discardIndices = Arrays.asList(2);
+    private final List<Integer> newToOldIndices = Arrays.asList(0, 1, 2, 4);
+    private final int responseIndex = 5;
+    private final List<Map<String, Integer>> encodings;
+    private final Map<Integer, Double> meanImputation;
+
+    public TokensToLabeledPointsTest() {
+        Map<String, Integer> encoding = new HashMap<String, Integer>();
+        encoding.put("a", 0);
+        encoding.put("b", 1);
+        encoding.put("c", 2);
+        encodings = new ArrayList<Map<String, Integer>>();
+        encodings.add(new HashMap<String, Integer>());
+        encodings.add(encoding);
+        meanImputation = new HashMap<Integer, Double>();
+        meanImputation.put(0, 1.5);
+        meanImputation.put(3, 2.0 / 3);
+    }
+
+    @Test
+    public void testTokensToLabeledPoints() throws Exception {
+        List<String[]> rows = new ArrayList<String[]>();
+        rows.add(new String[] { "1.2", "b", "3", "x", "4.5", "1" });
+        rows.add(new String[] { "?", "z", "3", "x", "", "0" });
+        rows.add(new String[] { "1.2", "a", "NA", "x", "4.5", "1" });
+        rows.add(new String[] { "1.2", "c" });
+
+        List<LabeledPoint> labeledPoints = transform(rows);
+        Assert.assertEquals(labeledPoints.size(), 2);
+        Assert.assertEquals(labeledPoints.get(0).label(), 1.0);
+        Assert.assertTrue(Arrays.equals(labeledPoints.get(0).features().toArray(), new double[] { 1.2, 1, 3, 4.5 }));
+        Assert.assertEquals(labeledPoints.get(1).label(), 0.0);
+        // unknown categories are encoded with the first mapping
+        Assert.assertTrue(Arrays.equals(labeledPoints.get(1).features().toArray(), new double[] { 1.5,
+                encodings.get(1).values().iterator().next(), 3, 2.0 / 3 }));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMissingValueWithoutImputation() throws Exception {
+        List<String[]> rows = new ArrayList<String[]>();
+        rows.add(new String[] { "1.2", "b", "3", "x", "4.5", "?" });
+        transform(rows);
+    }
+
+    @Test
+    public void testEquivalentToChainedTransformations() throws Exception {
+        List<String[]> rows = generateRows(new Random(11), 5000);
+        List<LabeledPoint> expected = transformChained(rows);
+        List<LabeledPoint> actual = transform(rows);
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(actual.get(i).label(), expected.get(i).label());
+            Assert.assertTrue(Arrays.equals(actual.get(i).features().toArray(), expected.get(i).features()
+                    .toArray()));
+        }
+    }
+
+    @Test
+    public void testRowsEquivalentToTokens() throws Exception {
+        List<String[]> rows = generateRows(new Random(17), 5000);
+        List<LabeledPoint> expected = transform(rows);
+        List<LabeledPoint> actual = transformRows(rows);
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(actual.get(i).label(), expected.get(i).label());
+            Assert.assertTrue(Arrays.equals(actual.get(i).features().toArray(), expected.get(i).features()
+                    .toArray()));
+        }
+    }
+
+    /**
+     * Compares the time taken per row by the chained transformations and the single pass transformation. It is a
+     * benchmark logging the timings rather than a unit test, hence it is disabled, and enabled only when measuring.
+     */
+    @Test(enabled = false)
+    public void testThroughput() throws Exception {
+        List<String[]> rows = generateRows(new Random(13), 100000);
+        long chained = Long.MAX_VALUE;
+        long fused = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            transformChained(rows);
+            chained = Math.min(chained, System.nanoTime() - start);
+            start = System.nanoTime();
+            transform(rows);
+            fused = Math.min(fused, System.nanoTime() - start);
+        }
+        log.info(String.format("Chained transformations: %d ns/row, single pass transformation: %d ns/row",
+                chained / rows.size(), fused / rows.size()));
+    }
+
+    private List<LabeledPoint> transform(List<String[]> rows) throws Exception {
+        TokensToLabeledPoints tokensToLabeledPoints = new TokensToLabeledPoints.Builder()
+                .discardIndices(discardIndices).indices(newToOldIndices).responseIndex(responseIndex)
+                .encodings(encodings).imputations(meanImputation).build();
+        List<LabeledPoint> labeledPoints = new ArrayList<LabeledPoint>();
+        for (LabeledPoint labeledPoint : tokensToLabeledPoints.call(rows.iterator())) {
+            labeledPoints.add(labeledPoint);
+        }
+        return labeledPoints;
+    }
+
+    /**
+     * Transform the rows as read from a columnar dataset, holding the typed values of the selected columns.
+     */
+    private List<LabeledPoint> transformRows(List<String[]> rows) throws Exception {
+        String[] types = new String[] { FeatureType.NUMERICAL, FeatureType.CATEGORICAL, FeatureType.NUMERICAL,
+                FeatureType.CATEGORICAL, FeatureType.NUMERICAL, FeatureType.NUMERICAL };
+        TokensToRow tokensToRow = new TokensToRow.Builder().types(types).build();
+        List<Integer> columnIndices = Arrays.asList(0, 1, 2, 4, 5);
+        List<Row> selectedRows = new ArrayList<Row>();
+        for (String[] row : rows) {
+            Row typedRow = tokensToRow.call(row);
+            Object[] values = new Object[columnIndices.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = typedRow.get(columnIndices.get(i));
+            }
+            selectedRows.add(RowFactory.create(values));
+        }
+        RowsToLabeledPoints rowsToLabeledPoints = new RowsToLabeledPoints.Builder()
+                .tokensToLabeledPoints(new TokensToLabeledPoints.Builder().discardIndices(discardIndices)
+                        .indices(newToOldIndices).responseIndex(responseIndex).encodings(encodings)
+                        .imputations(meanImputation).build())
+                .rowToTokens(new RowToTokens.Builder().indices(columnIndices).featureSize(types.length)
+                        .integralDoubles(true).build()).build();
+        List<LabeledPoint> labeledPoints = new ArrayList<LabeledPoint>();
+        for (LabeledPoint labeledPoint : rowsToLabeledPoints.call(selectedRows.iterator())) {
+            labeledPoints.add(labeledPoint);
+        }
+        return labeledPoints;
+    }
+
+    private List<LabeledPoint> transformChained(List<String[]> rows) throws Exception {
+        DiscardedRowsFilter discardedRowsFilter = new DiscardedRowsFilter.Builder().indices(discardIndices).build();
+        RemoveDiscardedFeatures removeDiscardedFeatures = new RemoveDiscardedFeatures.Builder()
+                .indices(newToOldIndices).responseIndex(responseIndex).build();
+        BasicEncoder basicEncoder = new BasicEncoder.Builder().encodings(encodings).build();
+        MeanImputation meanImputation = new MeanImputation.Builder().imputations(this.meanImputation).build();
+        StringArrayToDoubleArray stringArrayToDoubleArray = new StringArrayToDoubleArray.Builder().build();
+        DoubleArrayToLabeledPoint doubleArrayToLabeledPoint = new DoubleArrayToLabeledPoint.Builder().build();
+        List<LabeledPoint> labeledPoints = new ArrayList<LabeledPoint>();
+        for (String[] row : rows) {
+            if (discardedRowsFilter.call(row)) {
+                labeledPoints.add(doubleArrayToLabeledPoint.call(stringArrayToDoubleArray.call(meanImputation
+                        .call(basicEncoder.call(removeDiscardedFeatures.call(row))))));
+            }
+        }
+        return labeledPoints;
+    }
+
+    private static List<String[]> generateRows(Random random, int count) {
+        List<String[]> rows = new ArrayList<String[]>();
+        for (int i = 0; i < count; i++) {
+            String[] row = new String[6];
+            row[0] = String.valueOf(random.nextInt(10000) / 100.0);
+            row[1] = CATEGORIES[random.nextInt(4)];
+            row[2] = String.valueOf(random.nextInt(100));
+            row[3] = "x";
+            row[4] = String.valueOf(random.nextInt(1000) / 10.0);
+            row[5] = String.valueOf(random.nextInt(2));
+            for (int j = 0; j < 5; j++) {
+                if (random.nextInt(10) == 0) {
+                    row[j] = MISSING[random.nextInt(3)];
+                }
+            }
+            rows.add(random.nextInt(50) == 0 ? Arrays.copyOf(row, 2) : row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class ColumnarDataTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ColumnarData data = new ColumnarData(3);
+        data.addNumericColumn(new double[] { 1.5, -2.0, 3.25 });
+        data.addCategoricalColumn(new String[] { "a", "b" }, new int[] { 1, 0, 1 });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        data.write(out);
+        ColumnarData read = ColumnarData.read(new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(read.getNumberOfRows(), 3);
+        Assert.assertEquals(read.getNumberOfColumns(), 2);
+        Assert.assertTrue(read.getColumn(0).isNumeric());
+        Assert.assertEquals(read.getColumn(0).getValues(), new double[] { 1.5, -2.0, 3.25 });
+        Assert.assertFalse(read.getColumn(1).isNumeric());
+        Assert.assertEquals(read.getColumn(1).getDictionary(), new String[] { "a", "b" });
+        Assert.assertEquals(read.getColumn(1).getCodes(), new int[] { 1, 0, 1 });
+    }
+
+    @Test
+    public void testFromPredictions() {
+        ColumnarData numeric = ColumnarData.fromPredictions(Arrays.asList(1.0, 0.0, 1.0));
+        Assert.assertTrue(numeric.getColumn(0).isNumeric());
+        Assert.assertEquals(numeric.getColumn(0).getValues(), new double[] { 1.0, 0.0, 1.0 });
+
+        ColumnarData categorical = ColumnarData.fromPredictions(Arrays.asList("yes", "no", "yes"));
+        Assert.assertFalse(categorical.getColumn(0).isNumeric());
+        Assert.assertEquals(categorical.getColumn(0).getDictionary(), new String[] { "yes", "no" });
+        Assert.assertEquals(categorical.getColumn(0).getCodes(), new int[] { 0, 1, 0 });
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidFormat() throws IOException {
+        ColumnarData.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTooManyValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(ColumnarData.MAGIC);
+        dataOut.writeByte(ColumnarData.VERSION);
+        dataOut.writeInt(Integer.MAX_VALUE);
+        dataOut.writeInt(2);
+        // rejected before the values are allocated
+        ColumnarData.read(new ByteArrayInputStream(out.toByteArray()), 100);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testDictionaryLargerThanRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(ColumnarData.MAGIC);
+        dataOut.writeByte(ColumnarData.VERSION);
+        dataOut.writeInt(2);
+        dataOut.writeInt(1);
+        dataOut.writeByte(ColumnarData.CATEGORICAL);
+        dataOut.writeInt(Integer.MAX_VALUE);
+        ColumnarData.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
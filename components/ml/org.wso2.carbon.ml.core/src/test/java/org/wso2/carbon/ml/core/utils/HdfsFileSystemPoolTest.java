@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the pool against the local file system, standing in for HDFS.
+ */
+public class HdfsFileSystemPoolTest {
+
+    private File directory;
+
+    @BeforeClass
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("ml-hdfs-pool", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @AfterClass
+    public void deleteDirectory() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testQualifiedPath() {
+        HdfsFileSystemPool pool = new HdfsFileSystemPool(new Configuration(), "hdfs://namenode:9000", 4096, 0, 1);
+        Assert.assertEquals(pool.getQualifiedPath("/ml/models/model"), "hdfs://namenode:9000/ml/models/model");
+        Assert.assertEquals(pool.getQualifiedPath("hdfs://other:9000/ml/model"), "hdfs://other:9000/ml/model");
+        Assert.assertEquals(pool.getQualifiedPath("file:///tmp/model"), "file:///tmp/model");
+        pool.close();
+    }
+
+    @Test
+    public void testFileSystemIsShared() throws IOException {
+        HdfsFileSystemPool pool = new HdfsFileSystemPool(new Configuration(), "file:///", 4096, 0, 1);
+        Assert.assertTrue(pool.getFileSystem(new Path("file:///tmp/a")) == pool.getFileSystem(new Path(
+                "file:///tmp/b")));
+        pool.close();
+    }
+
+    @Test
+    public void testSequentialAndParallelReads() throws IOException {
+        byte[] data = new byte[100003];
+        new Random(7).nextBytes(data);
+        String path = new File(directory, "model").getAbsolutePath();
+
+        HdfsFileSystemPool pool = new HdfsFileSystemPool(new Configuration(), "file:///", 4096, 0, 1);
+        OutputStream out = pool.create(path);
+        out.write(data);
+        out.close();
+        assertContent(pool, path, data);
+        pool.close();
+
+        // files above 1000 bytes are read with 4 concurrent positional reads
+        HdfsFileSystemPool parallelPool = new HdfsFileSystemPool(new Configuration(), "file:///", 4096, 1000, 4);
+        assertContent(parallelPool, path, data);
+        parallelPool.close();
+    }
+
+    private void assertContent(HdfsFileSystemPool pool, String path, byte[] data) throws IOException {
+        InputStream in = pool.open(path);
+        Assert.assertTrue(Arrays.equals(IOUtils.toByteArray(in), data));
+        in.close();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.core.exceptions.MLInputAdapterException;
+import org.wso2.carbon.ml.core.interfaces.MLInputAdapter;
+
+/**
+ * Tests the cache against an in-memory storage, counting the reads of the models.
+ */
+public class LocalModelCacheTest {
+
+    private File directory;
+    private Map<String, byte[]> storage;
+    private Map<String, Integer> reads;
+    private MLInputAdapter adapter;
+
+    @BeforeMethod
+    public void createStorage() throws IOException {
+        directory = File.createTempFile("ml-model-cache", "");
+        directory.delete();
+        storage = new HashMap<String, byte[]>();
+        reads = new HashMap<String, Integer>();
+        adapter = new MLInputAdapter() {
+            @Override
+            public InputStream read(String path) throws MLInputAdapterException {
+                byte[] data = storage.get(path);
+                if (data == null) {
+                    throw new MLInputAdapterException("No such file " + path);
+                }
+                reads.put(path, getReads(path) + 1);
+                return new ByteArrayInputStream(data);
+            }
+        };
+    }
+
+    @Test
+    public void testModelIsFetchedOnce() throws IOException, MLInputAdapterException {
+        byte[] model = store("/models/model", 1000, 1);
+        LocalModelCache cache = new LocalModelCache(directory, 1024 * 1024);
+
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertEquals(getReads("/models/model"), 1);
+        Assert.assertEquals(cache.getSize(), 1000);
+
+        // models cached by an earlier run are reused
+        cache = new LocalModelCache(directory, 1024 * 1024);
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertEquals(getReads("/models/model"), 1);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testRepublishedModelIsFetchedAgain() throws IOException, MLInputAdapterException {
+        store("/models/model", 1000, 1);
+        LocalModelCache cache = new LocalModelCache(directory, 1024 * 1024);
+        read(cache, "/models/model");
+
+        byte[] model = store("/models/model", 500, 2);
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertEquals(getReads("/models/model"), 2);
+        // the earlier version is deleted
+        Assert.assertEquals(listModels().length, 1);
+        Assert.assertEquals(cache.getSize(), 500);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testModelWithoutChecksumIsNotCached() throws IOException, MLInputAdapterException {
+        byte[] model = store("/models/model", 1000, 1);
+        storage.remove("/models/model" + MLConstants.CHECKSUM_SUFFIX);
+        LocalModelCache cache = new LocalModelCache(directory, 1024 * 1024);
+
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertEquals(getReads("/models/model"), 2);
+        Assert.assertEquals(listModels().length, 0);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testModelNotMatchingChecksumIsNotCached() throws IOException, MLInputAdapterException {
+        byte[] model = store("/models/model", 1000, 1);
+        model[10] ^= 1;
+        LocalModelCache cache = new LocalModelCache(directory, 1024 * 1024);
+
+        // the model is read from the storage instead
+        Assert.assertTrue(Arrays.equals(read(cache, "/models/model"), model));
+        Assert.assertEquals(getReads("/models/model"), 2);
+        Assert.assertEquals(directory.list().length, 0);
+        Assert.assertEquals(cache.getSize(), 0);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedModelIsEvicted() throws IOException, MLInputAdapterException {
+        store("/models/a", 100, 1);
+        store("/models/b", 100, 2);
+        store("/models/c", 100, 3);
+        LocalModelCache cache = new LocalModelCache(directory, 250);
+
+        read(cache, "/models/a");
+        read(cache, "/models/b");
+        read(cache, "/models/a");
+        read(cache, "/models/c");
+        Assert.assertEquals(cache.getSize(), 200);
+        Assert.assertEquals(listModels().length, 2);
+
+        read(cache, "/models/a");
+        read(cache, "/models/c");
+        read(cache, "/models/b");
+        Assert.assertEquals(getReads("/models/a"), 1);
+        Assert.assertEquals(getReads("/models/b"), 2);
+        Assert.assertEquals(getReads("/models/c"), 1);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private byte[] store(String path, int size, long seed) {
+        byte[] model = new byte[size];
+        new Random(seed).nextBytes(model);
+        CRC32 checksum = new CRC32();
+        checksum.update(model);
+        storage.put(path, model);
+        storage.put(path + MLConstants.CHECKSUM_SUFFIX, Long.toHexString(checksum.getValue()).getBytes(
+                StandardCharsets.UTF_8));
+        return model;
+    }
+
+    private byte[] read(LocalModelCache cache, String path) throws IOException, MLInputAdapterException {
+        InputStream in = cache.read("hdfs", path, adapter);
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private int getReads(String path) {
+        Integer count = reads.get(path);
+        return count != null ? count : 0;
+    }
+
+    private File[] listModels() {
+        return directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".model");
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MLCompressionCodecTest {
+
+    private static final String DATA = "a,b,c\n1,2,3\n4,5,6\n";
+
+    @Test
+    public void testCodecOfPath() {
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodecOfPath("/tmp/dataset.1.123.bz2"),
+                MLCompressionCodec.BZIP2);
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodecOfPath("/tmp/model.gz"), MLCompressionCodec.GZIP);
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodecOfPath("/tmp/model.lzf"), MLCompressionCodec.LZF);
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodecOfPath("/tmp/model"), MLCompressionCodec.NONE);
+    }
+
+    @Test
+    public void testCodecOfValue() {
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodec(null), MLCompressionCodec.NONE);
+        Assert.assertEquals(MLCompressionCodec.getCompressionCodec(" GZip "), MLCompressionCodec.GZIP);
+        Assert.assertNull(MLCompressionCodec.getCompressionCodec("zip"));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (MLCompressionCodec codec : MLCompressionCodec.values()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            OutputStream out = codec.compress(bytes);
+            out.write(DATA.getBytes(StandardCharsets.UTF_8));
+            out.close();
+
+            InputStream in = codec.decompress(new ByteArrayInputStream(bytes.toByteArray()));
+            Assert.assertEquals(IOUtils.toString(in, StandardCharsets.UTF_8.name()), DATA);
+            in.close();
+        }
+    }
+}
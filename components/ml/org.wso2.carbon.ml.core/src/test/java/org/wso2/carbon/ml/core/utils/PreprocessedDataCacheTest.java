@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.storage.StorageLevel;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.Feature;
+import org.wso2.carbon.ml.commons.domain.FeatureType;
+import org.wso2.carbon.ml.commons.domain.MLModelData;
+import org.wso2.carbon.ml.commons.domain.Workflow;
+import org.wso2.carbon.ml.core.internal.MLModelConfigurationContext;
+
+public class PreprocessedDataCacheTest {
+
+    private JavaSparkContext sparkContext;
+
+    @BeforeClass
+    public void setUp() {
+        sparkContext = new JavaSparkContext(new SparkConf().setMaster("local").setAppName(
+                PreprocessedDataCacheTest.class.getSimpleName()));
+    }
+
+    @AfterClass
+    public void tearDown() {
+        sparkContext.stop();
+    }
+
+    @Test
+    public void testSameSettingsHaveSameKey() {
+        Assert.assertEquals(PreprocessedDataCache.getKey(context(1, MLConstants.DISCARD), "vectors"),
+                PreprocessedDataCache.getKey(context(1, MLConstants.DISCARD), "vectors"));
+        Assert.assertTrue(PreprocessedDataCache.getKey(context(1, MLConstants.DISCARD), "vectors").startsWith("1:"));
+    }
+
+    @Test
+    public void testDifferentSettingsHaveDifferentKeys() {
+        String key = PreprocessedDataCache.getKey(context(1, MLConstants.DISCARD), "vectors");
+        // another dataset version
+        Assert.assertFalse(key.equals(PreprocessedDataCache.getKey(context(2, MLConstants.DISCARD), "vectors")));
+        // another imputation
+        Assert.assertFalse(key.equals(PreprocessedDataCache.getKey(context(1, MLConstants.MEAN_IMPUTATION),
+                "vectors")));
+        // another kind of data
+        Assert.assertFalse(key.equals(PreprocessedDataCache.getKey(context(1, MLConstants.DISCARD),
+                "labeled-points")));
+        // another response
+        MLModelConfigurationContext context = context(1, MLConstants.DISCARD);
+        context.setResponseIndex(0);
+        Assert.assertFalse(key.equals(PreprocessedDataCache.getKey(context, "vectors")));
+    }
+
+    @Test
+    public void testHit() {
+        PreprocessedDataCache cache = new PreprocessedDataCache(2, StorageLevel.MEMORY_ONLY());
+        Assert.assertNull(cache.get("1:a"));
+        JavaRDD<Integer> data = data();
+        Assert.assertSame(cache.put("1:a", data), data);
+        Assert.assertTrue(isPersisted(data));
+        Assert.assertSame(cache.get("1:a"), data);
+        Assert.assertNull(cache.get("1:b"));
+        cache.release(data);
+        cache.release(data);
+        // still cached
+        Assert.assertTrue(isPersisted(data));
+        Assert.assertSame(cache.get("1:a"), data);
+    }
+
+    @Test
+    public void testEviction() {
+        PreprocessedDataCache cache = new PreprocessedDataCache(2, StorageLevel.MEMORY_ONLY());
+        JavaRDD<Integer> data1 = cache.put("1:a", data());
+        JavaRDD<Integer> data2 = cache.put("2:a", data());
+        cache.release(data1);
+        cache.release(data2);
+        // the least recently used data is evicted
+        cache.release(cache.get("1:a"));
+        JavaRDD<Integer> data3 = cache.put("3:a", data());
+        cache.release(data3);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get("2:a"));
+        Assert.assertFalse(isPersisted(data2));
+        Assert.assertTrue(isPersisted(data1));
+        Assert.assertTrue(isPersisted(data3));
+    }
+
+    @Test
+    public void testEvictedDataIsUnpersistedOnLastRelease() {
+        PreprocessedDataCache cache = new PreprocessedDataCache(1, StorageLevel.MEMORY_ONLY());
+        JavaRDD<Integer> data = cache.put("1:a", data());
+        Assert.assertSame(cache.get("1:a"), data);
+        cache.release(cache.put("2:a", data()));
+        Assert.assertNull(cache.get("1:a"));
+        // two builds still use the evicted data
+        Assert.assertTrue(isPersisted(data));
+        cache.release(data);
+        Assert.assertTrue(isPersisted(data));
+        cache.release(data);
+        Assert.assertFalse(isPersisted(data));
+    }
+
+    @Test
+    public void testInvalidate() {
+        PreprocessedDataCache cache = new PreprocessedDataCache(4, StorageLevel.MEMORY_ONLY());
+        JavaRDD<Integer> data1 = cache.put("1:a", data());
+        JavaRDD<Integer> data2 = cache.put("1:b", data());
+        JavaRDD<Integer> data3 = cache.put("12:a", data());
+        cache.release(data2);
+        cache.invalidate(1);
+        Assert.assertNull(cache.get("1:a"));
+        Assert.assertNull(cache.get("1:b"));
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertFalse(isPersisted(data2));
+        // in use until released
+        Assert.assertTrue(isPersisted(data1));
+        cache.release(data1);
+        Assert.assertFalse(isPersisted(data1));
+        cache.release(data3);
+        Assert.assertTrue(isPersisted(data3));
+    }
+
+    @Test
+    public void testDisabled() {
+        PreprocessedDataCache cache = new PreprocessedDataCache(0, StorageLevel.MEMORY_ONLY());
+        JavaRDD<Integer> data = cache.put("1:a", data());
+        Assert.assertTrue(isPersisted(data));
+        Assert.assertNull(cache.get("1:a"));
+        cache.release(data);
+        Assert.assertFalse(isPersisted(data));
+    }
+
+    private JavaRDD<Integer> data() {
+        return sparkContext.parallelize(Arrays.asList(1, 2, 3));
+    }
+
+    private static boolean isPersisted(JavaRDD<?> data) {
+        return !StorageLevel.NONE().equals(data.getStorageLevel());
+    }
+
+    private MLModelConfigurationContext context(long datasetVersionId, String imputeOption) {
+        List<Feature> features = new ArrayList<Feature>();
+        for (int i = 0; i < 3; i++) {
+            Feature feature = new Feature();
+            feature.setName("f" + i);
+            feature.setIndex(i);
+            feature.setInclude(true);
+            feature.setType(FeatureType.NUMERICAL);
+            feature.setImputeOption(i == 2 ? imputeOption : MLConstants.DISCARD);
+            features.add(feature);
+        }
+        Workflow workflow = new Workflow();
+        workflow.setFeatures(features);
+        MLModelData model = new MLModelData();
+        model.setVersionSetId(datasetVersionId);
+
+        MLModelConfigurationContext context = new MLModelConfigurationContext();
+        context.setFacts(workflow);
+        context.setModel(model);
+        context.setColumnSeparator(",");
+        context.setResponseIndex(2);
+        context.setNewToOldIndicesList(Arrays.asList(0, 1));
+        return context;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class RowSampleTest {
+
+    @Test
+    public void testSmallDatasetIsKeptWhole() {
+        RowSample sample = sample(0, 5, 10);
+        sample.merge(sample(5, 8, 10));
+        Assert.assertEquals(sample.getRows().size(), 8);
+        Assert.assertEquals(sample(0, 5, 0).getRows().size(), 0);
+    }
+
+    @Test
+    public void testMergedSampleIsUniform() {
+        int trials = 2000;
+        int fromSmallPart = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            // A part of 100 rows merged with a part of 900 rows.
+            RowSample sample = sample(0, 100, 50).merge(sample(100, 1000, 50));
+            List<String[]> rows = sample.getRows();
+            Assert.assertEquals(rows.size(), 50);
+            Set<String> distinct = new HashSet<String>();
+            for (String[] row : rows) {
+                distinct.add(row[0]);
+                if (Integer.parseInt(row[0]) < 100) {
+                    fromSmallPart++;
+                }
+            }
+            Assert.assertEquals(distinct.size(), 50);
+        }
+        // 10% of the rows are in the small part, so 5 of the 50 sampled rows are expected from it.
+        Assert.assertEquals((double) fromSmallPart / trials, 5.0, 0.25);
+    }
+
+    private RowSample sample(int from, int to, int size) {
+        RowSample sample = new RowSample(size);
+        for (int i = from; i < to; i++) {
+            sample.add(new String[] { String.valueOf(i) });
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ScoringExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void testSaturatedTenantDoesNotStarveOthers() throws InterruptedException {
+        ScoringExecutor executor = new ScoringExecutor(1, 100, 100);
+        try {
+            CountDownLatch release = block(executor, 1);
+            final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+            final CountDownLatch done = new CountDownLatch(51);
+            for (int i = 0; i < 50; i++) {
+                executor.execute(1, record(order, 1, done));
+            }
+            executor.execute(2, record(order, 2, done));
+            release.countDown();
+
+            Assert.assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            // tenant 2 is served right after the next task of tenant 1, not after the whole burst
+            Assert.assertEquals(order.indexOf(2), 1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueueBounds() throws InterruptedException {
+        ScoringExecutor executor = new ScoringExecutor(1, 3, 2);
+        try {
+            CountDownLatch release = block(executor, 1);
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                }
+            };
+            executor.execute(1, task);
+            executor.execute(1, task);
+            assertRejected(executor, 1, task);
+            executor.execute(2, task);
+            assertRejected(executor, 3, task);
+
+            Assert.assertEquals(executor.getQueueSize(), 3);
+            Assert.assertEquals(executor.getQueuedTenantCount(), 2);
+            Assert.assertEquals(executor.getRejectedCount(), 2);
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelQueuedTask() throws InterruptedException {
+        ScoringExecutor executor = new ScoringExecutor(1, 1, 1);
+        try {
+            CountDownLatch release = block(executor, 1);
+            final CountDownLatch ran = new CountDownLatch(1);
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    ran.countDown();
+                }
+            };
+            Future<?> future = executor.execute(2, task);
+            Assert.assertTrue(future.cancel(true));
+            // the cancelled task frees its place in the queue at once
+            Assert.assertEquals(executor.getQueueSize(), 0);
+            Assert.assertEquals(executor.getQueuedTenantCount(), 0);
+            executor.execute(2, new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            release.countDown();
+            Assert.assertFalse(ran.await(200, TimeUnit.MILLISECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelRunningTask() throws InterruptedException {
+        ScoringExecutor executor = new ScoringExecutor(1, 10, 10);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            Future<?> future = executor.execute(1, new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                }
+            });
+            Assert.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            Assert.assertTrue(future.cancel(true));
+            Assert.assertTrue(interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            // the worker serves the next task after the interruption
+            final CountDownLatch ran = new CountDownLatch(1);
+            executor.execute(1, new Runnable() {
+                @Override
+                public void run() {
+                    ran.countDown();
+                }
+            });
+            Assert.assertTrue(ran.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Occupy the single worker of an executor until the returned latch is released.
+     */
+    private static CountDownLatch block(ScoringExecutor executor, int tenantId) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(tenantId, new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Assert.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static Runnable record(final List<Integer> order, final int tenantId, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(tenantId);
+                done.countDown();
+            }
+        };
+    }
+
+    private static void assertRejected(ScoringExecutor executor, int tenantId, Runnable task) {
+        try {
+            executor.execute(tenantId, task);
+            Assert.fail("Task of tenant " + tenantId + " should have been rejected.");
+        } catch (RejectedExecutionException expected) {
+            // queue is full
+        }
+    }
+}
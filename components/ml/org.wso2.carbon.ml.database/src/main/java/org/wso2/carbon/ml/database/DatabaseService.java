@@ -91,6 +91,15 @@ public interface DatabaseService {
      */
     String getDatasetUri(long datasetId) throws DatabaseHandlerException;
 
+    /**
+     * Retrieves the path of the columnar copy of the value-set having the given ID, from the database.
+     *
+     * @param datasetId Unique Identifier of the dataset
+     * @return Absolute path of the columnar copy of a given dataset, null if the dataset has not been converted
+     * @throws DatabaseHandlerException
+     */
+    String getDatasetColumnarUri(long datasetId) throws DatabaseHandlerException;
+
     /**
      * Get the dataset id.
      *
@@ -260,6 +269,17 @@ public interface DatabaseService {
      */
     void updateSamplePoints(long datasetVersionId, SamplePoints samplePoints) throws DatabaseHandlerException;
 
+    /**
+     * Update the database with the columnar copy of data-set-version.
+     *
+     * @param datasetVersionId Unique Id of the data-set-version
+     * @param columnarUri      Absolute path of the columnar copy of this dataset version
+     * @param columnarSchema   Schema of the columnar copy of this dataset version
+     * @throws DatabaseHandlerException
+     */
+    void updateColumnarDataset(long datasetVersionId, String columnarUri, String columnarSchema)
+            throws DatabaseHandlerException;
+
     /**
      * Delete the project.
      *
@@ -441,6 +461,33 @@ public interface DatabaseService {
      */
     Workflow getWorkflow(long analysisId, String algorithmName) throws DatabaseHandlerException;
 
+    /**
+     * Get everything needed to build a model, read in a single transaction with a few joined queries.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param modelId  unique id of the model
+     * @return {@link org.wso2.carbon.ml.commons.domain.ModelBuildSnapshot} object, null if the model or its dataset
+     *         version does not exist
+     * @throws DatabaseHandlerException
+     */
+    ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId)
+            throws DatabaseHandlerException;
+
+    /**
+     * Get everything needed to build a model, read in a single transaction with a few joined queries.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param modelId  unique id of the model
+     * @param columnar whether to read the location of the columnar copy of the dataset version
+     * @return {@link org.wso2.carbon.ml.commons.domain.ModelBuildSnapshot} object, null if the model or its dataset
+     *         version does not exist
+     * @throws DatabaseHandlerException
+     */
+    ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId, boolean columnar)
+            throws DatabaseHandlerException;
+
     /**
      * Get the Model storage of the model.
      *
@@ -482,6 +529,19 @@ public interface DatabaseService {
      */
     List<MLProject> getAllProjects(int tenantId, String userName) throws DatabaseHandlerException;
 
+    /**
+     * Get a page of the projects of the given tenant and username, ordered by project id.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param limit    maximum number of projects to retrieve, all of them if not positive
+     * @param offset   number of projects to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLProject} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLProject> getAllProjects(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException;
+
     /**
      * Get all models of a given project.
      *
@@ -503,6 +563,19 @@ public interface DatabaseService {
      */
     List<MLAnalysis> getAllAnalyses(int tenantId, String userName) throws DatabaseHandlerException;
 
+    /**
+     * Get a page of the analyses of the given tenant and username, ordered by analysis id.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param limit    maximum number of analyses to retrieve, all of them if not positive
+     * @param offset   number of analyses to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLAnalysis} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLAnalysis> getAllAnalyses(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException;
+
     /**
      * Get the Model having the given model name.
      *
@@ -535,6 +608,33 @@ public interface DatabaseService {
      */
     List<MLModelData> getAllModels(int tenantId, String userName) throws DatabaseHandlerException;
 
+    /**
+     * Get a page of the models of the given tenant and username, ordered by model id.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param limit    maximum number of models to retrieve, all of them if not positive
+     * @param offset   number of models to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLModelData} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLModelData> getAllModels(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException;
+
+    /**
+     * Get a page of the models of the given tenant and username having a status, ordered by model id.
+     *
+     * @param tenantId tenant id
+     * @param userName username
+     * @param status   status of the models, all of them if null
+     * @param limit    maximum number of models to retrieve, all of them if not positive
+     * @param offset   number of models of the status to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLModelData} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLModelData> getAllModels(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException;
+
     /**
      * Get all the dataset-versions of the given dataset schema.
      *
@@ -547,6 +647,20 @@ public interface DatabaseService {
     List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId)
             throws DatabaseHandlerException;
 
+    /**
+     * Get a page of the dataset-versions of the given dataset schema, ordered by dataset-version id.
+     *
+     * @param tenantId  ID of the tenant
+     * @param userName  Username of the tenant
+     * @param datasetId dataset schema id
+     * @param limit     maximum number of dataset-versions to retrieve, all of them if not positive
+     * @param offset    number of dataset-versions to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLDatasetVersion} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId, int limit,
+            int offset) throws DatabaseHandlerException;
+
     /**
      * Get all the dataset schemas of the given tenant and username.
      *
@@ -557,6 +671,34 @@ public interface DatabaseService {
      */
     List<MLDataset> getAllDatasets(int tenantId, String userName) throws DatabaseHandlerException;
 
+    /**
+     * Get a page of the dataset schemas of the given tenant and username, ordered by dataset schema id.
+     *
+     * @param tenantId ID of the tenant
+     * @param userName Username of the tenant
+     * @param limit    maximum number of dataset schemas to retrieve, all of them if not positive
+     * @param offset   number of dataset schemas to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLDataset} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLDataset> getAllDatasets(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException;
+
+    /**
+     * Get a page of the dataset schemas of the given tenant and username having a status, ordered by dataset schema
+     * id.
+     *
+     * @param tenantId ID of the tenant
+     * @param userName Username of the tenant
+     * @param status   status of the dataset schemas, all of them if null
+     * @param limit    maximum number of dataset schemas to retrieve, all of them if not positive
+     * @param offset   number of dataset schemas of the status to skip
+     * @return List of {@link org.wso2.carbon.ml.commons.domain.MLDataset} objects
+     * @throws DatabaseHandlerException
+     */
+    List<MLDataset> getAllDatasets(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException;
+
     /**
      * Get the dataset schema identified by the given dataset schema id.
      *
@@ -750,6 +892,16 @@ public interface DatabaseService {
      */
     Map<String, String> getSummaryStats(long datasetVersionId) throws DatabaseHandlerException;
 
+    /**
+     * Get the typed summary statistics of the dataset version. Statistics are parsed once per dataset version and
+     * cached, hence the returned map must not be modified.
+     *
+     * @param datasetVersionId Unique id of the dataset version
+     * @return A map of <feature-name, feature-statistics> pairs
+     * @throws DatabaseHandlerException
+     */
+    Map<String, FeatureStatistics> getFeatureStatistics(long datasetVersionId) throws DatabaseHandlerException;
+
     /**
      * Get feature names of a dataset.
      *
@@ -0,0 +1,752 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.wso2.carbon.ml.commons.domain.*;
+import org.wso2.carbon.ml.commons.domain.config.MLConfiguration;
+import org.wso2.carbon.ml.database.DatabaseService;
+import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
+
+/**
+ * Read-through cache in front of a {@link DatabaseService}, for the metadata read on every model build and
+ * prediction: dataset URIs, feature names, summary statistics, workflows, hyper-parameters and the dataset version
+ * and data type of models. All the other calls are delegated as they are.
+ * <p>
+ * Cached entries are invalidated by the update and delete calls made through this service. Changes made by other
+ * nodes of a cluster are seen after the TTL of the entry. TTL (seconds, 0 disables the cache) and size of each cache
+ * are read from the ML properties <code>ml.database.cache.&lt;cache name&gt;.ttl</code> and
+ * <code>ml.database.cache.&lt;cache name&gt;.size</code>.
+ */
+public class CachingDatabaseService implements DatabaseService {
+
+    static final String CACHE_PROPERTY_PREFIX = "ml.database.cache.";
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final DatabaseService databaseService;
+    private final List<MetadataCache<?, ?>> caches = new ArrayList<MetadataCache<?, ?>>();
+    /*
+     * key - dataset id
+     */
+    private final MetadataCache<Long, String> datasetUris;
+    /*
+     * key - dataset version id
+     */
+    private final MetadataCache<Long, String> datasetVersionUris;
+    /*
+     * key - dataset id and column separator
+     */
+    private final MetadataCache<Key, String> featureNames;
+    /*
+     * key - dataset version id and column separator
+     */
+    private final MetadataCache<Key, String> featureNamesOfVersions;
+    /*
+     * key - dataset version id
+     */
+    private final MetadataCache<Long, Map<String, String>> summaryStats;
+    /*
+     * key - dataset version id
+     */
+    private final MetadataCache<Long, Map<String, FeatureStatistics>> featureStatistics;
+    /*
+     * key - analysis id and algorithm name
+     */
+    private final MetadataCache<Key, Workflow> workflows;
+    /*
+     * key - analysis id
+     */
+    private final MetadataCache<Long, Map<String, String>> hyperParameters;
+    /*
+     * key - analysis id
+     */
+    private final MetadataCache<Long, Long> datasetSchemaIdsOfAnalyses;
+    /*
+     * key - model id
+     */
+    private final MetadataCache<Long, Long> datasetVersionIdsOfModels;
+    /*
+     * key - model id
+     */
+    private final MetadataCache<Long, String> dataTypesOfModels;
+
+    public CachingDatabaseService(DatabaseService databaseService, Properties properties) {
+        this.databaseService = databaseService;
+        datasetUris = createCache("dataset-uri", properties);
+        datasetVersionUris = createCache("dataset-version-uri", properties);
+        featureNames = createCache("feature-names", properties);
+        featureNamesOfVersions = createCache("dataset-version-feature-names", properties);
+        summaryStats = createCache("summary-stats", properties);
+        featureStatistics = createCache("feature-statistics", properties);
+        workflows = createCache("workflow", properties);
+        hyperParameters = createCache("hyper-parameters", properties);
+        datasetSchemaIdsOfAnalyses = createCache("analysis-dataset-schema", properties);
+        datasetVersionIdsOfModels = createCache("model-dataset-version", properties);
+        dataTypesOfModels = createCache("model-data-type", properties);
+    }
+
+    /**
+     * Get the caches of this service, to monitor their hit ratios.
+     */
+    public List<MetadataCache<?, ?>> getCaches() {
+        return Collections.unmodifiableList(caches);
+    }
+
+    /**
+     * Remove all the cached entries.
+     */
+    public void invalidateAll() {
+        for (MetadataCache<?, ?> cache : caches) {
+            cache.invalidateAll();
+        }
+    }
+
+    private <K, V> MetadataCache<K, V> createCache(String name, Properties properties) {
+        long ttlSeconds = MLDatabaseUtils.getLongProperty(properties, CACHE_PROPERTY_PREFIX + name + ".ttl",
+                DEFAULT_TTL_SECONDS);
+        long maxSize = MLDatabaseUtils.getLongProperty(properties, CACHE_PROPERTY_PREFIX + name + ".size",
+                DEFAULT_MAX_SIZE);
+        MetadataCache<K, V> cache = new MetadataCache<K, V>(name, ttlSeconds * 1000, (int) maxSize);
+        caches.add(cache);
+        return cache;
+    }
+
+    private void invalidateDatasetVersion(long datasetVersionId) {
+        summaryStats.invalidate(datasetVersionId);
+        featureStatistics.invalidate(datasetVersionId);
+        featureNamesOfVersions.invalidate(new IdFilter(datasetVersionId));
+    }
+
+    private void invalidateModels() {
+        datasetVersionIdsOfModels.invalidateAll();
+        dataTypesOfModels.invalidateAll();
+    }
+
+    @Override
+    public MLConfiguration getMlConfiguration() {
+        return databaseService.getMlConfiguration();
+    }
+
+    @Override
+    public void insertDatasetSchema(MLDataset dataset) throws DatabaseHandlerException {
+        databaseService.insertDatasetSchema(dataset);
+    }
+
+    @Override
+    public void insertDatasetVersion(MLDatasetVersion datasetVersion) throws DatabaseHandlerException {
+        databaseService.insertDatasetVersion(datasetVersion);
+    }
+
+    @Override
+    public void insertProject(MLProject project) throws DatabaseHandlerException {
+        databaseService.insertProject(project);
+    }
+
+    @Override
+    public void insertAnalysis(MLAnalysis analysis) throws DatabaseHandlerException {
+        databaseService.insertAnalysis(analysis);
+    }
+
+    @Override
+    public void insertModel(MLModelData model) throws DatabaseHandlerException {
+        databaseService.insertModel(model);
+    }
+
+    @Override
+    public String getDatasetVersionUri(long datasetVersionId) throws DatabaseHandlerException {
+        String uri = datasetVersionUris.get(datasetVersionId);
+        if (uri == null) {
+            uri = databaseService.getDatasetVersionUri(datasetVersionId);
+            datasetVersionUris.put(datasetVersionId, uri);
+        }
+        return uri;
+    }
+
+    @Override
+    public String getDatasetUri(long datasetId) throws DatabaseHandlerException {
+        String uri = datasetUris.get(datasetId);
+        if (uri == null) {
+            uri = databaseService.getDatasetUri(datasetId);
+            datasetUris.put(datasetId, uri);
+        }
+        return uri;
+    }
+
+    @Override
+    public String getDatasetColumnarUri(long datasetId) throws DatabaseHandlerException {
+        // not cached, the dataset may be converted after it is first read
+        return databaseService.getDatasetColumnarUri(datasetId);
+    }
+
+    @Override
+    public long getDatasetId(String datasetName, int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.getDatasetId(datasetName, tenantId, userName);
+    }
+
+    @Override
+    public long getVersionsetId(String datasetVersionName, int tenantId, String userName)
+            throws DatabaseHandlerException {
+        return databaseService.getVersionsetId(datasetVersionName, tenantId, userName);
+    }
+
+    @Override
+    public List<Object> getScatterPlotPoints(ScatterPlotPoints scatterPlotPoints) throws DatabaseHandlerException {
+        return databaseService.getScatterPlotPoints(scatterPlotPoints);
+    }
+
+    @Override
+    public List<Object> getChartSamplePoints(int tenantId, String user, long versionsetId, String featureListString)
+            throws DatabaseHandlerException {
+        return databaseService.getChartSamplePoints(tenantId, user, versionsetId, featureListString);
+    }
+
+    @Override
+    public List<FeatureSummary> getFeatures(int tenantId, String userName, long analysisId, int startIndex,
+            int numberOfFeatures) throws DatabaseHandlerException {
+        return databaseService.getFeatures(tenantId, userName, analysisId, startIndex, numberOfFeatures);
+    }
+
+    @Override
+    public List<MLCustomizedFeature> getCustomizedFeatures(int tenantId, String userName, long analysisId,
+            int startIndex, int numberOfFeatures) throws DatabaseHandlerException {
+        return databaseService.getCustomizedFeatures(tenantId, userName, analysisId, startIndex, numberOfFeatures);
+    }
+
+    @Override
+    public List<String> getFeatureNames(String analysisId, String featureType) throws DatabaseHandlerException {
+        return databaseService.getFeatureNames(analysisId, featureType);
+    }
+
+    @Override
+    public List<String> getFeatureNames(String analysisId) throws DatabaseHandlerException {
+        return databaseService.getFeatureNames(analysisId);
+    }
+
+    @Override
+    public List<String> getFeatureNames(long datasetId, String featureType) throws DatabaseHandlerException {
+        return databaseService.getFeatureNames(datasetId, featureType);
+    }
+
+    @Override
+    public String getSummaryStats(int tenantId, String user, long analysisId, String featureName)
+            throws DatabaseHandlerException {
+        return databaseService.getSummaryStats(tenantId, user, analysisId, featureName);
+    }
+
+    @Override
+    public String getSummaryStats(long datasetId, String featureName) throws DatabaseHandlerException {
+        return databaseService.getSummaryStats(datasetId, featureName);
+    }
+
+    @Override
+    public SamplePoints getVersionsetSample(int tenantId, String user, long versionsetId)
+            throws DatabaseHandlerException {
+        return databaseService.getVersionsetSample(tenantId, user, versionsetId);
+    }
+
+    @Override
+    public int getFeatureCount(long datasetVersionId) throws DatabaseHandlerException {
+        return databaseService.getFeatureCount(datasetVersionId);
+    }
+
+    @Override
+    public void updateSummaryStatistics(long datasetSchemaId, long datasetVersionId, SummaryStats summaryStats)
+            throws DatabaseHandlerException {
+        databaseService.updateSummaryStatistics(datasetSchemaId, datasetVersionId, summaryStats);
+        invalidateDatasetVersion(datasetVersionId);
+        featureNames.invalidate(new IdFilter(datasetSchemaId));
+    }
+
+    @Override
+    public void updateSamplePoints(long datasetVersionId, SamplePoints samplePoints) throws DatabaseHandlerException {
+        databaseService.updateSamplePoints(datasetVersionId, samplePoints);
+    }
+
+    @Override
+    public void updateColumnarDataset(long datasetVersionId, String columnarUri, String columnarSchema)
+            throws DatabaseHandlerException {
+        databaseService.updateColumnarDataset(datasetVersionId, columnarUri, columnarSchema);
+    }
+
+    @Override
+    public void deleteProject(int tenantId, String userName, long projectId) throws DatabaseHandlerException {
+        databaseService.deleteProject(tenantId, userName, projectId);
+        // analyses and models of the project are deleted in cascade
+        workflows.invalidateAll();
+        hyperParameters.invalidateAll();
+        datasetSchemaIdsOfAnalyses.invalidateAll();
+        invalidateModels();
+    }
+
+    @Override
+    public void insertFeatureCustomized(long analysisId, List<MLCustomizedFeature> customizedFeatures, int tenantId,
+            String userName) throws DatabaseHandlerException {
+        databaseService.insertFeatureCustomized(analysisId, customizedFeatures, tenantId, userName);
+        workflows.invalidate(new IdFilter(analysisId));
+    }
+
+    @Override
+    public void insertModelConfigurations(long analysisId, List<MLModelConfiguration> modelConfigs)
+            throws DatabaseHandlerException {
+        databaseService.insertModelConfigurations(analysisId, modelConfigs);
+        workflows.invalidate(new IdFilter(analysisId));
+    }
+
+    @Override
+    public void insertHyperParameters(long analysisId, List<MLHyperParameter> hyperParameters, String algorithmName)
+            throws DatabaseHandlerException {
+        databaseService.insertHyperParameters(analysisId, hyperParameters, algorithmName);
+        workflows.invalidate(new IdFilter(analysisId));
+        this.hyperParameters.invalidate(analysisId);
+    }
+
+    @Override
+    public void updateModelSummary(long modelId, ModelSummary modelSummary) throws DatabaseHandlerException {
+        databaseService.updateModelSummary(modelId, modelSummary);
+    }
+
+    @Override
+    public void updateModelStorage(long modelId, String storageType, String location) throws DatabaseHandlerException {
+        databaseService.updateModelStorage(modelId, storageType, location);
+    }
+
+    @Override
+    public boolean isValidModelId(int tenantId, String userName, long modelId) throws DatabaseHandlerException {
+        return databaseService.isValidModelId(tenantId, userName, modelId);
+    }
+
+    @Override
+    public boolean isValidModelStatus(long modelId, int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.isValidModelStatus(modelId, tenantId, userName);
+    }
+
+    @Override
+    public long getDatasetVersionIdOfModel(long modelId) throws DatabaseHandlerException {
+        Long datasetVersionId = datasetVersionIdsOfModels.get(modelId);
+        if (datasetVersionId == null) {
+            datasetVersionId = databaseService.getDatasetVersionIdOfModel(modelId);
+            datasetVersionIdsOfModels.put(modelId, datasetVersionId);
+        }
+        return datasetVersionId;
+    }
+
+    @Override
+    public long getDatasetId(long datasetVersionId) throws DatabaseHandlerException {
+        return databaseService.getDatasetId(datasetVersionId);
+    }
+
+    @Override
+    public String getDataTypeOfModel(long modelId) throws DatabaseHandlerException {
+        String dataType = dataTypesOfModels.get(modelId);
+        if (dataType == null) {
+            dataType = databaseService.getDataTypeOfModel(modelId);
+            dataTypesOfModels.put(modelId, dataType);
+        }
+        return dataType;
+    }
+
+    @Override
+    public String getAStringModelConfiguration(long analysisId, String configKey) throws DatabaseHandlerException {
+        return databaseService.getAStringModelConfiguration(analysisId, configKey);
+    }
+
+    @Override
+    public double getADoubleModelConfiguration(long analysisId, String configKey) throws DatabaseHandlerException {
+        return databaseService.getADoubleModelConfiguration(analysisId, configKey);
+    }
+
+    @Override
+    public boolean getABooleanModelConfiguration(long analysisId, String configKey) throws DatabaseHandlerException {
+        return databaseService.getABooleanModelConfiguration(analysisId, configKey);
+    }
+
+    @Override
+    public List<MLHyperParameter> getHyperParametersOfModel(long analysisId, String algorithmName)
+            throws DatabaseHandlerException {
+        return databaseService.getHyperParametersOfModel(analysisId, algorithmName);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getHyperParametersOfModelWithNameAsMap(long modelId)
+            throws DatabaseHandlerException {
+        return databaseService.getHyperParametersOfModelWithNameAsMap(modelId);
+    }
+
+    @Override
+    public Map<String, String> getHyperParametersOfModelAsMap(long analysisId) throws DatabaseHandlerException {
+        Map<String, String> parameters = hyperParameters.get(analysisId);
+        if (parameters == null) {
+            parameters = databaseService.getHyperParametersOfModelAsMap(analysisId);
+            hyperParameters.put(analysisId, new HashMap<String, String>(parameters));
+            return parameters;
+        }
+        return new HashMap<String, String>(parameters);
+    }
+
+    @Override
+    public Workflow getWorkflow(long analysisId, String algorithmName) throws DatabaseHandlerException {
+        Key key = new Key(analysisId, algorithmName);
+        Workflow workflow = workflows.get(key);
+        if (workflow == null) {
+            workflow = databaseService.getWorkflow(analysisId, algorithmName);
+            workflows.put(key, (Workflow) SerializationUtils.clone(workflow));
+            return workflow;
+        }
+        // callers complete the returned workflow with the details of the build
+        return (Workflow) SerializationUtils.clone(workflow);
+    }
+
+    @Override
+    public ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId)
+            throws DatabaseHandlerException {
+        return databaseService.getModelBuildSnapshot(tenantId, userName, modelId);
+    }
+
+    @Override
+    public ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId, boolean columnar)
+            throws DatabaseHandlerException {
+        return databaseService.getModelBuildSnapshot(tenantId, userName, modelId, columnar);
+    }
+
+    @Override
+    public MLStorage getModelStorage(long modelId) throws DatabaseHandlerException {
+        return databaseService.getModelStorage(modelId);
+    }
+
+    @Override
+    public MLProject getProject(int tenantId, String userName, String projectName) throws DatabaseHandlerException {
+        return databaseService.getProject(tenantId, userName, projectName);
+    }
+
+    @Override
+    public MLProject getProject(int tenantId, String userName, long projectId) throws DatabaseHandlerException {
+        return databaseService.getProject(tenantId, userName, projectId);
+    }
+
+    @Override
+    public List<MLProject> getAllProjects(int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.getAllProjects(tenantId, userName);
+    }
+
+    @Override
+    public List<MLProject> getAllProjects(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllProjects(tenantId, userName, limit, offset);
+    }
+
+    @Override
+    public List<MLModelData> getProjectModels(int tenantId, String userName, long projectId)
+            throws DatabaseHandlerException {
+        return databaseService.getProjectModels(tenantId, userName, projectId);
+    }
+
+    @Override
+    public List<MLAnalysis> getAllAnalyses(int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.getAllAnalyses(tenantId, userName);
+    }
+
+    @Override
+    public List<MLAnalysis> getAllAnalyses(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllAnalyses(tenantId, userName, limit, offset);
+    }
+
+    @Override
+    public MLModelData getModel(int tenantId, String userName, String modelName) throws DatabaseHandlerException {
+        return databaseService.getModel(tenantId, userName, modelName);
+    }
+
+    @Override
+    public MLModelData getModel(int tenantId, String userName, long modelId) throws DatabaseHandlerException {
+        return databaseService.getModel(tenantId, userName, modelId);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.getAllModels(tenantId, userName);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllModels(tenantId, userName, limit, offset);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllModels(tenantId, userName, status, limit, offset);
+    }
+
+    @Override
+    public List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId)
+            throws DatabaseHandlerException {
+        return databaseService.getAllVersionsetsOfDataset(tenantId, userName, datasetId);
+    }
+
+    @Override
+    public List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId,
+            int limit, int offset) throws DatabaseHandlerException {
+        return databaseService.getAllVersionsetsOfDataset(tenantId, userName, datasetId, limit, offset);
+    }
+
+    @Override
+    public List<MLDataset> getAllDatasets(int tenantId, String userName) throws DatabaseHandlerException {
+        return databaseService.getAllDatasets(tenantId, userName);
+    }
+
+    @Override
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllDatasets(tenantId, userName, limit, offset);
+    }
+
+    @Override
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException {
+        return databaseService.getAllDatasets(tenantId, userName, status, limit, offset);
+    }
+
+    @Override
+    public MLDataset getDataset(int tenantId, String userName, long datasetId) throws DatabaseHandlerException {
+        return databaseService.getDataset(tenantId, userName, datasetId);
+    }
+
+    @Override
+    public MLDatasetVersion getVersionset(int tenantId, String userName, long datasetVersionId)
+            throws DatabaseHandlerException {
+        return databaseService.getVersionset(tenantId, userName, datasetVersionId);
+    }
+
+    @Override
+    public MLDatasetVersion getVersionSetWithVersion(long datasetId, String version, int tenantId, String userName)
+            throws DatabaseHandlerException {
+        return databaseService.getVersionSetWithVersion(datasetId, version, tenantId, userName);
+    }
+
+    @Override
+    public void insertDefaultsIntoFeatureCustomized(long analysisId, MLCustomizedFeature customizedValues)
+            throws DatabaseHandlerException {
+        databaseService.insertDefaultsIntoFeatureCustomized(analysisId, customizedValues);
+        workflows.invalidate(new IdFilter(analysisId));
+    }
+
+    @Override
+    public long getDatasetSchemaIdFromAnalysisId(long analysisId) throws DatabaseHandlerException {
+        Long datasetSchemaId = datasetSchemaIdsOfAnalyses.get(analysisId);
+        if (datasetSchemaId == null) {
+            datasetSchemaId = databaseService.getDatasetSchemaIdFromAnalysisId(analysisId);
+            datasetSchemaIdsOfAnalyses.put(analysisId, datasetSchemaId);
+        }
+        return datasetSchemaId;
+    }
+
+    @Override
+    public void deleteModel(int tenantId, String userName, long modelId) throws DatabaseHandlerException {
+        databaseService.deleteModel(tenantId, userName, modelId);
+        datasetVersionIdsOfModels.invalidate(modelId);
+        dataTypesOfModels.invalidate(modelId);
+    }
+
+    @Override
+    public List<MLAnalysis> getAllAnalysesOfProject(int tenantId, String userName, long projectId)
+            throws DatabaseHandlerException {
+        return databaseService.getAllAnalysesOfProject(tenantId, userName, projectId);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName, long analysisId)
+            throws DatabaseHandlerException {
+        return databaseService.getAllModels(tenantId, userName, analysisId);
+    }
+
+    @Override
+    public ModelSummary getModelSummary(long modelId) throws DatabaseHandlerException {
+        return databaseService.getModelSummary(modelId);
+    }
+
+    @Override
+    public void updateModelStatus(long modelId, String status) throws DatabaseHandlerException {
+        databaseService.updateModelStatus(modelId, status);
+    }
+
+    @Override
+    public MLAnalysis getAnalysis(int tenantId, String userName, long analysisId) throws DatabaseHandlerException {
+        return databaseService.getAnalysis(tenantId, userName, analysisId);
+    }
+
+    @Override
+    public void deleteDataset(long datasetId) throws DatabaseHandlerException {
+        databaseService.deleteDataset(datasetId);
+        datasetUris.invalidate(datasetId);
+        featureNames.invalidate(new IdFilter(datasetId));
+        // versions of the dataset, and their analyses and models, are deleted in cascade
+        datasetVersionUris.invalidateAll();
+        featureNamesOfVersions.invalidateAll();
+        summaryStats.invalidateAll();
+        featureStatistics.invalidateAll();
+        invalidateModels();
+    }
+
+    @Override
+    public void deleteDatasetVersion(long datasetVersionId) throws DatabaseHandlerException {
+        databaseService.deleteDatasetVersion(datasetVersionId);
+        invalidateDatasetVersion(datasetVersionId);
+        datasetVersionUris.invalidate(datasetVersionId);
+        invalidateModels();
+    }
+
+    @Override
+    public MLAnalysis getAnalysisOfProject(int tenantId, String userName, long projectId, String analysisName)
+            throws DatabaseHandlerException {
+        return databaseService.getAnalysisOfProject(tenantId, userName, projectId, analysisName);
+    }
+
+    @Override
+    public void deleteAnalysis(int tenantId, String userName, long analysisId) throws DatabaseHandlerException {
+        databaseService.deleteAnalysis(tenantId, userName, analysisId);
+        workflows.invalidate(new IdFilter(analysisId));
+        hyperParameters.invalidate(analysisId);
+        datasetSchemaIdsOfAnalyses.invalidate(analysisId);
+        invalidateModels();
+    }
+
+    @Override
+    public void updateModelError(long modelId, String error) throws DatabaseHandlerException {
+        databaseService.updateModelError(modelId, error);
+    }
+
+    @Override
+    public String getFeatureNamesInOrder(long datasetId, String columnSeparator) throws DatabaseHandlerException {
+        Key key = new Key(datasetId, columnSeparator);
+        String names = featureNames.get(key);
+        if (names == null) {
+            names = databaseService.getFeatureNamesInOrder(datasetId, columnSeparator);
+            // feature names are known only after the summary statistics are generated
+            if (names != null && !names.isEmpty()) {
+                featureNames.put(key, names);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public String getFeatureNamesInOrderUsingDatasetVersion(long datasetVersionId, String columnSeparator)
+            throws DatabaseHandlerException {
+        Key key = new Key(datasetVersionId, columnSeparator);
+        String names = featureNamesOfVersions.get(key);
+        if (names == null) {
+            names = databaseService.getFeatureNamesInOrderUsingDatasetVersion(datasetVersionId, columnSeparator);
+            if (names != null && !names.isEmpty()) {
+                featureNamesOfVersions.put(key, names);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public Map<String, String> getSummaryStats(long datasetVersionId) throws DatabaseHandlerException {
+        Map<String, String> stats = summaryStats.get(datasetVersionId);
+        if (stats == null) {
+            stats = databaseService.getSummaryStats(datasetVersionId);
+            // summary statistics may not have been generated yet, so only the complete ones are cached
+            if (!stats.isEmpty()) {
+                summaryStats.put(datasetVersionId, new HashMap<String, String>(stats));
+            }
+            return stats;
+        }
+        return new HashMap<String, String>(stats);
+    }
+
+    @Override
+    public Map<String, FeatureStatistics> getFeatureStatistics(long datasetVersionId) throws DatabaseHandlerException {
+        Map<String, FeatureStatistics> statistics = featureStatistics.get(datasetVersionId);
+        if (statistics == null) {
+            statistics = databaseService.getFeatureStatistics(datasetVersionId);
+            if (!statistics.isEmpty()) {
+                featureStatistics.put(datasetVersionId, statistics);
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public List<String> getFeatureNames(long datasetId) throws DatabaseHandlerException {
+        return databaseService.getFeatureNames(datasetId);
+    }
+
+    @Override
+    public void shutdown() throws DatabaseHandlerException {
+        invalidateAll();
+        databaseService.shutdown();
+    }
+
+    /**
+     * Cache key made of an id and a qualifier, such as a column separator or an algorithm name.
+     */
+    private static final class Key {
+        private final long id;
+        private final String qualifier;
+
+        private Key(long id, String qualifier) {
+            this.id = id;
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return id == other.id && (qualifier == null ? other.qualifier == null : qualifier.equals(other.qualifier));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (id ^ (id >>> 32)) + (qualifier == null ? 0 : qualifier.hashCode());
+        }
+    }
+
+    /**
+     * Matches the keys with the given id, whatever the qualifier is.
+     */
+    private static final class IdFilter implements MetadataCache.KeyFilter<Key> {
+        private final long id;
+
+        private IdFilter(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean matches(Key key) {
+            return key.id == id;
+        }
+    }
+}
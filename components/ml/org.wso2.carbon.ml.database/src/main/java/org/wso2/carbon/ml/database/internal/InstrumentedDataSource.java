@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.metrics.manager.Level;
+import org.wso2.carbon.metrics.manager.MetricManager;
+import org.wso2.carbon.metrics.manager.Timer;
+import org.wso2.carbon.ml.database.internal.constants.SQLQueries;
+
+/**
+ * Data source publishing the latency of the ML database through carbon metrics:
+ * <ul>
+ * <li>org.wso2.carbon.ml.database.connection-wait-time - histogram of the time (microseconds) waited for a connection
+ * </li>
+ * <li>org.wso2.carbon.ml.database.query.&lt;query name&gt; - timer of the executions of each query</li>
+ * <li>org.wso2.carbon.ml.database.query.&lt;query name&gt;.rows - histogram of the rows read from each query, counting
+ * the rows the cursor is moved to</li>
+ * <li>org.wso2.carbon.ml.database.slow-queries - meter of the executions slower than the threshold, which are also
+ * logged</li>
+ * </ul>
+ * Queries are named after their constant in {@link SQLQueries}, other statements are named "other". Statements created
+ * with {@link Connection#prepareStatement} and {@link Connection#createStatement} are measured, along with the result
+ * sets and generated keys they return.
+ */
+public class InstrumentedDataSource implements DataSource {
+
+    private static final Log log = LogFactory.getLog(InstrumentedDataSource.class);
+
+    /**
+     * ML property holding the execution time (milliseconds) above which a query is logged.
+     */
+    public static final String SLOW_QUERY_THRESHOLD_PROPERTY = "ml.database.slow.query.threshold";
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+
+    static final String METRIC_PREFIX = "org.wso2.carbon.ml.database.";
+    static final String OTHER_QUERY = "other";
+    /*
+     * key - SQL of a query
+     * value - name of the query
+     */
+    private static final Map<String, String> QUERY_NAMES = getQueryNames();
+    /*
+     * methods of a result set, other than next(), moving the cursor to a row
+     */
+    private static final Set<String> CURSOR_METHODS = new HashSet<String>(Arrays.asList("first", "last",
+            "absolute", "relative", "previous"));
+
+    private final DataSource dataSource;
+    private final long slowQueryThresholdNanos;
+
+    /**
+     * @param dataSource               data source to be instrumented
+     * @param slowQueryThresholdMillis executions taking longer are logged, 0 disables the logging
+     */
+    public InstrumentedDataSource(DataSource dataSource, long slowQueryThresholdMillis) {
+        this.dataSource = dataSource;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        recordConnectionWait(start);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection(username, password);
+        recordConnectionWait(start);
+        return wrap(connection);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(dataSource) ? iface.cast(dataSource) : dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(dataSource) || dataSource.isWrapperFor(iface);
+    }
+
+    /**
+     * Get the name of a query.
+     *
+     * @param sql SQL of the query
+     * @return name of the {@link SQLQueries} constant of the query, "other" if not found
+     */
+    static String getQueryName(String sql) {
+        String name = QUERY_NAMES.get(sql);
+        return name == null ? OTHER_QUERY : name;
+    }
+
+    private static Map<String, String> getQueryNames() {
+        Map<String, String> names = new HashMap<String, String>();
+        for (Field field : SQLQueries.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    names.put((String) field.get(null), field.getName());
+                } catch (IllegalAccessException e) {
+                    log.warn("Failed to read the query " + field.getName(), e);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    private void recordConnectionWait(long start) {
+        MetricManager.histogram(Level.INFO, METRIC_PREFIX + "connection-wait-time").update(
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    private Connection wrap(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Object result = invokeMethod(connection, method, args);
+                        if (result instanceof PreparedStatement && "prepareStatement".equals(method.getName())) {
+                            return wrap((Statement) result, PreparedStatement.class, (String) args[0]);
+                        }
+                        if (result instanceof Statement && "createStatement".equals(method.getName())) {
+                            return wrap((Statement) result, Statement.class, null);
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    /**
+     * @param sql SQL of a prepared statement, null if the SQL is given on execution
+     */
+    private Statement wrap(final Statement statement, Class<? extends Statement> type, final String sql) {
+        return (Statement) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] { type }, new InvocationHandler() {
+                    // name of the last executed query, which the result sets are read from
+                    private String queryName = sql != null ? getQueryName(sql) : OTHER_QUERY;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if (!name.startsWith("execute")) {
+                            Object result = invokeMethod(statement, method, args);
+                            if (result instanceof ResultSet
+                                    && ("getResultSet".equals(name) || "getGeneratedKeys".equals(name))) {
+                                return wrap((ResultSet) result, queryName);
+                            }
+                            return result;
+                        }
+                        if (sql == null) {
+                            queryName = args != null && args.length > 0 && args[0] instanceof String ? getQueryName(
+                                    (String) args[0]) : OTHER_QUERY;
+                        }
+                        Timer.Context context = MetricManager.timer(Level.INFO, METRIC_PREFIX + "query." + queryName)
+                                .start();
+                        long start = System.nanoTime();
+                        Object result;
+                        try {
+                            result = invokeMethod(statement, method, args);
+                        } finally {
+                            context.stop();
+                            logIfSlow(queryName, System.nanoTime() - start);
+                        }
+                        if (result instanceof ResultSet) {
+                            return wrap((ResultSet) result, queryName);
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    private ResultSet wrap(final ResultSet resultSet, final String queryName) {
+        return (ResultSet) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+                    private long rows;
+                    private boolean recorded;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if ("close".equals(name)) {
+                            recordRows();
+                        }
+                        Object result = invokeMethod(resultSet, method, args);
+                        if ("next".equals(name)) {
+                            if (Boolean.TRUE.equals(result)) {
+                                rows++;
+                            } else {
+                                recordRows();
+                            }
+                        } else if (CURSOR_METHODS.contains(name) && Boolean.TRUE.equals(result)) {
+                            // single row lookups read their row with first()
+                            rows++;
+                        }
+                        return result;
+                    }
+
+                    private void recordRows() {
+                        if (!recorded) {
+                            recorded = true;
+                            MetricManager.histogram(Level.INFO, METRIC_PREFIX + "query." + queryName + ".rows")
+                                    .update(rows);
+                        }
+                    }
+                });
+    }
+
+    private void logIfSlow(String queryName, long elapsedNanos) {
+        if (slowQueryThresholdNanos > 0 && elapsedNanos > slowQueryThresholdNanos) {
+            MetricManager.meter(Level.INFO, METRIC_PREFIX + "slow-queries").mark();
+            log.warn(String.format("Slow query %s took %d ms.", queryName,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+        }
+    }
+
+    private static Object invokeMethod(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
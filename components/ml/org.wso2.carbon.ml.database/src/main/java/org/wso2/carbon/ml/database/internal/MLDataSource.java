@@ -38,6 +38,10 @@ public class MLDataSource {
         }
     }
 
+    MLDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
     /**
      * Get the data source
      * @return {@link javax.sql.DataSource} object
@@ -20,7 +20,6 @@ package org.wso2.carbon.ml.database.internal;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -33,7 +32,11 @@ import org.wso2.carbon.ml.database.exceptions.MLConfigurationParserException;
 import org.wso2.carbon.ml.database.internal.constants.SQLQueries;
 import org.wso2.carbon.ml.database.internal.ds.LocalDatabaseCreator;
 import org.wso2.carbon.ml.database.util.MLDBUtil;
+import org.wso2.carbon.ml.database.util.SamplePointsCodec;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -60,7 +63,11 @@ public class MLDatabaseService implements DatabaseService {
         }
         
         try {
-            dbh = new MLDataSource(mlConfig.getDatasourceName());
+            long slowQueryThreshold = MLDatabaseUtils.getLongProperty(MLDatabaseUtils.getProperties(mlConfig),
+                    InstrumentedDataSource.SLOW_QUERY_THRESHOLD_PROPERTY,
+                    InstrumentedDataSource.DEFAULT_SLOW_QUERY_THRESHOLD);
+            dbh = new MLDataSource(new InstrumentedDataSource(
+                    new MLDataSource(mlConfig.getDatasourceName()).getDataSource(), slowQueryThreshold));
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
             throw new RuntimeException(e.getMessage(), e);
@@ -84,6 +91,13 @@ public class MLDatabaseService implements DatabaseService {
 
     }
     
+    /**
+     * Create a database service on top of the given data source, without parsing the ML configuration.
+     */
+    MLDatabaseService(DataSource dataSource) {
+        this.dbh = new MLDataSource(dataSource);
+    }
+
     public MLConfiguration getMlConfiguration() {
         return mlConfig != null ? mlConfig : new MLConfiguration();
     }
@@ -137,13 +151,15 @@ public class MLDatabaseService implements DatabaseService {
             insertStatement.setInt(4, datasetVersion.getTenantId());
             insertStatement.setString(5, datasetVersion.getUserName());
             insertStatement.setString(6, datasetVersion.getTargetPath());
-            insertStatement.setObject(7, datasetVersion.getSamplePoints());
+            SamplePoints samplePoints = datasetVersion.getSamplePoints();
+            insertStatement.setBytes(7, samplePoints == null ? null : SamplePointsCodec.encode(samplePoints));
+            insertStatement.setString(8, MLDBUtil.getDatasetVersionStatus(samplePoints));
             insertStatement.execute();
             connection.commit();
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully inserted the value set");
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IOException e) {
             // Roll-back the changes.
             MLDatabaseUtils.rollBack(connection);
             throw new DatabaseHandlerException("An error occurred while inserting value set " + " to the database: "
@@ -340,6 +356,32 @@ public class MLDatabaseService implements DatabaseService {
         }
     }
 
+    @Override
+    public String getDatasetColumnarUri(long datasetId) throws DatabaseHandlerException {
+
+        Connection connection = null;
+        ResultSet result = null;
+        PreparedStatement getStatement = null;
+        try {
+            connection = dbh.getDataSource().getConnection();
+            connection.setAutoCommit(true);
+            getStatement = connection.prepareStatement(SQLQueries.GET_DATASET_COLUMNAR_LOCATION);
+            getStatement.setLong(1, datasetId);
+            result = getStatement.executeQuery();
+            if (result.first()) {
+                return result.getNString(1);
+            } else {
+                logger.error("Invalid value set ID: " + datasetId);
+                throw new DatabaseHandlerException("Invalid value set ID: " + datasetId);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException("An error occurred while reading the columnar location of value set "
+                    + datasetId + " from the database: " + e.getMessage(), e);
+        } finally {
+            // Close the database resources.
+            MLDatabaseUtils.closeDatabaseResources(connection, getStatement, result);
+        }
+    }
 
     @Override
     public long getDatasetId(String datasetName, int tenantId, String userName) throws DatabaseHandlerException {
@@ -466,13 +508,28 @@ public class MLDatabaseService implements DatabaseService {
     @Override
     public List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId)
             throws DatabaseHandlerException {
+        return getAllVersionsetsOfDataset(tenantId, userName, datasetId, 0, 0);
+    }
+
+    /**
+     * Retrieve a page of the versionsets of a dataset
+     */
+    @Override
+    public List<MLDatasetVersion> getAllVersionsetsOfDataset(int tenantId, String userName, long datasetId,
+            int limit, int offset) throws DatabaseHandlerException {
         Connection connection = null;
         ResultSet result = null;
         PreparedStatement statement = null;
         List<MLDatasetVersion> versionsets = new ArrayList<MLDatasetVersion>();
         try {
             connection = dbh.getDataSource().getConnection();
-            statement = connection.prepareStatement(SQLQueries.GET_ALL_VERSIONSETS_OF_DATASET);
+            if (limit > 0) {
+                statement = connection.prepareStatement(SQLQueries.GET_VERSIONSETS_OF_DATASET_PAGED);
+                statement.setInt(4, limit);
+                statement.setInt(5, Math.max(offset, 0));
+            } else {
+                statement = connection.prepareStatement(SQLQueries.GET_ALL_VERSIONSETS_OF_DATASET);
+            }
             statement.setLong(1, datasetId);
             statement.setInt(2, tenantId);
             statement.setString(3, userName);
@@ -486,7 +543,7 @@ public class MLDatabaseService implements DatabaseService {
                 if(result.getBinaryStream(5) != null) {
                     SamplePoints samplePoints = MLDBUtil.getSamplePointsFromInputStream(result.getBinaryStream(5));
                     if(samplePoints.isGenerated() == true) {
-                        versionset.setSamplePoints(MLDBUtil.getSamplePointsFromInputStream(result.getBinaryStream(5)));
+                        versionset.setSamplePoints(samplePoints);
                         versionset.setStatus(MLConstants.DatasetVersionStatus.COMPLETE.getValue());
                     }
                     else {
@@ -554,13 +611,44 @@ public class MLDatabaseService implements DatabaseService {
      */
     @Override
     public List<MLDataset> getAllDatasets(int tenantId, String userName) throws DatabaseHandlerException {
+        return getAllDatasets(tenantId, userName, 0, 0);
+    }
+
+    /**
+     * Retrieve a page of the datasets
+     */
+    @Override
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return getAllDatasets(tenantId, userName, null, limit, offset);
+    }
+
+    /**
+     * Retrieve a page of the datasets of a status. The status of a dataset is derived from the stored statuses of its
+     * versions in the query, hence the page is taken from the datasets of the status.
+     */
+    @Override
+    public List<MLDataset> getAllDatasets(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException {
         Connection connection = null;
         ResultSet result = null;
         PreparedStatement statement = null;
         List<MLDataset> datasets = new ArrayList<MLDataset>();
         try {
             connection = dbh.getDataSource().getConnection();
-            statement = connection.prepareStatement(SQLQueries.GET_ALL_DATASETS);
+            int index = 3;
+            if (status != null) {
+                statement = connection.prepareStatement(limit > 0 ? SQLQueries.GET_DATASETS_WITH_STATUS_PAGED
+                        : SQLQueries.GET_DATASETS_WITH_STATUS);
+                statement.setString(index++, status);
+            } else {
+                statement = connection.prepareStatement(limit > 0 ? SQLQueries.GET_DATASETS_PAGED
+                        : SQLQueries.GET_ALL_DATASETS);
+            }
+            if (limit > 0) {
+                statement.setInt(index++, limit);
+                statement.setInt(index, Math.max(offset, 0));
+            }
             statement.setInt(1, tenantId);
             statement.setString(2, userName);
             result = statement.executeQuery();
@@ -852,39 +940,59 @@ public class MLDatabaseService implements DatabaseService {
      */
     public List<Object> getScatterPlotPoints(ScatterPlotPoints scatterPlotPoints) throws DatabaseHandlerException {
 
-        // Get the sample from the database.
-        SamplePoints sample = getVersionsetSample(scatterPlotPoints.getTenantId(),scatterPlotPoints.getUser(), scatterPlotPoints.getVersionsetId());
         List<Object> points = new ArrayList<Object>();
+        // Get the columns of the three features only.
+        Map<String, SamplePointsCodec.Column> columns = getVersionsetSampleColumns(scatterPlotPoints.getTenantId(),
+                scatterPlotPoints.getUser(), scatterPlotPoints.getVersionsetId(), Arrays.asList(
+                        scatterPlotPoints.getxAxisFeature(), scatterPlotPoints.getyAxisFeature(),
+                        scatterPlotPoints.getGroupByFeature()));
+        if (columns == null) {
+            return points;
+        }
+        SamplePointsCodec.Column xColumn = columns.get(scatterPlotPoints.getxAxisFeature());
+        SamplePointsCodec.Column yColumn = columns.get(scatterPlotPoints.getyAxisFeature());
+        SamplePointsCodec.Column groupByColumn = columns.get(scatterPlotPoints.getGroupByFeature());
+        if (xColumn == null || yColumn == null || groupByColumn == null) {
+            throw new DatabaseHandlerException(String.format(
+                    "Features %s, %s and %s are not all features of version set Id: %s",
+                    scatterPlotPoints.getxAxisFeature(), scatterPlotPoints.getyAxisFeature(),
+                    scatterPlotPoints.getGroupByFeature(), scatterPlotPoints.getVersionsetId()));
+        }
 
         // Converts the sample to a JSON array.
-        List<List<String>> columnData = sample.getSamplePoints();
-        Map<String, Integer> dataHeaders = sample.getHeader();
-        
-        int firstFeatureColumn = dataHeaders.get(scatterPlotPoints.getxAxisFeature());
-        int secondFeatureColumn = dataHeaders.get(scatterPlotPoints.getyAxisFeature());
-        int thirdFeatureColumn = dataHeaders.get(scatterPlotPoints.getGroupByFeature());
-        for (int row = 0; row < columnData.get(thirdFeatureColumn).size(); row++) {
-            if (columnData.get(firstFeatureColumn).get(row) != null
-                    && columnData.get(secondFeatureColumn).get(row) != null
-                    && columnData.get(thirdFeatureColumn).get(row) != null
-                    && !columnData.get(firstFeatureColumn).get(row).isEmpty()
-                    && !columnData.get(secondFeatureColumn).get(row).isEmpty()
-                    && !columnData.get(thirdFeatureColumn).get(row).isEmpty()) {
-                Map<Double, Object> map1 = new HashMap<Double, Object>();
-                Map<Double, Object> map2 = new HashMap<Double, Object>();
-                String val1 = columnData.get(secondFeatureColumn).get(row);
-                String val2 = columnData.get(firstFeatureColumn).get(row);
-                if (NumberUtils.isNumber(val1) && NumberUtils.isNumber(val2)) {
-                    map2.put(Double.parseDouble(val1), columnData.get(thirdFeatureColumn).get(row));
-                    map1.put(Double.parseDouble(val2), map2);
-                    points.add(map1);
-                }
+        for (int row = 0; row < groupByColumn.size(); row++) {
+            String groupBy = groupByColumn.getString(row);
+            if (groupBy == null || groupBy.isEmpty()) {
+                continue;
+            }
+            Double x = getNumber(xColumn, row);
+            Double y = getNumber(yColumn, row);
+            if (x != null && y != null) {
+                Map<Double, Object> map1 = new HashMap<Double, Object>(2);
+                Map<Double, Object> map2 = new HashMap<Double, Object>(2);
+                map2.put(y, groupBy);
+                map1.put(x, map2);
+                points.add(map1);
             }
         }
 
         return points;
     }
 
+    /**
+     * Numeric value of a row of a sample column, null if the value is not a number.
+     */
+    private static Double getNumber(SamplePointsCodec.Column column, int row) {
+        if (column.isNumber(row)) {
+            return column.getDouble(row);
+        }
+        String value = column.getString(row);
+        if (value != null && !value.isEmpty() && NumberUtils.isNumber(value)) {
+            return Double.parseDouble(value);
+        }
+        return null;
+    }
+
     /**
      * Returns sample data for selected features
      *
@@ -896,17 +1004,6 @@ public class MLDatabaseService implements DatabaseService {
     public List<Object> getChartSamplePoints(int tenantId, String user, long versionsetId, String featureListString) throws DatabaseHandlerException {
 
         List<Object> points = new ArrayList<Object>();
-        
-        // Get the sample from the database.
-        SamplePoints sample = getVersionsetSample(tenantId, user, versionsetId);
-
-        if (sample == null) {
-            return points;
-        }
-        // Converts the sample to a JSON array.
-        List<List<String>> columnData = sample.getSamplePoints();
-        Map<String, Integer> dataHeaders = sample.getHeader();
-        
         if (featureListString == null || featureListString.isEmpty()) {
             return points;
         }
@@ -914,31 +1011,74 @@ public class MLDatabaseService implements DatabaseService {
         // split categoricalFeatureListString String into a String array
         String[] featureList = featureListString.split(",");
 
+        // Get the columns of the selected features only.
+        Map<String, SamplePointsCodec.Column> columns = getVersionsetSampleColumns(tenantId, user, versionsetId,
+                Arrays.asList(featureList));
+        if (columns == null) {
+            return points;
+        }
+
         // Check whether features exists
-        for (String feature: featureList) {
-            if (!dataHeaders.containsKey(feature)) {
+        SamplePointsCodec.Column[] featureColumns = new SamplePointsCodec.Column[featureList.length];
+        for (int i = 0; i < featureList.length; i++) {
+            featureColumns[i] = columns.get(featureList[i]);
+            if (featureColumns[i] == null) {
                 throw new DatabaseHandlerException(String.format("%s is not a feature of version set Id: %s",
-                        feature, versionsetId));
+                        featureList[i], versionsetId));
             }
         }
 
         // for each row in a selected categorical feature, iterate through all features
-        for (int row = 0; row < columnData.get(dataHeaders.get(featureList[0])).size(); row++) {
+        for (int row = 0; row < featureColumns[0].size(); row++) {
+
+            Map<String, Object> data = new HashMap<String, Object>(featureList.length * 2);
 
-            Map<String, Object> data = new HashMap<String, Object>();
-            
             // for each categorical feature in same row put value into a point(JSONObject)
             // {"Soil_Type1":"0","Soil_Type11":"0","Soil_Type10":"0","Cover_Type":"4"}
             for (int featureCount = 0; featureCount < featureList.length; featureCount++) {
-                data.put(featureList[featureCount], columnData.get(dataHeaders.get(featureList[featureCount]))
-                        .get(row));
+                data.put(featureList[featureCount], featureColumns[featureCount].getString(row));
             }
-            
+
             points.add(data);
         }
         return points;
     }
 
+    /**
+     * Retrieve the sample columns of the given features of a dataset version, without decoding the other columns.
+     *
+     * @return Map of feature name and sample column, null if the sample has not been stored yet
+     * @throws DatabaseHandlerException
+     */
+    private Map<String, SamplePointsCodec.Column> getVersionsetSampleColumns(int tenantId, String user,
+            long versionsetId, Collection<String> features) throws DatabaseHandlerException {
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet result = null;
+        try {
+            connection = dbh.getDataSource().getConnection();
+            statement = connection.prepareStatement(SQLQueries.GET_SAMPLE_POINTS);
+            statement.setLong(1, versionsetId);
+            statement.setInt(2, tenantId);
+            statement.setString(3, user);
+            result = statement.executeQuery();
+            if (result.first()) {
+                InputStream data = result.getBinaryStream(1);
+                if (data != null) {
+                    return SamplePointsCodec.decodeColumns(data, features);
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            throw new DatabaseHandlerException("An error occurred while retrieving the sample of dataset version "
+                    + versionsetId + ": " + e.getMessage(), e);
+        } finally {
+            // Close the database resources.
+            MLDatabaseUtils.closeDatabaseResources(connection, statement, result);
+        }
+    }
+
     /**
      * Retrieve the SamplePoints object for a given value-set.
      *
@@ -995,17 +1135,15 @@ public class MLDatabaseService implements DatabaseService {
         PreparedStatement getFeatues = null;
         ResultSet result = null;
 
-        long datasetSchemaId = getDatasetSchemaIdFromAnalysisId(analysisId);
-        
         try {
             // Create a prepared statement and retrieve data-set configurations.
             connection = dbh.getDataSource().getConnection();
             connection.setAutoCommit(true);
             getFeatues = connection.prepareStatement(SQLQueries.GET_FEATURES);
             getFeatues.setLong(1, analysisId);
-            getFeatues.setInt(2, tenantId);
-            getFeatues.setString(3, userName);
-            getFeatues.setLong(4, datasetSchemaId);
+            getFeatues.setLong(2, analysisId);
+            getFeatues.setInt(3, tenantId);
+            getFeatues.setString(4, userName);
             getFeatues.setInt(5, numberOfFeatures);
             getFeatues.setInt(6, startIndex);
             result = getFeatues.executeQuery();
@@ -1379,6 +1517,11 @@ public class MLDatabaseService implements DatabaseService {
         }
     }
 
+    @Override
+    public Map<String, FeatureStatistics> getFeatureStatistics(long datasetVersionId) throws DatabaseHandlerException {
+        return Collections.unmodifiableMap(MLDBUtil.getFeatureStatistics(getSummaryStats(datasetVersionId)));
+    }
+
     /**
      * Retrieve and returns summary statistics for a given feature of a given dataset
      *
@@ -1533,6 +1676,12 @@ public class MLDatabaseService implements DatabaseService {
 
     @Override
     public List<MLProject> getAllProjects(int tenantId, String userName) throws DatabaseHandlerException {
+        return getAllProjects(tenantId, userName, 0, 0);
+    }
+
+    @Override
+    public List<MLProject> getAllProjects(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
 
         Connection connection = null;
         ResultSet result = null;
@@ -1540,7 +1689,13 @@ public class MLDatabaseService implements DatabaseService {
         List<MLProject> projects = new ArrayList<MLProject>();
         try {
             connection = dbh.getDataSource().getConnection();
-            statement = connection.prepareStatement(SQLQueries.GET_ALL_PROJECTS);
+            if (limit > 0) {
+                statement = connection.prepareStatement(SQLQueries.GET_PROJECTS_PAGED);
+                statement.setInt(3, limit);
+                statement.setInt(4, Math.max(offset, 0));
+            } else {
+                statement = connection.prepareStatement(SQLQueries.GET_ALL_PROJECTS);
+            }
             statement.setInt(1, tenantId);
             statement.setString(2, userName);
             result = statement.executeQuery();
@@ -1718,6 +1873,12 @@ public class MLDatabaseService implements DatabaseService {
 
     @Override
     public List<MLAnalysis> getAllAnalyses(int tenantId, String userName) throws DatabaseHandlerException {
+        return getAllAnalyses(tenantId, userName, 0, 0);
+    }
+
+    @Override
+    public List<MLAnalysis> getAllAnalyses(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
 
         Connection connection = null;
         ResultSet result = null;
@@ -1725,7 +1886,13 @@ public class MLDatabaseService implements DatabaseService {
         List<MLAnalysis> analyses = new ArrayList<MLAnalysis>();
         try {
             connection = dbh.getDataSource().getConnection();
-            statement = connection.prepareStatement(SQLQueries.GET_ALL_ANALYSES);
+            if (limit > 0) {
+                statement = connection.prepareStatement(SQLQueries.GET_ANALYSES_PAGED);
+                statement.setInt(3, limit);
+                statement.setInt(4, Math.max(offset, 0));
+            } else {
+                statement = connection.prepareStatement(SQLQueries.GET_ALL_ANALYSES);
+            }
             statement.setInt(1, tenantId);
             statement.setString(2, userName);
             result = statement.executeQuery();
@@ -1900,6 +2067,18 @@ public class MLDatabaseService implements DatabaseService {
 
     @Override
     public List<MLModelData> getAllModels(int tenantId, String userName) throws DatabaseHandlerException {
+        return getAllModels(tenantId, userName, 0, 0);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName, int limit, int offset)
+            throws DatabaseHandlerException {
+        return getAllModels(tenantId, userName, null, limit, offset);
+    }
+
+    @Override
+    public List<MLModelData> getAllModels(int tenantId, String userName, String status, int limit, int offset)
+            throws DatabaseHandlerException {
 
         Connection connection = null;
         ResultSet result = null;
@@ -1907,7 +2086,20 @@ public class MLDatabaseService implements DatabaseService {
         List<MLModelData> models = new ArrayList<MLModelData>();
         try {
             connection = dbh.getDataSource().getConnection();
-            statement = connection.prepareStatement(SQLQueries.GET_ALL_ML_MODELS);
+            // the status is filtered before the page is taken
+            int index = 3;
+            if (status != null) {
+                statement = connection.prepareStatement(limit > 0 ? SQLQueries.GET_ML_MODELS_WITH_STATUS_PAGED
+                        : SQLQueries.GET_ML_MODELS_WITH_STATUS);
+                statement.setString(index++, status);
+            } else {
+                statement = connection.prepareStatement(limit > 0 ? SQLQueries.GET_ML_MODELS_PAGED
+                        : SQLQueries.GET_ALL_ML_MODELS);
+            }
+            if (limit > 0) {
+                statement.setInt(index++, limit);
+                statement.setInt(index, Math.max(offset, 0));
+            }
             statement.setInt(1, tenantId);
             statement.setString(2, userName);
             result = statement.executeQuery();
@@ -2020,33 +2212,44 @@ public class MLDatabaseService implements DatabaseService {
 
         Connection connection = null;
         PreparedStatement insertStatement = null;
+        PreparedStatement updateStatement = null;
         PreparedStatement searchStatement = null;
-        ResultSet result;
+        ResultSet result = null;
         try {
             // Insert the model configuration to the database.
             connection = dbh.getDataSource().getConnection();
             connection.setAutoCommit(false);
 
+            // Find the existing configurations with one query, instead of one per configuration.
+            Set<String> existingKeys = new HashSet<String>();
+            searchStatement = connection.prepareStatement(SQLQueries.GET_MODEL_CONFIGURATION_KEYS);
+            searchStatement.setLong(1, analysisId);
+            result = searchStatement.executeQuery();
+            while (result.next()) {
+                existingKeys.add(result.getString(1));
+            }
+
+            insertStatement = connection.prepareStatement(SQLQueries.INSERT_MODEL_CONFIGURATION);
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_MODEL_CONFIGURATION);
             for (MLModelConfiguration mlModelConfiguration : modelConfigs) {
                 String key = mlModelConfiguration.getKey();
                 String value = mlModelConfiguration.getValue();
-                searchStatement = connection.prepareStatement(SQLQueries.GET_A_MODEL_CONFIGURATION);
-                searchStatement.setLong(1, analysisId);
-                searchStatement.setString(2, key);
-                result = searchStatement.executeQuery();
-                if (result.first()) {
-                    insertStatement = connection.prepareStatement(SQLQueries.UPDATE_MODEL_CONFIGURATION);
-                    insertStatement.setString(1, value);
-                    insertStatement.setLong(2, analysisId);
-                    insertStatement.setString(3, key);
+                if (existingKeys.contains(key)) {
+                    updateStatement.setString(1, value);
+                    updateStatement.setLong(2, analysisId);
+                    updateStatement.setString(3, key);
+                    updateStatement.addBatch();
                 } else {
-                    insertStatement = connection.prepareStatement(SQLQueries.INSERT_MODEL_CONFIGURATION);
                     insertStatement.setLong(1, analysisId);
                     insertStatement.setString(2, key);
                     insertStatement.setString(3, value);
+                    insertStatement.addBatch();
+                    existingKeys.add(key);
                 }
-                insertStatement.execute();
             }
+            // Inserts go first, so that a repeated key is updated after it is inserted.
+            insertStatement.executeBatch();
+            updateStatement.executeBatch();
             connection.commit();
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully inserted the model configuration");
@@ -2060,8 +2263,9 @@ public class MLDatabaseService implements DatabaseService {
             // Enable auto commit.
             MLDatabaseUtils.enableAutoCommit(connection);
             // Close the database resources.
-            MLDatabaseUtils.closeDatabaseResources(connection, searchStatement);
-            MLDatabaseUtils.closeDatabaseResources(connection, insertStatement);
+            MLDatabaseUtils.closeDatabaseResources(searchStatement, result);
+            MLDatabaseUtils.closeDatabaseResources(insertStatement);
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
         }
     }
 
@@ -2071,6 +2275,7 @@ public class MLDatabaseService implements DatabaseService {
 
         Connection connection = null;
         PreparedStatement insertStatement = null;
+        PreparedStatement updateStatement = null;
         PreparedStatement getStatement = null;
         PreparedStatement deleteStatement = null;
         ResultSet result = null;
@@ -2090,34 +2295,42 @@ public class MLDatabaseService implements DatabaseService {
                 deleteStatement.setString(2, algorithmName);
                 deleteStatement.execute();
             }
+            MLDatabaseUtils.closeDatabaseResources(getStatement, result);
+
+            // Find the existing hyper parameters of the algorithm with one query, instead of one per parameter.
+            Set<String> existingNames = new HashSet<String>();
+            getStatement = connection.prepareStatement(SQLQueries.GET_HYPER_PARAMETERS_OF_ANALYSIS_WITH_ALGORITHM);
+            getStatement.setLong(1, analysisId);
+            getStatement.setString(2, algorithmName);
+            result = getStatement.executeQuery();
+            while (result.next()) {
+                existingNames.add(result.getString(1));
+            }
 
+            insertStatement = connection.prepareStatement(SQLQueries.INSERT_HYPER_PARAMETER);
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_HYPER_PARAMETER);
             for (MLHyperParameter mlHyperParameter : hyperParameters) {
                 String name = mlHyperParameter.getKey();
                 String value = mlHyperParameter.getValue();
-                getStatement = connection.prepareStatement(SQLQueries.GET_EXISTING_HYPER_PARAMETER);
-                getStatement.setLong(1, analysisId);
-                getStatement.setString(2, name);
-                getStatement.setString(3, algorithmName);
-
-                result = getStatement.executeQuery();
-                if (result.first()) {
-                    insertStatement = connection.prepareStatement(SQLQueries.UPDATE_HYPER_PARAMETER);
-                    insertStatement.setString(1, algorithmName);
-                    insertStatement.setString(2, value);
-                    insertStatement.setLong(3, analysisId);
-                    insertStatement.setString(4, name);
-                    insertStatement.setString(5, algorithmName);
-
+                if (existingNames.contains(name)) {
+                    updateStatement.setString(1, algorithmName);
+                    updateStatement.setString(2, value);
+                    updateStatement.setLong(3, analysisId);
+                    updateStatement.setString(4, name);
+                    updateStatement.setString(5, algorithmName);
+                    updateStatement.addBatch();
                 } else {
-                    insertStatement = connection.prepareStatement(SQLQueries.INSERT_HYPER_PARAMETER);
                     insertStatement.setLong(1, analysisId);
                     insertStatement.setString(2, algorithmName);
                     insertStatement.setString(3, name);
                     insertStatement.setString(4, value);
+                    insertStatement.addBatch();
+                    existingNames.add(name);
                 }
-                insertStatement.execute();
             }
-
+            // Inserts go first, so that a repeated parameter is updated after it is inserted.
+            insertStatement.executeBatch();
+            updateStatement.executeBatch();
 
             connection.commit();
             if (logger.isDebugEnabled()) {
@@ -2132,9 +2345,10 @@ public class MLDatabaseService implements DatabaseService {
             // Enable auto commit.
             MLDatabaseUtils.enableAutoCommit(connection);
             // Close the database resources.
-            MLDatabaseUtils.closeDatabaseResources(getStatement);
+            MLDatabaseUtils.closeDatabaseResources(getStatement, result);
             MLDatabaseUtils.closeDatabaseResources(deleteStatement);
-            MLDatabaseUtils.closeDatabaseResources(connection, insertStatement);
+            MLDatabaseUtils.closeDatabaseResources(insertStatement);
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
         }
     }
 
@@ -2311,6 +2525,7 @@ public class MLDatabaseService implements DatabaseService {
             // Insert the feature-customized to the database
             connection = dbh.getDataSource().getConnection();
             connection.setAutoCommit(false);
+            insertStatement = connection.prepareStatement(SQLQueries.UPDATE_FEATURE_CUSTOMIZED);
             for (MLCustomizedFeature mlCustomizedFeature : customizedFeatures) {
                 String featureName = mlCustomizedFeature.getName();
                 String type = mlCustomizedFeature.getType();
@@ -2318,7 +2533,6 @@ public class MLDatabaseService implements DatabaseService {
                 boolean inclusion = mlCustomizedFeature.isInclude();
                 String lastModifiedUser = userName;
 
-                insertStatement = connection.prepareStatement(SQLQueries.UPDATE_FEATURE_CUSTOMIZED);
                 insertStatement.setString(1, type);
                 insertStatement.setString(2, imputeOption);
                 insertStatement.setBoolean(3, inclusion);
@@ -2326,8 +2540,9 @@ public class MLDatabaseService implements DatabaseService {
                 insertStatement.setString(5, userName);
                 insertStatement.setLong(6, analysisId);
                 insertStatement.setString(7, featureName);
-                insertStatement.execute();
+                insertStatement.addBatch();
             }
+            insertStatement.executeBatch();
             connection.commit();
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully inserted the feature-customized");
@@ -2351,48 +2566,52 @@ public class MLDatabaseService implements DatabaseService {
             throws DatabaseHandlerException {
 
         int count = getFeatureCount(datasetSchemaId);
-        
+
         Connection connection = null;
-        PreparedStatement insertFeatureDefaults = null, getFeatureIdStmt = null, insertFeatureSummary = null;
-        ResultSet result;
+        PreparedStatement insertFeatureDefaults = null, getFeatureIdsStmt = null, insertFeatureSummary = null;
+        ResultSet result = null;
         try {
-            JSONArray summaryStatJson;
             connection = dbh.getDataSource().getConnection();
             connection.setAutoCommit(false);
-            int columnIndex;
-            for (Map.Entry<String, Integer> columnNameMapping : summaryStats.getHeaderMap().entrySet()) {
-                columnIndex = columnNameMapping.getValue();
-                // Get the JSON representation of the column summary.
-                summaryStatJson = createJson(summaryStats.getType()[columnIndex], summaryStats.getGraphFrequencies()
-                        .get(columnIndex), summaryStats.getMissing()[columnIndex],
-                        summaryStats.getUnique()[columnIndex], summaryStats.getDescriptiveStats().get(columnIndex));
-
-                if (count == 0) {
-                    insertFeatureDefaults = connection.prepareStatement(SQLQueries.INSERT_FEATURE_DEFAULTS);
+            Map<String, Integer> headerMap = summaryStats.getHeaderMap();
+            // Insert the feature defaults of a new dataset schema in a single batch.
+            if (count == 0) {
+                insertFeatureDefaults = connection.prepareStatement(SQLQueries.INSERT_FEATURE_DEFAULTS);
+                for (Map.Entry<String, Integer> columnNameMapping : headerMap.entrySet()) {
+                    int columnIndex = columnNameMapping.getValue();
                     insertFeatureDefaults.setLong(1, datasetSchemaId);
                     insertFeatureDefaults.setString(2, columnNameMapping.getKey());
                     insertFeatureDefaults.setString(3, summaryStats.getType()[columnIndex]);
                     insertFeatureDefaults.setInt(4, columnIndex);
-                    insertFeatureDefaults.execute();
+                    insertFeatureDefaults.addBatch();
                 }
+                insertFeatureDefaults.executeBatch();
+            }
 
-                // Get feature id
-                getFeatureIdStmt = connection.prepareStatement(SQLQueries.GET_FEATURE_ID);
-                getFeatureIdStmt.setLong(1, datasetSchemaId);
-                getFeatureIdStmt.setString(2, columnNameMapping.getKey());
-                result = getFeatureIdStmt.executeQuery();
-                long featureId = -1;
-                if(result.first()) {
-                   featureId  = result.getLong(1);
-                }
+            // Get the ids of all the features of the schema with one query.
+            Map<String, Long> featureIds = new HashMap<String, Long>();
+            getFeatureIdsStmt = connection.prepareStatement(SQLQueries.GET_FEATURE_IDS);
+            getFeatureIdsStmt.setLong(1, datasetSchemaId);
+            result = getFeatureIdsStmt.executeQuery();
+            while (result.next()) {
+                featureIds.put(result.getString(1), result.getLong(2));
+            }
 
-                insertFeatureSummary = connection.prepareStatement(SQLQueries.INSERT_FEATURE_SUMMARY);
-                insertFeatureSummary.setLong(1, featureId);
+            insertFeatureSummary = connection.prepareStatement(SQLQueries.INSERT_FEATURE_SUMMARY);
+            for (Map.Entry<String, Integer> columnNameMapping : headerMap.entrySet()) {
+                int columnIndex = columnNameMapping.getValue();
+                // Get the JSON representation of the column summary.
+                JSONArray summaryStatJson = createJson(summaryStats.getType()[columnIndex], summaryStats
+                        .getGraphFrequencies().get(columnIndex), summaryStats.getMissing()[columnIndex],
+                        summaryStats.getUnique()[columnIndex], summaryStats.getColumnStats().get(columnIndex));
+                Long featureId = featureIds.get(columnNameMapping.getKey());
+                insertFeatureSummary.setLong(1, featureId == null ? -1 : featureId);
                 insertFeatureSummary.setString(2, columnNameMapping.getKey());
                 insertFeatureSummary.setLong(3, datasetVersionId);
                 insertFeatureSummary.setString(4, summaryStatJson.toString());
-                insertFeatureSummary.execute();
+                insertFeatureSummary.addBatch();
             }
+            insertFeatureSummary.executeBatch();
             connection.commit();
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the summary statistics for dataset version " + datasetVersionId);
@@ -2406,8 +2625,8 @@ public class MLDatabaseService implements DatabaseService {
             // Enable auto commit.
             MLDatabaseUtils.enableAutoCommit(connection);
             // Close the database resources.
-            MLDatabaseUtils.closeDatabaseResources(connection, insertFeatureDefaults);
-            MLDatabaseUtils.closeDatabaseResources(connection, getFeatureIdStmt);
+            MLDatabaseUtils.closeDatabaseResources(insertFeatureDefaults);
+            MLDatabaseUtils.closeDatabaseResources(getFeatureIdsStmt, result);
             MLDatabaseUtils.closeDatabaseResources(connection, insertFeatureSummary);
         }
     }
@@ -2419,11 +2638,11 @@ public class MLDatabaseService implements DatabaseService {
      * @param graphFrequencies Bin frequencies of the column
      * @param missing Number of missing values in the column
      * @param unique Number of unique values in the column
-     * @param descriptiveStats DescriptiveStats object of the column
+     * @param columnStats Statistics of the column
      * @return JSON representation of the summary statistics of the column
      */
     private JSONArray createJson(String type, SortedMap<?, Integer> graphFrequencies, int missing, int unique,
-            DescriptiveStatistics descriptiveStats) throws JSONException {
+            ColumnStatistics columnStats) throws JSONException {
 
         JSONObject json = new JSONObject();
         JSONArray freqs = new JSONArray();
@@ -2440,14 +2659,14 @@ public class MLDatabaseService implements DatabaseService {
         json.put("missing", missing);
 
         DecimalFormat decimalFormat = new DecimalFormat("#.###");
-        if (descriptiveStats.getN() != 0) {
-            json.put("mean", decimalFormat.format(descriptiveStats.getMean()));
-            json.put("min", decimalFormat.format(descriptiveStats.getMin()));
-            json.put("max", decimalFormat.format(descriptiveStats.getMax()));
-            json.put("median", decimalFormat.format(descriptiveStats.getPercentile(50)));
-            json.put("std", decimalFormat.format(descriptiveStats.getStandardDeviation()));
+        if (columnStats.isNumeric()) {
+            json.put("mean", decimalFormat.format(columnStats.getMean()));
+            json.put("min", decimalFormat.format(columnStats.getMin()));
+            json.put("max", decimalFormat.format(columnStats.getMax()));
+            json.put("median", decimalFormat.format(columnStats.getPercentile(50)));
+            json.put("std", decimalFormat.format(columnStats.getStandardDeviation()));
             if (type.equalsIgnoreCase(FeatureType.NUMERICAL)) {
-                json.put("skewness", decimalFormat.format(descriptiveStats.getSkewness()));
+                json.put("skewness", decimalFormat.format(columnStats.getSkewness()));
             }
         }
         json.put("values", freqs);
@@ -2510,22 +2729,8 @@ public class MLDatabaseService implements DatabaseService {
             mlWorkflow.setFeatures(mlFeatures);
 
             
-            // set model configs
-            mlWorkflow.setAlgorithmName(getAStringModelConfiguration(analysisId, MLConstants.ALGORITHM_NAME));
-            mlWorkflow.setAlgorithmClass(getAStringModelConfiguration(analysisId, MLConstants.ALGORITHM_TYPE));
-            mlWorkflow.setResponseVariable(getAStringModelConfiguration(analysisId, MLConstants.RESPONSE_VARIABLE));
-            mlWorkflow.setUserVariable(getAStringModelConfiguration(analysisId, MLConstants.USER_VARIABLE));
-            mlWorkflow.setProductVariable(getAStringModelConfiguration(analysisId, MLConstants.PRODUCT_VARIABLE));
-            mlWorkflow.setRatingVariable(getAStringModelConfiguration(analysisId, MLConstants.RATING_VARIABLE));
-            mlWorkflow.setObservations(getAStringModelConfiguration(analysisId, MLConstants.OBSERVATIONS));
-            mlWorkflow.setTrainDataFraction(Double.valueOf(getAStringModelConfiguration(analysisId, MLConstants.TRAIN_DATA_FRACTION)));
-            mlWorkflow.setNormalLabels(getAStringModelConfiguration(analysisId, MLConstants.NORMAL_LABELS));
-            mlWorkflow.setNormalization(getABooleanModelConfiguration(analysisId, MLConstants.NORMALIZATION));
-            mlWorkflow.setNewNormalLabel(getAStringModelConfiguration(analysisId, MLConstants.NEW_NORMAL_LABEL));
-            mlWorkflow.setNewAnomalyLabel(getAStringModelConfiguration(analysisId, MLConstants.NEW_ANOMALY_LABEL));
-
-            // set hyper parameters of all models with their algorithm names
-            mlWorkflow.setAllHyperParameters(getHyperParametersOfModelWithNameAsMap(analysisId));
+            // set model configs and hyper parameters of all models with their algorithm names
+            setModelBuildSettings(connection, mlWorkflow);
             //mlWorkflow.setHyperParameters(getHyperParametersOfModelAsMap(analysisId));
             // result = getStatement.executeQuery();
             // if (result.first()) {
@@ -2548,6 +2753,155 @@ public class MLDatabaseService implements DatabaseService {
         }
     }
 
+    @Override
+    public ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId)
+            throws DatabaseHandlerException {
+        return getModelBuildSnapshot(tenantId, userName, modelId, false);
+    }
+
+    @Override
+    public ModelBuildSnapshot getModelBuildSnapshot(int tenantId, String userName, long modelId, boolean columnar)
+            throws DatabaseHandlerException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet result = null;
+        try {
+            connection = dbh.getDataSource().getConnection();
+            // read everything in one transaction, so that the model, its analysis and dataset version are consistent
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(SQLQueries.GET_MODEL_BUILD_DETAILS);
+            statement.setLong(1, modelId);
+            statement.setInt(2, tenantId);
+            statement.setString(3, userName);
+            result = statement.executeQuery();
+            if (!result.next()) {
+                connection.commit();
+                return null;
+            }
+            MLModelData model = new MLModelData();
+            model.setId(modelId);
+            model.setName(result.getString(1));
+            model.setAnalysisId(result.getLong(2));
+            model.setVersionSetId(result.getLong(3));
+            model.setCreatedTime(result.getString(4));
+            model.setStorageType(result.getString(5));
+            model.setStorageDirectory(result.getString(6));
+            model.setTenantId(tenantId);
+            model.setUserName(userName);
+            model.setStatus(result.getString(7));
+            ModelBuildSnapshot.Builder snapshot = new ModelBuildSnapshot.Builder().model(model)
+                    .datasetVersionName(result.getString(8)).datasetVersionUri(result.getString(9))
+                    .datasetId(result.getLong(10)).dataSourceType(result.getString(11))
+                    .dataType(result.getString(12));
+            Workflow workflow = new Workflow();
+            workflow.setWorkflowID(model.getAnalysisId());
+            workflow.setDatasetVersion(result.getString(8));
+            workflow.setDatasetURL(result.getString(9));
+            MLDatabaseUtils.closeDatabaseResources(statement, result);
+
+            // the columnar copy is looked up only when it is in use, databases created before it lack the column
+            if (columnar) {
+                statement = connection.prepareStatement(SQLQueries.GET_DATASET_VERSION_COLUMNAR_LOCATION);
+                statement.setLong(1, model.getVersionSetId());
+                result = statement.executeQuery();
+                if (result.next()) {
+                    snapshot.datasetVersionColumnarUri(result.getString(1));
+                }
+                MLDatabaseUtils.closeDatabaseResources(statement, result);
+            }
+
+            // features of the dataset in order, with their customizations and summary statistics
+            List<String> featureNames = new ArrayList<String>();
+            List<Feature> features = new ArrayList<Feature>();
+            Map<String, String> summaryStats = new HashMap<String, String>();
+            statement = connection.prepareStatement(SQLQueries.GET_MODEL_BUILD_FEATURES);
+            statement.setLong(1, modelId);
+            result = statement.executeQuery();
+            while (result.next()) {
+                String featureName = result.getString(1);
+                featureNames.add(featureName);
+                // check whether to include the feature or not
+                if (result.getBoolean(5)) {
+                    Feature feature = new Feature();
+                    feature.setName(featureName);
+                    feature.setIndex(result.getInt(2));
+                    feature.setType(result.getString(3));
+                    feature.setImputeOption(result.getString(4));
+                    feature.setInclude(true);
+                    features.add(feature);
+                }
+                String summary = result.getString(6);
+                if (summary != null) {
+                    summaryStats.put(featureName, summary);
+                }
+            }
+            workflow.setFeatures(features);
+            MLDatabaseUtils.closeDatabaseResources(statement, result);
+
+            setModelBuildSettings(connection, workflow);
+            connection.commit();
+            return snapshot.workflow(workflow).featureNames(featureNames)
+                    .featureStatistics(MLDBUtil.getFeatureStatistics(summaryStats)).build();
+        } catch (SQLException e) {
+            throw new DatabaseHandlerException("An error occurred while retrieving the build details of the model: "
+                    + modelId + ": " + e.getMessage(), e);
+        } finally {
+            // enable auto commit
+            MLDatabaseUtils.enableAutoCommit(connection);
+            // Close the database resources.
+            MLDatabaseUtils.closeDatabaseResources(connection, statement, result);
+        }
+    }
+
+    /**
+     * Set the model configurations of the analysis of a workflow, and the hyper-parameters of all its algorithms,
+     * read with a single query.
+     */
+    private void setModelBuildSettings(Connection connection, Workflow workflow) throws SQLException,
+            DatabaseHandlerException {
+        Map<String, String> configurations = new HashMap<String, String>();
+        Map<String, Map<String, String>> hyperParameters = new HashMap<String, Map<String, String>>();
+        PreparedStatement statement = null;
+        ResultSet result = null;
+        try {
+            statement = connection.prepareStatement(SQLQueries.GET_MODEL_BUILD_SETTINGS);
+            statement.setLong(1, workflow.getWorkflowID());
+            statement.setLong(2, workflow.getWorkflowID());
+            result = statement.executeQuery();
+            while (result.next()) {
+                String algorithmName = result.getString(1);
+                if (algorithmName == null) {
+                    configurations.put(result.getString(2), result.getString(3));
+                    continue;
+                }
+                Map<String, String> hyperParametersOfAlgorithm = hyperParameters.get(algorithmName);
+                if (hyperParametersOfAlgorithm == null) {
+                    hyperParametersOfAlgorithm = new HashMap<String, String>();
+                    hyperParameters.put(algorithmName, hyperParametersOfAlgorithm);
+                }
+                hyperParametersOfAlgorithm.put(result.getString(2), result.getString(3));
+            }
+        } finally {
+            MLDatabaseUtils.closeDatabaseResources(statement, result);
+        }
+        workflow.setAlgorithmName(configurations.get(MLConstants.ALGORITHM_NAME));
+        workflow.setAlgorithmClass(configurations.get(MLConstants.ALGORITHM_TYPE));
+        workflow.setResponseVariable(configurations.get(MLConstants.RESPONSE_VARIABLE));
+        workflow.setUserVariable(configurations.get(MLConstants.USER_VARIABLE));
+        workflow.setProductVariable(configurations.get(MLConstants.PRODUCT_VARIABLE));
+        workflow.setRatingVariable(configurations.get(MLConstants.RATING_VARIABLE));
+        workflow.setObservations(configurations.get(MLConstants.OBSERVATIONS));
+        String trainDataFraction = configurations.get(MLConstants.TRAIN_DATA_FRACTION);
+        if (trainDataFraction != null) {
+            workflow.setTrainDataFraction(Double.valueOf(trainDataFraction));
+        }
+        workflow.setNormalLabels(configurations.get(MLConstants.NORMAL_LABELS));
+        workflow.setNormalization(Boolean.parseBoolean(configurations.get(MLConstants.NORMALIZATION)));
+        workflow.setNewNormalLabel(configurations.get(MLConstants.NEW_NORMAL_LABEL));
+        workflow.setNewAnomalyLabel(configurations.get(MLConstants.NEW_ANOMALY_LABEL));
+        workflow.setAllHyperParameters(hyperParameters);
+    }
+
     @Override
     public String getAStringModelConfiguration(long analysisId, String configKey) throws DatabaseHandlerException {
         Connection connection = null;
@@ -2726,14 +3080,15 @@ public class MLDatabaseService implements DatabaseService {
             connection = dbh.getDataSource().getConnection();
             connection.setAutoCommit(false);
             updateStatement = connection.prepareStatement(SQLQueries.UPDATE_SAMPLE_POINTS);
-            updateStatement.setObject(1, samplePoints);
-            updateStatement.setLong(2, datasetVersionId);
+            updateStatement.setBytes(1, SamplePointsCodec.encode(samplePoints));
+            updateStatement.setString(2, MLDBUtil.getDatasetVersionStatus(samplePoints));
+            updateStatement.setLong(3, datasetVersionId);
             updateStatement.execute();
             connection.commit();
             if (logger.isDebugEnabled()) {
                 logger.debug("Successfully updated the sample points of dataset version: " + datasetVersionId);
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IOException e) {
             // Roll-back the changes.
             MLDatabaseUtils.rollBack(connection);
             throw new DatabaseHandlerException(
@@ -2746,6 +3101,38 @@ public class MLDatabaseService implements DatabaseService {
             MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
         }
     }
+
+    @Override
+    public void updateColumnarDataset(long datasetVersionId, String columnarUri, String columnarSchema)
+            throws DatabaseHandlerException {
+
+        Connection connection = null;
+        PreparedStatement updateStatement = null;
+        try {
+            connection = dbh.getDataSource().getConnection();
+            connection.setAutoCommit(false);
+            updateStatement = connection.prepareStatement(SQLQueries.UPDATE_COLUMNAR_DATASET);
+            updateStatement.setString(1, columnarUri);
+            updateStatement.setString(2, columnarSchema);
+            updateStatement.setLong(3, datasetVersionId);
+            updateStatement.execute();
+            connection.commit();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Successfully updated the columnar copy of dataset version: " + datasetVersionId);
+            }
+        } catch (SQLException e) {
+            // Roll-back the changes.
+            MLDatabaseUtils.rollBack(connection);
+            throw new DatabaseHandlerException(
+                    "An error occurred while updating the columnar copy of dataset version: " + datasetVersionId
+                            + ": " + e.getMessage(), e);
+        } finally {
+            // Enable auto commit.
+            MLDatabaseUtils.enableAutoCommit(connection);
+            // Close the database resources.
+            MLDatabaseUtils.closeDatabaseResources(connection, updateStatement);
+        }
+    }
     
     @Override
     public boolean isValidModelStatus(long modelId, int tenantId, String userName) throws DatabaseHandlerException {
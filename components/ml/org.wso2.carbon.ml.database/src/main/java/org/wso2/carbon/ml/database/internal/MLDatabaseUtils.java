@@ -22,6 +22,8 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.ml.commons.domain.config.HyperParameter;
+import org.wso2.carbon.ml.commons.domain.config.MLConfiguration;
+import org.wso2.carbon.ml.commons.domain.config.MLProperty;
 import org.wso2.carbon.ml.database.exceptions.DatabaseHandlerException;
 
 import java.io.Reader;
@@ -34,6 +36,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * This class contains utility methods for database resources.
@@ -170,6 +173,41 @@ public class MLDatabaseUtils {
         return map;
     }
 
+    /**
+     * Get the ML properties of a configuration.
+     * @param mlConfiguration {@link org.wso2.carbon.ml.commons.domain.config.MLConfiguration} object
+     * @return ML properties as a {@link java.util.Properties} object
+     */
+    public static Properties getProperties(MLConfiguration mlConfiguration) {
+        Properties properties = new Properties();
+        if (mlConfiguration.getProperties() != null) {
+            for (MLProperty property : mlConfiguration.getProperties()) {
+                properties.setProperty(property.getName(), property.getValue());
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Get a numeric ML property.
+     * @param properties ML properties
+     * @param name name of the property
+     * @param defaultValue value to be used if the property is not set or invalid
+     * @return value of the property
+     */
+    public static long getLongProperty(Properties properties, String name, long defaultValue) {
+        String value = properties.getProperty(name);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn(String.format("Invalid value %s for the property %s. Using the default value %s.", value,
+                        name, defaultValue));
+            }
+        }
+        return defaultValue;
+    }
+
     /**
      * Get String from Clob
      * @param clob {@link java.sql.Clob} object
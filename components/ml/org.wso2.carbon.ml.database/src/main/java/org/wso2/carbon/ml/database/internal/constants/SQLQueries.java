@@ -28,12 +28,37 @@ public class SQLQueries {
     
     public static final String GET_ALL_VERSIONSETS_OF_DATASET = "SELECT DATASET_VERSION_ID, NAME, VERSION, URI, " +
         "SAMPLE_POINTS FROM ML_DATASET_VERSION  WHERE DATASET_SCHEMA_ID = ? AND TENANT_ID = ? AND USERNAME = ?";
+
+    public static final String GET_VERSIONSETS_OF_DATASET_PAGED = "SELECT DATASET_VERSION_ID, NAME, VERSION, URI, " +
+        "SAMPLE_POINTS FROM ML_DATASET_VERSION WHERE DATASET_SCHEMA_ID = ? AND TENANT_ID = ? AND USERNAME = ? " +
+        "ORDER BY DATASET_VERSION_ID LIMIT ? OFFSET ?";
     
     public static final String GET_VERSIONSET_USING_ID = "SELECT DATASET_VERSION_ID, NAME, URI, SAMPLE_POINTS FROM " +
         "ML_DATASET_VERSION WHERE DATASET_VERSION_ID = ? AND TENANT_ID = ? AND USERNAME = ?";
     
     public static final String GET_ALL_DATASETS = "SELECT DATASET_SCHEMA_ID, NAME, COMMENTS, SOURCE_TYPE, TARGET_TYPE" +
         ", DATA_TYPE FROM ML_DATASET_SCHEMA WHERE TENANT_ID = ? AND USERNAME = ?";
+
+    public static final String GET_DATASETS_PAGED = "SELECT DATASET_SCHEMA_ID, NAME, COMMENTS, SOURCE_TYPE, " +
+        "TARGET_TYPE, DATA_TYPE FROM ML_DATASET_SCHEMA WHERE TENANT_ID = ? AND USERNAME = ? " +
+        "ORDER BY DATASET_SCHEMA_ID LIMIT ? OFFSET ?";
+
+    // status of a dataset derived from the stored statuses of its versions, the same as MLDBUtil.getDatasetStatus
+    private static final String DATASET_STATUS = "CASE WHEN EXISTS (SELECT 1 FROM ML_DATASET_VERSION V WHERE " +
+        "V.DATASET_SCHEMA_ID = S.DATASET_SCHEMA_ID AND V.TENANT_ID = S.TENANT_ID AND V.USERNAME = S.USERNAME AND " +
+        "V.STATUS = 'Processing') THEN 'Busy' WHEN EXISTS (SELECT 1 FROM ML_DATASET_VERSION V WHERE " +
+        "V.DATASET_SCHEMA_ID = S.DATASET_SCHEMA_ID AND V.TENANT_ID = S.TENANT_ID AND V.USERNAME = S.USERNAME AND " +
+        "V.STATUS <> 'Failed') THEN 'Available' WHEN EXISTS (SELECT 1 FROM ML_DATASET_VERSION V WHERE " +
+        "V.DATASET_SCHEMA_ID = S.DATASET_SCHEMA_ID AND V.TENANT_ID = S.TENANT_ID AND V.USERNAME = S.USERNAME) " +
+        "THEN 'Failed' END";
+
+    public static final String GET_DATASETS_WITH_STATUS = "SELECT DATASET_SCHEMA_ID, NAME, COMMENTS, SOURCE_TYPE, " +
+        "TARGET_TYPE, DATA_TYPE FROM ML_DATASET_SCHEMA S WHERE TENANT_ID = ? AND USERNAME = ? AND " +
+        DATASET_STATUS + " = ?";
+
+    public static final String GET_DATASETS_WITH_STATUS_PAGED = "SELECT DATASET_SCHEMA_ID, NAME, COMMENTS, " +
+        "SOURCE_TYPE, TARGET_TYPE, DATA_TYPE FROM ML_DATASET_SCHEMA S WHERE TENANT_ID = ? AND USERNAME = ? AND " +
+        DATASET_STATUS + " = ? ORDER BY DATASET_SCHEMA_ID LIMIT ? OFFSET ?";
     
     public static final String GET_DATASET_USING_ID = "SELECT DATASET_SCHEMA_ID, NAME, COMMENTS, SOURCE_TYPE, " +
         "TARGET_TYPE, DATA_TYPE FROM ML_DATASET_SCHEMA WHERE TENANT_ID = ? AND USERNAME = ? AND DATASET_SCHEMA_ID = ?";
@@ -41,8 +66,11 @@ public class SQLQueries {
     public static final String GET_DATASET_ID_FROM_DATASET_VERSION = "SELECT DATASET_SCHEMA_ID FROM ML_DATASET_VERSION" +
         " WHERE DATASET_VERSION_ID = ?";
     
-    public static final String UPDATE_SAMPLE_POINTS = "UPDATE ML_DATASET_VERSION SET SAMPLE_POINTS=? where " +
-        "DATASET_VERSION_ID=?";
+    public static final String UPDATE_SAMPLE_POINTS = "UPDATE ML_DATASET_VERSION SET SAMPLE_POINTS=?, STATUS=? " +
+        "where DATASET_VERSION_ID=?";
+
+    public static final String UPDATE_COLUMNAR_DATASET = "UPDATE ML_DATASET_VERSION SET COLUMNAR_URI=?, " +
+        "COLUMNAR_SCHEMA=? where DATASET_VERSION_ID=?";
     
     public static final String GET_DATASET_USING_NAME = "SELECT DATASET_ID , NAME, COMMENTS, SOURCE_TYPE, TARGET_TYPE," +
         " DATA_TYPE FROM ML_DATASET WHERE TENANT_ID = ? AND USERNAME = ? AND NAME=?";
@@ -53,13 +81,16 @@ public class SQLQueries {
     public static final String GET_FEATURE_ID = "SELECT FEATURE_ID FROM ML_FEATURE_DEFAULTS WHERE DATASET_SCHEMA_ID = ?" +
         " AND FEATURE_NAME =?";
 
+    public static final String GET_FEATURE_IDS = "SELECT FEATURE_NAME, FEATURE_ID FROM ML_FEATURE_DEFAULTS WHERE " +
+        "DATASET_SCHEMA_ID = ?";
+
     public static final String INSERT_FEATURE_SUMMARY = "INSERT INTO ML_FEATURE_SUMMARY(FEATURE_ID, FEATURE_NAME," +
         " DATASET_VERSION_ID, " +
             "SUMMARY) VALUES(?, ?, ?, ?)";
 
     public static final String INSERT_DATASET_VERSION = "INSERT INTO ML_DATASET_VERSION(DATASET_SCHEMA_ID, NAME," +
-        " VERSION, TENANT_ID, USERNAME, URI, SAMPLE_POINTS) "
-            + "VALUES(?,?,?,?,?,?,?)";
+        " VERSION, TENANT_ID, USERNAME, URI, SAMPLE_POINTS, STATUS) "
+            + "VALUES(?,?,?,?,?,?,?,?)";
 
     public static final String INSERT_DATA_SOURCE = "INSERT INTO ML_DATA_SOURCE(VALUE_SET_ID, TENANT_ID, USERNAME," +
         " `KEY`, VALUE) VALUES (?,?,?,?,?)";
@@ -88,6 +119,12 @@ public class SQLQueries {
     public static final String GET_DATASET_LOCATION = "SELECT URI FROM ML_DATASET_VERSION WHERE DATASET_SCHEMA_ID = ? "
         + "ORDER BY DATASET_VERSION_ID ASC LIMIT 1";
 
+    public static final String GET_DATASET_COLUMNAR_LOCATION = "SELECT COLUMNAR_URI FROM ML_DATASET_VERSION WHERE " +
+        "DATASET_SCHEMA_ID = ? ORDER BY DATASET_VERSION_ID ASC LIMIT 1";
+
+    public static final String GET_DATASET_VERSION_COLUMNAR_LOCATION = "SELECT COLUMNAR_URI FROM ML_DATASET_VERSION " +
+        "WHERE DATASET_VERSION_ID = ?";
+
     public static final String GET_SAMPLE_POINTS = "SELECT SAMPLE_POINTS FROM ML_DATASET_VERSION WHERE " +
         "DATASET_VERSION_ID =? AND TENANT_ID = ? AND USERNAME = ? ";
 
@@ -166,6 +203,9 @@ public class SQLQueries {
     public static final String GET_A_MODEL_CONFIGURATION = "SELECT VALUE FROM ML_MODEL_CONFIGURATION WHERE " +
         "ANALYSIS_ID = ? AND `KEY` = ?";
 
+    public static final String GET_MODEL_CONFIGURATION_KEYS = "SELECT `KEY` FROM ML_MODEL_CONFIGURATION WHERE " +
+        "ANALYSIS_ID = ?";
+
     public static final String DELETE_HYPER_PARAMETERS = "DELETE FROM ML_HYPER_PARAMETER WHERE ANALYSIS_ID = ?" +
             "AND ALGORITHM_NAME = ?";
 
@@ -214,6 +254,9 @@ public class SQLQueries {
 
     public static final String GET_ALL_ANALYSES = "SELECT ANALYSIS_ID, PROJECT_ID, COMMENTS, NAME FROM ML_ANALYSIS " +
         "WHERE TENANT_ID = ? AND USERNAME = ?";
+
+    public static final String GET_ANALYSES_PAGED = "SELECT ANALYSIS_ID, PROJECT_ID, COMMENTS, NAME FROM ML_ANALYSIS " +
+        "WHERE TENANT_ID = ? AND USERNAME = ? ORDER BY ANALYSIS_ID LIMIT ? OFFSET ?";
     
     public static final String GET_ALL_ANALYSES_OF_PROJECT = "SELECT ANALYSIS_ID, PROJECT_ID, COMMENTS, NAME FROM " +
         "ML_ANALYSIS WHERE TENANT_ID = ? AND USERNAME = ? AND PROJECT_ID = ?";
@@ -232,6 +275,18 @@ public class SQLQueries {
 
     public static final String GET_ALL_ML_MODELS = "SELECT MODEL_ID, ANALYSIS_ID, DATASET_VERSION_ID, CREATED_TIME, " +
         "STORAGE_TYPE, STORAGE_LOCATION, NAME, STATUS FROM ML_MODEL WHERE TENANT_ID = ? AND USERNAME = ? ";
+
+    public static final String GET_ML_MODELS_PAGED = "SELECT MODEL_ID, ANALYSIS_ID, DATASET_VERSION_ID, CREATED_TIME, " +
+        "STORAGE_TYPE, STORAGE_LOCATION, NAME, STATUS FROM ML_MODEL WHERE TENANT_ID = ? AND USERNAME = ? " +
+        "ORDER BY MODEL_ID LIMIT ? OFFSET ?";
+
+    public static final String GET_ML_MODELS_WITH_STATUS = "SELECT MODEL_ID, ANALYSIS_ID, DATASET_VERSION_ID, " +
+        "CREATED_TIME, STORAGE_TYPE, STORAGE_LOCATION, NAME, STATUS FROM ML_MODEL WHERE TENANT_ID = ? AND " +
+        "USERNAME = ? AND STATUS = ?";
+
+    public static final String GET_ML_MODELS_WITH_STATUS_PAGED = "SELECT MODEL_ID, ANALYSIS_ID, DATASET_VERSION_ID, " +
+        "CREATED_TIME, STORAGE_TYPE, STORAGE_LOCATION, NAME, STATUS FROM ML_MODEL WHERE TENANT_ID = ? AND " +
+        "USERNAME = ? AND STATUS = ? ORDER BY MODEL_ID LIMIT ? OFFSET ?";
     
     public static final String GET_ALL_ML_MODELS_OF_ANALYSIS = "SELECT MODEL_ID, ML_MODEL.ANALYSIS_ID, " +
         "DATASET_VERSION_ID, CREATED_TIME, STORAGE_TYPE, STORAGE_LOCATION, ML_MODEL.NAME, STATUS, ERROR, SUMMARY " +
@@ -243,6 +298,33 @@ public class SQLQueries {
         "ML_MODEL ON ML_MODEL.DATASET_VERSION_ID = ML_DATASET_VERSION.DATASET_VERSION_ID WHERE ML_MODEL.MODEL_ID=?) " +
         "as t1 ON t1.ID = ML_DATASET_SCHEMA.DATASET_SCHEMA_ID";
 
+    public static final String GET_MODEL_BUILD_DETAILS = "SELECT ML_MODEL.NAME, ML_MODEL.ANALYSIS_ID, " +
+        "ML_MODEL.DATASET_VERSION_ID, ML_MODEL.CREATED_TIME, ML_MODEL.STORAGE_TYPE, ML_MODEL.STORAGE_LOCATION, " +
+        "ML_MODEL.STATUS, ML_DATASET_VERSION.NAME, ML_DATASET_VERSION.URI, ML_DATASET_SCHEMA.DATASET_SCHEMA_ID, " +
+        "ML_DATASET_SCHEMA.SOURCE_TYPE, ML_DATASET_SCHEMA.DATA_TYPE FROM ML_MODEL INNER JOIN ML_DATASET_VERSION ON " +
+        "ML_MODEL.DATASET_VERSION_ID = ML_DATASET_VERSION.DATASET_VERSION_ID INNER JOIN ML_DATASET_SCHEMA ON " +
+        "ML_DATASET_VERSION.DATASET_SCHEMA_ID = ML_DATASET_SCHEMA.DATASET_SCHEMA_ID WHERE ML_MODEL.MODEL_ID = ? AND " +
+        "ML_MODEL.TENANT_ID = ? AND ML_MODEL.USERNAME = ?";
+
+    public static final String GET_MODEL_BUILD_FEATURES = "SELECT ML_FEATURE_DEFAULTS.FEATURE_NAME, " +
+        "ML_FEATURE_CUSTOMIZED.FEATURE_INDEX, ML_FEATURE_CUSTOMIZED.FEATURE_TYPE, " +
+        "ML_FEATURE_CUSTOMIZED.IMPUTE_OPTION, ML_FEATURE_CUSTOMIZED.INCLUSION, ML_FEATURE_SUMMARY.SUMMARY FROM " +
+        "ML_MODEL INNER JOIN ML_DATASET_VERSION ON ML_MODEL.DATASET_VERSION_ID = " +
+        "ML_DATASET_VERSION.DATASET_VERSION_ID INNER JOIN ML_FEATURE_DEFAULTS ON " +
+        "ML_DATASET_VERSION.DATASET_SCHEMA_ID = ML_FEATURE_DEFAULTS.DATASET_SCHEMA_ID LEFT OUTER JOIN " +
+        "ML_FEATURE_CUSTOMIZED ON ML_FEATURE_CUSTOMIZED.ANALYSIS_ID = ML_MODEL.ANALYSIS_ID AND " +
+        "ML_FEATURE_CUSTOMIZED.FEATURE_NAME = ML_FEATURE_DEFAULTS.FEATURE_NAME LEFT OUTER JOIN ML_FEATURE_SUMMARY ON " +
+        "ML_FEATURE_SUMMARY.FEATURE_ID = ML_FEATURE_DEFAULTS.FEATURE_ID AND ML_FEATURE_SUMMARY.DATASET_VERSION_ID = " +
+        "ML_MODEL.DATASET_VERSION_ID WHERE ML_MODEL.MODEL_ID = ? ORDER BY ML_FEATURE_DEFAULTS.FEATURE_INDEX";
+
+    /*
+     * model configurations have a null algorithm name
+     */
+    // MySQL casts to CHAR but not to VARCHAR
+    public static final String GET_MODEL_BUILD_SETTINGS = "SELECT CAST(NULL AS CHAR(50)) AS ALGORITHM_NAME, `KEY`, " +
+        "VALUE FROM ML_MODEL_CONFIGURATION WHERE ANALYSIS_ID = ? UNION ALL SELECT ALGORITHM_NAME, NAME, VALUE FROM " +
+        "ML_HYPER_PARAMETER WHERE ANALYSIS_ID = ?";
+
     public static final String SELECT_DATASET_VERSION_ID_OF_MODEL = "SELECT DATASET_VERSION_ID FROM ML_MODEL WHERE MODEL_ID=? ";
 
     public static final String GET_ML_MODEL_NAME = "SELECT NAME FROM ML_MODEL WHERE MODEL_ID = ? AND TENANT_ID = ? AND" +
@@ -254,12 +336,16 @@ public class SQLQueries {
     public static final String DELETE_ANALYSIS_BY_ID = "DELETE FROM ML_ANALYSIS WHERE ANALYSIS_ID = ? AND TENANT_ID = ?" +
         " AND USERNAME = ? ";
 
+    // latest dataset version of the analysis is resolved in a derived table, joined once
     public static final String GET_FEATURES = "SELECT  FEATURE_INDEX ,ML_FEATURE_CUSTOMIZED.FEATURE_NAME ,INCLUSION ," +
         "FEATURE_TYPE ,IMPUTE_OPTION, SUMMARY FROM ML_FEATURE_CUSTOMIZED INNER JOIN ML_FEATURE_SUMMARY ON " +
-        "ML_FEATURE_CUSTOMIZED.FEATURE_ID = ML_FEATURE_SUMMARY.FEATURE_ID WHERE ANALYSIS_ID = ? AND " +
-        "ML_FEATURE_CUSTOMIZED.TENANT_ID = ? AND ML_FEATURE_CUSTOMIZED.USERNAME = ? AND " +
-        "ML_FEATURE_SUMMARY.DATASET_VERSION_ID = (SELECT MAX(DATASET_VERSION_ID) FROM ML_DATASET_VERSION WHERE " +
-        "DATASET_SCHEMA_ID = ?) LIMIT ? OFFSET ?";
+        "ML_FEATURE_CUSTOMIZED.FEATURE_ID = ML_FEATURE_SUMMARY.FEATURE_ID INNER JOIN (SELECT " +
+        "MAX(ML_DATASET_VERSION.DATASET_VERSION_ID) AS LATEST_VERSION_ID FROM ML_ANALYSIS INNER JOIN ML_PROJECT ON " +
+        "ML_ANALYSIS.PROJECT_ID = ML_PROJECT.PROJECT_ID INNER JOIN ML_DATASET_VERSION ON " +
+        "ML_PROJECT.DATASET_SCHEMA_ID = ML_DATASET_VERSION.DATASET_SCHEMA_ID WHERE ML_ANALYSIS.ANALYSIS_ID = ?) " +
+        "LATEST_VERSION ON ML_FEATURE_SUMMARY.DATASET_VERSION_ID = LATEST_VERSION.LATEST_VERSION_ID WHERE " +
+        "ML_FEATURE_CUSTOMIZED.ANALYSIS_ID = ? AND ML_FEATURE_CUSTOMIZED.TENANT_ID = ? AND " +
+        "ML_FEATURE_CUSTOMIZED.USERNAME = ? LIMIT ? OFFSET ?";
 
     public static final String INSERT_PROJECT = "INSERT INTO ML_PROJECT(NAME, DESCRIPTION, DATASET_SCHEMA_ID, TENANT_ID,"
             + " USERNAME, CREATED_TIME) VALUES(?,?,?,?,?, CURRENT_TIMESTAMP())";
@@ -287,6 +373,9 @@ public class SQLQueries {
     public static final String GET_ALL_PROJECTS = "SELECT NAME, PROJECT_ID ,DESCRIPTION, DATASET_SCHEMA_ID, " +
         "CREATED_TIME FROM ML_PROJECT WHERE TENANT_ID = ? AND USERNAME = ? ";
 
+    public static final String GET_PROJECTS_PAGED = "SELECT NAME, PROJECT_ID ,DESCRIPTION, DATASET_SCHEMA_ID, " +
+        "CREATED_TIME FROM ML_PROJECT WHERE TENANT_ID = ? AND USERNAME = ? ORDER BY PROJECT_ID LIMIT ? OFFSET ?";
+
     public static final String ADD_TENANT_TO_PROJECT = "INSERT INTO ML_TENANT_PROJECTS (TENANT_ID, PROJECT_ID) " +
         "VALUES(?,?)";
 
@@ -20,8 +20,14 @@ package org.wso2.carbon.ml.database.internal.ds;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
+import org.wso2.carbon.metrics.manager.Gauge;
+import org.wso2.carbon.metrics.manager.Level;
+import org.wso2.carbon.metrics.manager.MetricManager;
 import org.wso2.carbon.ml.database.DatabaseService;
+import org.wso2.carbon.ml.database.internal.CachingDatabaseService;
 import org.wso2.carbon.ml.database.internal.MLDatabaseService;
+import org.wso2.carbon.ml.database.internal.MLDatabaseUtils;
+import org.wso2.carbon.ml.database.internal.MetadataCache;
 import org.wso2.carbon.utils.ConfigurationContextService;
 
 /**
@@ -36,11 +42,23 @@ public class MLDatabaseServiceDS {
 
     protected void activate(ComponentContext context) {
         try {
-            DatabaseService databaseService = new MLDatabaseService();
+            MLDatabaseService mlDatabaseService = new MLDatabaseService();
+            CachingDatabaseService databaseService = new CachingDatabaseService(mlDatabaseService,
+                    MLDatabaseUtils.getProperties(mlDatabaseService.getMlConfiguration()));
             MLDatabaseServiceValueHolder.registerDatabaseService(databaseService);
 
             context.getBundleContext().registerService(DatabaseService.class.getName(), databaseService, null);
 
+            // metadata cache metrics
+            for (final MetadataCache<?, ?> cache : databaseService.getCaches()) {
+                MetricManager.gauge(Level.INFO, "org.wso2.carbon.ml.database.cache." + cache.getName() + ".hit-ratio",
+                        new Gauge<Double>() {
+                            @Override
+                            public Double getValue() {
+                                return cache.getHitRatio();
+                            }
+                        });
+            }
         } catch (Throwable e) {
             log.error("Could not create ModelService: " + e.getMessage(), e);
         }
@@ -18,7 +18,13 @@
 
 package org.wso2.carbon.ml.database.util;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.FeatureStatistics;
 import org.wso2.carbon.ml.commons.domain.MLDatasetVersion;
 import org.wso2.carbon.ml.commons.domain.ModelSummary;
 import org.wso2.carbon.ml.commons.domain.SamplePoints;
@@ -26,10 +32,15 @@ import org.wso2.carbon.ml.commons.domain.SamplePoints;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MLDBUtil {
 
+    private static final Log log = LogFactory.getLog(MLDBUtil.class);
+
     /**
      * Deserialize SamplePoints object from InputStream
      *
@@ -37,12 +48,10 @@ public class MLDBUtil {
      * @return {@link org.wso2.carbon.ml.commons.domain.SamplePoints} object
      * @throws java.io.IOException
      * @throws ClassNotFoundException
+     * @see SamplePointsCodec
      */
     public static SamplePoints getSamplePointsFromInputStream(InputStream data) throws IOException, ClassNotFoundException {
-        ObjectInputStream is = new ObjectInputStream(data);
-        SamplePoints samplePoints = (SamplePoints) is.readObject();
-        is.close();
-        return samplePoints;
+        return SamplePointsCodec.decode(data);
     }
 
     /**
@@ -59,6 +68,20 @@ public class MLDBUtil {
         return modelSummary;
     }
 
+    /**
+     * Return the status of a dataset version, as stored in the database, from its sample points
+     *
+     * @param samplePoints Sample points of the dataset version, null if not generated yet
+     * @return Dataset version status
+     */
+    public static String getDatasetVersionStatus(SamplePoints samplePoints) {
+        if (samplePoints == null) {
+            return MLConstants.DatasetVersionStatus.IN_PROGRESS.getValue();
+        }
+        return samplePoints.isGenerated() ? MLConstants.DatasetVersionStatus.COMPLETE.getValue()
+                : MLConstants.DatasetVersionStatus.FAILED.getValue();
+    }
+
     /**
      * Return dataset status by iterating through all the given versions
      * @param datasetVersions List of dataset versions
@@ -83,4 +106,62 @@ public class MLDBUtil {
         }
         return status.getValue();
     }
+
+    /**
+     * Parse the JSON summary statistics of a feature, as stored in the database.
+     *
+     * @param summaryJson JSON summary statistics of the feature
+     * @return {@link org.wso2.carbon.ml.commons.domain.FeatureStatistics} of the feature, having the default values
+     *         for the statistics which are not available
+     */
+    public static FeatureStatistics getFeatureStatistics(String summaryJson) {
+        FeatureStatistics statistics = new FeatureStatistics();
+        if (summaryJson == null) {
+            return statistics;
+        }
+        try {
+            JSONObject json = new JSONArray(summaryJson).getJSONObject(0);
+            statistics.setMean(parseDouble(json.optString("mean")));
+            statistics.setMin(parseDouble(json.optString("min")));
+            statistics.setMax(parseDouble(json.optString("max")));
+            statistics.setUnique(json.optInt("unique"));
+            statistics.setMissing(json.optInt("missing"));
+            List<String> values = new ArrayList<String>();
+            JSONArray frequencies = json.optJSONArray("values");
+            if (frequencies != null) {
+                for (int i = 0; i < frequencies.length(); i++) {
+                    JSONArray frequency = frequencies.optJSONArray(i);
+                    if (frequency != null) {
+                        values.add(frequency.getString(0));
+                    }
+                }
+            }
+            statistics.setValues(values);
+        } catch (JSONException e) {
+            log.warn("Failed to extract feature statistics from summary stats: " + summaryJson, e);
+        }
+        return statistics;
+    }
+
+    /**
+     * Parse the JSON summary statistics of a set of features.
+     *
+     * @param summaryStats Map of feature name and JSON summary statistics
+     * @return Map of feature name and {@link org.wso2.carbon.ml.commons.domain.FeatureStatistics}
+     */
+    public static Map<String, FeatureStatistics> getFeatureStatistics(Map<String, String> summaryStats) {
+        Map<String, FeatureStatistics> featureStatistics = new HashMap<String, FeatureStatistics>();
+        for (Map.Entry<String, String> summary : summaryStats.entrySet()) {
+            featureStatistics.put(summary.getKey(), getFeatureStatistics(summary.getValue()));
+        }
+        return featureStatistics;
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
 }
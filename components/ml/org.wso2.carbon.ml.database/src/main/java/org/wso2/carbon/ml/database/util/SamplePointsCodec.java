@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.ml.database.util;
+
+import org.wso2.carbon.ml.commons.domain.SamplePoints;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar binary format of {@link SamplePoints}, as stored in the database.
+ * <p>
+ * The sample metadata (header, cell counts, generation status) is followed by a table of the encoded size of each
+ * column and then by the columns themselves, hence a reader can decode only the columns it needs and skip over the
+ * others. A column whose values are (mostly) integers or decimals is stored as a primitive array, keeping the other
+ * values of the column as exceptions, so that every value is read back exactly as it was written.
+ * <p>
+ * Samples stored by older versions as serialized Java objects are still readable.
+ */
+public class SamplePointsCodec {
+
+    private static final int MAGIC = 0x4D4C5350;
+    private static final byte FORMAT_VERSION = 1;
+    // first two bytes of a serialized Java object
+    private static final int JAVA_SERIALIZATION_MAGIC = 0xACED;
+
+    private static final byte STRING_COLUMN = 0;
+    private static final byte LONG_COLUMN = 1;
+    private static final byte DOUBLE_COLUMN = 2;
+
+    private SamplePointsCodec() {
+    }
+
+    /**
+     * Encode sample points in the columnar format.
+     *
+     * @param samplePoints sample points to be encoded
+     * @return encoded sample points
+     * @throws IOException
+     */
+    public static byte[] encode(SamplePoints samplePoints) throws IOException {
+        List<List<String>> columns = samplePoints.getSamplePoints();
+        if (columns == null) {
+            columns = new ArrayList<List<String>>();
+        }
+        List<byte[]> encodedColumns = new ArrayList<byte[]>(columns.size());
+        for (List<String> column : columns) {
+            encodedColumns.add(encodeColumn(column));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeBoolean(samplePoints.isGenerated());
+        Map<String, Integer> header = samplePoints.getHeader();
+        if (header == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(header.size());
+            for (Map.Entry<String, Integer> entry : header.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+        writeIntArray(out, samplePoints.getMissing());
+        writeIntArray(out, samplePoints.getStringCellCount());
+        writeIntArray(out, samplePoints.getDecimalCellCount());
+        out.writeInt(encodedColumns.size());
+        for (byte[] encodedColumn : encodedColumns) {
+            out.writeInt(encodedColumn.length);
+        }
+        for (byte[] encodedColumn : encodedColumns) {
+            out.write(encodedColumn);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode all the sample points.
+     *
+     * @param data encoded sample points
+     * @return decoded {@link SamplePoints}
+     * @throws IOException
+     * @throws ClassNotFoundException if the sample points are a serialized Java object of an unknown class
+     */
+    public static SamplePoints decode(InputStream data) throws IOException, ClassNotFoundException {
+        BufferedInputStream in = new BufferedInputStream(data);
+        if (isJavaSerialized(in)) {
+            return readJavaSerialized(in);
+        }
+        DataInputStream dataIn = new DataInputStream(in);
+        SamplePoints samplePoints = readMetadata(dataIn);
+        int[] columnSizes = readColumnSizes(dataIn);
+        List<List<String>> columns = new ArrayList<List<String>>(columnSizes.length);
+        for (int i = 0; i < columnSizes.length; i++) {
+            columns.add(readColumn(dataIn).toList());
+        }
+        samplePoints.setSamplePoints(columns);
+        return samplePoints;
+    }
+
+    /**
+     * Decode the columns of the given features only. The columns of the other features are skipped without being
+     * decoded.
+     *
+     * @param data     encoded sample points
+     * @param features names of the features to be decoded
+     * @return map of feature name and column, which does not contain the features not found in the sample
+     * @throws IOException
+     * @throws ClassNotFoundException if the sample points are a serialized Java object of an unknown class
+     */
+    public static Map<String, Column> decodeColumns(InputStream data, Collection<String> features)
+            throws IOException, ClassNotFoundException {
+        Map<String, Column> result = new HashMap<String, Column>();
+        BufferedInputStream in = new BufferedInputStream(data);
+        if (isJavaSerialized(in)) {
+            SamplePoints samplePoints = readJavaSerialized(in);
+            if (samplePoints.getHeader() == null) {
+                return result;
+            }
+            for (String feature : features) {
+                Integer index = samplePoints.getHeader().get(feature);
+                if (index != null && index < samplePoints.getSamplePoints().size()) {
+                    result.put(feature, Column.of(samplePoints.getSamplePoints().get(index)));
+                }
+            }
+            return result;
+        }
+
+        DataInputStream dataIn = new DataInputStream(in);
+        Map<String, Integer> header = readMetadata(dataIn).getHeader();
+        if (header == null) {
+            return result;
+        }
+        // column index and the names of the features in that column
+        Map<Integer, List<String>> wanted = new HashMap<Integer, List<String>>();
+        int lastWanted = -1;
+        for (String feature : features) {
+            Integer index = header.get(feature);
+            if (index != null) {
+                List<String> names = wanted.get(index);
+                if (names == null) {
+                    names = new ArrayList<String>();
+                    wanted.put(index, names);
+                }
+                names.add(feature);
+                lastWanted = Math.max(lastWanted, index);
+            }
+        }
+        int[] columnSizes = readColumnSizes(dataIn);
+        for (int i = 0; i <= lastWanted && i < columnSizes.length; i++) {
+            List<String> names = wanted.get(i);
+            if (names == null) {
+                skipFully(dataIn, columnSizes[i]);
+                continue;
+            }
+            Column column = readColumn(dataIn);
+            for (String name : names) {
+                result.put(name, column);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isJavaSerialized(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return ((first << 8) | second) == JAVA_SERIALIZATION_MAGIC;
+    }
+
+    private static SamplePoints readJavaSerialized(InputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream is = new ObjectInputStream(in);
+        try {
+            return (SamplePoints) is.readObject();
+        } finally {
+            is.close();
+        }
+    }
+
+    private static SamplePoints readMetadata(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Unknown sample points format.");
+        }
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported sample points format version: " + version);
+        }
+        SamplePoints samplePoints = new SamplePoints();
+        samplePoints.setGenerated(in.readBoolean());
+        int headerSize = in.readInt();
+        if (headerSize >= 0) {
+            Map<String, Integer> header = new HashMap<String, Integer>();
+            for (int i = 0; i < headerSize; i++) {
+                String name = readString(in);
+                header.put(name, in.readInt());
+            }
+            samplePoints.setHeader(header);
+        }
+        int[] missing = readIntArray(in);
+        if (missing != null) {
+            samplePoints.setMissing(missing);
+        }
+        int[] stringCellCount = readIntArray(in);
+        if (stringCellCount != null) {
+            samplePoints.setStringCellCount(stringCellCount);
+        }
+        int[] decimalCellCount = readIntArray(in);
+        if (decimalCellCount != null) {
+            samplePoints.setDecimalCellCount(decimalCellCount);
+        }
+        return samplePoints;
+    }
+
+    private static int[] readColumnSizes(DataInputStream in) throws IOException {
+        int[] columnSizes = new int[in.readInt()];
+        for (int i = 0; i < columnSizes.length; i++) {
+            columnSizes[i] = in.readInt();
+        }
+        return columnSizes;
+    }
+
+    private static byte[] encodeColumn(List<String> values) throws IOException {
+        int rows = values == null ? 0 : values.size();
+        long[] longs = new long[rows];
+        double[] doubles = new double[rows];
+        int longExceptions = 0;
+        int doubleExceptions = 0;
+        for (int row = 0; row < rows; row++) {
+            String value = values.get(row);
+            Long longValue = parseLong(value);
+            if (longValue == null) {
+                longExceptions++;
+            } else {
+                longs[row] = longValue;
+            }
+            Double doubleValue = parseDouble(value);
+            if (doubleValue == null) {
+                doubleExceptions++;
+            } else {
+                doubles[row] = doubleValue;
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        // a numeric column is worth it only if most of its values are numbers
+        if (rows > 0 && Math.min(longExceptions, doubleExceptions) <= rows / 2) {
+            boolean isLong = longExceptions <= doubleExceptions;
+            out.writeByte(isLong ? LONG_COLUMN : DOUBLE_COLUMN);
+            out.writeInt(rows);
+            out.writeInt(isLong ? longExceptions : doubleExceptions);
+            for (int row = 0; row < rows; row++) {
+                String value = values.get(row);
+                if (isLong ? parseLong(value) == null : parseDouble(value) == null) {
+                    out.writeInt(row);
+                    writeString(out, value);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (isLong) {
+                    out.writeLong(longs[row]);
+                } else {
+                    out.writeDouble(doubles[row]);
+                }
+            }
+        } else {
+            out.writeByte(STRING_COLUMN);
+            out.writeInt(rows);
+            for (int row = 0; row < rows; row++) {
+                writeString(out, values.get(row));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Column readColumn(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int rows = in.readInt();
+        if (type == STRING_COLUMN) {
+            String[] strings = new String[rows];
+            for (int row = 0; row < rows; row++) {
+                strings[row] = readString(in);
+            }
+            return new Column(type, strings, null, null, null);
+        }
+        int exceptionCount = in.readInt();
+        Map<Integer, String> exceptions = new HashMap<Integer, String>();
+        for (int i = 0; i < exceptionCount; i++) {
+            int row = in.readInt();
+            exceptions.put(row, readString(in));
+        }
+        if (type == LONG_COLUMN) {
+            long[] longs = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                longs[row] = in.readLong();
+            }
+            return new Column(type, null, longs, null, exceptions);
+        } else if (type == DOUBLE_COLUMN) {
+            double[] doubles = new double[rows];
+            for (int row = 0; row < rows; row++) {
+                doubles[row] = in.readDouble();
+            }
+            return new Column(type, null, null, doubles, exceptions);
+        }
+        throw new IOException("Unknown sample column type: " + type);
+    }
+
+    /*
+     * values which do not come back identical from their number are not numbers for this purpose, e.g. "007"
+     */
+    private static Long parseLong(String value) {
+        if (value == null || value.isEmpty() || value.length() > 20) {
+            return null;
+        }
+        try {
+            long parsed = Long.parseLong(value);
+            return Long.toString(parsed).equals(value) ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            return Double.toString(parsed).equals(value) ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeIntArray(DataOutputStream out, int[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(values.length);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int[] readIntArray(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException("Unexpected end of sample points.");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * A decoded column of the sample. Numeric values are kept as primitives, hence they can be read without parsing.
+     */
+    public static class Column {
+
+        private final byte type;
+        private final String[] strings;
+        private final long[] longs;
+        private final double[] doubles;
+        // row index and value of the rows of a numeric column which are not numbers
+        private final Map<Integer, String> exceptions;
+
+        private Column(byte type, String[] strings, long[] longs, double[] doubles, Map<Integer, String> exceptions) {
+            this.type = type;
+            this.strings = strings;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.exceptions = exceptions;
+        }
+
+        static Column of(List<String> values) {
+            return new Column(STRING_COLUMN, values.toArray(new String[values.size()]), null, null, null);
+        }
+
+        public int size() {
+            if (type == LONG_COLUMN) {
+                return longs.length;
+            } else if (type == DOUBLE_COLUMN) {
+                return doubles.length;
+            }
+            return strings.length;
+        }
+
+        /**
+         * @return whether the value of the row is stored as a number
+         */
+        public boolean isNumber(int row) {
+            return type != STRING_COLUMN && !exceptions.containsKey(row);
+        }
+
+        /**
+         * @return numeric value of the row, which is only valid if {@link #isNumber(int)}
+         */
+        public double getDouble(int row) {
+            return type == LONG_COLUMN ? longs[row] : doubles[row];
+        }
+
+        /**
+         * @return value of the row, exactly as it was encoded
+         */
+        public String getString(int row) {
+            if (type == STRING_COLUMN) {
+                return strings[row];
+            } else if (exceptions.containsKey(row)) {
+                return exceptions.get(row);
+            } else if (type == LONG_COLUMN) {
+                return Long.toString(longs[row]);
+            }
+            return Double.toString(doubles[row]);
+        }
+
+        List<String> toList() {
+            if (type == STRING_COLUMN) {
+                return new ArrayList<String>(Arrays.asList(strings));
+            }
+            List<String> values = new ArrayList<String>(size());
+            for (int row = 0; row < size(); row++) {
+                values.add(getString(row));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.MLHyperParameter;
+import org.wso2.carbon.ml.commons.domain.Workflow;
+import org.wso2.carbon.ml.database.DatabaseService;
+
+public class CachingDatabaseServiceTest {
+
+    private StubDatabaseService stub;
+    private CachingDatabaseService databaseService;
+
+    @BeforeMethod
+    public void setUp() {
+        stub = new StubDatabaseService();
+        databaseService = new CachingDatabaseService(stub.create(), new Properties());
+    }
+
+    @Test
+    public void testReadThrough() throws Exception {
+        Assert.assertEquals(databaseService.getDatasetUri(1), "uri-1");
+        Assert.assertEquals(databaseService.getDatasetUri(1), "uri-1");
+        Assert.assertEquals(databaseService.getDatasetUri(2), "uri-2");
+        Assert.assertEquals(stub.getCount("getDatasetUri"), 2);
+
+        MetadataCache<?, ?> cache = getCache("dataset-uri");
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 2);
+        Assert.assertEquals(cache.getHitRatio(), 1.0 / 3);
+    }
+
+    @Test
+    public void testWorkflowIsCopied() throws Exception {
+        Workflow workflow = databaseService.getWorkflow(1, "LOGISTIC_REGRESSION");
+        workflow.setDatasetURL("changed");
+        Assert.assertNull(databaseService.getWorkflow(1, "LOGISTIC_REGRESSION").getDatasetURL());
+        databaseService.getWorkflow(1, "RANDOM_FOREST");
+        Assert.assertEquals(stub.getCount("getWorkflow"), 2);
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        databaseService.getWorkflow(1, "LOGISTIC_REGRESSION");
+        databaseService.getWorkflow(2, "LOGISTIC_REGRESSION");
+        databaseService.getHyperParametersOfModelAsMap(1);
+        databaseService.insertHyperParameters(1, new ArrayList<MLHyperParameter>(), "LOGISTIC_REGRESSION");
+
+        databaseService.getWorkflow(1, "LOGISTIC_REGRESSION");
+        databaseService.getWorkflow(2, "LOGISTIC_REGRESSION");
+        databaseService.getHyperParametersOfModelAsMap(1);
+        Assert.assertEquals(stub.getCount("getWorkflow"), 3);
+        Assert.assertEquals(stub.getCount("getHyperParametersOfModelAsMap"), 2);
+
+        databaseService.getDatasetVersionUri(5);
+        databaseService.getSummaryStats(5);
+        databaseService.deleteDatasetVersion(5);
+        databaseService.getDatasetVersionUri(5);
+        databaseService.getSummaryStats(5);
+        Assert.assertEquals(stub.getCount("getDatasetVersionUri"), 2);
+        Assert.assertEquals(stub.getCount("getSummaryStats"), 2);
+    }
+
+    @Test
+    public void testEmptySummaryStatsAreNotCached() throws Exception {
+        stub.summaryStats = Collections.emptyMap();
+        databaseService.getSummaryStats(5);
+        databaseService.getFeatureNamesInOrderUsingDatasetVersion(5, ",");
+        stub.summaryStats = Collections.singletonMap("feature", "[]");
+        Assert.assertEquals(databaseService.getSummaryStats(5), stub.summaryStats);
+        Assert.assertEquals(stub.getCount("getSummaryStats"), 2);
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(CachingDatabaseService.CACHE_PROPERTY_PREFIX + "dataset-uri.ttl", "0");
+        databaseService = new CachingDatabaseService(stub.create(), properties);
+        databaseService.getDatasetUri(1);
+        databaseService.getDatasetUri(1);
+        databaseService.getDataTypeOfModel(1);
+        databaseService.getDataTypeOfModel(1);
+        Assert.assertEquals(stub.getCount("getDatasetUri"), 2);
+        Assert.assertEquals(stub.getCount("getDataTypeOfModel"), 1);
+    }
+
+    private MetadataCache<?, ?> getCache(String name) {
+        for (MetadataCache<?, ?> cache : databaseService.getCaches()) {
+            if (cache.getName().equals(name)) {
+                return cache;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Database service answering the cached calls and counting the calls made to it.
+     */
+    private static class StubDatabaseService implements InvocationHandler {
+
+        private final Map<String, Integer> counts = new HashMap<String, Integer>();
+        private Map<String, String> summaryStats = Collections.singletonMap("feature", "[]");
+
+        DatabaseService create() {
+            return (DatabaseService) Proxy.newProxyInstance(DatabaseService.class.getClassLoader(),
+                    new Class<?>[] { DatabaseService.class }, this);
+        }
+
+        int getCount(String method) {
+            Integer count = counts.get(method);
+            return count == null ? 0 : count;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            counts.put(name, getCount(name) + 1);
+            if ("getDatasetUri".equals(name) || "getDatasetVersionUri".equals(name)) {
+                return "uri-" + args[0];
+            } else if ("getDataTypeOfModel".equals(name)) {
+                return "CSV";
+            } else if ("getWorkflow".equals(name)) {
+                Workflow workflow = new Workflow();
+                workflow.setWorkflowID((Long) args[0]);
+                workflow.setAlgorithmName((String) args[1]);
+                return workflow;
+            } else if ("getHyperParametersOfModelAsMap".equals(name)) {
+                return new HashMap<String, String>(Collections.singletonMap("Iterations", "100"));
+            } else if ("getSummaryStats".equals(name)) {
+                return new HashMap<String, String>(summaryStats);
+            } else if ("getFeatureNamesInOrderUsingDatasetVersion".equals(name)) {
+                return "";
+            }
+            return null;
+        }
+    }
+}
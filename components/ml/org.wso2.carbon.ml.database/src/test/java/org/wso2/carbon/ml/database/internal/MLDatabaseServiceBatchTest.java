@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.MLCustomizedFeature;
+import org.wso2.carbon.ml.commons.domain.MLHyperParameter;
+import org.wso2.carbon.ml.commons.domain.MLModelConfiguration;
+
+/**
+ * Benchmarks the batched writes of {@link MLDatabaseService} on an embedded H2 database, counting the statement
+ * executions (round trips) of each call. The number of round trips must not grow with the number of rows written.
+ */
+public class MLDatabaseServiceBatchTest {
+
+    private static final Log log = LogFactory.getLog(MLDatabaseServiceBatchTest.class);
+    private static final String H2_SCRIPT = "../../../features/ml/org.wso2.carbon.ml.database.feature/src/main/"
+            + "resources/dbscripts/h2.sql";
+    private static final int TENANT_ID = -1234;
+    private static final String USER_NAME = "admin";
+    private static final int SMALL = 10;
+    private static final int LARGE = 1000;
+
+    private Connection keepAliveConnection;
+    private ExecutionCounter counter;
+    private MLDatabaseService databaseService;
+    private long nextId = 1;
+
+    @BeforeClass
+    public void setUp() throws SQLException {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:ml_batch_test;DB_CLOSE_DELAY=-1");
+        h2DataSource.setUser("sa");
+        h2DataSource.setPassword("");
+        keepAliveConnection = h2DataSource.getConnection();
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("RUNSCRIPT FROM '" + H2_SCRIPT + "'");
+        statement.close();
+
+        counter = new ExecutionCounter();
+        databaseService = new MLDatabaseService(counter.wrap(h2DataSource, DataSource.class));
+    }
+
+    @AfterClass
+    public void tearDown() throws SQLException {
+        keepAliveConnection.close();
+    }
+
+    @Test
+    public void testInsertFeatureCustomized() throws Exception {
+        long smallRoundTrips = insertFeatureCustomized(SMALL);
+        long largeRoundTrips = insertFeatureCustomized(LARGE);
+        Assert.assertEquals(largeRoundTrips, smallRoundTrips);
+    }
+
+    @Test
+    public void testInsertModelConfigurations() throws Exception {
+        long smallRoundTrips = insertModelConfigurations(SMALL);
+        long largeRoundTrips = insertModelConfigurations(LARGE);
+        Assert.assertEquals(largeRoundTrips, smallRoundTrips);
+    }
+
+    @Test
+    public void testInsertHyperParameters() throws Exception {
+        long smallRoundTrips = insertHyperParameters(SMALL);
+        long largeRoundTrips = insertHyperParameters(LARGE);
+        Assert.assertEquals(largeRoundTrips, smallRoundTrips);
+    }
+
+    private long insertFeatureCustomized(int numberOfFeatures) throws Exception {
+        long analysisId = createAnalysis(numberOfFeatures);
+
+        MLCustomizedFeature defaults = new MLCustomizedFeature();
+        defaults.setTenantId(TENANT_ID);
+        defaults.setUserName(USER_NAME);
+        defaults.setLastModifiedUser(USER_NAME);
+        defaults.setImputeOption("DISCARD");
+        defaults.setInclude(true);
+        databaseService.insertDefaultsIntoFeatureCustomized(analysisId, defaults);
+
+        List<MLCustomizedFeature> customizedFeatures = new ArrayList<MLCustomizedFeature>();
+        for (int i = 0; i < numberOfFeatures; i++) {
+            MLCustomizedFeature feature = new MLCustomizedFeature();
+            feature.setName("feature" + i);
+            feature.setType("CATEGORICAL");
+            feature.setImputeOption("REPLACE_WITH_MEAN");
+            feature.setInclude(i % 2 == 0);
+            customizedFeatures.add(feature);
+        }
+        counter.reset();
+        long start = System.nanoTime();
+        databaseService.insertFeatureCustomized(analysisId, customizedFeatures, TENANT_ID, USER_NAME);
+        report("insertFeatureCustomized", numberOfFeatures, start);
+
+        Assert.assertEquals(count("SELECT COUNT(*) FROM ML_FEATURE_CUSTOMIZED WHERE ANALYSIS_ID = " + analysisId
+                + " AND FEATURE_TYPE = 'CATEGORICAL' AND INCLUSION = TRUE"), (numberOfFeatures + 1) / 2);
+        return counter.getCount();
+    }
+
+    private long insertModelConfigurations(int numberOfConfigurations) throws Exception {
+        long analysisId = createAnalysis(0);
+        List<MLModelConfiguration> modelConfigs = new ArrayList<MLModelConfiguration>();
+        for (int i = 0; i < numberOfConfigurations; i++) {
+            MLModelConfiguration modelConfig = new MLModelConfiguration();
+            modelConfig.setKey("key" + i);
+            modelConfig.setValue("value" + i);
+            modelConfigs.add(modelConfig);
+        }
+        databaseService.insertModelConfigurations(analysisId, modelConfigs.subList(0, numberOfConfigurations / 2));
+
+        // half of the configurations are updated and the other half inserted
+        counter.reset();
+        long start = System.nanoTime();
+        databaseService.insertModelConfigurations(analysisId, modelConfigs);
+        report("insertModelConfigurations", numberOfConfigurations, start);
+
+        Assert.assertEquals(count("SELECT COUNT(*) FROM ML_MODEL_CONFIGURATION WHERE ANALYSIS_ID = " + analysisId),
+                numberOfConfigurations);
+        return counter.getCount();
+    }
+
+    private long insertHyperParameters(int numberOfParameters) throws Exception {
+        long analysisId = createAnalysis(0);
+        List<MLHyperParameter> hyperParameters = new ArrayList<MLHyperParameter>();
+        for (int i = 0; i < numberOfParameters; i++) {
+            MLHyperParameter hyperParameter = new MLHyperParameter();
+            hyperParameter.setKey("param" + i);
+            hyperParameter.setValue(String.valueOf(i));
+            hyperParameters.add(hyperParameter);
+        }
+        databaseService.insertHyperParameters(analysisId, hyperParameters.subList(0, numberOfParameters / 2),
+                "LOGISTIC_REGRESSION");
+
+        // half of the parameters are updated and the other half inserted
+        counter.reset();
+        long start = System.nanoTime();
+        databaseService.insertHyperParameters(analysisId, hyperParameters, "LOGISTIC_REGRESSION");
+        report("insertHyperParameters", numberOfParameters, start);
+
+        Map<String, String> stored = databaseService.getHyperParametersOfModelAsMap(analysisId);
+        Assert.assertEquals(stored.size(), numberOfParameters);
+        Assert.assertEquals(stored.get("param" + (numberOfParameters - 1)), String.valueOf(numberOfParameters - 1));
+        return counter.getCount();
+    }
+
+    private void report(String operation, int rows, long start) {
+        log.info(String.format("%s: %d rows, %d round trips, %.2f ms", operation, rows, counter.getCount(),
+                (System.nanoTime() - start) / 1000000.0));
+    }
+
+    /**
+     * Create a dataset schema with the given number of features, a project and an analysis.
+     *
+     * @return id of the analysis
+     */
+    private long createAnalysis(int numberOfFeatures) throws SQLException {
+        long id = nextId++;
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("INSERT INTO ML_DATASET_SCHEMA(DATASET_SCHEMA_ID, NAME, TENANT_ID, USERNAME) VALUES(" + id
+                + ", 'dataset" + id + "', " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.execute("INSERT INTO ML_PROJECT(PROJECT_ID, NAME, DATASET_SCHEMA_ID, TENANT_ID, USERNAME) VALUES("
+                + id + ", 'project" + id + "', " + id + ", " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.execute("INSERT INTO ML_ANALYSIS(ANALYSIS_ID, PROJECT_ID, NAME, TENANT_ID, USERNAME) VALUES(" + id
+                + ", " + id + ", 'analysis" + id + "', " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.close();
+
+        PreparedStatement insertFeature = keepAliveConnection.prepareStatement("INSERT INTO ML_FEATURE_DEFAULTS("
+                + "DATASET_SCHEMA_ID, FEATURE_INDEX, FEATURE_NAME, TYPE) VALUES(?, ?, ?, 'NUMERICAL')");
+        for (int i = 0; i < numberOfFeatures; i++) {
+            insertFeature.setLong(1, id);
+            insertFeature.setInt(2, i);
+            insertFeature.setString(3, "feature" + i);
+            insertFeature.addBatch();
+        }
+        insertFeature.executeBatch();
+        insertFeature.close();
+        return id;
+    }
+
+    private int count(String query) throws SQLException {
+        Statement statement = keepAliveConnection.createStatement();
+        ResultSet result = statement.executeQuery(query);
+        result.next();
+        int count = result.getInt(1);
+        result.close();
+        statement.close();
+        return count;
+    }
+
+    /**
+     * Wraps JDBC objects and counts the statement executions made through them.
+     */
+    private static class ExecutionCounter {
+
+        private long count;
+
+        @SuppressWarnings("unchecked")
+        <T> T wrap(final T target, Class<T> type) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().startsWith("execute")) {
+                        count++;
+                    }
+                    Class<?> returnType = method.getReturnType();
+                    if (result == null) {
+                        return null;
+                    } else if (returnType == Connection.class) {
+                        return wrap((Connection) result, Connection.class);
+                    } else if (returnType == PreparedStatement.class) {
+                        return wrap((PreparedStatement) result, PreparedStatement.class);
+                    } else if (returnType == Statement.class) {
+                        return wrap((Statement) result, Statement.class);
+                    }
+                    return result;
+                }
+            });
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.MLDataset;
+import org.wso2.carbon.ml.commons.domain.MLModelData;
+import org.wso2.carbon.ml.commons.domain.SamplePoints;
+
+/**
+ * Tests the paged listings of {@link MLDatabaseService} combined with a status filter on an embedded H2 database. A
+ * page must be taken from the items of the status, not filtered from a page of all the items.
+ */
+public class MLDatabaseServicePagingTest {
+
+    private static final String H2_SCRIPT = "../../../features/ml/org.wso2.carbon.ml.database.feature/src/main/"
+            + "resources/dbscripts/h2.sql";
+    private static final int TENANT_ID = -1234;
+    private static final String USER_NAME = "admin";
+    private static final String AVAILABLE = MLConstants.DatasetStatus.AVAILABLE.getValue();
+    private static final String BUSY = MLConstants.DatasetStatus.BUSY.getValue();
+    private static final String FAILED = MLConstants.DatasetStatus.FAILED.getValue();
+    private static final String COMPLETE = MLConstants.MODEL_STATUS_COMPLETE;
+    private static final String IN_PROGRESS = MLConstants.MODEL_STATUS_IN_PROGRESS;
+    private static final int COUNT = 10;
+
+    private Connection keepAliveConnection;
+    private MLDatabaseService databaseService;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:ml_paging_test;DB_CLOSE_DELAY=-1");
+        h2DataSource.setUser("sa");
+        h2DataSource.setPassword("");
+        keepAliveConnection = h2DataSource.getConnection();
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("RUNSCRIPT FROM '" + H2_SCRIPT + "'");
+        statement.close();
+        databaseService = new MLDatabaseService(h2DataSource);
+
+        // datasets and models with an even id are available, the others are busy
+        SamplePoints samplePoints = new SamplePoints();
+        samplePoints.setGenerated(true);
+        for (int id = 1; id <= COUNT; id++) {
+            createDataset(id);
+            if (id % 2 == 0) {
+                databaseService.updateSamplePoints(id, samplePoints);
+            }
+            createModel(id, id % 2 == 0 ? COMPLETE : IN_PROGRESS);
+        }
+        // one more dataset failed to generate its sample points
+        createDataset(COUNT + 1);
+        databaseService.updateSamplePoints(COUNT + 1, new SamplePoints());
+    }
+
+    @AfterClass
+    public void tearDown() throws SQLException {
+        keepAliveConnection.close();
+    }
+
+    @Test
+    public void testDatasetsPagedWithStatus() throws Exception {
+        List<MLDataset> datasets = databaseService.getAllDatasets(TENANT_ID, USER_NAME, AVAILABLE, 2, 1);
+        Assert.assertEquals(datasets.size(), 2);
+        Assert.assertEquals(datasets.get(0).getId(), 4);
+        Assert.assertEquals(datasets.get(1).getId(), 6);
+        for (MLDataset dataset : datasets) {
+            Assert.assertEquals(dataset.getStatus(), AVAILABLE);
+        }
+
+        datasets = databaseService.getAllDatasets(TENANT_ID, USER_NAME, BUSY, 3, 3);
+        Assert.assertEquals(datasets.size(), 2);
+        Assert.assertEquals(datasets.get(0).getId(), 7);
+        Assert.assertEquals(datasets.get(1).getId(), 9);
+    }
+
+    @Test
+    public void testDatasetsWithStatus() throws Exception {
+        List<MLDataset> datasets = databaseService.getAllDatasets(TENANT_ID, USER_NAME, BUSY, 0, 0);
+        Assert.assertEquals(datasets.size(), COUNT / 2);
+        Assert.assertEquals(databaseService.getAllDatasets(TENANT_ID, USER_NAME, null, 4, 8).size(), 3);
+
+        datasets = databaseService.getAllDatasets(TENANT_ID, USER_NAME, FAILED, 0, 0);
+        Assert.assertEquals(datasets.size(), 1);
+        Assert.assertEquals(datasets.get(0).getId(), COUNT + 1);
+        Assert.assertEquals(datasets.get(0).getStatus(), FAILED);
+    }
+
+    @Test
+    public void testModelsPagedWithStatus() throws Exception {
+        List<MLModelData> models = databaseService.getAllModels(TENANT_ID, USER_NAME, COMPLETE, 2, 1);
+        Assert.assertEquals(models.size(), 2);
+        Assert.assertEquals(models.get(0).getId(), 4);
+        Assert.assertEquals(models.get(1).getId(), 6);
+        for (MLModelData model : models) {
+            Assert.assertEquals(model.getStatus(), COMPLETE);
+        }
+
+        models = databaseService.getAllModels(TENANT_ID, USER_NAME, IN_PROGRESS, 3, 3);
+        Assert.assertEquals(models.size(), 2);
+        Assert.assertEquals(models.get(0).getId(), 7);
+        Assert.assertEquals(models.get(1).getId(), 9);
+    }
+
+    @Test
+    public void testModelsWithStatus() throws Exception {
+        Assert.assertEquals(databaseService.getAllModels(TENANT_ID, USER_NAME, COMPLETE, 0, 0).size(), COUNT / 2);
+        Assert.assertEquals(databaseService.getAllModels(TENANT_ID, USER_NAME, null, 4, 8).size(), 2);
+        Assert.assertTrue(databaseService.getAllModels(TENANT_ID, USER_NAME, MLConstants.MODEL_STATUS_FAILED, 4, 0).isEmpty());
+    }
+
+    /**
+     * Create a dataset schema with a version, the version has no sample points yet, hence it is in progress.
+     */
+    private void createDataset(long id) throws SQLException {
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("INSERT INTO ML_DATASET_SCHEMA(DATASET_SCHEMA_ID, NAME, TENANT_ID, USERNAME) VALUES(" + id
+                + ", 'dataset" + id + "', " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.execute("INSERT INTO ML_DATASET_VERSION(DATASET_VERSION_ID, DATASET_SCHEMA_ID, NAME, VERSION, "
+                + "TENANT_ID, USERNAME, STATUS) VALUES(" + id + ", " + id + ", 'dataset" + id + "', '1.0', "
+                + TENANT_ID + ", '" + USER_NAME + "', '" + MLConstants.DatasetVersionStatus.IN_PROGRESS.getValue()
+                + "')");
+        statement.close();
+    }
+
+    /**
+     * Create a model with a project and an analysis of a dataset.
+     */
+    private void createModel(long id, String status) throws SQLException {
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("INSERT INTO ML_PROJECT(PROJECT_ID, NAME, DATASET_SCHEMA_ID, TENANT_ID, USERNAME) VALUES("
+                + id + ", 'project" + id + "', " + id + ", " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.execute("INSERT INTO ML_ANALYSIS(ANALYSIS_ID, PROJECT_ID, NAME, TENANT_ID, USERNAME) VALUES(" + id
+                + ", " + id + ", 'analysis" + id + "', " + TENANT_ID + ", '" + USER_NAME + "')");
+        statement.execute("INSERT INTO ML_MODEL(MODEL_ID, NAME, ANALYSIS_ID, DATASET_VERSION_ID, TENANT_ID, "
+                + "USERNAME, STATUS) VALUES(" + id + ", 'model" + id + "', " + id + ", " + id + ", " + TENANT_ID
+                + ", '" + USER_NAME + "', '" + status + "')");
+        statement.close();
+    }
+}
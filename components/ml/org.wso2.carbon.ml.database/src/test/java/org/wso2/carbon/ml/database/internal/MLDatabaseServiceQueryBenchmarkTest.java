@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.constants.MLConstants;
+import org.wso2.carbon.ml.commons.domain.FeatureSummary;
+import org.wso2.carbon.ml.commons.domain.ModelBuildSnapshot;
+import org.wso2.carbon.ml.commons.domain.Workflow;
+import org.wso2.carbon.ml.database.internal.constants.SQLQueries;
+
+/**
+ * Checks that the query plans of the read paths of {@link MLDatabaseService} do not scan whole tables, on an embedded
+ * H2 database seeded with a large number of rows. The timings of those reads are a benchmark rather than a unit test,
+ * hence {@link #testThroughput()} is disabled, and enabled only when measuring.
+ */
+public class MLDatabaseServiceQueryBenchmarkTest {
+
+    private static final Log log = LogFactory.getLog(MLDatabaseServiceQueryBenchmarkTest.class);
+    private static final String H2_SCRIPT = "../../../features/ml/org.wso2.carbon.ml.database.feature/src/main/"
+            + "resources/dbscripts/h2.sql";
+    private static final int TENANTS = 10;
+    private static final int DATASETS = 200;
+    private static final int VERSIONS_PER_DATASET = 3;
+    private static final int FEATURES_PER_DATASET = 50;
+    private static final int MODELS_PER_ANALYSIS = 10;
+    private static final int ITERATIONS = 200;
+
+    private Connection keepAliveConnection;
+    private MLDatabaseService databaseService;
+
+    @BeforeClass
+    public void setUp() throws SQLException {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:ml_query_benchmark;DB_CLOSE_DELAY=-1");
+        h2DataSource.setUser("sa");
+        h2DataSource.setPassword("");
+        keepAliveConnection = h2DataSource.getConnection();
+        Statement statement = keepAliveConnection.createStatement();
+        statement.execute("RUNSCRIPT FROM '" + H2_SCRIPT + "'");
+        statement.close();
+        long start = System.nanoTime();
+        seed();
+        log.info(String.format("Seeded the database in %.2f ms", (System.nanoTime() - start) / 1000000.0));
+        databaseService = new MLDatabaseService(h2DataSource);
+    }
+
+    @AfterClass
+    public void tearDown() throws SQLException {
+        keepAliveConnection.close();
+    }
+
+    @Test
+    public void testQueryPlans() throws SQLException {
+        assertNoTableScan(SQLQueries.GET_FEATURES, 7L, 7L, tenantOf(7), userOf(7), 50, 0);
+        assertNoTableScan(SQLQueries.GET_SUMMARY_STATS, 7L, "feature7", tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_SUMMARY_STATS_OF_DATASET, 7L, "feature7");
+        assertNoTableScan(SQLQueries.GET_ALL_ML_MODELS, tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_ML_MODEL, "model7_0", tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_VERSIONSET_ID, "dataset7-v1", tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_DATASET_ID, "dataset7", tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_ALL_PROJECTS, tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_ALL_ANALYSES, tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_MODEL_BUILD_DETAILS, 61L, tenantOf(7), userOf(7));
+        assertNoTableScan(SQLQueries.GET_MODEL_BUILD_FEATURES, 61L);
+        assertNoTableScan(SQLQueries.GET_MODEL_BUILD_SETTINGS, 7L, 7L);
+    }
+
+    @Test
+    public void testGetFeatures() throws Exception {
+        List<FeatureSummary> features = databaseService.getFeatures(tenantOf(7), userOf(7), 7, 0,
+                FEATURES_PER_DATASET);
+        Assert.assertEquals(features.size(), FEATURES_PER_DATASET);
+        // summary statistics of the latest dataset version
+        Assert.assertEquals(features.get(0).getSummaryStats(), summaryOf(7, VERSIONS_PER_DATASET - 1));
+    }
+
+    @Test
+    public void testGetSummaryStats() throws Exception {
+        Assert.assertFalse(databaseService.getSummaryStats(tenantOf(7), userOf(7), 7, "feature7").isEmpty());
+    }
+
+    @Test
+    public void testGetModels() throws Exception {
+        Assert.assertEquals(databaseService.getAllModels(tenantOf(7), userOf(7)).size(), DATASETS / TENANTS
+                * MODELS_PER_ANALYSIS);
+    }
+
+    @Test
+    public void testGetModelBuildSnapshot() throws Exception {
+        long modelId = databaseService.getModel(tenantOf(7), userOf(7), "model7_0").getId();
+        ModelBuildSnapshot snapshot = databaseService.getModelBuildSnapshot(tenantOf(7), userOf(7), modelId);
+        long datasetVersionId = 7 * VERSIONS_PER_DATASET + VERSIONS_PER_DATASET - 1;
+        Assert.assertEquals(snapshot.getDatasetId(), 7);
+        Assert.assertEquals(snapshot.getDatasetVersionId(), datasetVersionId);
+        Assert.assertEquals(snapshot.getDatasetVersionName(), "dataset7-v" + (VERSIONS_PER_DATASET - 1));
+        Assert.assertEquals(snapshot.getFeatureNames().size(), FEATURES_PER_DATASET);
+        Assert.assertEquals(snapshot.getHeaderRow(","), databaseService.getFeatureNamesInOrder(7, ","));
+        // summary statistics of the dataset version of the model
+        Assert.assertEquals(snapshot.getFeatureStatistics().get("feature3").getMean(),
+                Double.parseDouble("7." + (VERSIONS_PER_DATASET - 1)));
+
+        Workflow workflow = databaseService.getWorkflow(7, "model7_0");
+        Workflow snapshotWorkflow = snapshot.getWorkflow();
+        Assert.assertEquals(snapshotWorkflow.getFeatures().size(), workflow.getFeatures().size());
+        Assert.assertEquals(snapshotWorkflow.getAlgorithmName(), "LOGISTIC_REGRESSION");
+        Assert.assertEquals(snapshotWorkflow.getResponseVariable(), workflow.getResponseVariable());
+        Assert.assertEquals(snapshotWorkflow.getTrainDataFraction(), 0.7);
+        Assert.assertTrue(snapshotWorkflow.getNormalization());
+        Assert.assertEquals(snapshotWorkflow.getAllHyperParameters(), workflow.getAllHyperParameters());
+        Assert.assertEquals(snapshotWorkflow.getAllHyperParameters().get("LOGISTIC_REGRESSION").get("Iterations"),
+                "100");
+        Assert.assertNull(databaseService.getModelBuildSnapshot(tenantOf(8), userOf(8), modelId));
+    }
+
+    @Test
+    public void testGetIdsByName() throws Exception {
+        Assert.assertEquals(databaseService.getDatasetId("dataset7", tenantOf(7), userOf(7)), 7);
+    }
+
+    /**
+     * Logs the time taken per call by the main read paths.
+     */
+    @Test(enabled = false)
+    public void testThroughput() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int dataset = i % DATASETS + 1;
+            databaseService.getFeatures(tenantOf(dataset), userOf(dataset), dataset, 0, FEATURES_PER_DATASET);
+        }
+        report("getFeatures", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int dataset = i % DATASETS + 1;
+            databaseService.getSummaryStats(tenantOf(dataset), userOf(dataset), dataset, "feature" + i
+                    % FEATURES_PER_DATASET);
+        }
+        report("getSummaryStats(analysis)", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            databaseService.getSummaryStats(i % DATASETS + 1, "feature" + i % FEATURES_PER_DATASET);
+        }
+        report("getSummaryStats(dataset)", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            databaseService.getAllModels(tenantOf(i), userOf(i));
+        }
+        report("getAllModels", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int analysis = i % DATASETS + 1;
+            databaseService.getModel(tenantOf(analysis), userOf(analysis), "model" + analysis + "_0");
+        }
+        report("getModel", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int analysis = i % DATASETS + 1;
+            long id = (long) (analysis - 1) * MODELS_PER_ANALYSIS + 1;
+            long versionId = databaseService.getDatasetVersionIdOfModel(id);
+            databaseService.getDataset(tenantOf(analysis), userOf(analysis), databaseService.getDatasetId(versionId));
+            databaseService.getDataTypeOfModel(id);
+            databaseService.getDatasetVersionUri(versionId);
+            databaseService.getModel(tenantOf(analysis), userOf(analysis), id);
+            databaseService.getWorkflow(analysis, "model" + analysis + "_0");
+            databaseService.getVersionset(tenantOf(analysis), userOf(analysis), versionId);
+            databaseService.getFeatureStatistics(versionId);
+            databaseService.getFeatureNamesInOrderUsingDatasetVersion(versionId, ",");
+        }
+        report("model build lookups", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int analysis = i % DATASETS + 1;
+            databaseService.getModelBuildSnapshot(tenantOf(analysis), userOf(analysis), (long) (analysis - 1)
+                    * MODELS_PER_ANALYSIS + 1);
+        }
+        report("getModelBuildSnapshot", start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int dataset = i % DATASETS + 1;
+            databaseService.getDatasetId("dataset" + dataset, tenantOf(dataset), userOf(dataset));
+            databaseService.getVersionsetId("dataset" + dataset + "-v1", tenantOf(dataset), userOf(dataset));
+        }
+        report("getDatasetId and getVersionsetId", start);
+    }
+
+    private void report(String operation, long start) {
+        log.info(String.format("%s: %d calls, %.3f ms per call", operation, ITERATIONS,
+                (System.nanoTime() - start) / 1000000.0 / ITERATIONS));
+    }
+
+    private void assertNoTableScan(String query, Object... parameters) throws SQLException {
+        PreparedStatement statement = keepAliveConnection.prepareStatement("EXPLAIN " + query);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        ResultSet result = statement.executeQuery();
+        result.next();
+        String plan = result.getString(1);
+        result.close();
+        statement.close();
+        Assert.assertFalse(plan.contains(".tableScan"), "Query scans a whole table: " + plan);
+    }
+
+    private static int tenantOf(int entity) {
+        return -1234 - entity % TENANTS;
+    }
+
+    private static String userOf(int entity) {
+        return "user" + entity % TENANTS;
+    }
+
+    private static String summaryOf(int dataset, int version) {
+        return "[{\"mean\":\"" + dataset + "." + version + "\"}]";
+    }
+
+    /**
+     * Seed datasets with their versions, features and summary statistics, and a project, an analysis and models
+     * for each dataset. Entities of dataset i have id i, and belong to the tenant and user of i.
+     */
+    private void seed() throws SQLException {
+        keepAliveConnection.setAutoCommit(false);
+        PreparedStatement dataset = keepAliveConnection.prepareStatement("INSERT INTO ML_DATASET_SCHEMA("
+                + "DATASET_SCHEMA_ID, NAME, TENANT_ID, USERNAME) VALUES(?, ?, ?, ?)");
+        PreparedStatement version = keepAliveConnection.prepareStatement("INSERT INTO ML_DATASET_VERSION("
+                + "DATASET_VERSION_ID, DATASET_SCHEMA_ID, NAME, VERSION, TENANT_ID, USERNAME) VALUES(?, ?, ?, ?, ?, ?)");
+        PreparedStatement feature = keepAliveConnection.prepareStatement("INSERT INTO ML_FEATURE_DEFAULTS("
+                + "FEATURE_ID, DATASET_SCHEMA_ID, FEATURE_INDEX, FEATURE_NAME, TYPE) VALUES(?, ?, ?, ?, 'NUMERICAL')");
+        PreparedStatement summary = keepAliveConnection.prepareStatement("INSERT INTO ML_FEATURE_SUMMARY("
+                + "FEATURE_ID, FEATURE_NAME, DATASET_VERSION_ID, SUMMARY) VALUES(?, ?, ?, ?)");
+        PreparedStatement project = keepAliveConnection.prepareStatement("INSERT INTO ML_PROJECT(PROJECT_ID, NAME, "
+                + "DATASET_SCHEMA_ID, TENANT_ID, USERNAME) VALUES(?, ?, ?, ?, ?)");
+        PreparedStatement analysis = keepAliveConnection.prepareStatement("INSERT INTO ML_ANALYSIS(ANALYSIS_ID, "
+                + "PROJECT_ID, NAME, TENANT_ID, USERNAME) VALUES(?, ?, ?, ?, ?)");
+        PreparedStatement customized = keepAliveConnection.prepareStatement("INSERT INTO ML_FEATURE_CUSTOMIZED("
+                + "ANALYSIS_ID, TENANT_ID, FEATURE_NAME, FEATURE_INDEX, FEATURE_TYPE, IMPUTE_OPTION, INCLUSION, "
+                + "USERNAME, FEATURE_ID) VALUES(?, ?, ?, ?, 'NUMERICAL', 'DISCARD', TRUE, ?, ?)");
+        PreparedStatement model = keepAliveConnection.prepareStatement("INSERT INTO ML_MODEL(NAME, ANALYSIS_ID, "
+                + "DATASET_VERSION_ID, TENANT_ID, USERNAME, STATUS) VALUES(?, ?, ?, ?, ?, 'Complete')");
+        PreparedStatement configuration = keepAliveConnection.prepareStatement("INSERT INTO "
+                + "ML_MODEL_CONFIGURATION(ANALYSIS_ID, `KEY`, VALUE) VALUES(?, ?, ?)");
+        PreparedStatement hyperParameter = keepAliveConnection.prepareStatement("INSERT INTO ML_HYPER_PARAMETER("
+                + "ANALYSIS_ID, ALGORITHM_NAME, NAME, TENANT_ID, VALUE, USERNAME) VALUES(?, 'LOGISTIC_REGRESSION', ?, "
+                + "?, ?, ?)");
+        String[][] configurations = { { MLConstants.ALGORITHM_NAME, "LOGISTIC_REGRESSION" },
+                { MLConstants.RESPONSE_VARIABLE, "feature0" }, { MLConstants.TRAIN_DATA_FRACTION, "0.7" },
+                { MLConstants.NORMALIZATION, "true" } };
+        String[][] hyperParameters = { { "Iterations", "100" }, { "Learning_Rate", "0.1" } };
+
+        for (int i = 1; i <= DATASETS; i++) {
+            dataset.setLong(1, i);
+            dataset.setString(2, "dataset" + i);
+            dataset.setInt(3, tenantOf(i));
+            dataset.setString(4, userOf(i));
+            dataset.addBatch();
+            for (int v = 0; v < VERSIONS_PER_DATASET; v++) {
+                version.setLong(1, (long) i * VERSIONS_PER_DATASET + v);
+                version.setLong(2, i);
+                version.setString(3, "dataset" + i + "-v" + v);
+                version.setString(4, "v" + v);
+                version.setInt(5, tenantOf(i));
+                version.setString(6, userOf(i));
+                version.addBatch();
+            }
+            project.setLong(1, i);
+            project.setString(2, "project" + i);
+            project.setLong(3, i);
+            project.setInt(4, tenantOf(i));
+            project.setString(5, userOf(i));
+            project.addBatch();
+            analysis.setLong(1, i);
+            analysis.setLong(2, i);
+            analysis.setString(3, "analysis" + i);
+            analysis.setInt(4, tenantOf(i));
+            analysis.setString(5, userOf(i));
+            analysis.addBatch();
+            for (int f = 0; f < FEATURES_PER_DATASET; f++) {
+                long featureId = (long) i * FEATURES_PER_DATASET + f;
+                feature.setLong(1, featureId);
+                feature.setLong(2, i);
+                feature.setInt(3, f);
+                feature.setString(4, "feature" + f);
+                feature.addBatch();
+                for (int v = 0; v < VERSIONS_PER_DATASET; v++) {
+                    summary.setLong(1, featureId);
+                    summary.setString(2, "feature" + f);
+                    summary.setLong(3, (long) i * VERSIONS_PER_DATASET + v);
+                    summary.setString(4, summaryOf(i, v));
+                    summary.addBatch();
+                }
+                customized.setLong(1, i);
+                customized.setInt(2, tenantOf(i));
+                customized.setString(3, "feature" + f);
+                customized.setInt(4, f);
+                customized.setString(5, userOf(i));
+                customized.setLong(6, featureId);
+                customized.addBatch();
+            }
+            for (String[] keyValue : configurations) {
+                configuration.setLong(1, i);
+                configuration.setString(2, keyValue[0]);
+                configuration.setString(3, keyValue[1]);
+                configuration.addBatch();
+            }
+            for (String[] nameValue : hyperParameters) {
+                hyperParameter.setLong(1, i);
+                hyperParameter.setString(2, nameValue[0]);
+                hyperParameter.setInt(3, tenantOf(i));
+                hyperParameter.setString(4, nameValue[1]);
+                hyperParameter.setString(5, userOf(i));
+                hyperParameter.addBatch();
+            }
+            for (int m = 0; m < MODELS_PER_ANALYSIS; m++) {
+                model.setString(1, "model" + i + "_" + m);
+                model.setLong(2, i);
+                model.setLong(3, (long) i * VERSIONS_PER_DATASET + VERSIONS_PER_DATASET - 1);
+                model.setInt(4, tenantOf(i));
+                model.setString(5, userOf(i));
+                model.addBatch();
+            }
+        }
+        for (PreparedStatement statement : new PreparedStatement[] { dataset, version, feature, summary, project,
+                analysis, customized, model, configuration, hyperParameter }) {
+            statement.executeBatch();
+            statement.close();
+        }
+        keepAliveConnection.commit();
+        keepAliveConnection.setAutoCommit(true);
+    }
+}
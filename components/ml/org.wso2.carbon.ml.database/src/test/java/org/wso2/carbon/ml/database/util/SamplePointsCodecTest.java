@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.database.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.ml.commons.domain.SamplePoints;
+
+public class SamplePointsCodecTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        SamplePoints samplePoints = createSamplePoints();
+        SamplePoints decoded = SamplePointsCodec.decode(new ByteArrayInputStream(SamplePointsCodec
+                .encode(samplePoints)));
+
+        Assert.assertTrue(decoded.isGenerated());
+        Assert.assertEquals(decoded.getHeader(), samplePoints.getHeader());
+        Assert.assertEquals(decoded.getSamplePoints(), samplePoints.getSamplePoints());
+        Assert.assertEquals(decoded.getMissing(), samplePoints.getMissing());
+        Assert.assertEquals(decoded.getStringCellCount(), samplePoints.getStringCellCount());
+        Assert.assertEquals(decoded.getDecimalCellCount(), samplePoints.getDecimalCellCount());
+    }
+
+    @Test
+    public void testDecodeColumns() throws Exception {
+        byte[] encoded = SamplePointsCodec.encode(createSamplePoints());
+        Map<String, SamplePointsCodec.Column> columns = SamplePointsCodec.decodeColumns(new ByteArrayInputStream(
+                encoded), Arrays.asList("price", "city", "unknown"));
+
+        Assert.assertEquals(columns.size(), 2);
+        SamplePointsCodec.Column price = columns.get("price");
+        Assert.assertEquals(price.size(), 4);
+        Assert.assertTrue(price.isNumber(0));
+        Assert.assertEquals(price.getDouble(0), 1.5);
+        Assert.assertFalse(price.isNumber(2));
+        Assert.assertEquals(price.getString(2), "");
+        Assert.assertEquals(price.getString(3), "3.25");
+        SamplePointsCodec.Column city = columns.get("city");
+        Assert.assertFalse(city.isNumber(0));
+        Assert.assertEquals(city.getString(1), "Kandy");
+        Assert.assertNull(city.getString(3));
+    }
+
+    @Test
+    public void testNumbersAreReadBackExactly() throws Exception {
+        SamplePoints samplePoints = new SamplePoints();
+        Map<String, Integer> header = new HashMap<String, Integer>();
+        header.put("id", 0);
+        samplePoints.setHeader(header);
+        List<List<String>> columns = new ArrayList<List<String>>();
+        columns.add(new ArrayList<String>(Arrays.asList("1", "007", "-42", "?", "9223372036854775807")));
+        samplePoints.setSamplePoints(columns);
+
+        SamplePoints decoded = SamplePointsCodec.decode(new ByteArrayInputStream(SamplePointsCodec
+                .encode(samplePoints)));
+        Assert.assertEquals(decoded.getSamplePoints(), columns);
+    }
+
+    @Test
+    public void testJavaSerializedSamplePoints() throws Exception {
+        SamplePoints samplePoints = createSamplePoints();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(samplePoints);
+        out.close();
+
+        SamplePoints decoded = SamplePointsCodec.decode(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(decoded.getSamplePoints(), samplePoints.getSamplePoints());
+        Map<String, SamplePointsCodec.Column> columns = SamplePointsCodec.decodeColumns(new ByteArrayInputStream(
+                bytes.toByteArray()), Arrays.asList("count"));
+        Assert.assertEquals(columns.get("count").getString(1), "20");
+    }
+
+    private SamplePoints createSamplePoints() {
+        SamplePoints samplePoints = new SamplePoints();
+        Map<String, Integer> header = new HashMap<String, Integer>();
+        header.put("city", 0);
+        header.put("count", 1);
+        header.put("price", 2);
+        samplePoints.setHeader(header);
+        List<List<String>> columns = new ArrayList<List<String>>();
+        columns.add(new ArrayList<String>(Arrays.asList("Colombo", "Kandy", "Galle", null)));
+        columns.add(new ArrayList<String>(Arrays.asList("10", "20", "30", "40")));
+        columns.add(new ArrayList<String>(Arrays.asList("1.5", "2.0", "", "3.25")));
+        samplePoints.setSamplePoints(columns);
+        samplePoints.setMissing(new int[] { 1, 0, 1 });
+        samplePoints.setStringCellCount(new int[] { 3, 0, 0 });
+        samplePoints.setDecimalCellCount(new int[] { 0, 0, 3 });
+        samplePoints.setGenerated(true);
+        return samplePoints;
+    }
+}
@@ -695,17 +695,21 @@ public class AnalysisApiV11 extends MLRestAPI {
 
     /**
      * Retrieve all analyses.
+     * @param limit Number of analyses to retrieve, all of them if not given
+     * @param offset Number of analyses to skip
+     * @param fields Comma separated fields of the analyses to be returned, all of them if not given
      * @return JSON array of {@link MLAnalysis} objects
      */
     @GET
     @Produces("application/json")
-    public Response getAllAnalyses() {
+    public Response getAllAnalyses(@QueryParam("limit") int limit, @QueryParam("offset") int offset,
+            @QueryParam("fields") String fields) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
-            List<MLAnalysis> analyses = mlAnalysisHandler.getAnalyses(tenantId, userName);
-            return Response.ok(analyses).build();
+            List<MLAnalysis> analyses = mlAnalysisHandler.getAnalyses(tenantId, userName, limit, offset);
+            return Response.ok(project(analyses, fields)).build();
         } catch (MLAnalysisHandlerException e) {
             String msg = MLUtils.getErrorMsg(String.format(
                     "Error occurred while retrieving all analyses of tenant [id] %s and [user] %s .", tenantId,
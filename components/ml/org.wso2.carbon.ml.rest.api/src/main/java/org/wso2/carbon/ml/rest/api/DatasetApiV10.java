@@ -139,33 +139,30 @@ public class DatasetApiV10 extends MLRestAPI {
      * Get all datasets of this tenant and user.
      *
      * @param status Status of the dataset
+     * @param limit Number of datasets to retrieve, all of them if not given
+     * @param offset Number of datasets of the status to skip
+     * @param fields Comma separated fields of the datasets to be returned, all of them if not given
      * @return JSON array of {@link org.wso2.carbon.ml.rest.api.model.MLDatasetBean} objects
      */
     @GET
     @Produces("application/json")
-    public Response getAllDatasets(@QueryParam("status") String status) {
+    public Response getAllDatasets(@QueryParam("status") String status, @QueryParam("limit") int limit,
+            @QueryParam("offset") int offset, @QueryParam("fields") String fields) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
             List<MLDatasetBean> datasetBeans = new ArrayList<MLDatasetBean>();
-            List<MLDataset> datasets = datasetProcessor.getAllDatasets(tenantId, userName);
+            List<MLDataset> datasets = datasetProcessor.getAllDatasets(tenantId, userName, status, limit, offset);
             for (MLDataset dataset : datasets) {
                 MLDatasetBean datasetBean = new MLDatasetBean();
                 datasetBean.setId(dataset.getId());
                 datasetBean.setName(dataset.getName());
                 datasetBean.setComments(dataset.getComments());
                 datasetBean.setStatus(dataset.getStatus());
-                if(status != null) {
-                    if(status.equals(datasetBean.getStatus())) {
-                        datasetBeans.add(datasetBean);
-                    }
-                }
-                else {
-                    datasetBeans.add(datasetBean);
-                }
+                datasetBeans.add(datasetBean);
             }
-            return Response.ok(datasetBeans).build();
+            return Response.ok(project(datasetBeans, fields)).build();
         } catch (MLDataProcessingException e) {
             String msg = MLUtils.getErrorMsg(String.format(
                     "Error occurred while retrieving all datasets of tenant [id] %s and [user] %s .", tenantId,
@@ -179,18 +176,20 @@ public class DatasetApiV10 extends MLRestAPI {
     /**
      * Get all datasets with their versions.
      *
+     * @param limit Number of datasets to retrieve, all of them if not given
+     * @param offset Number of datasets to skip
      * @return JSON array of {@link org.wso2.carbon.ml.rest.api.model.MLDatasetBean} objects
      */
     @GET
     @Path("/versions")
     @Produces("application/json")
-    public Response getAllDatasetVersions() {
+    public Response getAllDatasetVersions(@QueryParam("limit") int limit, @QueryParam("offset") int offset) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
             List<MLDatasetBean> datasetBeans = new ArrayList<MLDatasetBean>();
-            List<MLDataset> datasets = datasetProcessor.getAllDatasets(tenantId, userName);
+            List<MLDataset> datasets = datasetProcessor.getAllDatasets(tenantId, userName, limit, offset);
             for (MLDataset mlDataset : datasets) {
                 MLDatasetBean datasetBean = new MLDatasetBean();
                 long datasetId = mlDataset.getId();
@@ -286,18 +285,23 @@ public class DatasetApiV10 extends MLRestAPI {
      * Get all versions of a dataset.
      *
      * @param datasetId ID of the dataset
+     * @param limit Number of versions to retrieve, all of them if not given
+     * @param offset Number of versions to skip
+     * @param fields Comma separated fields of the versions to be returned, all of them if not given
      * @return JSON array of {@link org.wso2.carbon.ml.commons.domain.MLDatasetVersion} objects
      */
     @GET
     @Path("/{datasetId}/versions")
     @Produces("application/json")
-    public Response getAllVersionsets(@PathParam("datasetId") long datasetId) {
+    public Response getAllVersionsets(@PathParam("datasetId") long datasetId, @QueryParam("limit") int limit,
+            @QueryParam("offset") int offset, @QueryParam("fields") String fields) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
-            List<MLDatasetVersion> versionsets = datasetProcessor.getAllDatasetVersions(tenantId, userName, datasetId);
-            return Response.ok(versionsets).build();
+            List<MLDatasetVersion> versionsets = datasetProcessor.getAllDatasetVersions(tenantId, userName, datasetId,
+                    limit, offset);
+            return Response.ok(project(versionsets, fields)).build();
         } catch (MLDataProcessingException e) {
             String msg = MLUtils
                     .getErrorMsg(
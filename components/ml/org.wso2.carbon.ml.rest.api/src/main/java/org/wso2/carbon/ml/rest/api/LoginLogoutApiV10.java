@@ -28,6 +28,7 @@ import javax.ws.rs.core.Response;
 
 import org.apache.http.HttpHeaders;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.ml.rest.api.handler.AuthenticationCache;
 
 /**
  * WSO2 ML Login logout API. This is responsible for managing user sessions.
@@ -89,6 +90,7 @@ public class LoginLogoutApiV10 extends MLRestAPI {
         if (session != null) {
             session.invalidate();
         }
+        AuthenticationCache.getInstance().invalidate(tenantDomain, username);
         auditLog.info(String.format(
                 "User [name] %s of tenant [id] %s [domain] %s is logged-out from WSO2 Machine Learner. "
                         + "Granted session id is %s", username, tenantId, tenantDomain, session == null ? null
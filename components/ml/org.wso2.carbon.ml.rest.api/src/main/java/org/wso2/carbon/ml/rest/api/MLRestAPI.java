@@ -15,12 +15,20 @@
  */
 package org.wso2.carbon.ml.rest.api;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.wso2.carbon.context.CarbonContext;
 
 public abstract class MLRestAPI {
     protected static final Log auditLog = LogFactory.getLog("AUDIT_LOG");
+    private static final ObjectMapper mapper = new ObjectMapper();
     private String tenantID = null;
 
     protected String getTenantID() {
@@ -29,4 +37,33 @@ public abstract class MLRestAPI {
 
         return tenantID;
     }
+
+    /**
+     * Project a list of beans to the requested fields. The projection is applied to the retrieved beans, the list
+     * queries still read all the listed columns, which leave out the large summary columns.
+     *
+     * @param beans  beans to be returned
+     * @param fields comma separated names of the JSON fields to be kept, all the fields are kept if empty
+     * @return the given beans if no fields are requested, otherwise a list of maps holding only the requested fields
+     */
+    @SuppressWarnings("unchecked")
+    protected static List<?> project(List<?> beans, String fields) {
+        if (StringUtils.isBlank(fields)) {
+            return beans;
+        }
+        String[] fieldNames = StringUtils.split(fields, ',');
+        List<Map<String, Object>> projected = new ArrayList<Map<String, Object>>(beans.size());
+        for (Object bean : beans) {
+            Map<String, Object> values = mapper.convertValue(bean, Map.class);
+            Map<String, Object> projectedValues = new LinkedHashMap<String, Object>();
+            for (String fieldName : fieldNames) {
+                fieldName = fieldName.trim();
+                if (values.containsKey(fieldName)) {
+                    projectedValues.put(fieldName, values.get(fieldName));
+                }
+            }
+            projected.add(projectedValues);
+        }
+        return projected;
+    }
 }
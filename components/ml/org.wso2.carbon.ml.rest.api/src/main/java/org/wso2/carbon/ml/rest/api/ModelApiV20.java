@@ -20,6 +20,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
@@ -31,10 +34,16 @@ import javax.ws.rs.core.UriInfo;
 import com.owlike.genson.Genson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
+import org.apache.cxf.jaxrs.ext.MessageContext;
 import org.apache.cxf.jaxrs.ext.multipart.Multipart;
 import org.apache.hadoop.fs.InvalidRequestException;
 import org.apache.http.HttpHeaders;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.metrics.manager.Level;
+import org.wso2.carbon.metrics.manager.MetricManager;
+import org.wso2.carbon.metrics.manager.Timer;
 import org.wso2.carbon.ml.commons.constants.MLConstants;
 import org.wso2.carbon.ml.commons.domain.MLModel;
 import org.wso2.carbon.ml.commons.domain.MLModelData;
@@ -46,6 +55,7 @@ import org.wso2.carbon.ml.core.exceptions.MLModelPublisherException;
 import org.wso2.carbon.ml.core.impl.MLModelHandler;
 import org.wso2.carbon.ml.commons.domain.config.MLAlgorithm;
 import org.wso2.carbon.ml.core.exceptions.MLPmmlExportException;
+import org.wso2.carbon.ml.core.utils.ColumnarData;
 import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
 import org.wso2.carbon.ml.core.utils.MLUtils;
 import org.wso2.carbon.ml.rest.api.model.MLErrorBean;
@@ -60,6 +70,9 @@ public class ModelApiV20 extends MLRestAPI {
     private static final Log logger = LogFactory.getLog(ModelApiV20.class);
     private MLModelHandler mlModelHandler;
 
+    @Context
+    private MessageContext messageContext;
+
     public ModelApiV20() {
         mlModelHandler = new MLModelHandler();
     }
@@ -376,6 +389,86 @@ public class ModelApiV20 extends MLRestAPI {
         }
     }
 
+    /**
+     * Make predictions using a model, without holding a request thread while the model is loaded and scored. The
+     * prediction is queued in the scoring executor, which serves tenants in turn, and the request is resumed when it
+     * completes.
+     *
+     * @param modelId Unique id of the model
+     * @param data List of string arrays containing the feature values used for predictions
+     * @param percentile a threshold value used to identified cluster boundaries
+     * @param skipDecoding whether the decoding should not be done (true or false)
+     * @return JSON array of predicted values
+     */
+    @POST
+    @Path("/{modelId}/predict/async")
+    @Produces("application/json")
+    @Consumes("application/json")
+    public Response predictAsync(@PathParam("modelId") final long modelId, final List<String[]> data,
+            @QueryParam("percentile") final double percentile,
+            @QueryParam("skipDecoding") final boolean skipDecoding) {
+
+        return dispatch(modelId, new Callable<Response>() {
+            @Override
+            public Response call() {
+                return predict(modelId, data, percentile, skipDecoding);
+            }
+        });
+    }
+
+    /**
+     * Make predictions using a model, with the rows and the predictions in the columnar binary format
+     *
+     * @param modelId Unique id of the model
+     * @param inputStream rows used for predictions, as {@link ColumnarData}
+     * @param percentile a threshold value used to identified cluster boundaries
+     * @param skipDecoding whether the decoding should not be done (true or false)
+     * @return predicted values as a single column {@link ColumnarData}
+     */
+    @POST
+    @Path("/{modelId}/predict")
+    @Produces(ColumnarData.MEDIA_TYPE)
+    @Consumes(ColumnarData.MEDIA_TYPE)
+    public Response predict(@PathParam("modelId") long modelId, InputStream inputStream,
+            @QueryParam("percentile") double percentile, @QueryParam("skipDecoding") boolean skipDecoding) {
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        int tenantId = carbonContext.getTenantId();
+        String userName = carbonContext.getUsername();
+        try {
+            long t1 = System.currentTimeMillis();
+            ColumnarData data = ColumnarData.read(new BufferedInputStream(inputStream),
+                    MLCoreServiceValueHolder.getInstance().getColumnarMaxValues());
+            List<?> predictions = mlModelHandler.predict(tenantId, userName, modelId, data, percentile, skipDecoding);
+            logger.info(String.format("Prediction from model [id] %s finished in %s seconds.", modelId,
+                    (System.currentTimeMillis() - t1) / 1000.0));
+            final ColumnarData predictionData = ColumnarData.fromPredictions(predictions);
+            StreamingOutput stream = new StreamingOutput() {
+                @Override
+                public void write(OutputStream outputStream) throws IOException {
+                    OutputStream out = new BufferedOutputStream(outputStream);
+                    predictionData.write(out);
+                    out.flush();
+                }
+            };
+            return Response.ok(stream).build();
+        } catch (IOException e) {
+            String msg = MLUtils.getErrorMsg(String.format(
+                    "Error occurred while reading the data for model [id] %s of tenant [id] %s and [user] %s.",
+                    modelId, tenantId, userName), e);
+            logger.error(msg, e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(new MLErrorBean(e.getMessage()))
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (MLModelHandlerException e) {
+            String msg = MLUtils.getErrorMsg(String.format(
+                    "Error occurred while predicting from model [id] %s of tenant [id] %s and [user] %s.", modelId,
+                    tenantId, userName), e);
+            logger.error(msg, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(new MLErrorBean(e.getMessage()))
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
     /**
      * Get the model data
      *
@@ -408,17 +501,22 @@ public class ModelApiV20 extends MLRestAPI {
     /**
      * Get all models
      *
+     * @param status Status of the models to retrieve, all of them if not given
+     * @param limit Number of models to retrieve, all of them if not given
+     * @param offset Number of models of the status to skip
+     * @param fields Comma separated fields of the models to be returned, all of them if not given
      * @return JSON array of {@link MLModelData} objects
      */
     @GET
     @Produces("application/json")
-    public Response getAllModels() {
+    public Response getAllModels(@QueryParam("status") String status, @QueryParam("limit") int limit,
+            @QueryParam("offset") int offset, @QueryParam("fields") String fields) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
-            List<MLModelData> models = mlModelHandler.getAllModels(tenantId, userName);
-            return Response.ok(models).build();
+            List<MLModelData> models = mlModelHandler.getAllModels(tenantId, userName, status, limit, offset);
+            return Response.ok(project(models, fields)).build();
         } catch (MLModelHandlerException e) {
             String msg = MLUtils.getErrorMsg(
                     String.format("Error occurred while retrieving all models of tenant [id] %s and [user] %s .",
@@ -584,6 +682,29 @@ public class ModelApiV20 extends MLRestAPI {
         }
     }
 
+    /**
+     * Get a list of recommended products for a given user using the given model, without holding a request thread
+     * while the model is loaded.
+     * @param modelId id of the recommendation model to be used.
+     * @param userId id of the user.
+     * @param noOfProducts number of recommendations required.
+     * @return an array of product recommendations.
+     */
+    @GET
+    @Path("/{modelId}/product-recommendations/async")
+    @Produces("application/json")
+    public Response getProductRecommendationsAsync(@PathParam("modelId") final long modelId,
+            @QueryParam("user-id") final int userId,
+            @QueryParam("no-of-products") final int noOfProducts) {
+
+        return dispatch(modelId, new Callable<Response>() {
+            @Override
+            public Response call() {
+                return getProductRecommendations(modelId, userId, noOfProducts);
+            }
+        });
+    }
+
     /**
      * Get a list of recommended users for a given product using the given model.
      * @param modelId id of the recommendation model to be used.
@@ -614,4 +735,134 @@ public class ModelApiV20 extends MLRestAPI {
         }
     }
 
+    /**
+     * Get a list of recommended users for a given product using the given model, without holding a request thread
+     * while the model is loaded.
+     * @param modelId id of the recommendation model to be used.
+     * @param productId id of the product.
+     * @param noOfUsers number of recommendations required.
+     * @return an array of user recommendations.
+     */
+    @GET
+    @Path("/{modelId}/user-recommendations/async")
+    @Produces("application/json")
+    public Response getUserRecommendationsAsync(@PathParam("modelId") final long modelId,
+            @QueryParam("product-id") final int productId,
+            @QueryParam("no-of-users") final int noOfUsers) {
+
+        return dispatch(modelId, new Callable<Response>() {
+            @Override
+            public Response call() {
+                return getUserRecommendations(modelId, productId, noOfUsers);
+            }
+        });
+    }
+
+    /**
+     * Run a scoring task in the scoring executor and suspend the request until it completes or times out. The resource
+     * method is invoked again when the request is resumed, in which case the response of the task is returned. If the
+     * container does not support suspending requests, the task is run in the request thread.
+     *
+     * @param modelId id of the model used by the task
+     * @param task task producing the response
+     * @return the response of the task, or null while the request is suspended
+     */
+    private Response dispatch(long modelId, final Callable<Response> task) {
+        ContinuationProvider continuationProvider = (ContinuationProvider) messageContext
+                .get(ContinuationProvider.class.getName());
+        if (continuationProvider == null) {
+            return call(task);
+        }
+        final Continuation continuation = continuationProvider.getContinuation();
+        synchronized (continuation) {
+            if (continuation.isNew()) {
+                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                final int tenantId = carbonContext.getTenantId();
+                final String tenantDomain = carbonContext.getTenantDomain();
+                final String userName = carbonContext.getUsername();
+                final ScoringTask scoringTask = new ScoringTask();
+                final Timer.Context queueWaitTime = MetricManager.timer(Level.INFO,
+                        "org.wso2.carbon.ml.scoring-queue-wait-time").start();
+                MLCoreServiceValueHolder valueHolder = MLCoreServiceValueHolder.getInstance();
+                try {
+                    scoringTask.future = valueHolder.getScoringExecutor().execute(tenantId, new Runnable() {
+                        @Override
+                        public void run() {
+                            queueWaitTime.stop();
+                            Response response;
+                            try {
+                                PrivilegedCarbonContext.startTenantFlow();
+                                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext
+                                        .getThreadLocalCarbonContext();
+                                carbonContext.setTenantId(tenantId);
+                                carbonContext.setTenantDomain(tenantDomain);
+                                carbonContext.setUsername(userName);
+                                response = call(task);
+                            } finally {
+                                PrivilegedCarbonContext.endTenantFlow();
+                            }
+                            synchronized (continuation) {
+                                // the response of a timed out request is discarded
+                                if (scoringTask.timedOut) {
+                                    return;
+                                }
+                                scoringTask.response = response;
+                                if (continuation.isPending()) {
+                                    continuation.resume();
+                                }
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    queueWaitTime.stop();
+                    String msg = String.format(
+                            "Scoring queue is full. Request for model [id] %s of tenant [id] %s and [user] %s is "
+                                    + "rejected.", modelId, tenantId, userName);
+                    logger.warn(msg);
+                    return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(new MLErrorBean(msg))
+                            .build();
+                }
+                continuation.setObject(scoringTask);
+                continuation.suspend(valueHolder.getScoringTimeout());
+                return null;
+            }
+            ScoringTask scoringTask = (ScoringTask) continuation.getObject();
+            if (scoringTask != null && scoringTask.response != null) {
+                return scoringTask.response;
+            }
+            // the request timed out before the task completed, nobody is waiting for the response any more. A queued
+            // task is dropped. A running task is not interrupted, since an interruption closes any file channel it is
+            // reading, e.g. of a cached model, hence it completes and discards its response
+            if (scoringTask != null) {
+                scoringTask.timedOut = true;
+                if (scoringTask.future != null) {
+                    scoringTask.future.cancel(false);
+                }
+            }
+            MetricManager.meter(Level.INFO, "org.wso2.carbon.ml.scoring-timeouts").mark();
+            String msg = String.format("Request for model [id] %s timed out.", modelId);
+            logger.warn(msg);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(new MLErrorBean(msg)).build();
+        }
+    }
+
+    private Response call(Callable<Response> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(new MLErrorBean(e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * State of a scoring task shared between the request and the executor.
+     */
+    private static class ScoringTask {
+        private volatile Response response;
+        private volatile Future<?> future;
+        private volatile boolean timedOut;
+    }
+
 }
@@ -123,17 +123,21 @@ public class ProjectApiV10 extends MLRestAPI {
 
     /**
      * Get all projects
+     * @param limit Number of projects to retrieve, all of them if not given
+     * @param offset Number of projects to skip
+     * @param fields Comma separated fields of the projects to be returned, all of them if not given
      * @return JSON array of {@link org.wso2.carbon.ml.commons.domain.MLProject} objects
      */
     @GET
     @Produces("application/json")
-    public Response getAllProjects() {
+    public Response getAllProjects(@QueryParam("limit") int limit, @QueryParam("offset") int offset,
+            @QueryParam("fields") String fields) {
         PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
         int tenantId = carbonContext.getTenantId();
         String userName = carbonContext.getUsername();
         try {
-            List<MLProject> projects = mlProjectHandler.getAllProjects(tenantId, userName);
-            return Response.ok(projects).build();
+            List<MLProject> projects = mlProjectHandler.getAllProjects(tenantId, userName, limit, offset);
+            return Response.ok(project(projects, fields)).build();
         } catch (MLProjectHandlerException e) {
             String msg = MLUtils.getErrorMsg(String.format(
                     "Error occurred while retrieving all projects of tenant [id] %s and [user] %s .", tenantId,
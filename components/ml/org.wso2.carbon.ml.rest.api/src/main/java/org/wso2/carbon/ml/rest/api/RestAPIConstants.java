@@ -29,4 +29,8 @@ public class RestAPIConstants {
     
     // Authentication types
     public static final String BASIC_AUTHENTICATION = "Basic";
+
+    // Authentication cache properties
+    public static final String AUTH_CACHE_TTL = "ml.auth.cache.ttl";
+    public static final String AUTH_CACHE_SIZE = "ml.auth.cache.size";
 }
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.ml.rest.api.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.ml.core.utils.MLCoreServiceValueHolder;
+import org.wso2.carbon.ml.rest.api.RestAPIConstants;
+import org.wso2.carbon.user.core.UserRealm;
+
+/**
+ * Short lived cache of successful basic-auth authentications and of the resolved tenant realms, so that requests
+ * with the same credentials do not hit the user store every time.
+ * <p>
+ * Credentials are never kept in memory: entries are keyed by a SHA-256 hash of the credentials, salted with a random
+ * value generated per server start. Only successful authentications are cached. Entries are removed on logout and on
+ * a failed authentication, but not on user store changes: a changed password, a removed role or a deleted user keeps
+ * authenticating until the entry expires. Hence the TTL is kept short and is bounded by {@value #MAX_TTL_SECONDS}
+ * seconds. TTL and size are read from the ML properties {@value RestAPIConstants#AUTH_CACHE_TTL} (seconds, 0 disables
+ * the cache so that every request hits the user store) and {@value RestAPIConstants#AUTH_CACHE_SIZE}.
+ */
+public class AuthenticationCache {
+
+    private static final Log logger = LogFactory.getLog(AuthenticationCache.class);
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+    static final long MAX_TTL_SECONDS = 300;
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static volatile AuthenticationCache instance;
+
+    private final long ttlMillis;
+    private final byte[] salt;
+    private final Map<String, AuthenticatedUser> authentications;
+    private final Map<String, CachedRealm> realms;
+
+    AuthenticationCache(long ttlMillis, final int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.salt = new byte[32];
+        new SecureRandom().nextBytes(salt);
+        this.authentications = new LinkedHashMap<String, AuthenticatedUser>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4513718924367232163L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AuthenticatedUser> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.realms = new LinkedHashMap<String, CachedRealm>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2873466351826337154L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRealm> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the cache instance, configured from the ML properties on first use.
+     */
+    public static AuthenticationCache getInstance() {
+        if (instance == null) {
+            synchronized (AuthenticationCache.class) {
+                if (instance == null) {
+                    Properties mlProperties = MLCoreServiceValueHolder.getInstance().getMlProperties();
+                    long ttlSeconds = boundTtl(getProperty(mlProperties, RestAPIConstants.AUTH_CACHE_TTL,
+                            DEFAULT_TTL_SECONDS));
+                    long maxSize = getProperty(mlProperties, RestAPIConstants.AUTH_CACHE_SIZE, DEFAULT_MAX_SIZE);
+                    instance = new AuthenticationCache(ttlSeconds * 1000, (int) maxSize);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    /**
+     * Get a cached successful authentication.
+     *
+     * @param tenantDomain tenant domain of the user
+     * @param username     username as sent in the request
+     * @param password     password as sent in the request
+     * @return the cached authentication, null if not found or expired
+     */
+    public AuthenticatedUser getAuthentication(String tenantDomain, String username, String password) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = hash(tenantDomain, username, password);
+        synchronized (authentications) {
+            AuthenticatedUser user = authentications.get(key);
+            if (user != null && user.expiryTime < System.currentTimeMillis()) {
+                authentications.remove(key);
+                return null;
+            }
+            return user;
+        }
+    }
+
+    /**
+     * Cache a successful authentication.
+     */
+    public void putAuthentication(String tenantDomain, String username, String password, int tenantId,
+            String tenantAwareUsername) {
+        if (!isEnabled()) {
+            return;
+        }
+        AuthenticatedUser user = new AuthenticatedUser(tenantDomain, tenantId, tenantAwareUsername,
+                System.currentTimeMillis() + ttlMillis);
+        String key = hash(tenantDomain, username, password);
+        synchronized (authentications) {
+            authentications.put(key, user);
+        }
+    }
+
+    /**
+     * Get the cached user realm of a tenant.
+     *
+     * @param tenantDomain tenant domain
+     * @return the cached user realm, null if not found or expired
+     */
+    public UserRealm getRealm(String tenantDomain) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (realms) {
+            CachedRealm realm = realms.get(tenantDomain);
+            if (realm != null && realm.expiryTime < System.currentTimeMillis()) {
+                realms.remove(tenantDomain);
+                return null;
+            }
+            return realm == null ? null : realm.userRealm;
+        }
+    }
+
+    public void putRealm(String tenantDomain, UserRealm userRealm) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (realms) {
+            realms.put(tenantDomain, new CachedRealm(userRealm, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Remove all the cached authentications of a user.
+     *
+     * @param tenantDomain        tenant domain of the user
+     * @param tenantAwareUsername tenant aware username
+     */
+    public void invalidate(String tenantDomain, String tenantAwareUsername) {
+        synchronized (authentications) {
+            Iterator<AuthenticatedUser> iterator = authentications.values().iterator();
+            while (iterator.hasNext()) {
+                AuthenticatedUser user = iterator.next();
+                if (user.tenantDomain.equals(tenantDomain) && user.username.equals(tenantAwareUsername)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all the cached authentications and realms of a tenant.
+     *
+     * @param tenantDomain tenant domain
+     */
+    public void invalidateTenant(String tenantDomain) {
+        synchronized (authentications) {
+            Iterator<AuthenticatedUser> iterator = authentications.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().tenantDomain.equals(tenantDomain)) {
+                    iterator.remove();
+                }
+            }
+        }
+        synchronized (realms) {
+            realms.remove(tenantDomain);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (authentications) {
+            authentications.clear();
+        }
+        synchronized (realms) {
+            realms.clear();
+        }
+    }
+
+    private String hash(String tenantDomain, String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            digest.update(salt);
+            // lengths are included so that different splits of the same characters do not collide
+            update(digest, tenantDomain);
+            update(digest, username);
+            update(digest, password);
+            byte[] hash = digest.digest();
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is available in every JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        digest.update(new byte[] { (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length });
+        digest.update(bytes);
+    }
+
+    /**
+     * Bound the configured TTL, so that user store changes are not ignored for long.
+     *
+     * @param ttlSeconds configured TTL in seconds
+     * @return the TTL to use in seconds, 0 if the cache is disabled
+     */
+    static long boundTtl(long ttlSeconds) {
+        if (ttlSeconds <= 0) {
+            return 0;
+        }
+        if (ttlSeconds > MAX_TTL_SECONDS) {
+            logger.warn(String.format("Value %s of property %s exceeds the maximum of %s seconds. Using the maximum.",
+                    ttlSeconds, RestAPIConstants.AUTH_CACHE_TTL, MAX_TTL_SECONDS));
+            return MAX_TTL_SECONDS;
+        }
+        return ttlSeconds;
+    }
+
+    private static long getProperty(Properties properties, String name, long defaultValue) {
+        String value = properties == null ? null : properties.getProperty(name);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warn(String.format("Invalid value %s for property %s. Using the default value %s.", value,
+                        name, defaultValue));
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * A cached successful authentication.
+     */
+    public static class AuthenticatedUser {
+
+        private final String tenantDomain;
+        private final int tenantId;
+        private final String username;
+        private final long expiryTime;
+
+        private AuthenticatedUser(String tenantDomain, int tenantId, String username, long expiryTime) {
+            this.tenantDomain = tenantDomain;
+            this.tenantId = tenantId;
+            this.username = username;
+            this.expiryTime = expiryTime;
+        }
+
+        public String getTenantDomain() {
+            return tenantDomain;
+        }
+
+        public int getTenantId() {
+            return tenantId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+
+    private static class CachedRealm {
+
+        private final UserRealm userRealm;
+        private final long expiryTime;
+
+        private CachedRealm(UserRealm userRealm, long expiryTime) {
+            this.userRealm = userRealm;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
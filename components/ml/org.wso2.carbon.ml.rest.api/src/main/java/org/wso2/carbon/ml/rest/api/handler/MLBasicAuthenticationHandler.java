@@ -87,30 +87,54 @@ public class MLBasicAuthenticationHandler implements RequestHandler {
 	 */
 	private Response Authenticate(Object certObject, String username, String password){
 	    carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        String tenantDomain = MultitenantUtils.getTenantDomain(username);
+        AuthenticationCache authenticationCache = AuthenticationCache.getInstance();
+        if (certObject == null) {
+            // skip the user store if the same credentials were authenticated recently
+            AuthenticationCache.AuthenticatedUser cachedUser = authenticationCache.getAuthentication(tenantDomain,
+                    username, password);
+            if (cachedUser != null) {
+                carbonContext.setTenantDomain(cachedUser.getTenantDomain());
+                carbonContext.setTenantId(cachedUser.getTenantId());
+                carbonContext.setUsername(cachedUser.getUsername());
+                return null;
+            }
+        }
         RealmService realmService = (RealmService)carbonContext.getOSGiService(RealmService.class, null);
         RegistryService registryService = (RegistryService) carbonContext.getOSGiService(RegistryService.class, null);
-        String tenantDomain = MultitenantUtils.getTenantDomain(username);
+        String requestUsername = username;
         int tenantId;
         try {
             tenantId = realmService.getTenantManager().getTenantId(tenantDomain);
             UserRealm userRealm = null;
             if (certObject == null) {
-                userRealm = AnonymousSessionUtil.getRealmByTenantDomain(registryService, realmService, tenantDomain);
+                userRealm = authenticationCache.getRealm(tenantDomain);
                 if (userRealm == null) {
-                    logger.error("Invalid domain or unactivated tenant login");
-                    return Response.status(Response.Status.UNAUTHORIZED).type(MediaType.APPLICATION_JSON).entity(
-                            "Tenant not found").build();
+                    userRealm = AnonymousSessionUtil.getRealmByTenantDomain(registryService, realmService,
+                            tenantDomain);
+                    if (userRealm == null) {
+                        logger.error("Invalid domain or unactivated tenant login");
+                        return Response.status(Response.Status.UNAUTHORIZED).type(MediaType.APPLICATION_JSON)
+                                .entity("Tenant not found").build();
+                    }
+                    authenticationCache.putRealm(tenantDomain, userRealm);
                 }
             }
             username = MultitenantUtils.getTenantAwareUsername(username);
             // if authenticated
             if (certObject != null || userRealm.getUserStoreManager().authenticate(username, password)) {
+                if (certObject == null) {
+                    authenticationCache.putAuthentication(tenantDomain, requestUsername, password, tenantId,
+                            username);
+                }
                 // set the correct tenant info for downstream code.
                 carbonContext.setTenantDomain(tenantDomain);
                 carbonContext.setTenantId(tenantId);
                 carbonContext.setUsername(username);
                 return null;
             } else {
+                // drop any earlier authentication of this user, the password may have been changed
+                authenticationCache.invalidate(tenantDomain, username);
                 logger.error(String.format("Authentication failed. Please check your username/password"));
                 return Response.status(Response.Status.UNAUTHORIZED).type(MediaType.APPLICATION_JSON).entity(
                         "Authentication failed. Please check your username/password").build();
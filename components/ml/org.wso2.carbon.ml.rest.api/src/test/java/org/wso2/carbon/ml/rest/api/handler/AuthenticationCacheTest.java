@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.ml.rest.api.handler;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AuthenticationCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    @Test
+    public void testCachedAuthentication() {
+        AuthenticationCache cache = new AuthenticationCache(60000, 10);
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "secret"));
+        cache.putAuthentication(TENANT_DOMAIN, "admin", "secret", -1234, "admin");
+
+        AuthenticationCache.AuthenticatedUser user = cache.getAuthentication(TENANT_DOMAIN, "admin", "secret");
+        Assert.assertNotNull(user);
+        Assert.assertEquals(user.getTenantDomain(), TENANT_DOMAIN);
+        Assert.assertEquals(user.getTenantId(), -1234);
+        Assert.assertEquals(user.getUsername(), "admin");
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+        AuthenticationCache cache = new AuthenticationCache(50, 10);
+        cache.putAuthentication(TENANT_DOMAIN, "admin", "secret", -1234, "admin");
+        Assert.assertNotNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "secret"));
+
+        Thread.sleep(100);
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "secret"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        AuthenticationCache cache = new AuthenticationCache(60000, 2);
+        cache.putAuthentication(TENANT_DOMAIN, "user1", "secret", -1234, "user1");
+        cache.putAuthentication(TENANT_DOMAIN, "user2", "secret", -1234, "user2");
+        // user1 becomes the most recently used, hence user2 is evicted by user3
+        Assert.assertNotNull(cache.getAuthentication(TENANT_DOMAIN, "user1", "secret"));
+        cache.putAuthentication(TENANT_DOMAIN, "user3", "secret", -1234, "user3");
+
+        Assert.assertNotNull(cache.getAuthentication(TENANT_DOMAIN, "user1", "secret"));
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "user2", "secret"));
+        Assert.assertNotNull(cache.getAuthentication(TENANT_DOMAIN, "user3", "secret"));
+    }
+
+    @Test
+    public void testChangedPasswordMisses() {
+        AuthenticationCache cache = new AuthenticationCache(60000, 10);
+        cache.putAuthentication(TENANT_DOMAIN, "admin", "old-secret", -1234, "admin");
+
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "new-secret"));
+        Assert.assertNull(cache.getAuthentication("other.com", "admin", "old-secret"));
+        Assert.assertNotNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "old-secret"));
+
+        // a failed authentication with the new password drops the cached old password
+        cache.invalidate(TENANT_DOMAIN, "admin");
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "old-secret"));
+    }
+
+    @Test
+    public void testDisabled() {
+        AuthenticationCache cache = new AuthenticationCache(0, 10);
+        Assert.assertFalse(cache.isEnabled());
+        cache.putAuthentication(TENANT_DOMAIN, "admin", "secret", -1234, "admin");
+        Assert.assertNull(cache.getAuthentication(TENANT_DOMAIN, "admin", "secret"));
+    }
+
+    @Test
+    public void testBoundedTtl() {
+        Assert.assertEquals(AuthenticationCache.boundTtl(60), 60);
+        Assert.assertEquals(AuthenticationCache.boundTtl(86400), AuthenticationCache.MAX_TTL_SECONDS);
+        Assert.assertEquals(AuthenticationCache.boundTtl(0), 0);
+        Assert.assertEquals(AuthenticationCache.boundTtl(-1), 0);
+    }
+}
@@ -10,6 +10,7 @@ TARGET_TYPE VARCHAR(50),
 DATA_TYPE VARCHAR(50),
 CONSTRAINT PK_DATASET_SCHEMA PRIMARY KEY(DATASET_SCHEMA_ID),
 );
+CREATE INDEX IF NOT EXISTS IDX_DATASET_SCHEMA_TENANT_USER ON ML_DATASET_SCHEMA(TENANT_ID, USERNAME, NAME);
 
 --FEATURE_DEFAULTS
 CREATE TABLE IF NOT EXISTS ML_FEATURE_DEFAULTS(
@@ -22,6 +23,7 @@ CONSTRAINT PK_FEATURE_DEFAULTS PRIMARY KEY(FEATURE_ID),
 CONSTRAINT FK_DATASET_SCHEMA_FEATURE_DEFAULTS FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
 ON UPDATE CASCADE ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS IDX_FEATURE_DEFAULTS_SCHEMA_NAME ON ML_FEATURE_DEFAULTS(DATASET_SCHEMA_ID, FEATURE_NAME);
 
 --DATASET_VERSION
 CREATE TABLE IF NOT EXISTS ML_DATASET_VERSION(
@@ -33,10 +35,15 @@ TENANT_ID INT,
 USERNAME VARCHAR(50),
 URI VARCHAR(300),
 SAMPLE_POINTS OTHER,
+COLUMNAR_URI VARCHAR(300),
+COLUMNAR_SCHEMA CLOB,
+STATUS VARCHAR(50),
 CONSTRAINT PK_DATASET_VERSION PRIMARY KEY(DATASET_VERSION_ID),
 CONSTRAINT FK_DATASET_SCHEMA_DATASET_VERSION FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
 ON UPDATE CASCADE ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS IDX_DATASET_VERSION_SCHEMA ON ML_DATASET_VERSION(DATASET_SCHEMA_ID, DATASET_VERSION_ID);
+CREATE INDEX IF NOT EXISTS IDX_DATASET_VERSION_TENANT_USER ON ML_DATASET_VERSION(TENANT_ID, USERNAME, NAME);
 
 --FEATURE_SUMMARY
 CREATE TABLE IF NOT EXISTS ML_FEATURE_SUMMARY(
@@ -49,6 +56,7 @@ CONSTRAINT FK_FEATURE_DEFAULTS_FEATURE_SUMMARY FOREIGN KEY(FEATURE_ID) REFERENCE
 CONSTRAINT FK_DATASET_VERSION_FEATURE_SUMMARY FOREIGN KEY(DATASET_VERSION_ID) REFERENCES ML_DATASET_VERSION(DATASET_VERSION_ID)
   ON UPDATE CASCADE ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS IDX_FEATURE_SUMMARY_FEATURE_VERSION ON ML_FEATURE_SUMMARY(FEATURE_ID, DATASET_VERSION_ID);
 
 --DATA_SOURCE
 CREATE TABLE IF NOT EXISTS ML_DATA_SOURCE(
@@ -74,6 +82,7 @@ CONSTRAINT PK_PROJECT PRIMARY KEY(PROJECT_ID),
 CONSTRAINT FK_DATASET_SCHEMA_PROJECT FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
 ON UPDATE CASCADE ON DELETE SET NULL
 );
+CREATE INDEX IF NOT EXISTS IDX_PROJECT_TENANT_USER ON ML_PROJECT(TENANT_ID, USERNAME, NAME);
 
 --ANALYSIS
 CREATE TABLE IF NOT EXISTS ML_ANALYSIS(
@@ -87,6 +96,7 @@ CONSTRAINT PK_ANALYSIS PRIMARY KEY(ANALYSIS_ID),
 CONSTRAINT FK_PROJECT_ANALYSIS FOREIGN KEY(PROJECT_ID) REFERENCES ML_PROJECT(PROJECT_ID)
 ON UPDATE CASCADE ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS IDX_ANALYSIS_TENANT_USER ON ML_ANALYSIS(TENANT_ID, USERNAME, NAME);
 
 --MODEL
 CREATE TABLE IF NOT EXISTS ML_MODEL(
@@ -108,6 +118,7 @@ ON UPDATE CASCADE ON DELETE CASCADE,
 CONSTRAINT FK_DATASET_VERSION_MODEL FOREIGN KEY(DATASET_VERSION_ID) REFERENCES ML_DATASET_VERSION(DATASET_VERSION_ID)
 ON UPDATE CASCADE ON DELETE SET NULL
 );
+CREATE INDEX IF NOT EXISTS IDX_MODEL_TENANT_USER ON ML_MODEL(TENANT_ID, USERNAME, NAME);
 
 --MODEL_CONFIGURATION
 CREATE TABLE IF NOT EXISTS ML_MODEL_CONFIGURATION(
@@ -153,4 +164,5 @@ CONSTRAINT PK_HYPER_PARAMETER PRIMARY KEY(ANALYSIS_ID,NAME),
 CONSTRAINT FK_MODEL_HYPER_PARAMETER FOREIGN KEY(ANALYSIS_ID) REFERENCES ML_ANALYSIS(ANALYSIS_ID)
 ON UPDATE CASCADE ON DELETE CASCADE
 );
+CREATE INDEX IF NOT EXISTS IDX_HYPER_PARAMETER_ALGORITHM ON ML_HYPER_PARAMETER(ANALYSIS_ID, ALGORITHM_NAME);
 
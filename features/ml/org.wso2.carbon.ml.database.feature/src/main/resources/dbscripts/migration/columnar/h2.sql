@@ -0,0 +1,4 @@
+-- Adds the columnar copy of dataset versions to a database created before it was introduced.
+-- DATASET_VERSION
+ALTER TABLE ML_DATASET_VERSION ADD COLUMN COLUMNAR_URI VARCHAR(300);
+ALTER TABLE ML_DATASET_VERSION ADD COLUMN COLUMNAR_SCHEMA CLOB;
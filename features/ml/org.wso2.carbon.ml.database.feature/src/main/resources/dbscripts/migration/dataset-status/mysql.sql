@@ -0,0 +1,7 @@
+-- Adds the stored status of dataset versions to a database created before it was introduced. Run it once.
+-- Versions with sample points are set as processed, since whether their generation failed is only kept in the
+-- sample points. Datasets with such failed versions are filtered as available until those versions are deleted.
+-- DATASET_VERSION
+ALTER TABLE ML_DATASET_VERSION ADD COLUMN STATUS VARCHAR(50);
+UPDATE ML_DATASET_VERSION SET STATUS = 'Processing' WHERE SAMPLE_POINTS IS NULL;
+UPDATE ML_DATASET_VERSION SET STATUS = 'Processed' WHERE SAMPLE_POINTS IS NOT NULL;
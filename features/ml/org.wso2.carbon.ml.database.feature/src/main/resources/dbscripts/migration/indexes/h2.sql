@@ -0,0 +1,18 @@
+-- Adds the secondary indexes to a database created before they were introduced.
+-- DATASET_SCHEMA
+CREATE INDEX IF NOT EXISTS IDX_DATASET_SCHEMA_TENANT_USER ON ML_DATASET_SCHEMA(TENANT_ID, USERNAME, NAME);
+-- FEATURE_DEFAULTS
+CREATE INDEX IF NOT EXISTS IDX_FEATURE_DEFAULTS_SCHEMA_NAME ON ML_FEATURE_DEFAULTS(DATASET_SCHEMA_ID, FEATURE_NAME);
+-- DATASET_VERSION
+CREATE INDEX IF NOT EXISTS IDX_DATASET_VERSION_SCHEMA ON ML_DATASET_VERSION(DATASET_SCHEMA_ID, DATASET_VERSION_ID);
+CREATE INDEX IF NOT EXISTS IDX_DATASET_VERSION_TENANT_USER ON ML_DATASET_VERSION(TENANT_ID, USERNAME, NAME);
+-- FEATURE_SUMMARY
+CREATE INDEX IF NOT EXISTS IDX_FEATURE_SUMMARY_FEATURE_VERSION ON ML_FEATURE_SUMMARY(FEATURE_ID, DATASET_VERSION_ID);
+-- PROJECT
+CREATE INDEX IF NOT EXISTS IDX_PROJECT_TENANT_USER ON ML_PROJECT(TENANT_ID, USERNAME, NAME);
+-- ANALYSIS
+CREATE INDEX IF NOT EXISTS IDX_ANALYSIS_TENANT_USER ON ML_ANALYSIS(TENANT_ID, USERNAME, NAME);
+-- MODEL
+CREATE INDEX IF NOT EXISTS IDX_MODEL_TENANT_USER ON ML_MODEL(TENANT_ID, USERNAME, NAME);
+-- HYPER_PARAMETER
+CREATE INDEX IF NOT EXISTS IDX_HYPER_PARAMETER_ALGORITHM ON ML_HYPER_PARAMETER(ANALYSIS_ID, ALGORITHM_NAME);
@@ -8,7 +8,8 @@ COMMENTS TEXT,
 SOURCE_TYPE VARCHAR(50),
 TARGET_TYPE VARCHAR(50),
 DATA_TYPE VARCHAR(50),
-CONSTRAINT PK_DATASET_SCHEMA PRIMARY KEY(DATASET_SCHEMA_ID)
+CONSTRAINT PK_DATASET_SCHEMA PRIMARY KEY(DATASET_SCHEMA_ID),
+INDEX IDX_DATASET_SCHEMA_TENANT_USER (TENANT_ID, USERNAME, NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- FEATURE_DEFAULTS
@@ -20,7 +21,8 @@ FEATURE_NAME VARCHAR(100) NOT NULL,
 TYPE VARCHAR(20),
 CONSTRAINT PK_FEATURE_DEFAULTS PRIMARY KEY(FEATURE_ID),
 CONSTRAINT FK_DATASET_SCHEMA_FEATURE_DEFAULTS FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
-ON UPDATE CASCADE ON DELETE CASCADE
+ON UPDATE CASCADE ON DELETE CASCADE,
+INDEX IDX_FEATURE_DEFAULTS_SCHEMA_NAME (DATASET_SCHEMA_ID, FEATURE_NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- DATASET_VERSION
@@ -33,9 +35,14 @@ TENANT_ID INT,
 USERNAME VARCHAR(50),
 URI VARCHAR(300),
 SAMPLE_POINTS BLOB,
+COLUMNAR_URI VARCHAR(300),
+COLUMNAR_SCHEMA TEXT,
+STATUS VARCHAR(50),
 CONSTRAINT PK_DATASET_VERSION PRIMARY KEY(DATASET_VERSION_ID),
 CONSTRAINT FK_DATASET_SCHEMA_DATASET_VERSION FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
-ON UPDATE CASCADE ON DELETE CASCADE
+ON UPDATE CASCADE ON DELETE CASCADE,
+INDEX IDX_DATASET_VERSION_SCHEMA (DATASET_SCHEMA_ID, DATASET_VERSION_ID),
+INDEX IDX_DATASET_VERSION_TENANT_USER (TENANT_ID, USERNAME, NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- FEATURE_SUMMARY
@@ -47,7 +54,8 @@ CREATE TABLE IF NOT EXISTS ML_FEATURE_SUMMARY(
   CONSTRAINT FK_FEATURE_DEFAULTS_FEATURE_SUMMARY FOREIGN KEY(FEATURE_ID) REFERENCES ML_FEATURE_DEFAULTS(FEATURE_ID)
     ON UPDATE CASCADE ON DELETE CASCADE,
   CONSTRAINT FK_DATASET_VERSION_FEATURE_SUMMARY FOREIGN KEY(DATASET_VERSION_ID) REFERENCES ML_DATASET_VERSION(DATASET_VERSION_ID)
-    ON UPDATE CASCADE ON DELETE CASCADE
+    ON UPDATE CASCADE ON DELETE CASCADE,
+  INDEX IDX_FEATURE_SUMMARY_FEATURE_VERSION (FEATURE_ID, DATASET_VERSION_ID)
 )DEFAULT CHARACTER SET = utf8;
 
 -- DATA_SOURCE
@@ -72,7 +80,8 @@ USERNAME VARCHAR(50),
 CREATED_TIME TIMESTAMP,
 CONSTRAINT PK_PROJECT PRIMARY KEY(PROJECT_ID),
 CONSTRAINT FK_DATASET_SCHEMA_PROJECT FOREIGN KEY(DATASET_SCHEMA_ID) REFERENCES ML_DATASET_SCHEMA(DATASET_SCHEMA_ID)
-ON UPDATE CASCADE ON DELETE SET NULL
+ON UPDATE CASCADE ON DELETE SET NULL,
+INDEX IDX_PROJECT_TENANT_USER (TENANT_ID, USERNAME, NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- ANALYSIS
@@ -85,7 +94,8 @@ USERNAME VARCHAR(50),
 COMMENTS TEXT,
 CONSTRAINT PK_ANALYSIS PRIMARY KEY(ANALYSIS_ID),
 CONSTRAINT FK_PROJECT_ANALYSIS FOREIGN KEY(PROJECT_ID) REFERENCES ML_PROJECT(PROJECT_ID)
-ON UPDATE CASCADE ON DELETE CASCADE
+ON UPDATE CASCADE ON DELETE CASCADE,
+INDEX IDX_ANALYSIS_TENANT_USER (TENANT_ID, USERNAME, NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- MODEL
@@ -106,7 +116,8 @@ CONSTRAINT PK_MODEL PRIMARY KEY(MODEL_ID),
 CONSTRAINT FK_ANALYSIS_MODEL FOREIGN KEY(ANALYSIS_ID) REFERENCES ML_ANALYSIS(ANALYSIS_ID)
 ON UPDATE CASCADE ON DELETE CASCADE,
 CONSTRAINT FK_DATASET_VERSION_MODEL FOREIGN KEY(DATASET_VERSION_ID) REFERENCES ML_DATASET_VERSION(DATASET_VERSION_ID)
-ON UPDATE CASCADE ON DELETE SET NULL
+ON UPDATE CASCADE ON DELETE SET NULL,
+INDEX IDX_MODEL_TENANT_USER (TENANT_ID, USERNAME, NAME)
 )DEFAULT CHARACTER SET = utf8;
 
 -- MODEL_CONFIGURATION
@@ -151,5 +162,6 @@ USERNAME VARCHAR(50),
 LAST_MODIFIED_TIME TIMESTAMP,
 CONSTRAINT PK_HYPER_PARAMETER PRIMARY KEY(ANALYSIS_ID,NAME),
 CONSTRAINT FK_MODEL_HYPER_PARAMETER FOREIGN KEY(ANALYSIS_ID) REFERENCES ML_ANALYSIS(ANALYSIS_ID)
-ON UPDATE CASCADE ON DELETE CASCADE
+ON UPDATE CASCADE ON DELETE CASCADE,
+INDEX IDX_HYPER_PARAMETER_ALGORITHM (ANALYSIS_ID, ALGORITHM_NAME)
 )DEFAULT CHARACTER SET = utf8;